@@ -0,0 +1,80 @@
+package com.codeyantratech.financeanalyzer.controller;
+
+import com.codeyantratech.financeanalyzer.dto.TransactionResponse;
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.Category;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the transaction list response: entity-to-DTO mapping and JSON
+ * serialization with the same ObjectMapper setup Spring Boot uses, against the
+ * dictionary-encoded CBOR form served for Accept: application/cbor.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionResponseBenchmark {
+
+    @Param({"100", "1000"})
+    private int size;
+
+    private TransactionController controller;
+    private ObjectMapper objectMapper;
+    private ObjectMapper cborMapper;
+    private List<Transaction> transactions;
+    private List<TransactionResponse> responses;
+
+    @Setup
+    public void setUp() {
+        controller = new TransactionController();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+
+        Category category = new Category("Food & Groceries", "Essential food", "#4CAF50", null);
+        category.setId(7L);
+        transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Transaction transaction = Transaction.builder()
+                    .amount(BigDecimal.valueOf(1000 + i, 2))
+                    .transactionDate(LocalDate.of(2024, 1, 1).plusDays(i % 365))
+                    .transactionType(i % 5 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE)
+                    .description("Merchant " + (i % 50) + " purchase")
+                    .category(i % 3 == 0 ? null : category)
+                    .build();
+            transaction.setId((long) i);
+            transactions.add(transaction);
+        }
+        responses = map();
+    }
+
+    @Benchmark
+    public List<TransactionResponse> map() {
+        List<TransactionResponse> mapped = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            mapped.add(controller.toResponse(transaction));
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] serializeCompactCbor() throws Exception {
+        return cborMapper.writeValueAsBytes(controller.toCompactResponse(transactions));
+    }
+}
@@ -0,0 +1,40 @@
+package com.codeyantratech.financeanalyzer.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for JWT generation and per-request verification in JwtUtils.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private JwtUtils jwtUtils;
+    private UserPrincipal principal;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86_400_000);
+        principal = new UserPrincipal(1L, "bench", "bench@example.com", "secret", "Bench", "User", false);
+        token = jwtUtils.generateToken(principal);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateToken(principal);
+    }
+
+    @Benchmark
+    public String verify() {
+        return jwtUtils.getUsernameFromValidToken(token);
+    }
+}
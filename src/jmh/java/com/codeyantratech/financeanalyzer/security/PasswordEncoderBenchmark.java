@@ -0,0 +1,39 @@
+package com.codeyantratech.financeanalyzer.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for BCrypt with the application's default strength, which dominates
+ * signup and login latency.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordEncoderBenchmark {
+
+    private PasswordEncoder passwordEncoder;
+    private String encoded;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder();
+        encoded = passwordEncoder.encode("correct horse battery staple");
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode("correct horse battery staple");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches("correct horse battery staple", encoded);
+    }
+}
@@ -0,0 +1,76 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.model.ImportProfile;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for CSV import parsing with a compiled default-format decoder:
+ * a single row and whole files of several sizes.
+ * Persistence is not included (the import writes to a no-op writer); see
+ * csv.import.duration{phase=persist} for that.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CsvParsingBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private CsvProcessingService csvProcessingService;
+    private ImportContext context;
+    private String[] record;
+    private RowDecoder decoder;
+    private byte[] file;
+
+    @Setup
+    public void setUp() {
+        csvProcessingService = new CsvProcessingService();
+        User user = new User("bench", "bench@example.com", "secret");
+        context = new ImportContext(user, null, 1000, 0, transactions -> { });
+        ImportProfile profile = new ImportProfile();
+        profile.setName("bench");
+        profile.setDateColumn(0);
+        profile.setAmountColumn(1);
+        profile.setTypeColumn(2);
+        profile.setDescriptionColumn(3);
+        decoder = RowDecoder.compile(profile);
+        record = new String[]{"2024-03-15", "42.50", "expense", "Coffee shop downtown"};
+
+        StringBuilder csv = new StringBuilder("date,amount,type,description\n");
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            csv.append(date.plusDays(i % 1500)).append(',')
+                    .append(i % 500).append('.').append(i % 100 < 10 ? "0" : "").append(i % 100).append(',')
+                    .append(i % 7 == 0 ? "INCOME" : "EXPENSE").append(',')
+                    .append("Merchant ").append(i % 250).append(" purchase\n");
+        }
+        file = csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Transaction parseRow() {
+        return decoder.decode(record, 2, context);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long parseFile() throws Exception {
+        long before = context.getAcceptedCount();
+        csvProcessingService.parseRecords(
+                new InputStreamReader(new ByteArrayInputStream(file), StandardCharsets.UTF_8), decoder, context);
+        return context.getAcceptedCount() - before;
+    }
+}
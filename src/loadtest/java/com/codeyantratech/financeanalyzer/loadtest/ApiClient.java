@@ -0,0 +1,111 @@
+package com.codeyantratech.financeanalyzer.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * Thin client for the REST endpoints exercised by the load test.
+ * Every call returns the HTTP status and, where the harness needs it, the parsed body.
+ */
+public class ApiClient {
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public ApiClient(String baseUrl, Executor executor) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public Result signup(String username) throws Exception {
+        String body = "{\"username\":\"" + username + "\",\"password\":\"" + DataSeeder.PASSWORD +
+                "\",\"email\":\"" + username + "@example.com\",\"firstName\":\"Load\",\"lastName\":\"Signup\"}";
+        return send(json("/api/auth/signup", null).POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    public Result login(String username) throws Exception {
+        String body = "{\"username\":\"" + username + "\",\"password\":\"" + DataSeeder.PASSWORD + "\"}";
+        return send(json("/api/auth/login", null).POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    public Result list(String token) throws Exception {
+        return send(json("/api/transactions", token).GET());
+    }
+
+    public Result search(String token, String query) throws Exception {
+        return send(json("/api/transactions/search?q=" + query, token).GET());
+    }
+
+    public Result get(String token, long id) throws Exception {
+        return send(json("/api/transaction/" + id, token).GET());
+    }
+
+    public Result create(String token, String body) throws Exception {
+        return send(json("/api/transaction", token).POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    public Result update(String token, long id, String body) throws Exception {
+        return send(json("/api/transaction/" + id, token).PUT(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    public Result delete(String token, long id) throws Exception {
+        return send(json("/api/transaction/" + id, token).DELETE());
+    }
+
+    public Result upload(String token, String filename, byte[] content) throws Exception {
+        String boundary = "loadtest-" + UUID.randomUUID();
+        byte[] head = ("--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"" + filename +
+                "\"\r\nContent-Type: text/csv\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] body = new byte[head.length + content.length + tail.length];
+        System.arraycopy(head, 0, body, 0, head.length);
+        System.arraycopy(content, 0, body, head.length, content.length);
+        System.arraycopy(tail, 0, body, head.length + content.length, tail.length);
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/files/upload"))
+                .timeout(Duration.ofMinutes(2))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        return send(request);
+    }
+
+    private HttpRequest.Builder json(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private Result send(HttpRequest.Builder request) throws Exception {
+        HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        return new Result(response.statusCode(), response.body());
+    }
+
+    public JsonNode parse(Result result) throws Exception {
+        return objectMapper.readTree(result.body());
+    }
+
+    public record Result(int status, byte[] body) {
+        public boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.codeyantratech.financeanalyzer.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.LongFunction;
+
+/**
+ * Seeds synthetic users and transactions with COPY, streaming generated rows so that
+ * 100M-row data sets never have to fit in memory.
+ */
+@Slf4j
+public class DataSeeder {
+
+    public static final String USERNAME_PREFIX = "load_user_";
+    public static final String PASSWORD = "load-test-password";
+
+    private static final String[] MERCHANTS = {
+            "Amazon Marketplace", "Whole Foods Market", "Shell Station", "Netflix", "Spotify",
+            "Uber Trip", "Starbucks", "Target", "Walgreens", "City Utilities", "Landlord Rent",
+            "Payroll Deposit", "Apple Store", "Delta Air Lines", "Local Bakery"
+    };
+
+    private final LoadTestConfig config;
+    private final String jdbcUrl;
+
+    public DataSeeder(LoadTestConfig config, String jdbcUrl) {
+        this.config = config;
+        this.jdbcUrl = jdbcUrl;
+    }
+
+    public void seed() throws Exception {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, config.getJdbcUser(), config.getJdbcPassword())) {
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            String now = LocalDateTime.now().toString();
+
+            long existing = count(connection, "SELECT count(*) FROM users WHERE username LIKE '" + USERNAME_PREFIX + "%'");
+            if (existing < config.getUsers()) {
+                long start = System.nanoTime();
+                String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+                copy.copyIn("COPY users (username, email, password, first_name, last_name, created_at, updated_at, " +
+                                "auto_categorization_enabled, notification_email_enabled, notification_sms_enabled) " +
+                                "FROM STDIN WITH (FORMAT csv)",
+                        new RowReader(config.getUsers() - existing, i -> {
+                            long n = existing + i;
+                            return USERNAME_PREFIX + n + "," + USERNAME_PREFIX + n + "@example.com," + hash +
+                                    ",Load,User" + n + "," + now + "," + now + ",false,true,false\n";
+                        }));
+                log.info("Seeded {} users in {} ms", config.getUsers() - existing, (System.nanoTime() - start) / 1_000_000);
+            }
+
+            long[] userIds = userIds(connection);
+            long existingTransactions = count(connection, "SELECT count(*) FROM transactions");
+            long missing = config.getTransactions() - existingTransactions;
+            if (missing > 0) {
+                long start = System.nanoTime();
+                SplittableRandom random = new SplittableRandom(42);
+                LocalDate firstDay = LocalDate.now().minusYears(10);
+                copy.copyIn("COPY transactions (user_id, amount, description, transaction_date, transaction_type, " +
+                                "source, created_at, updated_at) FROM STDIN WITH (FORMAT csv)",
+                        new RowReader(missing, i -> {
+                            boolean income = random.nextInt(10) == 0;
+                            long cents = income ? 100_000 + random.nextInt(400_000) : 100 + random.nextInt(25_000);
+                            return userIds[(int) (i % userIds.length)] + "," + (cents / 100) + (cents % 100 < 10 ? ".0" : ".") + (cents % 100) + "," +
+                                    MERCHANTS[random.nextInt(MERCHANTS.length)] + "," +
+                                    firstDay.plusDays(random.nextInt(3650)) + "," +
+                                    (income ? "INCOME" : "EXPENSE") + ",CSV_UPLOAD," + now + "," + now + "\n";
+                        }));
+                log.info("Seeded {} transactions in {} ms", missing, (System.nanoTime() - start) / 1_000_000);
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE users");
+                statement.execute("ANALYZE transactions");
+            }
+        }
+    }
+
+    public static long count(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private long[] userIds(Connection connection) throws SQLException {
+        long[] ids = new long[config.getUsers()];
+        int n = 0;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id FROM users WHERE username LIKE '" + USERNAME_PREFIX +
+                     "%' ORDER BY id LIMIT " + config.getUsers())) {
+            while (rs.next()) {
+                ids[n++] = rs.getLong(1);
+            }
+        }
+        return Arrays.copyOf(ids, n);
+    }
+
+    /**
+     * Reader that produces COPY input one generated line at a time.
+     */
+    private static class RowReader extends Reader {
+
+        private final long rows;
+        private final LongFunction<String> generator;
+        private long next;
+        private String line = "";
+        private int position;
+
+        RowReader(long rows, LongFunction<String> generator) {
+            this.rows = rows;
+            this.generator = generator;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            int written = 0;
+            while (written < length) {
+                if (position == line.length()) {
+                    if (next == rows) {
+                        break;
+                    }
+                    line = generator.apply(next++);
+                    position = 0;
+                }
+                int n = Math.min(length - written, line.length() - position);
+                line.getChars(position, position + n, buffer, offset + written);
+                position += n;
+                written += n;
+            }
+            return written == 0 ? -1 : written;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.codeyantratech.financeanalyzer.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-endpoint latency samples. Each worker records into its own instance so the hot
+ * path never contends; instances are merged once the run is over.
+ */
+public class LatencyReport {
+
+    private final Map<String, Samples> samples = new TreeMap<>();
+
+    public void record(String endpoint, long nanos, boolean ok) {
+        Samples s = samples.computeIfAbsent(endpoint, k -> new Samples());
+        s.add(nanos);
+        if (!ok) {
+            s.errors++;
+        }
+    }
+
+    public void merge(LatencyReport other) {
+        other.samples.forEach((endpoint, s) -> {
+            Samples target = samples.computeIfAbsent(endpoint, k -> new Samples());
+            for (int i = 0; i < s.size; i++) {
+                target.add(s.values[i]);
+            }
+            target.errors += s.errors;
+        });
+    }
+
+    public void print(double seconds) {
+        System.out.printf("%n%-10s %9s %7s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, Object> row : rows(seconds).entrySet()) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> r = (Map<String, Object>) row.getValue();
+            System.out.printf("%-10s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n", row.getKey(),
+                    r.get("requests"), r.get("errors"), r.get("throughput"),
+                    r.get("p50Ms"), r.get("p95Ms"), r.get("p99Ms"), r.get("maxMs"));
+        }
+    }
+
+    public void write(String path, LoadTestConfig config, double seconds) throws Exception {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("model", config.getModel());
+        document.put("concurrency", config.getConcurrency());
+        document.put("rate", config.getRate());
+        document.put("clientVirtualThreads", config.isClientVirtualThreads());
+        document.put("serverVirtualThreads", config.isServerVirtualThreads());
+        document.put("users", config.getUsers());
+        document.put("transactions", config.getTransactions());
+        document.put("durationSeconds", seconds);
+        document.put("endpoints", rows(seconds));
+        File file = new File(path);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, document);
+    }
+
+    private Map<String, Object> rows(double seconds) {
+        Map<String, Object> rows = new LinkedHashMap<>();
+        samples.forEach((endpoint, s) -> {
+            long[] sorted = Arrays.copyOf(s.values, s.size);
+            Arrays.sort(sorted);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("requests", (long) s.size);
+            row.put("errors", s.errors);
+            row.put("throughput", s.size / seconds);
+            for (Object[] p : List.of(new Object[]{"p50Ms", 0.50}, new Object[]{"p95Ms", 0.95}, new Object[]{"p99Ms", 0.99})) {
+                row.put((String) p[0], percentile(sorted, (Double) p[1]));
+            }
+            row.put("maxMs", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+            rows.put(endpoint, row);
+        });
+        return rows;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static class Samples {
+        long[] values = new long[1024];
+        int size;
+        long errors;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.codeyantratech.financeanalyzer.loadtest;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings for a load-test run, parsed from --key=value arguments.
+ * Every field has a default so the harness runs without arguments.
+ */
+@Data
+public class LoadTestConfig {
+
+    // Data set
+    private int users = 10_000;
+    private long transactions = 1_000_000;
+    private boolean seed = true;
+
+    // Database: embedded PostgreSQL unless a JDBC URL for a local instance is given
+    private String jdbcUrl;
+    private String jdbcUser = "postgres";
+    private String jdbcPassword = "postgres";
+
+    // Workload
+    private String model = "closed";          // closed: fixed workers; open: fixed arrival rate
+    private int concurrency = 64;             // closed-model workers / open-model in-flight cap
+    private int rate = 500;                   // open-model requests per second
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(60);
+    private boolean clientVirtualThreads = true;
+    private boolean serverVirtualThreads = false;
+    private int uploadRows = 500;
+    private Map<String, Integer> mix = parseMix(
+            "list:35,get:15,create:15,update:10,delete:5,search:5,login:10,upload:4,signup:1");
+
+    private String report = "target/loadtest-report.json";
+
+    public static LoadTestConfig fromArgs(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (key) {
+                case "users" -> config.users = Integer.parseInt(value);
+                case "transactions" -> config.transactions = Long.parseLong(value);
+                case "seed" -> config.seed = Boolean.parseBoolean(value);
+                case "jdbc-url" -> config.jdbcUrl = value;
+                case "jdbc-user" -> config.jdbcUser = value;
+                case "jdbc-password" -> config.jdbcPassword = value;
+                case "model" -> config.model = value;
+                case "concurrency" -> config.concurrency = Integer.parseInt(value);
+                case "rate" -> config.rate = Integer.parseInt(value);
+                case "warmup" -> config.warmup = Duration.ofSeconds(Long.parseLong(value));
+                case "duration" -> config.duration = Duration.ofSeconds(Long.parseLong(value));
+                case "client-virtual-threads" -> config.clientVirtualThreads = Boolean.parseBoolean(value);
+                case "server-virtual-threads" -> config.serverVirtualThreads = Boolean.parseBoolean(value);
+                case "upload-rows" -> config.uploadRows = Integer.parseInt(value);
+                case "mix" -> config.mix = parseMix(value);
+                case "report" -> config.report = value;
+                default -> throw new IllegalArgumentException("Unknown option: --" + key);
+            }
+        }
+        return config;
+    }
+
+    // Parses "endpoint:weight,endpoint:weight" into an ordered map
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            mix.put(parts[0], Integer.parseInt(parts[1]));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,273 @@
+package com.codeyantratech.financeanalyzer.loadtest;
+
+import com.codeyantratech.financeanalyzer.FinanceAnalyzerApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end load test: boots the application against embedded (or local) PostgreSQL,
+ * seeds synthetic data and drives the real REST endpoints over HTTP.
+ *
+ * Run with: mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--users=10000 --transactions=100000000"
+ * Compare threading modes by running with --server-virtual-threads=false and =true.
+ */
+@Slf4j
+public class LoadTestRunner {
+
+    private static final String[] SEARCH_TERMS = {"amazon", "netflix", "uber", "starb", "rent", "payroll"};
+
+    private final LoadTestConfig config;
+    private final ApiClient client;
+    private final ExecutorService executor;
+
+    private LoadTestRunner(LoadTestConfig config, String baseUrl) {
+        this.config = config;
+        this.executor = config.isClientVirtualThreads()
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(config.getConcurrency() + 1);
+        this.client = new ApiClient(baseUrl, executor);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromArgs(args);
+
+        EmbeddedPostgres embedded = null;
+        String jdbcUrl = config.getJdbcUrl();
+        if (jdbcUrl == null) {
+            embedded = EmbeddedPostgres.builder().start();
+            jdbcUrl = embedded.getJdbcUrl("postgres", "postgres");
+            log.info("Started embedded PostgreSQL at {}", jdbcUrl);
+        }
+
+        // DevTools would restart LoadTestRunner.main with the application's arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext application = SpringApplication.run(FinanceAnalyzerApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + config.getJdbcUser(),
+                "--spring.datasource.password=" + config.getJdbcPassword(),
+                "--spring.jpa.show-sql=false",
+                "--spring.threads.virtual.enabled=" + config.isServerVirtualThreads(),
+                "--logging.level.com.codeyantratech=WARN");
+        try {
+            int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+            if (config.isSeed()) {
+                new DataSeeder(config, jdbcUrl).seed();
+            }
+            new LoadTestRunner(config, "http://localhost:" + port).run();
+        } finally {
+            application.close();
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+
+    private void run() throws Exception {
+        List<Session> sessions = openSessions();
+        long warmupEnd = System.nanoTime() + config.getWarmup().toNanos();
+        long end = warmupEnd + config.getDuration().toNanos();
+
+        log.info("Running {} model, concurrency {}, {} client threads, server virtual threads: {}",
+                config.getModel(), config.getConcurrency(),
+                config.isClientVirtualThreads() ? "virtual" : "platform", config.isServerVirtualThreads());
+
+        if ("open".equals(config.getModel())) {
+            runOpen(sessions, warmupEnd, end);
+        } else {
+            runClosed(sessions, warmupEnd, end);
+        }
+
+        LatencyReport report = new LatencyReport();
+        sessions.forEach(session -> report.merge(session.report));
+        double seconds = config.getDuration().toNanos() / 1e9;
+        report.print(seconds);
+        report.write(config.getReport(), config, seconds);
+        log.info("Report written to {}", config.getReport());
+        executor.shutdownNow();
+    }
+
+    // Closed model: each worker issues its next request as soon as the previous one completes
+    private void runClosed(List<Session> sessions, long warmupEnd, long end) throws InterruptedException {
+        for (Session session : sessions) {
+            executor.submit(() -> {
+                while (System.nanoTime() < end) {
+                    long start = System.nanoTime();
+                    execute(session, start, start >= warmupEnd);
+                }
+            });
+        }
+        awaitEnd(end);
+    }
+
+    // Open model: requests arrive at a fixed rate regardless of how fast earlier ones complete.
+    // Latency is measured from the intended start time, so queueing delay is not hidden.
+    private void runOpen(List<Session> sessions, long warmupEnd, long end) throws InterruptedException {
+        BlockingQueue<Session> idle = new ArrayBlockingQueue<>(sessions.size(), false, sessions);
+        AtomicLong dropped = new AtomicLong();
+        long interval = 1_000_000_000L / config.getRate();
+        long next = System.nanoTime();
+        while (next < end) {
+            long scheduled = next;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            Session session = idle.poll();
+            if (session == null) {
+                // Every session is busy: the server cannot keep up with the arrival rate
+                if (scheduled >= warmupEnd) {
+                    dropped.incrementAndGet();
+                }
+            } else {
+                executor.submit(() -> {
+                    try {
+                        execute(session, scheduled, scheduled >= warmupEnd);
+                    } finally {
+                        idle.add(session);
+                    }
+                });
+            }
+            next += interval;
+        }
+        awaitEnd(end);
+        if (dropped.get() > 0) {
+            log.warn("{} arrivals dropped because all {} sessions were busy", dropped.get(), sessions.size());
+        }
+    }
+
+    private void awaitEnd(long end) throws InterruptedException {
+        long remaining = end - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+        // Give in-flight requests a moment to finish
+        TimeUnit.SECONDS.sleep(2);
+    }
+
+    private List<Session> openSessions() throws Exception {
+        List<Session> sessions = new ArrayList<>(config.getConcurrency());
+        for (int i = 0; i < config.getConcurrency(); i++) {
+            String username = DataSeeder.USERNAME_PREFIX + (i % config.getUsers());
+            ApiClient.Result login = client.login(username);
+            if (!login.ok()) {
+                throw new IllegalStateException("Login failed for " + username + ": HTTP " + login.status());
+            }
+            Session session = new Session(username, client.parse(login).get("token").asText(), i);
+            for (JsonNode transaction : client.parse(client.list(session.token))) {
+                if (session.knownIds.size() == 50) {
+                    break;
+                }
+                session.knownIds.add(transaction.get("id").asLong());
+            }
+            sessions.add(session);
+        }
+        return sessions;
+    }
+
+    private void execute(Session session, long start, boolean measured) {
+        String endpoint = session.pick(config.getMix());
+        boolean ok;
+        try {
+            ok = switch (endpoint) {
+                case "list" -> client.list(session.token).ok();
+                case "search" -> client.search(session.token, SEARCH_TERMS[session.random.nextInt(SEARCH_TERMS.length)]).ok();
+                case "get" -> session.knownIds.isEmpty() || client.get(session.token,
+                        session.knownIds.get(session.random.nextInt(session.knownIds.size()))).ok();
+                case "create" -> create(session);
+                case "update" -> session.created.isEmpty() ? create(session)
+                        : client.update(session.token, session.created.peekLast(), session.transactionJson()).ok();
+                case "delete" -> session.created.isEmpty() ? create(session)
+                        : client.delete(session.token, session.created.pollFirst()).ok();
+                case "login" -> client.login(session.username).ok();
+                case "signup" -> client.signup("ls_" + UUID.randomUUID().toString().substring(0, 12)).ok();
+                case "upload" -> client.upload(session.token, "load.csv", session.uploadPayload()).ok();
+                default -> throw new IllegalArgumentException("Unknown endpoint in mix: " + endpoint);
+            };
+        } catch (Exception e) {
+            ok = false;
+        }
+        if (measured) {
+            session.report.record(endpoint, System.nanoTime() - start, ok);
+        }
+    }
+
+    private boolean create(Session session) throws Exception {
+        ApiClient.Result result = client.create(session.token, session.transactionJson());
+        if (result.ok()) {
+            session.created.addLast(client.parse(result).get("data").get("id").asLong());
+        }
+        return result.ok();
+    }
+
+    /**
+     * State of one simulated client: its login, ids it can touch and its own latency samples.
+     * A session is only ever used by one thread at a time.
+     */
+    private class Session {
+        final String username;
+        final String token;
+        final SplittableRandom random;
+        final List<Long> knownIds = new ArrayList<>();
+        final Deque<Long> created = new ArrayDeque<>();
+        final LatencyReport report = new LatencyReport();
+        private byte[] upload;
+
+        Session(String username, String token, long seed) {
+            this.username = username;
+            this.token = token;
+            this.random = new SplittableRandom(seed);
+        }
+
+        String pick(Map<String, Integer> mix) {
+            int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+            int roll = random.nextInt(total);
+            for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+                roll -= entry.getValue();
+                if (roll < 0) {
+                    return entry.getKey();
+                }
+            }
+            throw new IllegalStateException("Empty mix");
+        }
+
+        String transactionJson() {
+            long cents = 100 + random.nextInt(20_000);
+            return "{\"amount\":" + (cents / 100) + "." + (cents % 100 < 10 ? "0" : "") + (cents % 100) +
+                    ",\"transactionDate\":\"" + LocalDate.now().minusDays(random.nextInt(90)) +
+                    "\",\"transactionType\":\"EXPENSE\",\"description\":\"Load test purchase\"}";
+        }
+
+        byte[] uploadPayload() {
+            if (upload == null) {
+                StringBuilder csv = new StringBuilder("date,amount,type,description\n");
+                for (int i = 0; i < config.getUploadRows(); i++) {
+                    csv.append(LocalDate.now().minusDays(i % 365)).append(',')
+                            .append(1 + random.nextInt(500)).append(".00,EXPENSE,Uploaded purchase ").append(i).append('\n');
+                }
+                upload = csv.toString().getBytes(StandardCharsets.UTF_8);
+            }
+            return upload;
+        }
+    }
+}
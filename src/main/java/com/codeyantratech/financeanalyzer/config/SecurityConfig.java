@@ -3,6 +3,8 @@ package com.codeyantratech.financeanalyzer.config;
 import com.codeyantratech.financeanalyzer.security.JwtAuthenticationFilter;
 import com.codeyantratech.financeanalyzer.security.JwtUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -17,6 +19,8 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -37,6 +41,9 @@ public class SecurityConfig {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
         return new JwtAuthenticationFilter();
@@ -74,9 +81,10 @@ public class SecurityConfig {
                                 "/swagger-resources",
                                 "/v3/api-docs/**",
                                 "/v3/api-docs.yaml",
-                                "/webjars/**",
-                                "/actuator/health"
+                                "/webjars/**"
                         ).permitAll()
+                        .requestMatchers(internalActuator()).permitAll()
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider())
@@ -85,6 +93,14 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // Health and metrics scrapes on the management port, which is not published outside the
+    // internal network; every other Actuator request needs an authenticated user
+    private RequestMatcher internalActuator() {
+        return new AndRequestMatcher(
+                EndpointRequest.to("health", "prometheus"),
+                request -> managementPort > 0 && request.getLocalPort() == managementPort);
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -0,0 +1,55 @@
+package com.codeyantratech.financeanalyzer.config;
+
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Extra wiring for virtual-thread mode (spring.threads.virtual.enabled=true).
+ * Spring Boot already moves Tomcat request handling, the application task executor and
+ * the scheduler onto virtual threads; this adds pinning diagnostics on top.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final int LOGGED_FRAMES = 8;
+
+    /**
+     * Streams JFR pinning events and logs where a virtual thread blocked while pinned to its
+     * carrier (synchronized blocks or native frames around blocking I/O). Each pinned thread
+     * holds a carrier, so pinning in the JDBC path caps throughput at the carrier count.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "app.virtual-threads.pinning-diagnostics", havingValue = "true")
+    public RecordingStream virtualThreadPinningRecording(
+            @Value("${app.virtual-threads.pinning-threshold-ms:20}") long thresholdMs) {
+        RecordingStream recording = new RecordingStream();
+        recording.enable("jdk.VirtualThreadPinned")
+                .withThreshold(Duration.ofMillis(thresholdMs))
+                .withStackTrace();
+        recording.onEvent("jdk.VirtualThreadPinned", event -> {
+            List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+            String stack = frames.stream()
+                    .limit(LOGGED_FRAMES)
+                    .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                            + ":" + frame.getLineNumber())
+                    .collect(Collectors.joining(" <- "));
+            log.warn("Virtual thread pinned for {} ms: {}", event.getDuration().toMillis(), stack);
+        });
+        recording.startAsync();
+        log.info("Virtual-thread pinning diagnostics enabled (threshold {} ms)", thresholdMs);
+        return recording;
+    }
+}
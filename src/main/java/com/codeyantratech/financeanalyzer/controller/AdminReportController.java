@@ -0,0 +1,65 @@
+package com.codeyantratech.financeanalyzer.controller;
+
+import com.codeyantratech.financeanalyzer.dto.AdminReportResponse;
+import com.codeyantratech.financeanalyzer.dto.ApiResponse;
+import com.codeyantratech.financeanalyzer.service.AdminReportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+
+/**
+ * REST Controller for cross-user operations reports; requires ROLE_ADMIN.
+ * Months are given as yyyy-MM and default to the current year up to the current month.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/reports")
+public class AdminReportController {
+
+    private static final int MAX_MONTHS = 60;
+
+    @Autowired
+    private AdminReportService adminReportService;
+
+    /**
+     * Get transaction volume and active users per month, and import outcomes, over all users
+     */
+    @GetMapping
+    public ResponseEntity<?> getReport(
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to) {
+        YearMonth end = to != null ? to : YearMonth.now();
+        YearMonth start = from != null ? from : end.withMonth(1);
+        if (start.isAfter(end) || start.plusMonths(MAX_MONTHS).isBefore(end.plusMonths(1))) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("The range must cover 1 to " + MAX_MONTHS + " months"));
+        }
+        try {
+            return ResponseEntity.ok(toResponse(adminReportService.getReport(start, end)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    private AdminReportResponse toResponse(AdminReportService.AdminReport report) {
+        AdminReportService.ImportStats imports = report.imports();
+        return AdminReportResponse.builder()
+                .from(report.from())
+                .to(report.to())
+                .generatedAt(report.generatedAt())
+                .registeredUsers(report.registeredUsers())
+                .months(report.months().stream()
+                        .map(m -> new AdminReportResponse.Month(m.month(), m.transactions(), m.activeUsers(),
+                                m.volumes().stream()
+                                        .map(v -> new AdminReportResponse.Volume(v.currency(), v.expenses(), v.incomes()))
+                                        .toList()))
+                        .toList())
+                .imports(new AdminReportResponse.Imports(imports.uploads(), imports.byStatus(), imports.successRate(),
+                        imports.recordsImported(), imports.recordsRejected()))
+                .build();
+    }
+}
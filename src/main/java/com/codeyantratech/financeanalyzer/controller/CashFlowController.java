@@ -0,0 +1,38 @@
+package com.codeyantratech.financeanalyzer.controller;
+
+import com.codeyantratech.financeanalyzer.dto.CashFlowForecastResponse;
+import com.codeyantratech.financeanalyzer.security.UserPrincipal;
+import com.codeyantratech.financeanalyzer.service.CashFlowService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for cash-flow forecasts.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/cashflow")
+public class CashFlowController {
+
+    @Autowired
+    private CashFlowService cashFlowService;
+
+    /**
+     * Get the projected daily balance for the coming days
+     */
+    @GetMapping("/forecast")
+    public ResponseEntity<CashFlowForecastResponse> getForecast(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        CashFlowService.Forecast forecast = cashFlowService.getForecast(userPrincipal.getUsername());
+        return ResponseEntity.ok(CashFlowForecastResponse.builder()
+                .currency(forecast.currency())
+                .asOf(forecast.asOf())
+                .startingBalance(forecast.startingBalance())
+                .days(forecast.days().stream()
+                        .map(day -> new CashFlowForecastResponse.Day(day.date(), day.netFlow(), day.balance()))
+                        .toList())
+                .build());
+    }
+}
@@ -3,15 +3,19 @@ package com.codeyantratech.financeanalyzer.controller;
 import com.codeyantratech.financeanalyzer.dto.ApiResponse;
 import com.codeyantratech.financeanalyzer.dto.CategoryRequest;
 import com.codeyantratech.financeanalyzer.dto.CategoryResponse;
+import com.codeyantratech.financeanalyzer.enums.VersionedResource;
 import com.codeyantratech.financeanalyzer.model.Category;
 import com.codeyantratech.financeanalyzer.security.UserPrincipal;
 import com.codeyantratech.financeanalyzer.service.CategoryService;
+import com.codeyantratech.financeanalyzer.service.ResourceVersionService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -28,16 +32,24 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
     /**
      * Lists all categories for the current user.
+     * Answers If-None-Match with 304 while no category of the user changed.
      */
     @GetMapping("/categories")
-    public ResponseEntity<List<CategoryResponse>> getAllCategories(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+    public ResponseEntity<List<CategoryResponse>> getAllCategories(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                                                   WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersionService.etag(userPrincipal.getId(), VersionedResource.CATEGORIES))) {
+            return null;
+        }
         List<Category> categories = categoryService.getUserCategories(userPrincipal.getUsername());
         List<CategoryResponse> response = categories.stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
     }
 
     /**
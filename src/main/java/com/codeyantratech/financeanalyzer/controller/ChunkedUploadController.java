@@ -0,0 +1,104 @@
+package com.codeyantratech.financeanalyzer.controller;
+
+import com.codeyantratech.financeanalyzer.dto.ApiResponse;
+import com.codeyantratech.financeanalyzer.dto.ChunkedUploadRequest;
+import com.codeyantratech.financeanalyzer.dto.ChunkedUploadResponse;
+import com.codeyantratech.financeanalyzer.security.UserPrincipal;
+import com.codeyantratech.financeanalyzer.service.ChunkedUpload;
+import com.codeyantratech.financeanalyzer.service.ChunkedUploadService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+/**
+ * REST Controller for resumable chunked uploads of large statement files.
+ * Protocol: POST to initiate, PUT each chunk as the raw request body, POST complete.
+ * After a dropped connection, GET the upload to see which chunks are missing and resend only those.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/files/uploads")
+public class ChunkedUploadController {
+
+    private static final int REPORTED_MISSING_CHUNKS = 100;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    /**
+     * Initiates a chunked upload. The import starts right away and consumes chunks as they arrive.
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse> initiate(
+            @Valid @RequestBody ChunkedUploadRequest request,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        ChunkedUpload upload = chunkedUploadService.initiate(userPrincipal.getUsername(), request.getFilename(),
+                request.getTotalSize(), request.getChunkSize(), request.getProfileId());
+        return ResponseEntity.ok(ApiResponse.success("Upload initiated", toResponse(upload)));
+    }
+
+    /**
+     * Uploads one chunk. Chunks can be sent in any order and in parallel; resending a chunk
+     * that already arrived is a no-op.
+     *
+     * @param uploadId The upload returned by initiate
+     * @param index    Zero-based chunk number
+     * @param body     Raw chunk bytes; exactly chunkSize bytes except for the last chunk
+     */
+    @PutMapping("/{uploadId}/chunks/{index}")
+    public ResponseEntity<ChunkedUploadResponse> uploadChunk(
+            @PathVariable String uploadId,
+            @PathVariable int index,
+            InputStream body,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        ChunkedUpload upload = chunkedUploadService.writeChunk(uploadId, index, body, userPrincipal.getUsername());
+        return ResponseEntity.ok(toResponse(upload));
+    }
+
+    /**
+     * Completes an upload after all chunks were sent and waits briefly for the import to finish.
+     * If the returned status is still COMPLETING, poll the upload status.
+     */
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<ChunkedUploadResponse> complete(
+            @PathVariable String uploadId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        ChunkedUpload upload = chunkedUploadService.complete(uploadId, userPrincipal.getUsername());
+        return ResponseEntity.ok(toResponse(upload));
+    }
+
+    /**
+     * Returns the progress of an upload: received and missing chunks and import counts so far.
+     */
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<ChunkedUploadResponse> getStatus(
+            @PathVariable String uploadId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        ChunkedUpload upload = chunkedUploadService.getUpload(uploadId, userPrincipal.getUsername());
+        return ResponseEntity.ok(toResponse(upload));
+    }
+
+    private ChunkedUploadResponse toResponse(ChunkedUpload upload) {
+        return ChunkedUploadResponse.builder()
+                .uploadId(upload.getId())
+                .fileUploadId(upload.getFileUploadId())
+                .filename(upload.getFilename())
+                .totalSize(upload.getTotalSize())
+                .chunkSize(upload.getChunkSize())
+                .totalChunks(upload.getTotalChunks())
+                .receivedChunks(upload.getReceivedChunks())
+                .missingChunks(upload.getStatus() == ChunkedUpload.Status.RECEIVING
+                        ? upload.missingChunks(REPORTED_MISSING_CHUNKS) : null)
+                .contiguousBytes(upload.getContiguousBytes())
+                .acceptedCount(upload.getContext() != null ? upload.getContext().getAcceptedCount() : 0)
+                .rejectedCount(upload.getContext() != null ? upload.getContext().getRejectedCount() : 0)
+                .status(upload.getStatus().name())
+                .errorDetails(upload.getErrorDetails())
+                .build();
+    }
+}
@@ -2,23 +2,36 @@ package com.codeyantratech.financeanalyzer.controller;
 
 import com.codeyantratech.financeanalyzer.dto.ApiResponse;
 import com.codeyantratech.financeanalyzer.dto.FileUploadResponse;
+import com.codeyantratech.financeanalyzer.enums.VersionedResource;
 import com.codeyantratech.financeanalyzer.model.FileUpload;
+import com.codeyantratech.financeanalyzer.model.ImportRejection;
 import com.codeyantratech.financeanalyzer.security.UserPrincipal;
-import com.codeyantratech.financeanalyzer.service.CsvProcessingService;
+import com.codeyantratech.financeanalyzer.service.FileImportService;
 import com.codeyantratech.financeanalyzer.service.FileUploadService;
+import com.codeyantratech.financeanalyzer.service.ResourceVersionService;
+import com.opencsv.CSVWriter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
  * REST Controller for handling file upload operations.
- * Provides endpoints for uploading CSV files, retrieving upload history, and file details.
+ * Provides endpoints for uploading statement files, retrieving upload history, file details
+ * and the rejection report of an upload.
  */
 @Slf4j
 @RestController
@@ -27,22 +40,28 @@ public class FileUploadController {
 
     @Autowired
     private FileUploadService fileUploadService;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
     
     @Autowired
-    private CsvProcessingService csvProcessingService;
+    private FileImportService fileImportService;
 
     /**
      * Handles file upload requests.
-     * Validates that the file is not empty and is a CSV file.
+     * Validates that the file is not empty and is a CSV, OFX/QFX or QIF file, optionally
+     * gzip-compressed, or a zip archive of such files.
      * Processes the file content and creates transaction records.
      *
-     * @param file          The uploaded file (must be CSV)
+     * @param file          The uploaded statement file
+     * @param profileId     Optional import profile for CSV content; detected from the header row when omitted
      * @param userPrincipal The authenticated user's principal
      * @return ResponseEntity with success/error message
      */
     @PostMapping("/upload")
     public ResponseEntity<?> uploadFile(
             @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) Long profileId,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
         
         if (file.isEmpty()) {
@@ -52,13 +71,13 @@ public class FileUploadController {
 
         // Validate file type
         String filename = file.getOriginalFilename();
-        if (filename == null || !filename.toLowerCase().endsWith(".csv")) {
+        if (filename == null || !FileImportService.isSupported(filename)) {
             return ResponseEntity.badRequest()
-                    .body(ApiResponse.error("Please upload a CSV file"));
+                    .body(ApiResponse.error("Please upload a CSV, OFX, QFX or QIF file (optionally as .gz or .zip)"));
         }
 
         try {
-            csvProcessingService.processTransactionCsv(file, userPrincipal.getUsername());
+            fileImportService.importFile(file, userPrincipal.getUsername(), profileId);
             return ResponseEntity.ok(ApiResponse.success("File uploaded and processed successfully"));
         } catch (Exception e) {
             log.error("Error processing file upload: {}", e.getMessage());
@@ -74,12 +93,16 @@ public class FileUploadController {
      * @return List of file upload records
      */
     @GetMapping
-    public ResponseEntity<List<FileUploadResponse>> getUserFiles(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+    public ResponseEntity<List<FileUploadResponse>> getUserFiles(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                                                 WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersionService.etag(userPrincipal.getId(), VersionedResource.FILES))) {
+            return null;
+        }
         List<FileUpload> files = fileUploadService.getUserFiles(userPrincipal.getUsername());
         List<FileUploadResponse> response = files.stream()
                 .map(this::toFileUploadResponse)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
     }
 
     /**
@@ -98,6 +121,42 @@ public class FileUploadController {
         return ResponseEntity.ok(toFileUploadResponse(file));
     }
 
+    /**
+     * Downloads the rejection report of a file upload as CSV (row, column, reason, value, file).
+     * The file column names the archive entry for zip uploads.
+     * Contains at most the configured number of rejections; the file details carry the full count.
+     *
+     * @param fileId        The ID of the file upload record
+     * @param userPrincipal The authenticated user's principal
+     * @return CSV attachment with one line per rejected row
+     */
+    @GetMapping("/{fileId}/rejections")
+    public ResponseEntity<String> getFileRejections(
+            @PathVariable Long fileId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        List<ImportRejection> rejections = fileUploadService.getRejections(fileId, userPrincipal.getUsername());
+        StringWriter csv = new StringWriter();
+        try (CSVWriter writer = new CSVWriter(csv)) {
+            writer.writeNext(new String[]{"row", "column", "reason", "value", "file"});
+            for (ImportRejection rejection : rejections) {
+                writer.writeNext(new String[]{
+                        String.valueOf(rejection.getRowNumber()),
+                        rejection.getColumnName(),
+                        rejection.getReason(),
+                        rejection.getRawValue(),
+                        rejection.getEntryName()});
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"upload-" + fileId + "-rejections.csv\"")
+                .body(csv.toString());
+    }
+
     private FileUploadResponse toFileUploadResponse(FileUpload fileUpload) {
         return FileUploadResponse.builder()
                 .id(fileUpload.getId())
@@ -106,6 +165,7 @@ public class FileUploadController {
                 .uploadDate(fileUpload.getUploadDate())
                 .processed(fileUpload.getProcessed())
                 .recordsCount(fileUpload.getRecordsCount())
+                .rejectedCount(fileUpload.getRejectedCount())
                 .status(fileUpload.getStatus())
                 .errorDetails(fileUpload.getErrorDetails())
                 .build();
@@ -0,0 +1,108 @@
+package com.codeyantratech.financeanalyzer.controller;
+
+import com.codeyantratech.financeanalyzer.dto.ApiResponse;
+import com.codeyantratech.financeanalyzer.dto.ImportProfileRequest;
+import com.codeyantratech.financeanalyzer.dto.ImportProfileResponse;
+import com.codeyantratech.financeanalyzer.model.ImportProfile;
+import com.codeyantratech.financeanalyzer.security.UserPrincipal;
+import com.codeyantratech.financeanalyzer.service.ImportProfileService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * REST Controller for managing import profiles.
+ * A profile describes the column layout of a bank's CSV export so it can be uploaded as is.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/import-profiles")
+public class ImportProfileController {
+
+    @Autowired
+    private ImportProfileService importProfileService;
+
+    /**
+     * Lists all import profiles of the current user.
+     */
+    @GetMapping
+    public ResponseEntity<List<ImportProfileResponse>> getProfiles(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        List<ImportProfile> profiles = importProfileService.getUserProfiles(userPrincipal.getUsername());
+        List<ImportProfileResponse> response = profiles.stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Gets a specific import profile by ID.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportProfileResponse> getProfile(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        ImportProfile profile = importProfileService.getProfileById(id, userPrincipal.getUsername());
+        return ResponseEntity.ok(toResponse(profile));
+    }
+
+    /**
+     * Creates a new import profile.
+     * If a sample header line is given, uploads with that header use the profile automatically.
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse> createProfile(
+            @Valid @RequestBody ImportProfileRequest request,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        ImportProfile profile = importProfileService.createProfile(request, userPrincipal.getUsername());
+        return ResponseEntity.ok(ApiResponse.success("Import profile created", toResponse(profile)));
+    }
+
+    /**
+     * Updates an existing import profile.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<ApiResponse> updateProfile(
+            @PathVariable Long id,
+            @Valid @RequestBody ImportProfileRequest request,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        ImportProfile profile = importProfileService.updateProfile(id, request, userPrincipal.getUsername());
+        return ResponseEntity.ok(ApiResponse.success("Import profile updated", toResponse(profile)));
+    }
+
+    /**
+     * Deletes an import profile.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse> deleteProfile(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        importProfileService.deleteProfile(id, userPrincipal.getUsername());
+        return ResponseEntity.ok(ApiResponse.success("Import profile deleted"));
+    }
+
+    private ImportProfileResponse toResponse(ImportProfile profile) {
+        return ImportProfileResponse.builder()
+                .id(profile.getId())
+                .name(profile.getName())
+                .delimiter(profile.getDelimiter())
+                .skipLines(profile.getSkipLines())
+                .dateColumn(profile.getDateColumn())
+                .amountColumn(profile.getAmountColumn())
+                .typeColumn(profile.getTypeColumn())
+                .descriptionColumn(profile.getDescriptionColumn())
+                .datePattern(profile.getDatePattern())
+                .decimalSeparator(profile.getDecimalSeparator())
+                .groupingSeparator(profile.getGroupingSeparator())
+                .incomeLabel(profile.getIncomeLabel())
+                .expenseLabel(profile.getExpenseLabel())
+                .negativeAmountType(profile.getNegativeAmountType())
+                .headerSignature(profile.getHeaderSignature())
+                .build();
+    }
+}
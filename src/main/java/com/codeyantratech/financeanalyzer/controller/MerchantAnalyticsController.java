@@ -0,0 +1,80 @@
+package com.codeyantratech.financeanalyzer.controller;
+
+import com.codeyantratech.financeanalyzer.dto.MerchantReportResponse;
+import com.codeyantratech.financeanalyzer.security.UserPrincipal;
+import com.codeyantratech.financeanalyzer.service.MerchantAnalyticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+
+/**
+ * REST Controller for reports of the most frequent merchants, of the current user and,
+ * for administrators, of all users.
+ * Months are given as yyyy-MM and default to the current year up to the current month.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api")
+public class MerchantAnalyticsController {
+
+    private static final int MAX_MONTHS = 60;
+
+    @Autowired
+    private MerchantAnalyticsService merchantAnalyticsService;
+
+    /**
+     * Get the user's most frequent merchants within a range of months
+     */
+    @GetMapping("/merchants/top")
+    public ResponseEntity<MerchantReportResponse> getTopMerchants(
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to,
+            @RequestParam(defaultValue = "10") int limit,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        YearMonth end = to != null ? to : YearMonth.now();
+        YearMonth start = from != null ? from : end.withMonth(1);
+        if (!isValid(start, end, limit)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(toResponse(
+                merchantAnalyticsService.getTopMerchants(userPrincipal.getUsername(), start, end, limit)));
+    }
+
+    /**
+     * Get the most frequent merchants of all users within a range of months, as of the last
+     * nightly rollup
+     */
+    @GetMapping("/admin/merchants/top")
+    public ResponseEntity<MerchantReportResponse> getGlobalTopMerchants(
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to,
+            @RequestParam(defaultValue = "10") int limit) {
+        YearMonth end = to != null ? to : YearMonth.now();
+        YearMonth start = from != null ? from : end.withMonth(1);
+        if (!isValid(start, end, limit)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(toResponse(merchantAnalyticsService.getGlobalTopMerchants(start, end, limit)));
+    }
+
+    private boolean isValid(YearMonth from, YearMonth to, int limit) {
+        return !from.isAfter(to) && !from.plusMonths(MAX_MONTHS).isBefore(to.plusMonths(1))
+                && limit > 0 && limit <= merchantAnalyticsService.getCapacity();
+    }
+
+    private MerchantReportResponse toResponse(MerchantAnalyticsService.MerchantReport report) {
+        return MerchantReportResponse.builder()
+                .from(report.from())
+                .to(report.to())
+                .merchants(report.top().stream()
+                        .map(m -> new MerchantReportResponse.Merchant(m.merchant(), m.count(), m.maxError()))
+                        .toList())
+                .distinctMerchants(report.distinctMerchants())
+                .totalCharges(report.totalCharges())
+                .build();
+    }
+}
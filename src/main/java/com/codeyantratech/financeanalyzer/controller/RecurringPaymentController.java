@@ -0,0 +1,78 @@
+package com.codeyantratech.financeanalyzer.controller;
+
+import com.codeyantratech.financeanalyzer.dto.RecurringPaymentResponse;
+import com.codeyantratech.financeanalyzer.dto.UpcomingChargeResponse;
+import com.codeyantratech.financeanalyzer.model.RecurringPayment;
+import com.codeyantratech.financeanalyzer.security.UserPrincipal;
+import com.codeyantratech.financeanalyzer.service.RecurringPaymentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * REST Controller for recurring payments detected in the user's expenses.
+ * Results come from the nightly analysis, so charges added since then are not yet reflected.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/recurring")
+public class RecurringPaymentController {
+
+    private static final int MAX_UPCOMING_DAYS = 366;
+
+    @Autowired
+    private RecurringPaymentService recurringPaymentService;
+
+    /**
+     * Get the active recurring payments, by next expected charge
+     */
+    @GetMapping
+    public ResponseEntity<List<RecurringPaymentResponse>> getRecurringPayments(
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return ResponseEntity.ok(recurringPaymentService.getActive(userPrincipal.getUsername()).stream()
+                .map(this::toResponse)
+                .toList());
+    }
+
+    /**
+     * Get the charges expected within the given number of days (at most a year)
+     */
+    @GetMapping("/upcoming")
+    public ResponseEntity<List<UpcomingChargeResponse>> getUpcomingCharges(
+            @RequestParam(defaultValue = "30") int days,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        if (days < 0 || days > MAX_UPCOMING_DAYS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(recurringPaymentService.getUpcoming(userPrincipal.getUsername(), days).stream()
+                .map(charge -> UpcomingChargeResponse.builder()
+                        .recurringPaymentId(charge.payment().getId())
+                        .merchant(charge.payment().getMerchant())
+                        .date(charge.date())
+                        .amount(charge.amount())
+                        .currency(charge.payment().getCurrency())
+                        .build())
+                .toList());
+    }
+
+    private RecurringPaymentResponse toResponse(RecurringPayment p) {
+        return RecurringPaymentResponse.builder()
+                .id(p.getId())
+                .merchant(p.getMerchant())
+                .description(p.getDescription())
+                .cadence(p.getCadence())
+                .averageAmount(BigDecimal.valueOf(p.getAmountStats().getMean()).setScale(2, RoundingMode.HALF_UP))
+                .currency(p.getCurrency())
+                .occurrences(p.getIntervalStats().getCount() + 1)
+                .firstDate(p.getFirstDate())
+                .lastDate(p.getLastDate())
+                .nextExpectedDate(p.getNextExpectedDate())
+                .build();
+    }
+}
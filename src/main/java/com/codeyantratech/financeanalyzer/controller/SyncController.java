@@ -0,0 +1,75 @@
+package com.codeyantratech.financeanalyzer.controller;
+
+import com.codeyantratech.financeanalyzer.dto.CategoryResponse;
+import com.codeyantratech.financeanalyzer.dto.SyncResponse;
+import com.codeyantratech.financeanalyzer.dto.TransactionResponse;
+import com.codeyantratech.financeanalyzer.model.Category;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.security.UserPrincipal;
+import com.codeyantratech.financeanalyzer.service.SyncService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * REST Controller for delta sync.
+ * Lets clients keep a local copy of their transactions and categories up to date without
+ * downloading the full lists on every app start.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    /**
+     * Get transactions and categories changed or deleted since the given watermark
+     */
+    @GetMapping
+    public ResponseEntity<SyncResponse> sync(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        SyncService.Changes changes = syncService.getChanges(userPrincipal.getUsername(), since);
+        return ResponseEntity.ok(SyncResponse.builder()
+                .watermark(changes.watermark())
+                .fullSync(changes.fullSync())
+                .transactions(changes.transactions().stream().map(this::toResponse).toList())
+                .categories(changes.categories().stream().map(this::toResponse).toList())
+                .deletedTransactionIds(changes.deletedTransactionIds())
+                .deletedCategoryIds(changes.deletedCategoryIds())
+                .build());
+    }
+
+    // Helper to convert Transaction to TransactionResponse
+    private TransactionResponse toResponse(Transaction t) {
+        return TransactionResponse.builder()
+                .id(t.getId())
+                .amount(t.getAmount())
+                .transactionDate(t.getTransactionDate())
+                .transactionType(t.getTransactionType())
+                .description(t.getDescription())
+                .currency(t.getCurrency())
+                .categoryId(t.getCategory() != null ? t.getCategory().getId() : null)
+                .categoryName(t.getCategory() != null ? t.getCategory().getName() : null)
+                .anomaly(t.getAnomaly())
+                .build();
+    }
+
+    // Helper to convert Category to CategoryResponse
+    private CategoryResponse toResponse(Category category) {
+        return CategoryResponse.builder()
+                .id(category.getId())
+                .name(category.getName())
+                .description(category.getDescription())
+                .color(category.getColor())
+                .userId(category.getUser() != null ? category.getUser().getId() : null)
+                .build();
+    }
+}
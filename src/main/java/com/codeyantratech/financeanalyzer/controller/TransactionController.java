@@ -1,22 +1,45 @@
 package com.codeyantratech.financeanalyzer.controller;
 
 import com.codeyantratech.financeanalyzer.dto.ApiResponse;
+import com.codeyantratech.financeanalyzer.dto.CompactTransactionList;
+import com.codeyantratech.financeanalyzer.dto.PagedResponse;
+import com.codeyantratech.financeanalyzer.dto.TransactionBatchRequest;
+import com.codeyantratech.financeanalyzer.dto.TransactionBatchResult;
 import com.codeyantratech.financeanalyzer.dto.TransactionRequest;
 import com.codeyantratech.financeanalyzer.dto.TransactionResponse;
+import com.codeyantratech.financeanalyzer.dto.TransactionSummaryResponse;
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.enums.VersionedResource;
 import com.codeyantratech.financeanalyzer.model.Category;
 import com.codeyantratech.financeanalyzer.model.Transaction;
 import com.codeyantratech.financeanalyzer.model.User;
 import com.codeyantratech.financeanalyzer.security.UserPrincipal;
+import com.codeyantratech.financeanalyzer.service.ExchangeRateService;
+import com.codeyantratech.financeanalyzer.service.ResourceVersionService;
+import com.codeyantratech.financeanalyzer.service.TransactionBatchService;
+import com.codeyantratech.financeanalyzer.service.TransactionSearchService;
 import com.codeyantratech.financeanalyzer.service.TransactionService;
+import com.codeyantratech.financeanalyzer.service.TransactionSummaryService;
 import com.codeyantratech.financeanalyzer.service.UserService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -30,14 +53,98 @@ public class TransactionController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TransactionSearchService transactionSearchService;
+
+    @Autowired
+    private TransactionBatchService transactionBatchService;
+
+    @Autowired
+    private TransactionSummaryService transactionSummaryService;
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
     /**
-     * List all transactions for the authenticated user
+     * List all transactions for the authenticated user, optionally limited to a date range.
+     * Answers If-None-Match with 304 while no transaction or category of the user changed
      */
     @GetMapping("/transactions")
-    public ResponseEntity<List<TransactionResponse>> getAllTransactions(@AuthenticationPrincipal UserPrincipal userPrincipal) {
-        List<Transaction> transactions = transactionService.getUserTransactions(userPrincipal.getUsername());
+    public ResponseEntity<List<TransactionResponse>> getAllTransactions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(transactionListEtag(userPrincipal))) {
+            return null;
+        }
+        List<Transaction> transactions = transactionService.getUserTransactions(userPrincipal.getUsername(), from, to);
         List<TransactionResponse> response = transactions.stream().map(this::toResponse).collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+        // no-cache: clients may keep the list but must revalidate it with If-None-Match
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT).body(response);
+    }
+
+    /**
+     * Same list in the compact CBOR form, selected with Accept: application/cbor
+     */
+    @GetMapping(value = "/transactions", produces = MediaType.APPLICATION_CBOR_VALUE)
+    public ResponseEntity<CompactTransactionList> getAllTransactionsCompact(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            WebRequest webRequest) {
+        // A different representation needs a different strong ETag
+        if (webRequest.checkNotModified(transactionListEtag(userPrincipal) + "-cbor")) {
+            return null;
+        }
+        List<Transaction> transactions = transactionService.getUserTransactions(userPrincipal.getUsername(), from, to);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT)
+                .body(toCompactResponse(transactions));
+    }
+
+    /**
+     * Search transaction descriptions (merchant, memo), best matches first
+     */
+    @GetMapping("/transactions/search")
+    public ResponseEntity<PagedResponse<TransactionResponse>> searchTransactions(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Page<Transaction> results = transactionSearchService.search(userPrincipal.getUsername(), query, page, size);
+        return ResponseEntity.ok(PagedResponse.of(results, this::toResponse));
+    }
+
+    /**
+     * Income and expense totals of a date range, overall and per category, converted to the
+     * user's preferred currency
+     */
+    @GetMapping("/transactions/summary")
+    public ResponseEntity<TransactionSummaryResponse> getSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        TransactionSummaryService.Summary summary = transactionSummaryService.getSummary(userPrincipal.getUsername(), from, to);
+        return ResponseEntity.ok(TransactionSummaryResponse.builder()
+                .currency(summary.currency())
+                .from(from)
+                .to(to)
+                .totalIncome(summary.income())
+                .totalExpense(summary.expense())
+                .net(summary.income().subtract(summary.expense()))
+                .categories(summary.categories().stream()
+                        .map(c -> new TransactionSummaryResponse.CategoryTotal(
+                                c.category() != null ? c.category().getId() : null,
+                                c.category() != null ? c.category().getName() : null,
+                                c.income(), c.expense()))
+                        .toList())
+                .unconverted(summary.unconverted().stream()
+                        .map(c -> new TransactionSummaryResponse.CurrencyTotal(c.currency(), c.income(), c.expense()))
+                        .toList())
+                .build());
     }
 
     /**
@@ -58,6 +165,7 @@ public class TransactionController {
         Transaction transaction = Transaction.builder()
                 .user(user)
                 .amount(request.getAmount())
+                .currency(request.getCurrency() != null ? request.getCurrency() : exchangeRateService.currencyOf(user))
                 .transactionDate(request.getTransactionDate())
                 .transactionType(request.getTransactionType())
                 .description(request.getDescription())
@@ -74,6 +182,9 @@ public class TransactionController {
     public ResponseEntity<ApiResponse> updateTransaction(@PathVariable Long id, @Valid @RequestBody TransactionRequest request, @AuthenticationPrincipal UserPrincipal userPrincipal) {
         Transaction transaction = transactionService.getTransactionById(id, userPrincipal.getUsername());
         transaction.setAmount(request.getAmount());
+        if (request.getCurrency() != null) {
+            transaction.setCurrency(request.getCurrency());
+        }
         transaction.setTransactionDate(request.getTransactionDate());
         transaction.setTransactionType(request.getTransactionType());
         transaction.setDescription(request.getDescription());
@@ -82,6 +193,16 @@ public class TransactionController {
         return ResponseEntity.ok(ApiResponse.success("Transaction updated", toResponse(updated)));
     }
 
+    /**
+     * Apply a batch of create, update and delete operations in one database transaction.
+     * Each operation carries a client-generated idempotency key, so a retried batch is safe
+     */
+    @PostMapping("/transactions/batch")
+    public ResponseEntity<ApiResponse> applyBatch(@Valid @RequestBody TransactionBatchRequest request, @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        List<TransactionBatchResult> results = transactionBatchService.applyBatch(userPrincipal.getUsername(), request.getOperations());
+        return ResponseEntity.ok(ApiResponse.success("Batch processed", results));
+    }
+
     /**
      * Delete a transaction
      */
@@ -91,16 +212,61 @@ public class TransactionController {
         return ResponseEntity.ok(ApiResponse.success("Transaction deleted"));
     }
 
-    // Helper to convert Transaction to TransactionResponse
-    private TransactionResponse toResponse(Transaction t) {
+    // Rows carry category names, so category changes invalidate the list too
+    private String transactionListEtag(UserPrincipal userPrincipal) {
+        return resourceVersionService.etag(userPrincipal.getId(),
+                VersionedResource.TRANSACTIONS, VersionedResource.CATEGORIES);
+    }
+
+    // Helper to build the dictionary-encoded list, package-private for the JMH benchmarks
+    CompactTransactionList toCompactResponse(List<Transaction> transactions) {
+        Map<Long, Integer> categoryIndexes = new HashMap<>();
+        List<Long> categoryIds = new ArrayList<>();
+        List<String> categoryNames = new ArrayList<>();
+        Map<String, Integer> currencyIndexes = new HashMap<>();
+        List<String> currencies = new ArrayList<>();
+        List<CompactTransactionList.Row> rows = new ArrayList<>(transactions.size());
+        for (Transaction t : transactions) {
+            Integer category = null;
+            if (t.getCategory() != null) {
+                category = categoryIndexes.computeIfAbsent(t.getCategory().getId(), id -> {
+                    categoryIds.add(id);
+                    categoryNames.add(t.getCategory().getName());
+                    return categoryIds.size() - 1;
+                });
+            }
+            Integer currency = null;
+            if (t.getCurrency() != null) {
+                currency = currencyIndexes.computeIfAbsent(t.getCurrency(), code -> {
+                    currencies.add(code);
+                    return currencies.size() - 1;
+                });
+            }
+            rows.add(new CompactTransactionList.Row(t.getId(), t.getAmount(), t.getTransactionDate().toEpochDay(),
+                    t.getTransactionType() != null ? t.getTransactionType().ordinal() : null,
+                    category, t.getDescription(), currency));
+        }
+        return CompactTransactionList.builder()
+                .transactionTypes(Arrays.stream(TransactionType.values()).map(Enum::name).toList())
+                .categoryIds(categoryIds)
+                .categoryNames(categoryNames)
+                .currencies(currencies)
+                .transactions(rows)
+                .build();
+    }
+
+    // Helper to convert Transaction to TransactionResponse, package-private for the JMH benchmarks
+    TransactionResponse toResponse(Transaction t) {
         return TransactionResponse.builder()
                 .id(t.getId())
                 .amount(t.getAmount())
+                .currency(t.getCurrency())
                 .transactionDate(t.getTransactionDate())
                 .transactionType(t.getTransactionType())
                 .description(t.getDescription())
                 .categoryId(t.getCategory() != null ? t.getCategory().getId() : null)
                 .categoryName(t.getCategory() != null ? t.getCategory().getName() : null)
+                .anomaly(t.getAnomaly())
                 .build();
     }
 } 
\ No newline at end of file
@@ -1,10 +1,12 @@
 package com.codeyantratech.financeanalyzer.controller;
 
 import com.codeyantratech.financeanalyzer.dto.ApiResponse;
+import com.codeyantratech.financeanalyzer.dto.BudgetStatusResponse;
 import com.codeyantratech.financeanalyzer.dto.UserProfileRequest;
 import com.codeyantratech.financeanalyzer.dto.UserProfileResponse;
 import com.codeyantratech.financeanalyzer.model.User;
 import com.codeyantratech.financeanalyzer.security.UserPrincipal;
+import com.codeyantratech.financeanalyzer.service.BudgetService;
 import com.codeyantratech.financeanalyzer.service.UserService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +26,9 @@ public class UserProfileController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private BudgetService budgetService;
+
     /**
      * Get the current user's profile settings
      */
@@ -44,6 +49,22 @@ public class UserProfileController {
         return ResponseEntity.ok(ApiResponse.success("Profile updated successfully", toProfileResponse(updatedUser)));
     }
 
+    /**
+     * Get the current month's expenses against the monthly budget limit
+     */
+    @GetMapping("/budget")
+    public ResponseEntity<BudgetStatusResponse> getBudgetStatus(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        BudgetService.BudgetStatus status = budgetService.getStatus(userPrincipal.getUsername());
+        return ResponseEntity.ok(BudgetStatusResponse.builder()
+                .month(status.month().toString())
+                .limit(status.limit())
+                .spent(status.spent())
+                .remaining(status.remaining())
+                .percentUsed(status.percentUsed())
+                .unconvertedExpenses(status.unconverted())
+                .build());
+    }
+
     private UserProfileResponse toProfileResponse(User user) {
         return UserProfileResponse.builder()
                 .username(user.getUsername())
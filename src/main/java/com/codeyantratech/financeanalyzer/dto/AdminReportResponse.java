@@ -0,0 +1,59 @@
+package com.codeyantratech.financeanalyzer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminReportResponse {
+    private YearMonth from;
+    private YearMonth to;
+    // Reports are cached for a few minutes; later changes are not included
+    private LocalDateTime generatedAt;
+    private long registeredUsers;
+    // One entry per month of the range
+    private List<Month> months;
+    private Imports imports;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Month {
+        private YearMonth month;
+        private long transactions;
+        // Users with at least one transaction in the month
+        private long activeUsers;
+        private List<Volume> volumes;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Volume {
+        private String currency;
+        private BigDecimal expenses;
+        private BigDecimal incomes;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Imports {
+        private long uploads;
+        private Map<String, Long> byStatus;
+        // SUCCESS share of finished uploads (0 to 1), null without any
+        private BigDecimal successRate;
+        private long recordsImported;
+        private long recordsRejected;
+    }
+}
@@ -0,0 +1,25 @@
+package com.codeyantratech.financeanalyzer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetStatusResponse {
+    // yyyy-MM
+    private String month;
+    // Null when the user has no monthly budget limit, as are remaining and percentUsed
+    private BigDecimal limit;
+    private BigDecimal spent;
+    private BigDecimal remaining;
+    private BigDecimal percentUsed;
+    // Expenses per currency without exchange rates, not included in spent
+    private Map<String, BigDecimal> unconvertedExpenses;
+}
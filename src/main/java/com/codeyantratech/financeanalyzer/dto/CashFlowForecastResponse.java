@@ -0,0 +1,33 @@
+package com.codeyantratech.financeanalyzer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CashFlowForecastResponse {
+    // All amounts are in this currency
+    private String currency;
+    // Balance (all incomes minus all expenses) at the end of this day
+    private LocalDate asOf;
+    private BigDecimal startingBalance;
+    // One entry per day after asOf
+    private List<Day> days;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Day {
+        private LocalDate date;
+        private BigDecimal netFlow;
+        private BigDecimal balance;
+    }
+}
@@ -0,0 +1,23 @@
+package com.codeyantratech.financeanalyzer.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class ChunkedUploadRequest {
+    @NotBlank(message = "Filename is required")
+    @Size(max = 255, message = "Filename must not exceed 255 characters")
+    private String filename;
+
+    @NotNull(message = "Total size is required")
+    @Min(value = 1, message = "Total size must be greater than 0")
+    private Long totalSize;
+
+    // Optional; the server default is used when omitted
+    private Integer chunkSize;
+
+    private Long profileId;
+}
@@ -0,0 +1,30 @@
+package com.codeyantratech.financeanalyzer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChunkedUploadResponse {
+    private String uploadId;
+    private Long fileUploadId;
+    private String filename;
+    private Long totalSize;
+    private Integer chunkSize;
+    private Integer totalChunks;
+    private Integer receivedChunks;
+    // First missing chunk indexes, at most 100
+    private List<Integer> missingChunks;
+    // Bytes available to the parser without gaps
+    private Long contiguousBytes;
+    private Long acceptedCount;
+    private Long rejectedCount;
+    private String status; // RECEIVING, COMPLETING, SUCCESS, FAILED
+    private String errorDetails;
+}
@@ -0,0 +1,48 @@
+package com.codeyantratech.financeanalyzer.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Compact form of a transaction list, served as CBOR to clients that accept application/cbor.
+ * Transaction types and categories are sent once as dictionaries and referenced by index,
+ * and each transaction is a positional array instead of an object with field names.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactTransactionList {
+    // Index -> TransactionType name
+    private List<String> transactionTypes;
+    // Index -> category id and name
+    private List<Long> categoryIds;
+    private List<String> categoryNames;
+    // Index -> currency code
+    private List<String> currencies;
+    private List<Row> transactions;
+
+    // [id, amount, transactionDate as epoch day, type index, category index or null, description,
+    //  currency index or null]
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({"id", "amount", "epochDay", "type", "category", "description", "currency"})
+    public static class Row {
+        private Long id;
+        private BigDecimal amount;
+        private long epochDay;
+        private Integer type;
+        private Integer category;
+        private String description;
+        private Integer currency;
+    }
+}
@@ -18,6 +18,7 @@ public class FileUploadResponse {
     private LocalDateTime uploadDate;
     private Boolean processed;
     private Integer recordsCount;
+    private Integer rejectedCount;
     private String status;
     private String errorDetails;
 } 
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.codeyantratech.financeanalyzer.dto;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class ImportProfileRequest {
+    @NotBlank(message = "Profile name is required")
+    @Size(min = 2, max = 50, message = "Profile name must be between 2 and 50 characters")
+    private String name;
+
+    @Pattern(regexp = "^[,;\\t|]$", message = "Delimiter must be one of , ; | or a tab")
+    private String delimiter = ",";
+
+    @Min(value = 0, message = "Skip lines must not be negative")
+    private Integer skipLines = 1;
+
+    @NotNull(message = "Date column is required")
+    @Min(value = 0, message = "Column positions are zero-based")
+    private Integer dateColumn;
+
+    @NotNull(message = "Amount column is required")
+    @Min(value = 0, message = "Column positions are zero-based")
+    private Integer amountColumn;
+
+    @Min(value = 0, message = "Column positions are zero-based")
+    private Integer typeColumn;
+
+    @Min(value = 0, message = "Column positions are zero-based")
+    private Integer descriptionColumn;
+
+    @Size(max = 30, message = "Date pattern must not exceed 30 characters")
+    private String datePattern = "yyyy-MM-dd";
+
+    @Pattern(regexp = "^[.,]$", message = "Decimal separator must be . or ,")
+    private String decimalSeparator = ".";
+
+    @Pattern(regexp = "^[., ']$", message = "Grouping separator must be one of . , ' or a space")
+    private String groupingSeparator;
+
+    @Size(max = 30, message = "Income label must not exceed 30 characters")
+    private String incomeLabel;
+
+    @Size(max = 30, message = "Expense label must not exceed 30 characters")
+    private String expenseLabel;
+
+    private TransactionType negativeAmountType = TransactionType.EXPENSE;
+
+    // Header row of a sample file, used to recognize files of this format on upload.
+    // Its signature is stored in ImportProfile.headerSignature (500 characters)
+    @Size(max = 500, message = "Header line must not exceed 500 characters")
+    private String headerLine;
+}
@@ -0,0 +1,29 @@
+package com.codeyantratech.financeanalyzer.dto;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportProfileResponse {
+    private Long id;
+    private String name;
+    private String delimiter;
+    private Integer skipLines;
+    private Integer dateColumn;
+    private Integer amountColumn;
+    private Integer typeColumn;
+    private Integer descriptionColumn;
+    private String datePattern;
+    private String decimalSeparator;
+    private String groupingSeparator;
+    private String incomeLabel;
+    private String expenseLabel;
+    private TransactionType negativeAmountType;
+    private String headerSignature;
+}
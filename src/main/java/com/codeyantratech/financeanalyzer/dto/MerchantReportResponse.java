@@ -0,0 +1,35 @@
+package com.codeyantratech.financeanalyzer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerchantReportResponse {
+    private YearMonth from;
+    private YearMonth to;
+    // Most frequent first
+    private List<Merchant> merchants;
+    // Estimated, within a few percent
+    private long distinctMerchants;
+    // Expenses with a recognizable merchant
+    private long totalCharges;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Merchant {
+        // Normalized merchant name
+        private String merchant;
+        // Upper bound of the number of charges; the true count is at least count - maxError
+        private long count;
+        private long maxError;
+    }
+}
@@ -0,0 +1,31 @@
+package com.codeyantratech.financeanalyzer.dto;
+
+import com.codeyantratech.financeanalyzer.enums.RecurringCadence;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringPaymentResponse {
+    private Long id;
+    // Normalized merchant name the charges are grouped by
+    private String merchant;
+    // Description of the latest charge
+    private String description;
+    private RecurringCadence cadence;
+    // Mean of the charged amounts
+    private BigDecimal averageAmount;
+    // Null for the user's preferred currency
+    private String currency;
+    private long occurrences;
+    private LocalDate firstDate;
+    private LocalDate lastDate;
+    private LocalDate nextExpectedDate;
+}
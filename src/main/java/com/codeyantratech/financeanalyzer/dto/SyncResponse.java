@@ -0,0 +1,24 @@
+package com.codeyantratech.financeanalyzer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponse {
+    // Pass as ?since= on the next sync
+    private LocalDateTime watermark;
+    // True when the lists are a complete snapshot rather than changes
+    private boolean fullSync;
+    private List<TransactionResponse> transactions;
+    private List<CategoryResponse> categories;
+    private List<Long> deletedTransactionIds;
+    private List<Long> deletedCategoryIds;
+}
@@ -0,0 +1,26 @@
+package com.codeyantratech.financeanalyzer.dto;
+
+import com.codeyantratech.financeanalyzer.enums.BatchAction;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class TransactionBatchOperation {
+    // Generated by the client; resending the same key returns the original result
+    @NotBlank(message = "Idempotency key is required")
+    @Size(max = 64, message = "Idempotency key must not exceed 64 characters")
+    private String idempotencyKey;
+
+    @NotNull(message = "Action is required")
+    private BatchAction action;
+
+    // Required for UPDATE and DELETE
+    private Long id;
+
+    // Required for CREATE and UPDATE
+    @Valid
+    private TransactionRequest transaction;
+}
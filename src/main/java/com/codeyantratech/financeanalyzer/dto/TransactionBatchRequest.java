@@ -0,0 +1,13 @@
+package com.codeyantratech.financeanalyzer.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TransactionBatchRequest {
+    @NotEmpty(message = "At least one operation is required")
+    private List<@Valid TransactionBatchOperation> operations;
+}
@@ -0,0 +1,21 @@
+package com.codeyantratech.financeanalyzer.dto;
+
+import com.codeyantratech.financeanalyzer.enums.BatchAction;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionBatchResult {
+    private String idempotencyKey;
+    private BatchAction action;
+    private String status; // APPLIED, REPLAYED, REJECTED
+    private Long transactionId;
+    private String error;
+}
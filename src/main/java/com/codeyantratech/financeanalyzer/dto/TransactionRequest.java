@@ -3,6 +3,7 @@ package com.codeyantratech.financeanalyzer.dto;
 import com.codeyantratech.financeanalyzer.enums.TransactionType;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -14,6 +15,10 @@ public class TransactionRequest {
     @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
     private BigDecimal amount;
 
+    // ISO 4217 code; defaults to the user's preferred currency on create and stays unchanged on update
+    @Pattern(regexp = "^[A-Z]{3,10}$", message = "Currency code must be uppercase letters")
+    private String currency;
+
     @NotNull(message = "Transaction date is required")
     private LocalDate transactionDate;
 
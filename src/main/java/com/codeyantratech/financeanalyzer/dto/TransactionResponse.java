@@ -16,9 +16,13 @@ import java.time.LocalDate;
 public class TransactionResponse {
     private Long id;
     private BigDecimal amount;
+    // Null for transactions recorded before currencies were tracked, in the user's preferred currency
+    private String currency;
     private LocalDate transactionDate;
     private TransactionType transactionType;
     private String description;
     private String categoryName;
     private Long categoryId;
+    // True for an expense that was unusually large for its category when recorded
+    private Boolean anomaly;
 } 
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.codeyantratech.financeanalyzer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionSummaryResponse {
+    // All amounts are converted to this currency
+    private String currency;
+    private LocalDate from;
+    private LocalDate to;
+    private BigDecimal totalIncome;
+    private BigDecimal totalExpense;
+    private BigDecimal net;
+    // Highest expense first
+    private List<CategoryTotal> categories;
+    // Amounts in currencies without exchange rates, not included in the totals above
+    private List<CurrencyTotal> unconverted;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryTotal {
+        // Null for uncategorized transactions
+        private Long categoryId;
+        private String categoryName;
+        private BigDecimal income;
+        private BigDecimal expense;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CurrencyTotal {
+        private String currency;
+        private BigDecimal income;
+        private BigDecimal expense;
+    }
+}
@@ -0,0 +1,22 @@
+package com.codeyantratech.financeanalyzer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpcomingChargeResponse {
+    private Long recurringPaymentId;
+    private String merchant;
+    // Expected charge date; may be slightly in the past for a charge that is due
+    private LocalDate date;
+    private BigDecimal amount;
+    private String currency;
+}
@@ -0,0 +1,7 @@
+package com.codeyantratech.financeanalyzer.enums;
+
+public enum BatchAction {
+    CREATE,
+    UPDATE,
+    DELETE
+}
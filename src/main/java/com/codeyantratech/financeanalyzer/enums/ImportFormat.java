@@ -0,0 +1,32 @@
+package com.codeyantratech.financeanalyzer.enums;
+
+import java.util.Locale;
+
+/**
+ * Statement file formats accepted by the import, recognized by file extension.
+ */
+public enum ImportFormat {
+    CSV,
+    OFX,
+    QIF;
+
+    /**
+     * Determines the format of an uncompressed statement file.
+     *
+     * @param filename File name, possibly including a path
+     * @return The format, or null if the extension is not supported
+     */
+    public static ImportFormat fromFilename(String filename) {
+        String name = filename.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ofx") || name.endsWith(".qfx")) {
+            return OFX;
+        }
+        if (name.endsWith(".qif")) {
+            return QIF;
+        }
+        return null;
+    }
+}
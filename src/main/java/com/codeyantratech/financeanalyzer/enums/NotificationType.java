@@ -0,0 +1,6 @@
+package com.codeyantratech.financeanalyzer.enums;
+
+public enum NotificationType {
+    BUDGET_ALERT,
+    IMPORT_FINISHED
+}
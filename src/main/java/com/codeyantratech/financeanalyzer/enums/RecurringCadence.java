@@ -0,0 +1,52 @@
+package com.codeyantratech.financeanalyzer.enums;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+/**
+ * Billing periods recognized by recurring payment detection, with the average interval in
+ * days and how far observed intervals may deviate from it.
+ */
+public enum RecurringCadence {
+    WEEKLY(Period.ofWeeks(1), 7, 1),
+    BIWEEKLY(Period.ofWeeks(2), 14, 2),
+    MONTHLY(Period.ofMonths(1), 30.44, 3),
+    QUARTERLY(Period.ofMonths(3), 91.31, 7),
+    YEARLY(Period.ofYears(1), 365.25, 15);
+
+    private final Period period;
+    private final double days;
+    private final double toleranceDays;
+
+    RecurringCadence(Period period, double days, double toleranceDays) {
+        this.period = period;
+        this.days = days;
+        this.toleranceDays = toleranceDays;
+    }
+
+    public double getDays() {
+        return days;
+    }
+
+    public double getToleranceDays() {
+        return toleranceDays;
+    }
+
+    public LocalDate next(LocalDate date) {
+        return date.plus(period);
+    }
+
+    /**
+     * Finds the cadence whose interval is within tolerance of the given mean interval.
+     *
+     * @return The cadence, or null if the interval matches none
+     */
+    public static RecurringCadence ofMeanInterval(double meanDays) {
+        for (RecurringCadence cadence : values()) {
+            if (Math.abs(meanDays - cadence.days) <= cadence.toleranceDays) {
+                return cadence;
+            }
+        }
+        return null;
+    }
+}
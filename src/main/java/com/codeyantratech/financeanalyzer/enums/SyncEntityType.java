@@ -0,0 +1,6 @@
+package com.codeyantratech.financeanalyzer.enums;
+
+public enum SyncEntityType {
+    TRANSACTION,
+    CATEGORY
+}
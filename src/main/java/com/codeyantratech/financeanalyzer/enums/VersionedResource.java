@@ -0,0 +1,12 @@
+package com.codeyantratech.financeanalyzer.enums;
+
+/**
+ * Per-user lists whose version counters back the ETags of their GET endpoints and the
+ * in-memory caches derived from them.
+ */
+public enum VersionedResource {
+    TRANSACTIONS,
+    CATEGORIES,
+    FILES,
+    RECURRING_PAYMENTS
+}
@@ -0,0 +1,88 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionSource;
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class representing a transaction moved out of the hot transactions table.
+ * Rows keep their original id and are read-only; they are written only by the archival job.
+ * References are stored as plain ids so the archive carries no foreign keys.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "transactions_archive", indexes = {
+        @Index(name = "idx_transactions_archive_user_date", columnList = "user_id, transaction_date")
+})
+public class ArchivedTransaction {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(length = 10)
+    private String currency;
+
+    @Column(name = "transaction_date", nullable = false)
+    private LocalDate transactionDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", length = 10)
+    private TransactionType transactionType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private TransactionSource source;
+
+    @Column(name = "anomaly")
+    private Boolean anomaly;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    /**
+     * Converts the archived row back into a detached Transaction for read paths.
+     * The result must not be saved; doing so would re-insert it into the hot table.
+     */
+    public Transaction toTransaction(User user, Category category) {
+        Transaction transaction = Transaction.builder()
+                .user(user)
+                .category(category)
+                .amount(amount)
+                .currency(currency)
+                .description(description)
+                .transactionDate(transactionDate)
+                .transactionType(transactionType)
+                .source(source)
+                .anomaly(anomaly)
+                .build();
+        transaction.setId(id);
+        transaction.setCreatedAt(createdAt);
+        transaction.setUpdatedAt(updatedAt);
+        return transaction;
+    }
+}
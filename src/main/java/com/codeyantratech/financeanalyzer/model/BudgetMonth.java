@@ -0,0 +1,37 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Entity class marking one user and month as tracked in budget_currency_totals, with the
+ * highest budget threshold already notified for it. Every change of the month upserts
+ * this row first, which serializes concurrent writers of the month and tells whether its
+ * totals still have to be seeded.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "budget_months", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_budget_months_user_month", columnNames = {"user_id", "month"})
+})
+public class BudgetMonth {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // First day of the month
+    @Column(nullable = false)
+    private LocalDate month;
+
+    // Highest budget threshold already notified for this month, 0 for none
+    @Column(name = "notified_percent", nullable = false)
+    private int notifiedPercent;
+}
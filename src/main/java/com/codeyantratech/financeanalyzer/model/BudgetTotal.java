@@ -0,0 +1,44 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Entity class holding the running expense total of one user, month and currency.
+ * Maintained incrementally by BudgetService from transaction changes, so budget status
+ * is a lookup of a few rows instead of a sum over transactions. Amounts are kept in the
+ * currency of their transactions and only converted when read, so writes never depend on
+ * exchange rates. The rows of a month are seeded from the existing transactions the first
+ * time the month is touched (see BudgetMonth).
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "budget_currency_totals", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_budget_currency_totals_user_month_currency",
+                columnNames = {"user_id", "month", "currency"})
+})
+public class BudgetTotal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // First day of the month
+    @Column(nullable = false)
+    private LocalDate month;
+
+    // Amounts without a currency are kept under the user's preferred one
+    @Column(nullable = false, length = 10)
+    private String currency;
+
+    @Column(name = "expense_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal expenseTotal;
+}
@@ -0,0 +1,33 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Entity class holding the sum of all incomes minus all expenses of one user in one
+ * currency. Amounts without a currency are kept under the user's preferred one.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "cash_flow_balances", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_cash_flow_balances_user_currency", columnNames = {"user_id", "currency"})
+})
+public class CashFlowBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 10)
+    private String currency;
+
+    @Column(nullable = false, precision = 16, scale = 2)
+    private BigDecimal balance;
+}
@@ -0,0 +1,38 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Entity class holding the net cash flow (incomes minus expenses) of one user, day and
+ * currency, converted only when a forecast is built. Days without transactions have no row.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "cash_flow_currency_days", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_cash_flow_currency_days_user_date_currency",
+                columnNames = {"user_id", "flow_date", "currency"})
+})
+public class CashFlowDay {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "flow_date", nullable = false)
+    private LocalDate flowDate;
+
+    @Column(nullable = false, length = 10)
+    private String currency;
+
+    @Column(name = "net_flow", nullable = false, precision = 16, scale = 2)
+    private BigDecimal netFlow;
+}
@@ -0,0 +1,26 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity class marking one user's daily cash-flow series as tracked. The running balances
+ * per currency are kept in cash_flow_balances and the per-day net flows in
+ * cash_flow_currency_days; all are maintained by CashFlowService from transaction changes,
+ * and the version is incremented with every change so cached forecasts can tell whether
+ * they are still current.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "cash_flow_versions")
+public class CashFlowSeries {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long version;
+}
@@ -5,16 +5,22 @@ import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 /**
  * Entity class representing a transaction category.
  * Each category belongs to a specific user.
+ * Lazy category proxies are initialized in batches, so paged results that do not
+ * fetch categories up front still load them with a single query.
  */
 @Data
 @Entity
 @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
-@Table(name = "categories")
+@Table(name = "categories", indexes = {
+        @Index(name = "idx_categories_user_updated", columnList = "user_id, updated_at")
+})
+@BatchSize(size = 100)
 public class Category extends BaseEntity {
 
     @Column(nullable = false)
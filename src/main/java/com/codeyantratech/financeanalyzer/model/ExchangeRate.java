@@ -0,0 +1,41 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Entity class for a daily reference exchange rate, quoted as units of the currency per
+ * one unit of the configured base currency (ECB style). Rates are loaded from a file and
+ * served from ExchangeRateService's in-memory table, never looked up per transaction.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "exchange_rates", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_exchange_rates_currency_date", columnNames = {"currency", "rate_date"})
+})
+public class ExchangeRate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 10)
+    private String currency;
+
+    @Column(name = "rate_date", nullable = false)
+    private LocalDate rateDate;
+
+    @Column(nullable = false, precision = 18, scale = 8)
+    private BigDecimal rate;
+
+    public ExchangeRate(String currency, LocalDate rateDate, BigDecimal rate) {
+        this.currency = currency;
+        this.rateDate = rateDate;
+        this.rate = rate;
+    }
+}
@@ -16,6 +16,8 @@ import java.time.LocalDateTime;
 @Table(name = "file_uploads")
 public class FileUpload {
 
+    public static final int MAX_ERROR_DETAILS_LENGTH = 500;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -41,6 +43,9 @@ public class FileUpload {
     @Column(name = "records_count")
     private Integer recordsCount = 0;
 
+    @Column(name = "rejected_count")
+    private Integer rejectedCount = 0;
+
     @Column(name = "status", length = 20)
     private String status; // e.g., SUCCESS, FAILED
 
@@ -0,0 +1,45 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import com.codeyantratech.financeanalyzer.enums.BatchAction;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity class recording an applied batch operation under its client-generated key.
+ * A batch that is retried after a dropped connection finds its keys here and gets the
+ * original results back instead of creating duplicates. Rows are written with JDBC together
+ * with the operations they describe and expire after a configured TTL.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "idempotency_keys", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_idempotency_keys_user_key", columnNames = {"user_id", "idempotency_key"})
+}, indexes = {
+        @Index(name = "idx_idempotency_keys_created", columnList = "created_at")
+})
+public class IdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 64)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private BatchAction action;
+
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,75 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity class representing a named column mapping for imported bank files.
+ * Each profile belongs to a specific user. Column positions are zero-based.
+ * When no type column is mapped, the transaction type follows the sign of the amount.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Table(name = "import_profiles", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_import_profiles_user_name", columnNames = {"user_id", "name"})
+})
+public class ImportProfile extends BaseEntity {
+
+    public static final int HEADER_SIGNATURE_LENGTH = 500;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false, length = 50)
+    private String name;
+
+    @Column(nullable = false, length = 1)
+    private String delimiter = ",";
+
+    // Lines before the first data row, including the header row
+    @Column(name = "skip_lines", nullable = false)
+    private Integer skipLines = 1;
+
+    @Column(name = "date_column", nullable = false)
+    private Integer dateColumn;
+
+    @Column(name = "amount_column", nullable = false)
+    private Integer amountColumn;
+
+    @Column(name = "type_column")
+    private Integer typeColumn;
+
+    @Column(name = "description_column")
+    private Integer descriptionColumn;
+
+    @Column(name = "date_pattern", nullable = false, length = 30)
+    private String datePattern = "yyyy-MM-dd";
+
+    @Column(name = "decimal_separator", nullable = false, length = 1)
+    private String decimalSeparator = ".";
+
+    @Column(name = "grouping_separator", length = 1)
+    private String groupingSeparator;
+
+    // Values of the type column meaning income/expense, in addition to INCOME and EXPENSE
+    @Column(name = "income_label", length = 30)
+    private String incomeLabel;
+
+    @Column(name = "expense_label", length = 30)
+    private String expenseLabel;
+
+    // Type of negative amounts when no type column is mapped; positive amounts get the other type
+    @Enumerated(EnumType.STRING)
+    @Column(name = "negative_amount_type", nullable = false, length = 10)
+    private TransactionType negativeAmountType = TransactionType.EXPENSE;
+
+    // Normalized header row used to recognize files of this format
+    @Column(name = "header_signature", length = HEADER_SIGNATURE_LENGTH)
+    private String headerSignature;
+}
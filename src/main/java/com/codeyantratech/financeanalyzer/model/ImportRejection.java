@@ -0,0 +1,56 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity class representing one rejected row of an imported file.
+ * Only the first rows up to a configured cap are stored per upload;
+ * FileUpload.rejectedCount always holds the full count.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "import_rejections", indexes = {
+        @Index(name = "idx_import_rejections_upload_row", columnList = "file_upload_id, row_number")
+})
+public class ImportRejection {
+
+    public static final int MAX_VALUE_LENGTH = 200;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "file_upload_id", nullable = false)
+    private FileUpload fileUpload;
+
+    // Archive entry the row came from, null for plain uploads
+    @Column(name = "entry_name")
+    private String entryName;
+
+    @Column(name = "row_number", nullable = false)
+    private Long rowNumber;
+
+    @Column(name = "column_name", length = 50)
+    private String columnName;
+
+    @Column(nullable = false, length = 200)
+    private String reason;
+
+    @Column(name = "raw_value", length = MAX_VALUE_LENGTH)
+    private String rawValue;
+
+    public ImportRejection(FileUpload fileUpload, String entryName, long rowNumber, String columnName, String reason,
+                           String rawValue) {
+        this.fileUpload = fileUpload;
+        this.entryName = entryName;
+        this.rowNumber = rowNumber;
+        this.columnName = columnName;
+        this.reason = reason;
+        this.rawValue = rawValue != null && rawValue.length() > MAX_VALUE_LENGTH
+                ? rawValue.substring(0, MAX_VALUE_LENGTH) : rawValue;
+    }
+}
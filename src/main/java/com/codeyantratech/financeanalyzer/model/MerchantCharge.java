@@ -0,0 +1,12 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of an expense, as streamed by the recurring payment analyzer
+ * and for seeding merchant sketches.
+ * Selected with a constructor expression, so streamed rows never enter the persistence context.
+ */
+public record MerchantCharge(Long id, String description, BigDecimal amount, String currency, LocalDate date) {
+}
@@ -0,0 +1,48 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class holding the merchant sketches of one user's expenses in one month: a
+ * Space-Saving summary of the most frequent merchants and HyperLogLog registers for the
+ * number of distinct merchants, both serialized by MerchantAnalyticsService.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "merchant_sketches", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_merchant_sketches_user_month", columnNames = {"user_id", "month"})
+}, indexes = {
+        @Index(name = "idx_merchant_sketches_month", columnList = "month")
+})
+public class MerchantSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // First day of the month
+    @Column(nullable = false)
+    private LocalDate month;
+
+    // Expenses with a recognizable merchant, exact
+    @Column(name = "charge_count", nullable = false)
+    private long chargeCount;
+
+    @Column(name = "top_merchants", nullable = false)
+    private byte[] topMerchants;
+
+    @Column(name = "merchant_registers", nullable = false)
+    private byte[] merchantRegisters;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,36 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entity class holding the merchant sketches of all users for one month, merged from
+ * merchant_sketches by a scheduled job so that cross-user reports read one row per month.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "merchant_sketch_rollups")
+public class MerchantSketchRollup {
+
+    // First day of the month
+    @Id
+    private LocalDate month;
+
+    @Column(name = "charge_count", nullable = false)
+    private long chargeCount;
+
+    @Column(name = "top_merchants", nullable = false)
+    private byte[] topMerchants;
+
+    @Column(name = "merchant_registers", nullable = false)
+    private byte[] merchantRegisters;
+
+    // Start of the rollup run; user sketches updated later are merged by the next run
+    @Column(name = "rolled_up_at", nullable = false)
+    private LocalDateTime rolledUpAt;
+}
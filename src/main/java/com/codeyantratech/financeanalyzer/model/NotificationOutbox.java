@@ -0,0 +1,50 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import com.codeyantratech.financeanalyzer.enums.NotificationType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity class for a notification waiting to be delivered.
+ * Rows are written in the same database transaction as the change that caused them, so a
+ * notification exists exactly when that change committed. NotificationService delivers and
+ * deletes them in the background.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "notification_outbox", indexes = {
+        @Index(name = "idx_notification_outbox_available", columnList = "available_at, id")
+})
+public class NotificationOutbox {
+
+    public static final int MAX_MESSAGE_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private NotificationType type;
+
+    @Column(nullable = false, length = MAX_MESSAGE_LENGTH)
+    private String message;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Failed delivery attempts so far
+    @Column(nullable = false)
+    private int attempts;
+
+    // Not picked up before this time; pushed back after a failed attempt
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+}
@@ -0,0 +1,77 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import com.codeyantratech.financeanalyzer.enums.RecurringCadence;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Entity class holding the charge history of one user and normalized merchant, reduced to
+ * running statistics of amounts and of the days between charges.
+ * Every merchant a user paid gets a row, so later charges can be added without re-reading
+ * earlier ones; a cadence is only set while the history looks like a recurring payment.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "recurring_payments", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_recurring_payments_user_merchant", columnNames = {"user_id", "merchant"})
+})
+public class RecurringPayment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Key produced by MerchantNormalizer
+    @Column(nullable = false, length = 100)
+    private String merchant;
+
+    // Description of the latest charge, for display
+    @Column(length = 255)
+    private String description;
+
+    @Column(length = 10)
+    private String currency;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "count", column = @Column(name = "amount_count")),
+            @AttributeOverride(name = "mean", column = @Column(name = "amount_mean")),
+            @AttributeOverride(name = "m2", column = @Column(name = "amount_m2"))
+    })
+    private RunningStats amountStats = new RunningStats();
+
+    // Days between consecutive charges on different days
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "count", column = @Column(name = "interval_count")),
+            @AttributeOverride(name = "mean", column = @Column(name = "interval_mean")),
+            @AttributeOverride(name = "m2", column = @Column(name = "interval_m2"))
+    })
+    private RunningStats intervalStats = new RunningStats();
+
+    @Column(name = "first_date")
+    private LocalDate firstDate;
+
+    @Column(name = "last_date")
+    private LocalDate lastDate;
+
+    // Null while the charges do not look recurring
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private RecurringCadence cadence;
+
+    @Column(name = "next_expected_date")
+    private LocalDate nextExpectedDate;
+
+    public RecurringPayment(Long userId, String merchant) {
+        this.userId = userId;
+        this.merchant = merchant;
+    }
+}
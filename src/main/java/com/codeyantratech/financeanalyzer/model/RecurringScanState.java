@@ -0,0 +1,29 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity class holding the watermark of recurring payment detection for one user.
+ * Incremental runs only read transactions with a higher id than the last one analyzed.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "recurring_scan_state")
+public class RecurringScanState {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "last_transaction_id", nullable = false)
+    private long lastTransactionId;
+
+    // Full rescans rebuild the statistics, picking up edits and deletions
+    @Column(name = "last_full_scan_at", nullable = false)
+    private LocalDateTime lastFullScanAt;
+}
@@ -0,0 +1,34 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import com.codeyantratech.financeanalyzer.enums.VersionedResource;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity class holding the version counter of one user's list, shared by all application
+ * instances. Incremented by ResourceVersionService in the transaction of every write to
+ * the list; a missing row is version 0.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "resource_versions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_resource_versions_user_resource", columnNames = {"user_id", "resource"})
+})
+public class ResourceVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private VersionedResource resource;
+
+    @Column(nullable = false)
+    private long version;
+}
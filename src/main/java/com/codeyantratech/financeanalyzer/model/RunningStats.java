@@ -0,0 +1,55 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import jakarta.persistence.Embeddable;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Count, mean and variance of a series, updated one value at a time with Welford's
+ * algorithm, so the series itself never has to be stored or re-read.
+ */
+@Data
+@NoArgsConstructor
+@Embeddable
+public class RunningStats {
+
+    private long count;
+    private double mean;
+    // Sum of squared differences from the current mean
+    private double m2;
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    /**
+     * Takes a previously added value out again, e.g. when the transaction it came from is
+     * edited or deleted.
+     */
+    public void remove(double value) {
+        if (count <= 1) {
+            count = 0;
+            mean = 0;
+            m2 = 0;
+            return;
+        }
+        double previousMean = (count * mean - value) / (count - 1);
+        m2 = Math.max(0, m2 - (value - previousMean) * (value - mean));
+        mean = previousMean;
+        count--;
+    }
+
+    /**
+     * Sample variance, 0 for fewer than two values.
+     */
+    public double variance() {
+        return count > 1 ? m2 / (count - 1) : 0;
+    }
+
+    public double stddev() {
+        return Math.sqrt(variance());
+    }
+}
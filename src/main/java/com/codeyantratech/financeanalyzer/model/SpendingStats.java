@@ -0,0 +1,44 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity class holding running statistics of one user's expense amounts in one category and
+ * currency, maintained by SpendingAnomalyService on every write.
+ * Statistics are kept over log(1 + amount), where spending is closer to normally distributed,
+ * so the standard deviation describes a typical relative spread rather than an absolute one.
+ * A category key of 0 stands for uncategorized expenses and -1 for all of the user's
+ * expenses in that currency.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "spending_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_spending_stats_user_category_currency",
+                columnNames = {"user_id", "category_key", "currency"})
+})
+public class SpendingStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "category_key", nullable = false)
+    private Long categoryKey;
+
+    @Column(nullable = false, length = 10)
+    private String currency;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "count", column = @Column(name = "sample_count", nullable = false)),
+            @AttributeOverride(name = "mean", column = @Column(name = "log_mean", nullable = false)),
+            @AttributeOverride(name = "m2", column = @Column(name = "log_m2", nullable = false))
+    })
+    private RunningStats stats = new RunningStats();
+}
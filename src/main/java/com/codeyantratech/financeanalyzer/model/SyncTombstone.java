@@ -0,0 +1,47 @@
+package com.codeyantratech.financeanalyzer.model;
+
+import com.codeyantratech.financeanalyzer.enums.SyncEntityType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity class recording the deletion of a synced entity, so clients asking for changes
+ * since a watermark learn which of their cached rows to drop.
+ * Tombstones are kept for a configured retention; clients that have not synced for longer
+ * get a full snapshot instead.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "sync_tombstones", indexes = {
+        @Index(name = "idx_sync_tombstones_user_deleted", columnList = "user_id, deleted_at")
+})
+public class SyncTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private SyncEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    public SyncTombstone(Long userId, SyncEntityType entityType, Long entityId) {
+        this.userId = userId;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.deletedAt = LocalDateTime.now();
+    }
+}
@@ -20,7 +20,10 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_user_date", columnList = "user_id, transaction_date"),
+        @Index(name = "idx_transactions_user_updated", columnList = "user_id, updated_at")
+})
 public class Transaction extends BaseEntity {
 
     @NotNull(message = "User is required")
@@ -44,6 +47,11 @@ public class Transaction extends BaseEntity {
     @Column(name = "transaction_date", nullable = false)
     private LocalDate transactionDate;
 
+    // ISO 4217 code; null on rows written before currencies were tracked, which count in the
+    // owner's preferred currency
+    @Column(length = 10)
+    private String currency;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "transaction_type", length = 10)
     private TransactionType transactionType;
@@ -53,6 +61,16 @@ public class Transaction extends BaseEntity {
     @Builder.Default
     private TransactionSource source = TransactionSource.MANUAL;
 
+    // Whether the expense was unusually large for its category when written; null for
+    // incomes and for expenses written before anomaly detection, which are not part of the
+    // spending statistics
+    @Column(name = "anomaly")
+    private Boolean anomaly;
+
+    // Upload that imported this transaction, null for manual entries
+    @Column(name = "file_upload_id", updatable = false)
+    private Long fileUploadId;
+
     // Custom constructor for basic transaction
     public Transaction(User user, BigDecimal amount, String description,
                        LocalDate transactionDate, TransactionType transactionType) {
@@ -0,0 +1,159 @@
+package com.codeyantratech.financeanalyzer.repository;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC repository for the cross-user aggregations of the admin reports.
+ * Every query covers one range of user ids, so a report is a number of short statements
+ * that can run in parallel and whose results add up. Queries go to the read replica
+ * configured in app.admin.reports.replica.url, or to the primary database without one,
+ * always with a statement timeout.
+ */
+@Slf4j
+@Repository
+public class AdminReportRepository {
+
+    private static final String USER_RANGE_SQL =
+            "SELECT min(id) AS min_id, max(id) AS max_id, count(*) AS users FROM users";
+
+    private static final String ROWS =
+            "SELECT user_id, transaction_date, transaction_type, amount, currency FROM %s " +
+            "WHERE user_id >= ? AND user_id < ? AND transaction_date BETWEEN ? AND ?";
+
+    // Per month, currency and type, plus one row per month (grouped = 1) with its active users.
+    // A null currency is the user's preferred one, or the default currency without one.
+    private static final String VOLUME_SQL =
+            "SELECT month, currency, transaction_type, count(*) AS transactions, sum(amount) AS amount, " +
+            "count(DISTINCT user_id) AS users, GROUPING(currency, transaction_type) AS grouped FROM (" +
+            "SELECT date_trunc('month', t.transaction_date)::date AS month, " +
+            "COALESCE(t.currency, u.preferred_currency, ?) AS currency, t.transaction_type, t.amount, t.user_id " +
+            "FROM (%s) t JOIN users u ON u.id = t.user_id) v " +
+            "GROUP BY GROUPING SETS ((month, currency, transaction_type), (month))";
+
+    private static final String IMPORTS_SQL =
+            "SELECT COALESCE(status, 'UNKNOWN') AS status, count(*) AS uploads, " +
+            "COALESCE(sum(records_count), 0) AS records, COALESCE(sum(rejected_count), 0) AS rejected " +
+            "FROM file_uploads WHERE user_id >= ? AND user_id < ? AND upload_date >= ? AND upload_date < ? " +
+            "GROUP BY 1";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.admin.reports.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${app.admin.reports.replica.username:}")
+    private String replicaUsername;
+
+    @Value("${app.admin.reports.replica.password:}")
+    private String replicaPassword;
+
+    @Value("${app.admin.reports.parallelism:2}")
+    private int parallelism;
+
+    @Value("${app.admin.reports.query-timeout-seconds:30}")
+    private int queryTimeoutSeconds;
+
+    private HikariDataSource replica;
+    private JdbcTemplate jdbcTemplate;
+
+    public record UserRange(long minId, long maxId, long users) {
+    }
+
+    /**
+     * Transactions of one month, currency and type, or all transactions of the month when
+     * currency and type are null.
+     */
+    public record VolumeRow(YearMonth month, String currency, TransactionType type, long transactions,
+                            BigDecimal amount, long activeUsers) {
+    }
+
+    public record ImportRow(String status, long uploads, long records, long rejected) {
+    }
+
+    @PostConstruct
+    void init() {
+        DataSource source = dataSource;
+        if (!replicaUrl.isBlank()) {
+            // A small pool of its own, so reports never wait for or hold primary connections
+            replica = new HikariDataSource();
+            replica.setPoolName("report-replica");
+            replica.setJdbcUrl(replicaUrl);
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setMaximumPoolSize(parallelism);
+            replica.setMinimumIdle(0);
+            replica.setReadOnly(true);
+            source = replica;
+            log.info("Admin reports read from replica {}", replicaUrl);
+        }
+        jdbcTemplate = new JdbcTemplate(source);
+        jdbcTemplate.setQueryTimeout(queryTimeoutSeconds);
+    }
+
+    @PreDestroy
+    void close() {
+        if (replica != null) {
+            replica.close();
+        }
+    }
+
+    public UserRange findUserRange() {
+        return jdbcTemplate.queryForObject(USER_RANGE_SQL, (rs, rowNum) ->
+                new UserRange(rs.getLong("min_id"), rs.getLong("max_id"), rs.getLong("users")));
+    }
+
+    /**
+     * Aggregates the transactions of users with ids in [fromId, toId) dated within an
+     * inclusive range.
+     *
+     * @param includeArchive Whether the range reaches into transactions_archive
+     */
+    public List<VolumeRow> findVolumes(long fromId, long toId, LocalDate from, LocalDate to, boolean includeArchive,
+                                       String defaultCurrency) {
+        String rows = ROWS.formatted("transactions");
+        List<Object> rowArgs = List.of(fromId, toId, Date.valueOf(from), Date.valueOf(to));
+        List<Object> args = new ArrayList<>();
+        args.add(defaultCurrency);
+        args.addAll(rowArgs);
+        if (includeArchive) {
+            rows = rows + " UNION ALL " + ROWS.formatted("transactions_archive");
+            args.addAll(rowArgs);
+        }
+        return jdbcTemplate.query(VOLUME_SQL.formatted(rows), (rs, rowNum) -> {
+            boolean monthTotal = rs.getInt("grouped") != 0;
+            String type = rs.getString("transaction_type");
+            return new VolumeRow(YearMonth.from(rs.getDate("month").toLocalDate()),
+                    monthTotal ? null : rs.getString("currency"),
+                    monthTotal || type == null ? null : TransactionType.valueOf(type),
+                    rs.getLong("transactions"), rs.getBigDecimal("amount"), rs.getLong("users"));
+        }, args.toArray());
+    }
+
+    /**
+     * Counts the uploads of users with ids in [fromId, toId) made within an inclusive date
+     * range, per status.
+     */
+    public List<ImportRow> findImports(long fromId, long toId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(IMPORTS_SQL, (rs, rowNum) -> new ImportRow(rs.getString("status"),
+                        rs.getLong("uploads"), rs.getLong("records"), rs.getLong("rejected")),
+                fromId, toId, Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.codeyantratech.financeanalyzer.repository;
+
+import com.codeyantratech.financeanalyzer.model.ArchivedTransaction;
+import com.codeyantratech.financeanalyzer.model.MerchantCharge;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * Repository interface for reading archived transactions.
+ * Rows are inserted by the archival job with native SQL, never through this repository.
+ */
+@Repository
+public interface ArchivedTransactionRepository extends JpaRepository<ArchivedTransaction, Long> {
+
+    /**
+     * Finds all archived transactions of a user, newest first.
+     *
+     * @param userId The id of the user
+     * @return List of ArchivedTransaction entities
+     */
+    List<ArchivedTransaction> findByUserIdOrderByTransactionDateDesc(Long userId);
+
+    /**
+     * Finds the archived transactions of a user within an inclusive date range, newest first.
+     *
+     * @param userId The id of the user
+     * @param from   First transaction date to include
+     * @param to     Last transaction date to include
+     * @return List of ArchivedTransaction entities
+     */
+    List<ArchivedTransaction> findByUserIdAndTransactionDateBetweenOrderByTransactionDateDesc(
+            Long userId, LocalDate from, LocalDate to);
+
+    /**
+     * Streams all archived expenses of a user, oldest first.
+     * The stream must be consumed and closed inside a database transaction.
+     *
+     * @param userId The id of the user
+     * @return Stream of charges ordered by transaction date, then id
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.codeyantratech.financeanalyzer.model.MerchantCharge(" +
+            "t.id, t.description, t.amount, t.currency, t.transactionDate) " +
+            "FROM ArchivedTransaction t " +
+            "WHERE t.userId = :userId " +
+            "AND t.transactionType = com.codeyantratech.financeanalyzer.enums.TransactionType.EXPENSE " +
+            "ORDER BY t.transactionDate, t.id")
+    Stream<MerchantCharge> streamExpenses(@Param("userId") Long userId);
+
+    /**
+     * Streams the archived expenses of a user within an inclusive date range.
+     * The stream must be consumed and closed inside a database transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.codeyantratech.financeanalyzer.model.MerchantCharge(" +
+            "t.id, t.description, t.amount, t.currency, t.transactionDate) " +
+            "FROM ArchivedTransaction t " +
+            "WHERE t.userId = :userId AND t.transactionDate BETWEEN :from AND :to " +
+            "AND t.transactionType = com.codeyantratech.financeanalyzer.enums.TransactionType.EXPENSE")
+    Stream<MerchantCharge> streamExpensesBetween(@Param("userId") Long userId, @Param("from") LocalDate from,
+                                                 @Param("to") LocalDate to);
+}
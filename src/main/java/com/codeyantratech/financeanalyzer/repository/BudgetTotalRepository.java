@@ -0,0 +1,120 @@
+package com.codeyantratech.financeanalyzer.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * JDBC repository for the running monthly expense totals, kept per currency.
+ * A change upserts the month row in budget_months, which serializes concurrent writers of
+ * the month, and applies its deltas with one batch of upserts; a month row created by that
+ * upsert has its totals seeded once with the expenses already stored, as computed by the caller.
+ */
+@Repository
+public class BudgetTotalRepository {
+
+    // The no-op update locks an existing row and makes RETURNING report it
+    private static final String ADD_MONTH_SQL =
+            "INSERT INTO budget_months (user_id, month, notified_percent) VALUES (?, ?, 0) " +
+            "ON CONFLICT (user_id, month) DO UPDATE SET notified_percent = budget_months.notified_percent " +
+            "RETURNING (xmax = 0) AS inserted";
+
+    private static final String ADD_SQL =
+            "INSERT INTO budget_currency_totals (user_id, month, currency, expense_total) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (user_id, month, currency) " +
+            "DO UPDATE SET expense_total = budget_currency_totals.expense_total + EXCLUDED.expense_total";
+
+    private static final String FIND_SQL =
+            "SELECT m.notified_percent, t.currency, t.expense_total FROM budget_months m " +
+            "LEFT JOIN budget_currency_totals t ON t.user_id = m.user_id AND t.month = m.month " +
+            "WHERE m.user_id = ? AND m.month = ?";
+
+    private static final String UPDATE_NOTIFIED_SQL =
+            "UPDATE budget_months SET notified_percent = ? WHERE user_id = ? AND month = ?";
+
+    private static final String DELETE_TOTALS_BY_USER_SQL =
+            "DELETE FROM budget_currency_totals WHERE user_id = ?";
+
+    private static final String DELETE_MONTHS_BY_USER_SQL =
+            "DELETE FROM budget_months WHERE user_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * The tracked expenses of one month.
+     *
+     * @param expenses        Expense total per currency, unconverted
+     * @param notifiedPercent Highest threshold already notified, 0 for none
+     */
+    public record MonthTotals(YearMonth month, Map<String, BigDecimal> expenses, int notifiedPercent) {
+    }
+
+    /**
+     * Adds expense deltas per currency to a month, creating and seeding the month if needed.
+     * Must run before the transactions causing the deltas are written in the same database
+     * transaction, otherwise the seed would count them twice.
+     *
+     * @param deltas Expense change per currency, may be empty to only create the month
+     * @param seed   Computes the month's stored expenses per currency; only called when the
+     *               month is created
+     */
+    public void add(Long userId, YearMonth month, Map<String, BigDecimal> deltas,
+                    Supplier<Map<String, BigDecimal>> seed) {
+        Date monthStart = Date.valueOf(month.atDay(1));
+        Boolean inserted = jdbcTemplate.queryForObject(ADD_MONTH_SQL, Boolean.class, userId, monthStart);
+        NavigableMap<String, BigDecimal> totals = new TreeMap<>(deltas);
+        if (Boolean.TRUE.equals(inserted)) {
+            // Seed and deltas go into the same batch
+            seed.get().forEach((currency, amount) -> totals.merge(currency, amount, BigDecimal::add));
+        }
+        // Currencies are upserted in ascending order so concurrent writers lock rows in the same order
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((currency, amount) -> {
+            if (amount.signum() != 0) {
+                rows.add(new Object[]{userId, monthStart, currency, amount});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_SQL, rows);
+        }
+    }
+
+    public Optional<MonthTotals> find(Long userId, YearMonth month) {
+        Map<String, BigDecimal> expenses = new TreeMap<>();
+        int[] notifiedPercent = {-1};
+        jdbcTemplate.query(FIND_SQL, rs -> {
+            notifiedPercent[0] = rs.getInt("notified_percent");
+            String currency = rs.getString("currency");
+            if (currency != null) {
+                expenses.put(currency, rs.getBigDecimal("expense_total"));
+            }
+        }, userId, Date.valueOf(month.atDay(1)));
+        return notifiedPercent[0] < 0 ? Optional.empty()
+                : Optional.of(new MonthTotals(month, expenses, notifiedPercent[0]));
+    }
+
+    public void updateNotifiedPercent(Long userId, YearMonth month, int notifiedPercent) {
+        jdbcTemplate.update(UPDATE_NOTIFIED_SQL, notifiedPercent, userId, Date.valueOf(month.atDay(1)));
+    }
+
+    /**
+     * Drops all totals of a user, e.g. after the currency that amounts without one are kept
+     * under changed. Months are seeded again on their next change or status read.
+     */
+    public void deleteByUser(Long userId) {
+        jdbcTemplate.update(DELETE_TOTALS_BY_USER_SQL, userId);
+        jdbcTemplate.update(DELETE_MONTHS_BY_USER_SQL, userId);
+    }
+}
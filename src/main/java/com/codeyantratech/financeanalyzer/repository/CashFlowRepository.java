@@ -0,0 +1,170 @@
+package com.codeyantratech.financeanalyzer.repository;
+
+import com.codeyantratech.financeanalyzer.model.CashFlowSeries;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * JDBC repository for the daily cash-flow series of users, kept per currency.
+ * A change is applied with one upsert of the series row, which serializes concurrent writers
+ * of the same user, one batch of balance upserts and one batch of day upserts. A series row
+ * created by that upsert is then seeded once with the flows already stored, as computed by
+ * the caller.
+ */
+@Repository
+public class CashFlowRepository {
+
+    // A new series starts its version at the current time in milliseconds, so a series that is
+    // dropped and seeded again does not reuse the versions of the old one
+    private static final String ADD_SQL =
+            "INSERT INTO cash_flow_versions (user_id, version) " +
+            "VALUES (?, (extract(epoch FROM clock_timestamp()) * 1000)::bigint) " +
+            "ON CONFLICT (user_id) DO UPDATE SET version = cash_flow_versions.version + 1 " +
+            "RETURNING version, (xmax = 0) AS inserted";
+
+    private static final String ADD_BALANCE_SQL =
+            "INSERT INTO cash_flow_balances (user_id, currency, balance) VALUES (?, ?, ?) " +
+            "ON CONFLICT (user_id, currency) DO UPDATE SET balance = cash_flow_balances.balance + EXCLUDED.balance";
+
+    private static final String ADD_DAY_SQL =
+            "INSERT INTO cash_flow_currency_days (user_id, flow_date, currency, net_flow) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (user_id, flow_date, currency) " +
+            "DO UPDATE SET net_flow = cash_flow_currency_days.net_flow + EXCLUDED.net_flow";
+
+    private static final String FIND_SQL =
+            "SELECT version FROM cash_flow_versions WHERE user_id = ?";
+
+    private static final String FIND_BALANCES_SQL =
+            "SELECT currency, balance FROM cash_flow_balances WHERE user_id = ?";
+
+    private static final String FIND_DAYS_SQL =
+            "SELECT flow_date, currency, net_flow FROM cash_flow_currency_days " +
+            "WHERE user_id = ? AND flow_date BETWEEN ? AND ?";
+
+    private static final String DELETE_DAYS_SQL = "DELETE FROM cash_flow_currency_days WHERE user_id = ?";
+
+    private static final String DELETE_BALANCES_SQL = "DELETE FROM cash_flow_balances WHERE user_id = ?";
+
+    private static final String DELETE_SERIES_SQL = "DELETE FROM cash_flow_versions WHERE user_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds net flow deltas per day and currency to a user's series, creating and seeding it
+     * if needed. Must run before the transactions causing the deltas are written in the same
+     * database transaction, otherwise the seed would count them twice.
+     *
+     * @param deltas Net flow change per day and currency, in ascending date order
+     * @param seed   Computes the stored net flows per day and currency; only called when the
+     *               series is created
+     * @return The series with its new version
+     */
+    public CashFlowSeries add(Long userId, NavigableMap<LocalDate, Map<String, BigDecimal>> deltas,
+                              Supplier<NavigableMap<LocalDate, Map<String, BigDecimal>>> seed) {
+        Upserted upserted = jdbcTemplate.queryForObject(ADD_SQL, (rs, rowNum) -> new Upserted(
+                rs.getLong("version"), rs.getBoolean("inserted")), userId);
+        NavigableMap<LocalDate, Map<String, BigDecimal>> days = deltas;
+        if (upserted.inserted()) {
+            // Seed and deltas go into the same batches
+            NavigableMap<LocalDate, Map<String, BigDecimal>> stored = seed.get();
+            deltas.forEach((day, flows) -> flows.forEach((currency, delta) ->
+                    stored.computeIfAbsent(day, d -> new TreeMap<>()).merge(currency, delta, BigDecimal::add)));
+            days = stored;
+        }
+        addBalances(userId, days);
+        addDays(userId, days);
+        return toSeries(userId, upserted.version());
+    }
+
+    public Optional<CashFlowSeries> find(Long userId) {
+        return jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> toSeries(userId, rs.getLong("version")), userId)
+                .stream().findFirst();
+    }
+
+    /**
+     * Returns the balances of a user by currency, unconverted.
+     */
+    public Map<String, BigDecimal> findBalances(Long userId) {
+        Map<String, BigDecimal> balances = new TreeMap<>();
+        jdbcTemplate.query(FIND_BALANCES_SQL, rs -> {
+            balances.put(rs.getString("currency"), rs.getBigDecimal("balance"));
+        }, userId);
+        return balances;
+    }
+
+    /**
+     * Returns the net flows of a user within an inclusive date range, by date and currency,
+     * unconverted.
+     */
+    public NavigableMap<LocalDate, Map<String, BigDecimal>> findDays(Long userId, LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, Map<String, BigDecimal>> days = new TreeMap<>();
+        jdbcTemplate.query(FIND_DAYS_SQL, rs -> {
+            days.computeIfAbsent(rs.getDate("flow_date").toLocalDate(), d -> new TreeMap<>())
+                    .put(rs.getString("currency"), rs.getBigDecimal("net_flow"));
+        }, userId, Date.valueOf(from), Date.valueOf(to));
+        return days;
+    }
+
+    /**
+     * Drops the series of a user, e.g. after the currency that amounts without one are kept
+     * under changed. It is seeded again on the next change or forecast.
+     */
+    public void deleteByUser(Long userId) {
+        jdbcTemplate.update(DELETE_DAYS_SQL, userId);
+        jdbcTemplate.update(DELETE_BALANCES_SQL, userId);
+        jdbcTemplate.update(DELETE_SERIES_SQL, userId);
+    }
+
+    // Currencies are upserted in ascending order so concurrent writers lock rows in the same order
+    private void addBalances(Long userId, NavigableMap<LocalDate, Map<String, BigDecimal>> netFlows) {
+        Map<String, BigDecimal> totals = new TreeMap<>();
+        netFlows.values().forEach(flows -> flows.forEach((currency, netFlow) ->
+                totals.merge(currency, netFlow, BigDecimal::add)));
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((currency, total) -> {
+            if (total.signum() != 0) {
+                rows.add(new Object[]{userId, currency, total});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_BALANCE_SQL, rows);
+        }
+    }
+
+    // Days are upserted in ascending order so concurrent writers lock rows in the same order
+    private void addDays(Long userId, NavigableMap<LocalDate, Map<String, BigDecimal>> netFlows) {
+        List<Object[]> rows = new ArrayList<>(netFlows.size());
+        netFlows.forEach((day, flows) -> flows.forEach((currency, netFlow) -> {
+            if (netFlow.signum() != 0) {
+                rows.add(new Object[]{userId, Date.valueOf(day), currency, netFlow});
+            }
+        }));
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_DAY_SQL, rows);
+        }
+    }
+
+    private static CashFlowSeries toSeries(Long userId, long version) {
+        CashFlowSeries series = new CashFlowSeries();
+        series.setUserId(userId);
+        series.setVersion(version);
+        return series;
+    }
+
+    // xmax is 0 for a row the upsert inserted rather than updated
+    private record Upserted(long version, boolean inserted) {
+    }
+}
@@ -5,6 +5,7 @@ import com.codeyantratech.financeanalyzer.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +21,11 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
      */
     List<Category> findByUserOrderByNameAsc(User user);
 
+    /**
+     * Finds the categories of a user changed after the given time, for delta sync.
+     */
+    List<Category> findByUserAndUpdatedAtAfter(User user, LocalDateTime since);
+
     /**
      * Finds a specific category by ID and user.
      */
@@ -0,0 +1,46 @@
+package com.codeyantratech.financeanalyzer.repository;
+
+import com.codeyantratech.financeanalyzer.model.ExchangeRate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.util.List;
+
+/**
+ * JDBC repository for daily exchange rates.
+ * Rates are written in JDBC batches and read back in one pass to build the in-memory table.
+ */
+@Repository
+public class ExchangeRateRepository {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO exchange_rates (currency, rate_date, rate) VALUES (?, ?, ?) " +
+            "ON CONFLICT (currency, rate_date) DO UPDATE SET rate = EXCLUDED.rate";
+
+    private static final String SELECT_ALL_SQL =
+            "SELECT currency, rate_date, rate FROM exchange_rates";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the given rates, replacing stored rates of the same currency and day.
+     */
+    public void upsertAll(List<ExchangeRate> rates) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rates, 1000, (ps, r) -> {
+            ps.setString(1, r.getCurrency());
+            ps.setDate(2, Date.valueOf(r.getRateDate()));
+            ps.setBigDecimal(3, r.getRate());
+        });
+    }
+
+    /**
+     * Streams every stored rate to the handler, in no particular order.
+     */
+    public void forEach(RowCallbackHandler handler) {
+        jdbcTemplate.query(SELECT_ALL_SQL, handler);
+    }
+}
@@ -0,0 +1,34 @@
+package com.codeyantratech.financeanalyzer.repository;
+
+import com.codeyantratech.financeanalyzer.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for looking up and expiring idempotency keys.
+ * Keys are inserted by TransactionBatchRepository in the same JDBC batch flow as the operations.
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    /**
+     * Finds the already applied keys among the given ones with a single query.
+     */
+    List<IdempotencyKey> findByUserIdAndIdempotencyKeyIn(Long userId, Collection<String> idempotencyKeys);
+
+    /**
+     * Deletes keys older than the given time.
+     *
+     * @return The number of deleted keys
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
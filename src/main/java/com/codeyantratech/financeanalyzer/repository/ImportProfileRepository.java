@@ -0,0 +1,32 @@
+package com.codeyantratech.financeanalyzer.repository;
+
+import com.codeyantratech.financeanalyzer.model.ImportProfile;
+import com.codeyantratech.financeanalyzer.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing ImportProfile entities.
+ * All profiles are user-specific.
+ */
+@Repository
+public interface ImportProfileRepository extends JpaRepository<ImportProfile, Long> {
+
+    /**
+     * Finds all import profiles of a user, ordered by name.
+     */
+    List<ImportProfile> findByUserOrderByNameAsc(User user);
+
+    /**
+     * Finds a specific import profile by ID and user.
+     */
+    Optional<ImportProfile> findByIdAndUser(Long id, User user);
+
+    /**
+     * Checks if a user already has an import profile with the given name.
+     */
+    boolean existsByNameAndUser(String name, User user);
+}
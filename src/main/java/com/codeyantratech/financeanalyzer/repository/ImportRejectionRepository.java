@@ -0,0 +1,23 @@
+package com.codeyantratech.financeanalyzer.repository;
+
+import com.codeyantratech.financeanalyzer.model.FileUpload;
+import com.codeyantratech.financeanalyzer.model.ImportRejection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for managing rejected import rows.
+ */
+@Repository
+public interface ImportRejectionRepository extends JpaRepository<ImportRejection, Long> {
+
+    /**
+     * Finds the stored rejections of an upload in file order.
+     *
+     * @param fileUpload The upload the rows belong to
+     * @return List of ImportRejection entities
+     */
+    List<ImportRejection> findByFileUploadOrderByRowNumberAsc(FileUpload fileUpload);
+}
@@ -0,0 +1,156 @@
+package com.codeyantratech.financeanalyzer.repository;
+
+import com.codeyantratech.financeanalyzer.model.MerchantSketch;
+import com.codeyantratech.financeanalyzer.model.MerchantSketchRollup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * JDBC repository for the monthly merchant sketches of users and their cross-user rollups.
+ * Sketches are opaque byte arrays here; MerchantAnalyticsService reads and merges them.
+ * A change locks (or creates) the affected rows with one upsert and writes them back with
+ * one batch.
+ */
+@Repository
+public class MerchantSketchRepository {
+
+    private static final String COLUMNS = "SELECT user_id, month, charge_count, top_merchants, merchant_registers, " +
+            "updated_at FROM merchant_sketches ";
+
+    // Creates missing rows empty and locks all of them, in month order so concurrent writers of
+    // the same user cannot deadlock. The no-op update makes existing rows part of the result.
+    private static final String LOCK_OR_CREATE_SQL =
+            "INSERT INTO merchant_sketches (user_id, month, charge_count, top_merchants, merchant_registers, updated_at) " +
+            "SELECT ?, m, 0, ''::bytea, ''::bytea, now() FROM unnest(CAST(? AS date[])) AS m ORDER BY m " +
+            "ON CONFLICT (user_id, month) DO UPDATE SET updated_at = merchant_sketches.updated_at " +
+            "RETURNING user_id, month, charge_count, top_merchants, merchant_registers, updated_at, " +
+            "(xmax = 0) AS inserted";
+
+    private static final String FIND_BY_USER_SQL =
+            COLUMNS + "WHERE user_id = ? AND month BETWEEN ? AND ?";
+
+    private static final String FIND_BY_MONTH_SQL =
+            COLUMNS + "WHERE month = ?";
+
+    private static final String UPDATE_SQL =
+            "UPDATE merchant_sketches SET charge_count = ?, top_merchants = ?, merchant_registers = ?, updated_at = ? " +
+            "WHERE user_id = ? AND month = ?";
+
+    // Months with user sketches changed since their rollup was built, or never rolled up
+    private static final String STALE_MONTHS_SQL =
+            "SELECT s.month FROM merchant_sketches s LEFT JOIN merchant_sketch_rollups r ON r.month = s.month " +
+            "GROUP BY s.month, r.rolled_up_at " +
+            "HAVING r.rolled_up_at IS NULL OR max(s.updated_at) >= r.rolled_up_at ORDER BY s.month";
+
+    private static final String UPSERT_ROLLUP_SQL =
+            "INSERT INTO merchant_sketch_rollups (month, charge_count, top_merchants, merchant_registers, rolled_up_at) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (month) DO UPDATE SET charge_count = EXCLUDED.charge_count, " +
+            "top_merchants = EXCLUDED.top_merchants, merchant_registers = EXCLUDED.merchant_registers, " +
+            "rolled_up_at = EXCLUDED.rolled_up_at";
+
+    private static final String FIND_ROLLUPS_SQL =
+            "SELECT month, charge_count, top_merchants, merchant_registers, rolled_up_at " +
+            "FROM merchant_sketch_rollups WHERE month BETWEEN ? AND ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * A sketch row locked by lockOrCreate; a created row is empty and still has to be seeded.
+     */
+    public record Locked(MerchantSketch sketch, boolean created) {
+    }
+
+    /**
+     * Locks a user's sketches of the given months until the end of the database transaction,
+     * creating empty ones for months without a sketch.
+     */
+    public List<Locked> lockOrCreate(Long userId, Collection<LocalDate> months) {
+        String[] dates = months.stream().sorted().distinct().map(LocalDate::toString).toArray(String[]::new);
+        return jdbcTemplate.query(LOCK_OR_CREATE_SQL,
+                (rs, rowNum) -> new Locked(mapRow(rs), rs.getBoolean("inserted")), userId, dates);
+    }
+
+    /**
+     * Returns a user's sketches of the months within an inclusive range, without locking them.
+     */
+    public List<MerchantSketch> findByUser(Long userId, LocalDate firstMonth, LocalDate lastMonth) {
+        return jdbcTemplate.query(FIND_BY_USER_SQL, (rs, rowNum) -> mapRow(rs),
+                userId, Date.valueOf(firstMonth), Date.valueOf(lastMonth));
+    }
+
+    /**
+     * Stores sketches locked by lockOrCreate in a single JDBC batch, in month order.
+     */
+    public void saveAll(Collection<MerchantSketch> sketches) {
+        List<MerchantSketch> rows = sketches.stream().sorted(Comparator.comparing(MerchantSketch::getMonth)).toList();
+        jdbcTemplate.batchUpdate(UPDATE_SQL, rows, rows.size(), (ps, s) -> {
+            ps.setLong(1, s.getChargeCount());
+            ps.setBytes(2, s.getTopMerchants());
+            ps.setBytes(3, s.getMerchantRegisters());
+            ps.setTimestamp(4, Timestamp.valueOf(s.getUpdatedAt()));
+            ps.setLong(5, s.getUserId());
+            ps.setDate(6, Date.valueOf(s.getMonth()));
+        });
+    }
+
+    public List<LocalDate> findMonthsToRollUp() {
+        return jdbcTemplate.query(STALE_MONTHS_SQL, (rs, rowNum) -> rs.getDate("month").toLocalDate());
+    }
+
+    /**
+     * Streams the sketches of all users for one month.
+     * Rows are fetched from a cursor in chunks, so this must run inside a database transaction.
+     */
+    public void forEachInMonth(LocalDate month, Consumer<MerchantSketch> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(FIND_BY_MONTH_SQL);
+            ps.setFetchSize(500);
+            ps.setDate(1, Date.valueOf(month));
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapRow(rs)));
+    }
+
+    public void saveRollup(MerchantSketchRollup rollup) {
+        jdbcTemplate.update(UPSERT_ROLLUP_SQL, Date.valueOf(rollup.getMonth()), rollup.getChargeCount(),
+                rollup.getTopMerchants(), rollup.getMerchantRegisters(),
+                Timestamp.valueOf(rollup.getRolledUpAt()));
+    }
+
+    public List<MerchantSketchRollup> findRollups(LocalDate firstMonth, LocalDate lastMonth) {
+        return jdbcTemplate.query(FIND_ROLLUPS_SQL, (rs, rowNum) -> {
+            MerchantSketchRollup rollup = new MerchantSketchRollup();
+            rollup.setMonth(rs.getDate("month").toLocalDate());
+            rollup.setChargeCount(rs.getLong("charge_count"));
+            rollup.setTopMerchants(rs.getBytes("top_merchants"));
+            rollup.setMerchantRegisters(rs.getBytes("merchant_registers"));
+            rollup.setRolledUpAt(rs.getTimestamp("rolled_up_at").toLocalDateTime());
+            return rollup;
+        }, Date.valueOf(firstMonth), Date.valueOf(lastMonth));
+    }
+
+    private static MerchantSketch mapRow(ResultSet rs) throws SQLException {
+        MerchantSketch sketch = new MerchantSketch();
+        sketch.setUserId(rs.getLong("user_id"));
+        sketch.setMonth(rs.getDate("month").toLocalDate());
+        sketch.setChargeCount(rs.getLong("charge_count"));
+        sketch.setTopMerchants(rs.getBytes("top_merchants"));
+        sketch.setMerchantRegisters(rs.getBytes("merchant_registers"));
+        sketch.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        return sketch;
+    }
+}
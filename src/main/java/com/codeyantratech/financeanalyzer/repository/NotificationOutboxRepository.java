@@ -0,0 +1,82 @@
+package com.codeyantratech.financeanalyzer.repository;
+
+import com.codeyantratech.financeanalyzer.enums.NotificationType;
+import com.codeyantratech.financeanalyzer.model.NotificationOutbox;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * JDBC repository for the notification outbox.
+ * Due rows are claimed with FOR UPDATE SKIP LOCKED and leased in the same statement by moving
+ * their available_at past the lease, so several dispatchers (threads or application
+ * instances) can drain the outbox concurrently without blocking each other or delivering a
+ * row twice. The claim commits at once and holds no locks while rows are delivered; rows of
+ * a dispatcher that stops before deleting them are picked up again when the lease ends.
+ */
+@Repository
+public class NotificationOutboxRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notification_outbox (user_id, type, message, created_at, attempts, available_at) " +
+            "VALUES (?, ?, ?, ?, 0, ?)";
+
+    private static final String CLAIM_SQL =
+            "UPDATE notification_outbox SET available_at = ? WHERE id IN (" +
+            "SELECT id FROM notification_outbox WHERE available_at <= ? ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, user_id, type, message, created_at, attempts, available_at";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM notification_outbox WHERE id = ANY(?)";
+
+    private static final String RETRY_SQL =
+            "UPDATE notification_outbox SET attempts = attempts + 1, available_at = ? WHERE id = ANY(?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Queues a notification; messages longer than the column are cut off.
+     */
+    public void insert(Long userId, NotificationType type, String message) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String stored = message.length() > NotificationOutbox.MAX_MESSAGE_LENGTH
+                ? message.substring(0, NotificationOutbox.MAX_MESSAGE_LENGTH) : message;
+        jdbcTemplate.update(INSERT_SQL, userId, type.name(), stored, now, now);
+    }
+
+    /**
+     * Leases and returns up to limit due notifications, oldest first, skipping rows another
+     * dispatcher is claiming at the same moment. The rows are not due again until leasedUntil.
+     */
+    public List<NotificationOutbox> claimDue(int limit, LocalDateTime leasedUntil) {
+        List<NotificationOutbox> claimed = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> {
+            NotificationOutbox row = new NotificationOutbox();
+            row.setId(rs.getLong("id"));
+            row.setUserId(rs.getLong("user_id"));
+            row.setType(NotificationType.valueOf(rs.getString("type")));
+            row.setMessage(rs.getString("message"));
+            row.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+            row.setAttempts(rs.getInt("attempts"));
+            row.setAvailableAt(rs.getTimestamp("available_at").toLocalDateTime());
+            return row;
+        }, Timestamp.valueOf(leasedUntil), Timestamp.valueOf(LocalDateTime.now()), limit);
+        // RETURNING does not keep the order of the subquery
+        claimed.sort(Comparator.comparing(NotificationOutbox::getId));
+        return claimed;
+    }
+
+    public void deleteAll(Collection<Long> ids) {
+        jdbcTemplate.update(DELETE_SQL, (Object) ids.toArray(Long[]::new));
+    }
+
+    public void retryAt(Collection<Long> ids, LocalDateTime availableAt) {
+        jdbcTemplate.update(RETRY_SQL, Timestamp.valueOf(availableAt), ids.toArray(Long[]::new));
+    }
+}
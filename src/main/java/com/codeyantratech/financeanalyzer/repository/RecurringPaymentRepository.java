@@ -0,0 +1,36 @@
+package com.codeyantratech.financeanalyzer.repository;
+
+import com.codeyantratech.financeanalyzer.model.RecurringPayment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for the per-merchant charge statistics of recurring payment detection.
+ */
+@Repository
+public interface RecurringPaymentRepository extends JpaRepository<RecurringPayment, Long> {
+
+    /**
+     * Finds the statistics of every merchant a user paid, recurring or not.
+     */
+    List<RecurringPayment> findByUserId(Long userId);
+
+    /**
+     * Finds the merchants of a user that currently look recurring, by next expected charge.
+     */
+    List<RecurringPayment> findByUserIdAndCadenceIsNotNullOrderByNextExpectedDate(Long userId);
+
+    /**
+     * Deletes all statistics of a user before a full rescan rebuilds them.
+     *
+     * @return The number of deleted rows
+     */
+    @Modifying
+    @Query("DELETE FROM RecurringPayment p WHERE p.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
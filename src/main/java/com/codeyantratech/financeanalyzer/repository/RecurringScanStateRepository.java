@@ -0,0 +1,12 @@
+package com.codeyantratech.financeanalyzer.repository;
+
+import com.codeyantratech.financeanalyzer.model.RecurringScanState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for the per-user watermarks of recurring payment detection.
+ */
+@Repository
+public interface RecurringScanStateRepository extends JpaRepository<RecurringScanState, Long> {
+}
@@ -0,0 +1,55 @@
+package com.codeyantratech.financeanalyzer.repository;
+
+import com.codeyantratech.financeanalyzer.enums.VersionedResource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * JDBC repository for the per-user list versions behind conditional GETs.
+ * Every increment also sends a notification on the resource_versions channel, delivered
+ * to all listening sessions when the incrementing transaction commits, with a payload of
+ * the form userId:RESOURCE:version.
+ */
+@Repository
+public class ResourceVersionRepository {
+
+    public static final String CHANNEL = "resource_versions";
+
+    private static final String INCREMENT_SQL =
+            "WITH bumped AS (" +
+            "INSERT INTO resource_versions (user_id, resource, version) VALUES (?, ?, 1) " +
+            "ON CONFLICT (user_id, resource) DO UPDATE SET version = resource_versions.version + 1 " +
+            "RETURNING user_id, resource, version) " +
+            "SELECT version, pg_notify('" + CHANNEL + "', user_id || ':' || resource || ':' || version) FROM bumped";
+
+    private static final String FIND_SQL =
+            "SELECT resource, version FROM resource_versions WHERE user_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Increments the version of one list and queues its notification.
+     *
+     * @return The new version
+     */
+    public long increment(Long userId, VersionedResource resource) {
+        return jdbcTemplate.queryForObject(INCREMENT_SQL, (rs, rowNum) -> rs.getLong("version"),
+                userId, resource.name());
+    }
+
+    /**
+     * Returns the versions of a user's lists; lists never changed are missing.
+     */
+    public Map<VersionedResource, Long> findVersions(Long userId) {
+        Map<VersionedResource, Long> versions = new EnumMap<>(VersionedResource.class);
+        jdbcTemplate.query(FIND_SQL, rs -> {
+            versions.put(VersionedResource.valueOf(rs.getString("resource")), rs.getLong("version"));
+        }, userId);
+        return versions;
+    }
+}
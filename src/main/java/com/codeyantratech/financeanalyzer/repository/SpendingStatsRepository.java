@@ -0,0 +1,76 @@
+package com.codeyantratech.financeanalyzer.repository;
+
+import com.codeyantratech.financeanalyzer.model.RunningStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC repository for the per-category spending statistics behind anomaly detection.
+ * A write reads the statistics it needs with one locking query and stores the changed ones
+ * with one batch of upserts.
+ */
+@Repository
+public class SpendingStatsRepository {
+
+    public static final long UNCATEGORIZED = 0L;
+    public static final long ALL_CATEGORIES = -1L;
+
+    // Rows are locked in key order so concurrent writers of the same user cannot deadlock
+    private static final String FIND_FOR_UPDATE_SQL =
+            "SELECT category_key, currency, sample_count, log_mean, log_m2 FROM spending_stats " +
+            "WHERE user_id = ? AND category_key = ANY(?) ORDER BY category_key, currency FOR UPDATE";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO spending_stats (user_id, category_key, currency, sample_count, log_mean, log_m2) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (user_id, category_key, currency) DO UPDATE SET sample_count = EXCLUDED.sample_count, " +
+            "log_mean = EXCLUDED.log_mean, log_m2 = EXCLUDED.log_m2";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Loads and locks a user's statistics of the given categories in every currency.
+     * Keys without a stored row are missing from the result. Two writers creating the same
+     * row concurrently both see it missing, and the later upsert wins.
+     */
+    public Map<Key, RunningStats> findForUpdate(Long userId, Collection<Long> categoryKeys) {
+        Map<Key, RunningStats> stats = new HashMap<>();
+        jdbcTemplate.query(FIND_FOR_UPDATE_SQL, rs -> {
+            RunningStats s = new RunningStats();
+            s.setCount(rs.getLong("sample_count"));
+            s.setMean(rs.getDouble("log_mean"));
+            s.setM2(rs.getDouble("log_m2"));
+            stats.put(new Key(rs.getLong("category_key"), rs.getString("currency")), s);
+        }, userId, categoryKeys.toArray(Long[]::new));
+        return stats;
+    }
+
+    /**
+     * Stores the given statistics of a user in a single JDBC batch, in key order.
+     */
+    public void saveAll(Long userId, Map<Key, RunningStats> stats) {
+        List<Map.Entry<Key, RunningStats>> rows = stats.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.comparingLong(Key::categoryKey)
+                        .thenComparing(Key::currency)))
+                .toList();
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, userId);
+            ps.setLong(2, row.getKey().categoryKey());
+            ps.setString(3, row.getKey().currency());
+            ps.setLong(4, row.getValue().getCount());
+            ps.setDouble(5, row.getValue().getMean());
+            ps.setDouble(6, row.getValue().getM2());
+        });
+    }
+
+    public record Key(long categoryKey, String currency) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.codeyantratech.financeanalyzer.repository;
+
+import com.codeyantratech.financeanalyzer.model.SyncTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for tombstones of deleted transactions and categories.
+ * Bulk deletes in TransactionBatchRepository write their tombstones with plain SQL.
+ */
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+    /**
+     * Finds the deletions of a user after the given time, served by idx_sync_tombstones_user_deleted.
+     */
+    List<SyncTombstone> findByUserIdAndDeletedAtAfter(Long userId, LocalDateTime since);
+
+    /**
+     * Deletes tombstones older than the given time.
+     *
+     * @return The number of deleted tombstones
+     */
+    @Modifying
+    @Query("DELETE FROM SyncTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteDeletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,40 @@
+package com.codeyantratech.financeanalyzer.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * JDBC repository for the commit horizon of delta sync.
+ * Every row written by a transaction that has not committed yet carries an updated_at or
+ * deleted_at no earlier than that transaction's start, so the start of the oldest open
+ * transaction bounds what a later sync can still see appear. Only client sessions with the
+ * application name of our own connections count (every instance of this application uses the
+ * same one), so other tools' transactions and autovacuum do not hold the horizon back.
+ */
+@Repository
+public class SyncWatermarkRepository {
+
+    // Our own session is excluded; its transaction only reads
+    private static final String HORIZON_SQL =
+            "SELECT greatest(localtimestamp - make_interval(secs => ?), " +
+            "                least(localtimestamp, min(xact_start)::timestamp)) " +
+            "FROM pg_stat_activity " +
+            "WHERE datname = current_database() AND backend_type = 'client backend' " +
+            "AND application_name = current_setting('application_name') " +
+            "AND xact_start IS NOT NULL AND pid <> pg_backend_pid()";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns the start of the oldest open transaction of the application, or the current
+     * time without one, in the session's time zone. The horizon lags at most maxLagSeconds
+     * behind the current time, so a stuck session cannot hold it back for ever.
+     */
+    public LocalDateTime findCommitHorizon(int maxLagSeconds) {
+        return jdbcTemplate.queryForObject(HORIZON_SQL, LocalDateTime.class, maxLagSeconds);
+    }
+}
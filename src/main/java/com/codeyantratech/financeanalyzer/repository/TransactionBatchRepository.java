@@ -0,0 +1,259 @@
+package com.codeyantratech.financeanalyzer.repository;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.Category;
+import com.codeyantratech.financeanalyzer.model.IdempotencyKey;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JDBC repository for writing many transactions at once.
+ * Hibernate cannot batch inserts for IDENTITY ids, so bulk paths use JDBC batches instead;
+ * with reWriteBatchedInserts the driver sends each batch as multi-row INSERT statements.
+ * Ids of the inserted rows are not read back; callers that need them allocate ids up front.
+ */
+@Repository
+public class TransactionBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO transactions (user_id, category_id, amount, description, transaction_date, " +
+            "transaction_type, source, file_upload_id, created_at, updated_at, currency, anomaly) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Same column order as INSERT_SQL, so both share the parameter setter
+    private static final String INSERT_WITH_ID_SQL =
+            "INSERT INTO transactions (user_id, category_id, amount, description, transaction_date, " +
+            "transaction_type, source, file_upload_id, created_at, updated_at, currency, anomaly, id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String ALLOCATE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('transactions', 'id')) FROM generate_series(1, ?)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE transactions SET category_id = ?, amount = ?, description = ?, transaction_date = ?, " +
+            "transaction_type = ?, updated_at = ?, currency = ?, anomaly = ? WHERE id = ? AND user_id = ?";
+
+    // Deletes and writes the sync tombstones of the deleted rows in one statement
+    private static final String DELETE_SQL =
+            "WITH deleted AS (DELETE FROM transactions WHERE user_id = ? AND id = ANY(?) RETURNING id) " +
+            "INSERT INTO sync_tombstones (user_id, entity_type, entity_id, deleted_at) " +
+            "SELECT ?, 'TRANSACTION', id, ? FROM deleted";
+
+    private static final String SELECT_COLUMNS =
+            "SELECT id, category_id, amount, currency, description, transaction_date, transaction_type, anomaly " +
+            "FROM transactions ";
+
+    // Rows are locked in id order, so concurrent writers of overlapping rows cannot deadlock
+    private static final String FIND_BY_IDS_SQL =
+            SELECT_COLUMNS + "WHERE user_id = ? AND id = ANY(?) ORDER BY id FOR UPDATE";
+
+    // Walks the primary key from the last id seen, so each chunk starts where the previous one ended
+    private static final String FIND_BY_UPLOAD_SQL =
+            SELECT_COLUMNS + "WHERE user_id = ? AND file_upload_id = ? AND id > ? ORDER BY id LIMIT ? FOR UPDATE";
+
+    private static final String OWNED_CATEGORY_IDS_SQL =
+            "SELECT id FROM categories WHERE user_id = ? AND id = ANY(?)";
+
+    private static final String INSERT_KEY_SQL =
+            "INSERT INTO idempotency_keys (user_id, idempotency_key, action, transaction_id, created_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the given transactions in a single JDBC batch.
+     * Joins the surrounding Spring transaction, if any.
+     *
+     * @param transactions Transactions to insert; their ids are left unset
+     */
+    public void insertAll(List<Transaction> transactions) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, transactions, transactions.size(),
+                (ps, t) -> setInsertColumns(ps, t, now));
+    }
+
+    /**
+     * Inserts transactions whose ids were taken from {@link #allocateIds(int)} beforehand,
+     * so callers know the ids without reading generated keys back from the batch.
+     *
+     * @param transactions Transactions to insert, each with its id set
+     */
+    public void insertAllWithIds(List<Transaction> transactions) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_WITH_ID_SQL, transactions, transactions.size(), (ps, t) -> {
+            setInsertColumns(ps, t, now);
+            ps.setLong(13, t.getId());
+        });
+    }
+
+    /**
+     * Reserves ids from the transactions id sequence with a single query.
+     */
+    public List<Long> allocateIds(int count) {
+        return jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, count);
+    }
+
+    /**
+     * Updates the editable columns of the given transactions in a single JDBC batch.
+     * Rows of other users are left untouched.
+     *
+     * @param transactions Transactions with id, user and the new values set
+     */
+    public void updateAll(List<Transaction> transactions) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_SQL, transactions, transactions.size(), (ps, t) -> {
+            setCategory(ps, 1, t);
+            ps.setBigDecimal(2, t.getAmount());
+            ps.setString(3, t.getDescription());
+            ps.setDate(4, Date.valueOf(t.getTransactionDate()));
+            ps.setString(5, t.getTransactionType() != null ? t.getTransactionType().name() : null);
+            ps.setTimestamp(6, now);
+            ps.setString(7, t.getCurrency());
+            setAnomaly(ps, 8, t);
+            ps.setLong(9, t.getId());
+            ps.setLong(10, t.getUser().getId());
+        });
+    }
+
+    /**
+     * Deletes transactions of one user by id with a single statement, leaving a sync
+     * tombstone for each deleted row.
+     *
+     * @return The number of deleted transactions
+     */
+    public int deleteAll(Long userId, List<Long> ids) {
+        return jdbcTemplate.update(DELETE_SQL, userId, ids.toArray(Long[]::new),
+                userId, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Loads and locks the transactions of a user with the given ids, with a single query.
+     * Ids of other users' transactions are simply missing from the result, so this doubles
+     * as the ownership check. Only id, category id, amount, currency, description, date, type and
+     * anomaly flag are set. The rows stay locked until the calling database transaction ends,
+     * so the versions returned are the ones a following update or delete replaces, and the
+     * deltas derived from them cannot be applied twice by concurrent edits.
+     *
+     * @return Transactions by id
+     */
+    public Map<Long, Transaction> findByIds(User user, Collection<Long> ids) {
+        Map<Long, Transaction> transactions = new HashMap<>();
+        jdbcTemplate.query(FIND_BY_IDS_SQL, (RowCallbackHandler) rs -> {
+            Transaction t = mapRow(rs, user);
+            transactions.put(t.getId(), t);
+        }, user.getId(), ids.toArray(Long[]::new));
+        return transactions;
+    }
+
+    /**
+     * Loads and locks the next chunk of transactions written by one upload, in id order, with
+     * the same columns as {@link #findByIds}.
+     *
+     * @param afterId Exclusive lower bound on the id, 0 for the first chunk
+     * @param limit   Maximum number of transactions returned
+     */
+    public List<Transaction> findByFileUpload(User user, Long fileUploadId, long afterId, int limit) {
+        return jdbcTemplate.query(FIND_BY_UPLOAD_SQL, (rs, rowNum) -> mapRow(rs, user), user.getId(), fileUploadId,
+                afterId, limit);
+    }
+
+    /**
+     * Returns the subset of the given category ids that belong to the user, with a single query.
+     */
+    public Set<Long> findOwnedCategoryIds(Long userId, Collection<Long> ids) {
+        return new HashSet<>(jdbcTemplate.queryForList(OWNED_CATEGORY_IDS_SQL, Long.class, userId, ids.toArray(Long[]::new)));
+    }
+
+    /**
+     * Records applied batch operations under their idempotency keys in a single JDBC batch.
+     */
+    public void insertIdempotencyKeys(List<IdempotencyKey> keys) {
+        jdbcTemplate.batchUpdate(INSERT_KEY_SQL, keys, keys.size(), (ps, k) -> {
+            ps.setLong(1, k.getUserId());
+            ps.setString(2, k.getIdempotencyKey());
+            ps.setString(3, k.getAction().name());
+            if (k.getTransactionId() != null) {
+                ps.setLong(4, k.getTransactionId());
+            } else {
+                ps.setNull(4, Types.BIGINT);
+            }
+            ps.setTimestamp(5, Timestamp.valueOf(k.getCreatedAt()));
+        });
+    }
+
+    private static void setInsertColumns(PreparedStatement ps, Transaction t, Timestamp now) throws SQLException {
+        ps.setLong(1, t.getUser().getId());
+        setCategory(ps, 2, t);
+        ps.setBigDecimal(3, t.getAmount());
+        ps.setString(4, t.getDescription());
+        ps.setDate(5, Date.valueOf(t.getTransactionDate()));
+        ps.setString(6, t.getTransactionType() != null ? t.getTransactionType().name() : null);
+        ps.setString(7, t.getSource() != null ? t.getSource().name() : null);
+        if (t.getFileUploadId() != null) {
+            ps.setLong(8, t.getFileUploadId());
+        } else {
+            ps.setNull(8, Types.BIGINT);
+        }
+        ps.setTimestamp(9, now);
+        ps.setTimestamp(10, now);
+        ps.setString(11, t.getCurrency());
+        setAnomaly(ps, 12, t);
+    }
+
+    private static void setAnomaly(PreparedStatement ps, int index, Transaction t) throws SQLException {
+        if (t.getAnomaly() != null) {
+            ps.setBoolean(index, t.getAnomaly());
+        } else {
+            ps.setNull(index, Types.BOOLEAN);
+        }
+    }
+
+    private static void setCategory(PreparedStatement ps, int index, Transaction t) throws SQLException {
+        if (t.getCategory() != null) {
+            ps.setLong(index, t.getCategory().getId());
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    private static Transaction mapRow(ResultSet rs, User user) throws SQLException {
+        Transaction t = Transaction.builder()
+                .user(user)
+                .amount(rs.getBigDecimal("amount"))
+                .currency(rs.getString("currency"))
+                .description(rs.getString("description"))
+                .transactionDate(rs.getDate("transaction_date").toLocalDate())
+                .transactionType(rs.getString("transaction_type") != null
+                        ? TransactionType.valueOf(rs.getString("transaction_type")) : null)
+                .build();
+        t.setId(rs.getLong("id"));
+        boolean anomaly = rs.getBoolean("anomaly");
+        t.setAnomaly(rs.wasNull() ? null : anomaly);
+        long categoryId = rs.getLong("category_id");
+        if (!rs.wasNull()) {
+            Category category = new Category();
+            category.setId(categoryId);
+            t.setCategory(category);
+        }
+        return t;
+    }
+}
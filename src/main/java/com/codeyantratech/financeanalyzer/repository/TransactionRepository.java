@@ -1,12 +1,26 @@
 package com.codeyantratech.financeanalyzer.repository;
 
+import com.codeyantratech.financeanalyzer.model.MerchantCharge;
 import com.codeyantratech.financeanalyzer.model.Transaction;
 import com.codeyantratech.financeanalyzer.model.User;
+import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Repository interface for managing Transaction entities.
@@ -14,15 +28,52 @@ import java.util.Optional;
  */
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    /**
+     * One row of a search over both transaction tables; archived rows come from
+     * transactions_archive.
+     */
+    interface SearchHit {
+        Long getId();
+
+        boolean getArchived();
+    }
     
     /**
      * Finds all transactions for a specific user, ordered by transaction date in descending order.
      *
+     * Categories are fetched in the same query since every list response includes them.
+     *
      * @param user The user whose transactions to retrieve
      * @return List of Transaction entities
      */
+    @EntityGraph(attributePaths = "category")
     List<Transaction> findByUserOrderByTransactionDateDesc(User user);
 
+    /**
+     * Finds the transactions of a user within an inclusive date range, newest first.
+     * The range predicate on transaction_date lets PostgreSQL prune to the matching
+     * partitions when the table is partitioned. Categories are fetched in the same query.
+     *
+     * @param user The user whose transactions to retrieve
+     * @param from First transaction date to include
+     * @param to   Last transaction date to include
+     * @return List of Transaction entities
+     */
+    @EntityGraph(attributePaths = "category")
+    List<Transaction> findByUserAndTransactionDateBetweenOrderByTransactionDateDesc(User user, LocalDate from, LocalDate to);
+
+    /**
+     * Finds the transactions of a user changed after the given time, for delta sync.
+     * Served by idx_transactions_user_updated; categories are fetched in the same query.
+     *
+     * @param user  The user whose transactions to retrieve
+     * @param since Exclusive lower bound on updated_at
+     * @return List of Transaction entities
+     */
+    @EntityGraph(attributePaths = "category")
+    List<Transaction> findByUserAndUpdatedAtAfter(User user, LocalDateTime since);
+
     /**
      * Finds a specific transaction by ID and user.
      * Used to ensure users can only access their own transactions.
@@ -32,4 +83,94 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
      * @return Optional containing the Transaction if found
      */
     Optional<Transaction> findByIdAndUser(Long id, User user);
-} 
\ No newline at end of file
+
+    /**
+     * Full-text search over the descriptions of a user's transactions, best matches first.
+     * The expression must match idx_transactions_description_fts for the GIN index to be used.
+     *
+     * @param userId   The id of the user whose transactions to search
+     * @param query    A to_tsquery expression, see TransactionSearchService#toTsQuery
+     * @param pageable Page to return; sorting is fixed by the query
+     * @return Page of matching Transaction entities
+     */
+    @Query(value = "SELECT t.* FROM transactions t " +
+            "WHERE t.user_id = :userId " +
+            "AND to_tsvector('simple', coalesce(t.description, '')) @@ to_tsquery('simple', :query) " +
+            "ORDER BY ts_rank(to_tsvector('simple', coalesce(t.description, '')), to_tsquery('simple', :query)) DESC, " +
+            "t.transaction_date DESC",
+            countQuery = "SELECT count(*) FROM transactions t " +
+                    "WHERE t.user_id = :userId " +
+                    "AND to_tsvector('simple', coalesce(t.description, '')) @@ to_tsquery('simple', :query)",
+            nativeQuery = true)
+    Page<Transaction> searchByDescription(@Param("userId") Long userId, @Param("query") String query, Pageable pageable);
+
+    /**
+     * Full-text search over the descriptions of a user's transactions in the hot table and
+     * in transactions_archive, best matches first. Returns ids only; each side is matched on
+     * its own GIN index (see db/search/transaction_search_indexes.sql).
+     *
+     * @param userId   The id of the user whose transactions to search
+     * @param query    A to_tsquery expression, see TransactionSearchService#toTsQuery
+     * @param pageable Page to return; sorting is fixed by the query
+     * @return Page of matches from either table
+     */
+    @Query(value = "SELECT id, archived FROM (" +
+            "SELECT t.id, false AS archived, t.transaction_date, " +
+            "ts_rank(to_tsvector('simple', coalesce(t.description, '')), to_tsquery('simple', :query)) AS rank " +
+            "FROM transactions t WHERE t.user_id = :userId " +
+            "AND to_tsvector('simple', coalesce(t.description, '')) @@ to_tsquery('simple', :query) " +
+            "UNION ALL " +
+            "SELECT a.id, true, a.transaction_date, " +
+            "ts_rank(to_tsvector('simple', coalesce(a.description, '')), to_tsquery('simple', :query)) " +
+            "FROM transactions_archive a WHERE a.user_id = :userId " +
+            "AND to_tsvector('simple', coalesce(a.description, '')) @@ to_tsquery('simple', :query)" +
+            ") hits ORDER BY rank DESC, transaction_date DESC, id DESC",
+            countQuery = "SELECT (SELECT count(*) FROM transactions t WHERE t.user_id = :userId " +
+                    "AND to_tsvector('simple', coalesce(t.description, '')) @@ to_tsquery('simple', :query)) + " +
+                    "(SELECT count(*) FROM transactions_archive a WHERE a.user_id = :userId " +
+                    "AND to_tsvector('simple', coalesce(a.description, '')) @@ to_tsquery('simple', :query))",
+            nativeQuery = true)
+    Page<SearchHit> searchByDescriptionWithArchive(@Param("userId") Long userId, @Param("query") String query,
+                                                  Pageable pageable);
+
+    /**
+     * Loads transactions by id together with their categories.
+     *
+     * @param ids The ids of the transactions
+     * @return List of Transaction entities, in no particular order
+     */
+    @EntityGraph(attributePaths = "category")
+    List<Transaction> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Streams the expenses of a user with an id above the given watermark, oldest first.
+     * Rows are fetched from the cursor in chunks and projected to MerchantCharge, so a user's
+     * whole history can be read without holding it in memory or in the persistence context.
+     * The stream must be consumed and closed inside a database transaction.
+     *
+     * @param userId  The id of the user
+     * @param afterId Exclusive lower bound on the transaction id, 0 for all expenses
+     * @return Stream of charges ordered by transaction date, then id
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.codeyantratech.financeanalyzer.model.MerchantCharge(" +
+            "t.id, t.description, t.amount, t.currency, t.transactionDate) " +
+            "FROM Transaction t " +
+            "WHERE t.user.id = :userId AND t.id > :afterId " +
+            "AND t.transactionType = com.codeyantratech.financeanalyzer.enums.TransactionType.EXPENSE " +
+            "ORDER BY t.transactionDate, t.id")
+    Stream<MerchantCharge> streamExpensesAfter(@Param("userId") Long userId, @Param("afterId") long afterId);
+
+    /**
+     * Streams the expenses of a user within an inclusive date range.
+     * The stream must be consumed and closed inside a database transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.codeyantratech.financeanalyzer.model.MerchantCharge(" +
+            "t.id, t.description, t.amount, t.currency, t.transactionDate) " +
+            "FROM Transaction t " +
+            "WHERE t.user.id = :userId AND t.transactionDate BETWEEN :from AND :to " +
+            "AND t.transactionType = com.codeyantratech.financeanalyzer.enums.TransactionType.EXPENSE")
+    Stream<MerchantCharge> streamExpensesBetween(@Param("userId") Long userId, @Param("from") LocalDate from,
+                                                 @Param("to") LocalDate to);
+}
@@ -0,0 +1,56 @@
+package com.codeyantratech.financeanalyzer.repository;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * JDBC repository for aggregates over a user's transactions.
+ * Sums are grouped down to currency and day, the granularity at which exchange rates apply,
+ * so callers convert one row per currency and day instead of one per transaction.
+ */
+@Repository
+public class TransactionSummaryRepository {
+
+    private static final String GROUPED_COLUMNS =
+            "SELECT transaction_type, category_id, currency, transaction_date, sum(amount) AS amount FROM ";
+
+    private static final String GROUPED_FILTER =
+            " WHERE user_id = ? AND transaction_date BETWEEN ? AND ? " +
+            "GROUP BY transaction_type, category_id, currency, transaction_date";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Streams the sums of a user's transactions per type, category, currency and day.
+     *
+     * @param includeArchive Whether transactions_archive is read as well; a group may then be
+     *                       reported once per table
+     */
+    public void sumByDay(Long userId, LocalDate from, LocalDate to, boolean includeArchive, Consumer<DailySum> consumer) {
+        RowCallbackHandler handler = rs -> {
+            long categoryId = rs.getLong("category_id");
+            Long category = rs.wasNull() ? null : categoryId;
+            String type = rs.getString("transaction_type");
+            consumer.accept(new DailySum(type != null ? TransactionType.valueOf(type) : null, category,
+                    rs.getString("currency"), rs.getDate("transaction_date").toLocalDate(), rs.getBigDecimal("amount")));
+        };
+        jdbcTemplate.query(GROUPED_COLUMNS + "transactions" + GROUPED_FILTER, handler,
+                userId, Date.valueOf(from), Date.valueOf(to));
+        if (includeArchive) {
+            jdbcTemplate.query(GROUPED_COLUMNS + "transactions_archive" + GROUPED_FILTER, handler,
+                    userId, Date.valueOf(from), Date.valueOf(to));
+        }
+    }
+
+    public record DailySum(TransactionType type, Long categoryId, String currency, LocalDate date, BigDecimal amount) {
+    }
+}
@@ -2,8 +2,10 @@ package com.codeyantratech.financeanalyzer.repository;
 
 import com.codeyantratech.financeanalyzer.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -48,4 +50,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return true if email exists, false otherwise
      */
     Boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    /**
+     * Returns the ids of all users, for background jobs that process users one by one.
+     */
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    List<Long> findAllIds();
+}
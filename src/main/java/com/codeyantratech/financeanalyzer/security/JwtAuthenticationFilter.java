@@ -1,5 +1,7 @@
 package com.codeyantratech.financeanalyzer.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,6 +27,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    private Timer verificationTimer;
+
+    @Autowired
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.verificationTimer = Timer.builder("jwt.verification")
+                .description("Time spent verifying JWT signatures and expiry")
+                .register(meterRegistry);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -34,15 +48,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // Extract JWT token from request
             String jwt = parseJwt(request);
 
-            if (jwt != null && jwtUtils.validateToken(jwt)) {
-                // Get username from token
-                String username = jwtUtils.getUsernameFromToken(jwt);
+            // Verify the token once and get username from it
+            String username = jwt != null ? verificationTimer.record(() -> jwtUtils.getUsernameFromValidToken(jwt)) : null;
 
-                // Load user details
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (username != null) {
+                // Load user details, served from cache on repeat requests
+                UserDetails userDetails = userDetailsCache.get(username, userDetailsService::loadUserByUsername);
 
-                // Validate token with user details
-                if (jwtUtils.validateToken(jwt, userDetails)) {
+                // Token subject must still belong to an existing user
+                if (username.equals(userDetails.getUsername())) {
                     // Create authentication token
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
@@ -97,6 +111,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 path.equals("/") ||
                 path.startsWith("/swagger-") ||
                 path.startsWith("/v3/api-docs") ||
-                path.startsWith("/actuator/health");
+                path.startsWith("/actuator/health") ||
+                path.startsWith("/actuator/prometheus");
     }
 }
\ No newline at end of file
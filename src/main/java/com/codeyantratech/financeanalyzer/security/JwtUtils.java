@@ -20,13 +20,10 @@ public class JwtUtils {
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
 
-    private Key key;
+    // Generate a secure key for HS512 once, before any request thread can race on it
+    private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS512);
 
     private Key getSigningKey() {
-        if (key == null) {
-            // Generate a secure key for HS512
-            key = Keys.secretKeyFor(SignatureAlgorithm.HS512);
-        }
         return key;
     }
 
@@ -97,6 +94,17 @@ public class JwtUtils {
         }
     }
 
+    // Verify signature and expiry once and return the subject, or null if the token is invalid
+    public String getUsernameFromValidToken(String token) {
+        try {
+            // The parser rejects expired tokens, so no separate expiry check is needed
+            return getAllClaimsFromToken(token).getSubject();
+        } catch (JwtException e) {
+            log.error("JWT validation error : {}", e.getMessage());
+            return null;
+        }
+    }
+
     // Validate token without UserDetails
     public Boolean validateToken(String token) {
         try {
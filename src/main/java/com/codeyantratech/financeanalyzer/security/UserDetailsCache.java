@@ -0,0 +1,88 @@
+package com.codeyantratech.financeanalyzer.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of UserDetails keyed by username.
+ * Lets the JWT filter authenticate most requests without a database round trip,
+ * which keeps connection-pool demand flat when request concurrency is high.
+ */
+@Component
+public class UserDetailsCache {
+
+    @Value("${app.security.user-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${app.security.user-cache.max-size:10000}")
+    private int maxSize;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserDetailsCache(MeterRegistry meterRegistry) {
+        this.hits = Counter.builder("user.lookup.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("user.lookup.cache").tag("result", "miss").register(meterRegistry);
+        meterRegistry.gaugeMapSize("user.lookup.cache.size", Tags.empty(), entries);
+    }
+
+    /**
+     * Returns the cached details for a username, loading and caching them on a miss.
+     *
+     * @param username The username to look up
+     * @param loader   Loads the details when they are not cached or have expired
+     * @return The user details
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(username);
+        if (entry != null && entry.expiresAt - now > 0) {
+            hits.increment();
+            return entry.userDetails;
+        }
+        misses.increment();
+
+        UserDetails userDetails = loader.apply(username);
+        if (ttlSeconds > 0) {
+            if (entries.size() >= maxSize) {
+                entries.values().removeIf(e -> e.expiresAt - now <= 0);
+            }
+            // Full of live entries: this user is loaded again until some of them expire
+            if (entries.size() < maxSize) {
+                entries.put(username, new Entry(userDetails, now + ttlSeconds * 1_000_000_000L));
+            }
+        }
+        return userDetails;
+    }
+
+    /**
+     * Removes a user from the cache, e.g. after their account changed. Inside a transaction
+     * the user is removed again after it completes, so details a concurrent request loaded
+     * before the change committed are not served until they expire.
+     */
+    public void evict(String username) {
+        entries.remove(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entries.remove(username);
+                }
+            });
+        }
+    }
+
+    private record Entry(UserDetails userDetails, long expiresAt) {
+    }
+}
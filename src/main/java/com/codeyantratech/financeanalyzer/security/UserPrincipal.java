@@ -8,7 +8,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
-import java.util.Collections;
+import java.util.List;
 
 @Data
 @AllArgsConstructor
@@ -20,23 +20,30 @@ public class UserPrincipal implements UserDetails {
     private String password;
     private String firstName;
     private String lastName;
+    // Grants ROLE_ADMIN, for the cross-user endpoints under /api/admin
+    private boolean admin;
 
     public static UserPrincipal create(User user) {
+        return create(user, false);
+    }
+
+    public static UserPrincipal create(User user, boolean admin) {
         return new UserPrincipal(
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
                 user.getFirstName(),
-                user.getLastName()
+                user.getLastName(),
+                admin
         );
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        // For now, all users have USER role
-        // You can extend this later for role-based access
-        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+        return admin
+                ? List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"))
+                : List.of(new SimpleGrantedAuthority("ROLE_USER"));
     }
 
     @Override
@@ -0,0 +1,247 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.repository.AdminReportRepository;
+import com.codeyantratech.financeanalyzer.repository.AdminReportRepository.ImportRow;
+import com.codeyantratech.financeanalyzer.repository.AdminReportRepository.UserRange;
+import com.codeyantratech.financeanalyzer.repository.AdminReportRepository.VolumeRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service class responsible for cross-user reports for operations: transaction volume and
+ * active users per month, and import outcomes.
+ * <p>
+ * A report is split into ranges of user ids. Each range is aggregated by its own short
+ * queries, and the partial results are added up, which is exact because every user falls
+ * into one range. Ranges run on a small pool of their own with a pause after each one, and
+ * only one report runs at a time, so a report takes at most that many database
+ * connections and keeps them busy for short statements only. Queries go to a read replica
+ * when one is configured (see AdminReportRepository). Finished reports are cached for a few
+ * minutes, as repeated requests for the same range are common and rarely need fresh data.
+ */
+@Slf4j
+@Service
+public class AdminReportService {
+
+    private static final String SUCCESS = "SUCCESS";
+    private static final String FAILED = "FAILED";
+
+    @Autowired
+    private AdminReportRepository adminReportRepository;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Value("${app.currency.default:USD}")
+    private String defaultCurrency;
+
+    // Ranges aggregated concurrently, each holding one database connection
+    @Value("${app.admin.reports.parallelism:2}")
+    private int parallelism;
+
+    // Span of user ids aggregated by one set of queries
+    @Value("${app.admin.reports.partition-size:1000}")
+    private int partitionSize;
+
+    // Pause of a worker after each range, leaving the database to user-facing requests
+    @Value("${app.admin.reports.partition-delay-ms:50}")
+    private long partitionDelayMs;
+
+    @Value("${app.admin.reports.cache-minutes:10}")
+    private int cacheMinutes;
+
+    private final Semaphore running = new Semaphore(1);
+
+    private final ConcurrentHashMap<String, AdminReport> cache = new ConcurrentHashMap<>();
+
+    /**
+     * A report over an inclusive range of months.
+     *
+     * @param registeredUsers All users at the time of the report
+     * @param partitions      Number of user id ranges the report was split into
+     */
+    public record AdminReport(YearMonth from, YearMonth to, LocalDateTime generatedAt, long registeredUsers,
+                              List<MonthVolume> months, ImportStats imports, int partitions) {
+    }
+
+    /**
+     * Transactions of one month; activeUsers have at least one transaction dated in it.
+     */
+    public record MonthVolume(YearMonth month, long transactions, long activeUsers, List<CurrencyVolume> volumes) {
+    }
+
+    /**
+     * Totals of one currency; amounts without a currency count in their user's preferred one.
+     */
+    public record CurrencyVolume(String currency, BigDecimal expenses, BigDecimal incomes) {
+    }
+
+    /**
+     * Uploads by status; the success rate is the share of SUCCESS among finished (SUCCESS or
+     * FAILED) uploads, or null without any.
+     */
+    public record ImportStats(long uploads, Map<String, Long> byStatus, BigDecimal successRate, long recordsImported,
+                              long recordsRejected) {
+    }
+
+    /**
+     * Builds the report for a range of months, or returns a cached one built within the
+     * configured number of minutes.
+     *
+     * @throws IllegalStateException if another report is being built
+     * @throws RuntimeException      if a query fails
+     */
+    public AdminReport getReport(YearMonth from, YearMonth to) {
+        String key = from + "/" + to;
+        AdminReport cached = cache.get(key);
+        if (cached != null && cached.generatedAt().isAfter(LocalDateTime.now().minusMinutes(cacheMinutes))) {
+            return cached;
+        }
+        if (!running.tryAcquire()) {
+            throw new IllegalStateException("Another report is being built, please retry later");
+        }
+        try {
+            AdminReport report = build(from, to);
+            cache.values().removeIf(r -> r.generatedAt().isBefore(LocalDateTime.now().minusMinutes(cacheMinutes)));
+            cache.put(key, report);
+            return report;
+        } finally {
+            running.release();
+        }
+    }
+
+    private AdminReport build(YearMonth from, YearMonth to) {
+        long start = System.currentTimeMillis();
+        LocalDateTime generatedAt = LocalDateTime.now();
+        UserRange users = adminReportRepository.findUserRange();
+        LocalDate fromDate = from.atDay(1);
+        LocalDate toDate = to.atEndOfMonth();
+        boolean includeArchive = transactionArchiveService.reachesArchive(fromDate);
+
+        List<long[]> ranges = new ArrayList<>();
+        if (users.users() > 0) {
+            for (long id = users.minId(); id <= users.maxId(); id += partitionSize) {
+                ranges.add(new long[]{id, Math.min(id + partitionSize, users.maxId() + 1)});
+            }
+        }
+
+        Partial total = new Partial();
+        AtomicInteger done = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<Partial>> futures = new ArrayList<>(ranges.size());
+            for (long[] range : ranges) {
+                futures.add(pool.submit(() -> {
+                    Partial partial = new Partial();
+                    adminReportRepository.findVolumes(range[0], range[1], fromDate, toDate, includeArchive,
+                            defaultCurrency).forEach(partial::add);
+                    adminReportRepository.findImports(range[0], range[1], fromDate, toDate).forEach(partial::add);
+                    done.incrementAndGet();
+                    Thread.sleep(partitionDelayMs);
+                    return partial;
+                }));
+            }
+            for (Future<Partial> future : futures) {
+                total.merge(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Report interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Report failed after " + done.get() + " of " + ranges.size() + " ranges: "
+                    + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        log.info("Built admin report {} to {} over {} user ranges in {} ms", from, to, ranges.size(),
+                System.currentTimeMillis() - start);
+        return total.toReport(from, to, generatedAt, users.users(), ranges.size());
+    }
+
+    // Sums of one or more user id ranges
+    private static final class Partial {
+
+        private final Map<YearMonth, long[]> months = new TreeMap<>();
+        private final Map<YearMonth, Map<String, BigDecimal[]>> volumes = new TreeMap<>();
+        private final Map<String, Long> uploads = new TreeMap<>();
+        private long records;
+        private long rejected;
+
+        void add(VolumeRow row) {
+            if (row.currency() == null) {
+                // Users of different ranges are distinct, so active users add up
+                long[] month = months.computeIfAbsent(row.month(), m -> new long[2]);
+                month[0] += row.transactions();
+                month[1] += row.activeUsers();
+            } else if (row.type() != null) {
+                BigDecimal[] amounts = volumes.computeIfAbsent(row.month(), m -> new TreeMap<>())
+                        .computeIfAbsent(row.currency(), c -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+                int index = row.type() == TransactionType.EXPENSE ? 0 : 1;
+                amounts[index] = amounts[index].add(row.amount());
+            }
+        }
+
+        void add(ImportRow row) {
+            uploads.merge(row.status(), row.uploads(), Long::sum);
+            records += row.records();
+            rejected += row.rejected();
+        }
+
+        void merge(Partial other) {
+            other.months.forEach((month, counts) -> {
+                long[] mine = months.computeIfAbsent(month, m -> new long[2]);
+                mine[0] += counts[0];
+                mine[1] += counts[1];
+            });
+            other.volumes.forEach((month, currencies) -> currencies.forEach((currency, amounts) -> {
+                BigDecimal[] mine = volumes.computeIfAbsent(month, m -> new TreeMap<>())
+                        .computeIfAbsent(currency, c -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+                mine[0] = mine[0].add(amounts[0]);
+                mine[1] = mine[1].add(amounts[1]);
+            }));
+            other.uploads.forEach((status, count) -> uploads.merge(status, count, Long::sum));
+            records += other.records;
+            rejected += other.rejected;
+        }
+
+        AdminReport toReport(YearMonth from, YearMonth to, LocalDateTime generatedAt, long registeredUsers,
+                             int partitions) {
+            List<MonthVolume> monthVolumes = new ArrayList<>();
+            for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+                long[] counts = months.getOrDefault(month, new long[2]);
+                List<CurrencyVolume> currencies = volumes.getOrDefault(month, Map.of()).entrySet().stream()
+                        .map(e -> new CurrencyVolume(e.getKey(), e.getValue()[0], e.getValue()[1]))
+                        .toList();
+                monthVolumes.add(new MonthVolume(month, counts[0], counts[1], currencies));
+            }
+            long succeeded = uploads.getOrDefault(SUCCESS, 0L);
+            long finished = succeeded + uploads.getOrDefault(FAILED, 0L);
+            BigDecimal successRate = finished > 0
+                    ? BigDecimal.valueOf(succeeded).divide(BigDecimal.valueOf(finished), 4, RoundingMode.HALF_UP)
+                    : null;
+            long total = uploads.values().stream().mapToLong(Long::longValue).sum();
+            ImportStats imports = new ImportStats(total, uploads, successRate, records, rejected);
+            return new AdminReport(from, to, generatedAt, registeredUsers, monthVolumes, imports, partitions);
+        }
+    }
+}
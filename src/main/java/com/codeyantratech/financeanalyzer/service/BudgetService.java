@@ -0,0 +1,206 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.BudgetTotalRepository;
+import com.codeyantratech.financeanalyzer.repository.BudgetTotalRepository.MonthTotals;
+import com.codeyantratech.financeanalyzer.repository.TransactionSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Service class responsible for tracking monthly expenses against the user's budget limit.
+ * Expense totals per user, month and currency are kept in budget_currency_totals and
+ * adjusted by the delta of every transaction change, so neither writes nor status reads sum
+ * the month's transactions. Totals stay in the currency of their transactions and are
+ * converted to the user's currency with the in-memory exchange rates when read, at the rate
+ * of the month's last day or today for the current month. Writes therefore never depend on
+ * exchange rates, and a rate loaded between adding and removing an amount cannot skew a total.
+ * When the current month's total reaches one of the configured percentages of
+ * User.monthlyBudgetLimit, a BudgetThresholdEvent is published.
+ */
+@Slf4j
+@Service
+public class BudgetService {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    @Autowired
+    private BudgetTotalRepository budgetTotalRepository;
+
+    @Autowired
+    private TransactionSummaryRepository transactionSummaryRepository;
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Ascending percentages of the monthly limit that trigger a notification
+    @Value("${app.budget.thresholds:50,80,100}")
+    private int[] thresholds;
+
+    /**
+     * Applies the expense delta of a transaction change to the affected months.
+     * Runs synchronously in the writing database transaction, before the change is written.
+     * Months are updated in ascending order so concurrent writers lock rows in the same order.
+     */
+    @EventListener
+    public void onTransactionChange(TransactionChangeEvent event) {
+        User user = event.getUser();
+        String currency = exchangeRateService.currencyOf(user);
+        Map<YearMonth, Map<String, BigDecimal>> deltas = new TreeMap<>();
+        addExpenses(deltas, event.getRemoved(), currency, true);
+        addExpenses(deltas, event.getAdded(), currency, false);
+
+        YearMonth currentMonth = YearMonth.now();
+        deltas.forEach((month, currencyDeltas) -> {
+            currencyDeltas.values().removeIf(delta -> delta.signum() == 0);
+            if (currencyDeltas.isEmpty()) {
+                return;
+            }
+            addToMonth(user, month, currencyDeltas);
+            if (month.equals(currentMonth)) {
+                checkThresholds(user, month, currency);
+            }
+        });
+    }
+
+    /**
+     * Returns the budget status of the current month.
+     * A month without any tracked change yet is seeded from the stored transactions once.
+     *
+     * @param username The username of the user
+     * @return The status; limit, remaining and percent used are null without a budget limit
+     */
+    @Transactional
+    public BudgetStatus getStatus(String username) {
+        User user = userService.getCurrentUser(username);
+        YearMonth month = YearMonth.now();
+        MonthTotals totals = budgetTotalRepository.find(user.getId(), month).orElseGet(() -> {
+            addToMonth(user, month, Map.of());
+            return budgetTotalRepository.find(user.getId(), month).orElseThrow();
+        });
+        BigDecimal limit = user.getMonthlyBudgetLimit();
+        Map<String, BigDecimal> unconverted = new TreeMap<>();
+        BigDecimal spent = spent(totals, exchangeRateService.currencyOf(user), unconverted);
+        if (limit == null || limit.signum() <= 0) {
+            return new BudgetStatus(month, null, spent, null, null, unconverted);
+        }
+        return new BudgetStatus(month, limit, spent, limit.subtract(spent), percentOf(spent, limit), unconverted);
+    }
+
+    private void addToMonth(User user, YearMonth month, Map<String, BigDecimal> deltas) {
+        budgetTotalRepository.add(user.getId(), month, deltas, () -> storedExpenses(user, month));
+    }
+
+    // Expenses already stored for a month, per currency
+    private Map<String, BigDecimal> storedExpenses(User user, YearMonth month) {
+        String currency = exchangeRateService.currencyOf(user);
+        Map<String, BigDecimal> totals = new TreeMap<>();
+        transactionSummaryRepository.sumByDay(user.getId(), month.atDay(1), month.atEndOfMonth(),
+                transactionArchiveService.reachesArchive(month.atDay(1)), sum -> {
+            if (sum.type() == TransactionType.EXPENSE) {
+                totals.merge(sum.currency() != null ? sum.currency() : currency, sum.amount(), BigDecimal::add);
+            }
+        });
+        return totals;
+    }
+
+    // Sum of a month's expenses in the user's currency; totals without an exchange rate are
+    // left out and put into unconverted
+    private BigDecimal spent(MonthTotals totals, String currency, Map<String, BigDecimal> unconverted) {
+        LocalDate today = LocalDate.now();
+        LocalDate rateDate = totals.month().atEndOfMonth().isBefore(today) ? totals.month().atEndOfMonth() : today;
+        BigDecimal spent = BigDecimal.ZERO;
+        for (Map.Entry<String, BigDecimal> total : totals.expenses().entrySet()) {
+            if (total.getValue().signum() == 0) {
+                continue;
+            }
+            if (exchangeRateService.canConvert(total.getKey(), currency, rateDate)) {
+                spent = spent.add(exchangeRateService.convert(total.getValue(), total.getKey(), currency, rateDate));
+            } else {
+                unconverted.put(total.getKey(), total.getValue());
+            }
+        }
+        return spent;
+    }
+
+    // Publishes the highest newly reached threshold; falling below one re-arms it.
+    // Without a rate for one of the month's currencies the check waits for a later change.
+    private void checkThresholds(User user, YearMonth month, String currency) {
+        BigDecimal limit = user.getMonthlyBudgetLimit();
+        if (limit == null || limit.signum() <= 0) {
+            return;
+        }
+        MonthTotals totals = budgetTotalRepository.find(user.getId(), month).orElseThrow();
+        Map<String, BigDecimal> unconverted = new TreeMap<>();
+        BigDecimal spent = spent(totals, currency, unconverted);
+        if (!unconverted.isEmpty()) {
+            log.debug("Skipping the budget check of user {} for {}: no exchange rates for {}", user.getId(), month,
+                    unconverted.keySet());
+            return;
+        }
+        BigDecimal percent = percentOf(spent, limit);
+        int reached = 0;
+        for (int threshold : thresholds) {
+            if (percent.compareTo(BigDecimal.valueOf(threshold)) >= 0) {
+                reached = Math.max(reached, threshold);
+            }
+        }
+        if (reached == totals.notifiedPercent()) {
+            return;
+        }
+        budgetTotalRepository.updateNotifiedPercent(user.getId(), month, reached);
+        if (reached > totals.notifiedPercent()) {
+            log.debug("User {} reached {}% of the budget for {}", user.getId(), reached, month);
+            eventPublisher.publishEvent(new BudgetThresholdEvent(user.getId(), month, reached, spent, limit));
+        }
+    }
+
+    private void addExpenses(Map<YearMonth, Map<String, BigDecimal>> deltas, List<Transaction> transactions,
+                             String currency, boolean negate) {
+        for (Transaction t : transactions) {
+            if (t.getTransactionType() != TransactionType.EXPENSE || t.getAmount() == null
+                    || t.getTransactionDate() == null) {
+                continue;
+            }
+            deltas.computeIfAbsent(YearMonth.from(t.getTransactionDate()), m -> new TreeMap<>())
+                    .merge(t.getCurrency() != null ? t.getCurrency() : currency,
+                            negate ? t.getAmount().negate() : t.getAmount(), BigDecimal::add);
+        }
+    }
+
+    private static BigDecimal percentOf(BigDecimal spent, BigDecimal limit) {
+        return spent.multiply(HUNDRED).divide(limit, 1, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Expenses of a month in the user's currency. Totals of currencies without an exchange
+     * rate are not part of spent, remaining and percentUsed but listed in unconverted.
+     */
+    public record BudgetStatus(YearMonth month, BigDecimal limit, BigDecimal spent, BigDecimal remaining,
+                               BigDecimal percentUsed, Map<String, BigDecimal> unconverted) {
+    }
+}
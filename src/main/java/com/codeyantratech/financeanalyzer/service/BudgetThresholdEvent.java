@@ -0,0 +1,23 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Published when a user's expenses of the current month reach a configured percentage of
+ * their monthly budget limit. Fired inside the transaction that caused the crossing, for the
+ * highest threshold reached; a threshold fires again only after the total fell below it.
+ */
+@Getter
+@AllArgsConstructor
+public class BudgetThresholdEvent {
+
+    private final Long userId;
+    private final YearMonth month;
+    private final int thresholdPercent;
+    private final BigDecimal spent;
+    private final BigDecimal limit;
+}
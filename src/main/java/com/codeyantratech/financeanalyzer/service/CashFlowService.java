@@ -0,0 +1,259 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.enums.VersionedResource;
+import com.codeyantratech.financeanalyzer.model.CashFlowSeries;
+import com.codeyantratech.financeanalyzer.model.RecurringPayment;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.CashFlowRepository;
+import com.codeyantratech.financeanalyzer.repository.TransactionSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service class responsible for users' daily cash-flow series and balance forecasts.
+ * The net flow (incomes minus expenses) of every day and currency is kept in
+ * cash_flow_currency_days and adjusted by the delta of every transaction change, together
+ * with the running balance per currency, so a forecast reads at most a year of daily rows
+ * instead of transactions. Amounts stay in the currency of their transactions and are only
+ * converted to the user's currency when a forecast is built: balances at today's rate and
+ * days at the rate of their date. Writes therefore never depend on exchange rates.
+ * <p>
+ * A forecast projects each coming day as the average net flow of the same day of the month
+ * over the lookback window, with the detected recurring payments taken out of that average
+ * and placed on their expected dates instead. Transactions already stored for future dates
+ * are added on their days. Forecasts are cached per user until the series changes, the
+ * recurring payments are re-analyzed, the exchange rates are reloaded or the day ends.
+ */
+@Slf4j
+@Service
+public class CashFlowService {
+
+    @Autowired
+    private CashFlowRepository cashFlowRepository;
+
+    @Autowired
+    private TransactionSummaryRepository transactionSummaryRepository;
+
+    @Autowired
+    private RecurringPaymentService recurringPaymentService;
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${app.cashflow.forecast-days:90}")
+    private int forecastDays;
+
+    @Value("${app.cashflow.lookback-days:365}")
+    private int lookbackDays;
+
+    @Value("${app.cashflow.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    private final ConcurrentHashMap<Long, CachedForecast> cache = new ConcurrentHashMap<>();
+
+    /**
+     * A projected balance, starting from the balance at the end of asOf.
+     */
+    public record Forecast(String currency, LocalDate asOf, BigDecimal startingBalance, List<ForecastDay> days) {
+    }
+
+    public record ForecastDay(LocalDate date, BigDecimal netFlow, BigDecimal balance) {
+    }
+
+    /**
+     * Applies the net flow delta of a transaction change to the affected days.
+     * Runs synchronously in the writing database transaction, before the change is written.
+     */
+    @EventListener
+    public void onTransactionChange(TransactionChangeEvent event) {
+        User user = event.getUser();
+        String currency = exchangeRateService.currencyOf(user);
+        NavigableMap<LocalDate, Map<String, BigDecimal>> deltas = new TreeMap<>();
+        addFlows(deltas, event.getRemoved(), currency, true);
+        addFlows(deltas, event.getAdded(), currency, false);
+        deltas.values().forEach(flows -> flows.values().removeIf(delta -> delta.signum() == 0));
+        deltas.values().removeIf(Map::isEmpty);
+        if (!deltas.isEmpty()) {
+            cashFlowRepository.add(user.getId(), deltas, () -> storedNetFlows(user, currency));
+        }
+    }
+
+    /**
+     * Returns the balance forecast for the configured number of days after today.
+     * A user without a series yet is seeded from the stored transactions once. Amounts in a
+     * currency without an exchange rate are left out of the forecast.
+     */
+    @Transactional
+    public Forecast getForecast(String username) {
+        User user = userService.getCurrentUser(username);
+        String currency = exchangeRateService.currencyOf(user);
+        LocalDate today = LocalDate.now();
+        // Read before the series, so a concurrent re-analysis can only make the key older
+        String recurringVersion = resourceVersionService.etag(user.getId(), VersionedResource.RECURRING_PAYMENTS);
+        CashFlowSeries series = cashFlowRepository.find(user.getId())
+                .orElseGet(() -> cashFlowRepository.add(user.getId(), new TreeMap<>(),
+                        () -> storedNetFlows(user, currency)));
+
+        CacheKey key = new CacheKey(series.getVersion(), recurringVersion, exchangeRateService.ratesVersion(),
+                currency, today);
+        CachedForecast cached = cache.get(user.getId());
+        if (cached != null && cached.key().equals(key)) {
+            return cached.forecast();
+        }
+        Forecast forecast = project(user.getId(), currency, today);
+        if (cache.size() >= cacheMaxSize) {
+            cache.clear();
+        }
+        cache.put(user.getId(), new CachedForecast(key, forecast));
+        return forecast;
+    }
+
+    private Forecast project(Long userId, String currency, LocalDate today) {
+        LocalDate until = today.plusDays(forecastDays);
+        NavigableMap<LocalDate, BigDecimal> days = new TreeMap<>();
+        cashFlowRepository.findDays(userId, today.minusDays(lookbackDays), until).forEach((day, flows) ->
+                days.put(day, convert(flows, currency, day)));
+        NavigableMap<LocalDate, BigDecimal> scheduled = days.tailMap(today, false);
+        BigDecimal startingBalance = convert(cashFlowRepository.findBalances(userId), currency, today)
+                .subtract(sum(scheduled));
+
+        // Average net flow per day of the month, over the days since the first one with flows
+        NavigableMap<LocalDate, BigDecimal> history = days.headMap(today, false);
+        BigDecimal[] sums = new BigDecimal[32];
+        int[] counts = new int[32];
+        if (!history.isEmpty()) {
+            for (LocalDate day = history.firstKey(); day.isBefore(today); day = day.plusDays(1)) {
+                counts[day.getDayOfMonth()]++;
+            }
+        }
+        history.forEach((day, netFlow) -> {
+            int dayOfMonth = day.getDayOfMonth();
+            sums[dayOfMonth] = sums[dayOfMonth] != null ? sums[dayOfMonth].add(netFlow) : netFlow;
+        });
+
+        // Recurring charges on their dates; their average daily cost is taken out of the averages
+        BigDecimal recurringDailyCost = BigDecimal.ZERO;
+        Map<LocalDate, BigDecimal> recurring = new HashMap<>();
+        for (RecurringPayment payment : recurringPaymentService.findActive(userId)) {
+            BigDecimal amount;
+            try {
+                amount = exchangeRateService.convert(
+                        BigDecimal.valueOf(payment.getAmountStats().getMean()).setScale(2, RoundingMode.HALF_UP),
+                        payment.getCurrency(), currency, today);
+            } catch (RuntimeException e) {
+                log.debug("Leaving recurring payment {} out of the forecast: {}", payment.getId(), e.getMessage());
+                continue;
+            }
+            recurringDailyCost = recurringDailyCost.add(
+                    amount.divide(BigDecimal.valueOf(payment.getCadence().getDays()), 4, RoundingMode.HALF_UP));
+            for (LocalDate date = payment.getNextExpectedDate(); !date.isAfter(until);
+                 date = payment.getCadence().next(date)) {
+                // A charge that is due but not seen yet is expected tomorrow
+                recurring.merge(date.isAfter(today) ? date : today.plusDays(1), amount, BigDecimal::add);
+            }
+        }
+
+        List<ForecastDay> forecast = new ArrayList<>(forecastDays);
+        BigDecimal balance = startingBalance;
+        for (LocalDate date = today.plusDays(1); !date.isAfter(until); date = date.plusDays(1)) {
+            int dayOfMonth = date.getDayOfMonth();
+            BigDecimal netFlow = scheduled.getOrDefault(date, BigDecimal.ZERO)
+                    .subtract(recurring.getOrDefault(date, BigDecimal.ZERO));
+            if (counts[dayOfMonth] > 0) {
+                BigDecimal average = sums[dayOfMonth] != null
+                        ? sums[dayOfMonth].divide(BigDecimal.valueOf(counts[dayOfMonth]), 4, RoundingMode.HALF_UP)
+                        : BigDecimal.ZERO;
+                netFlow = netFlow.add(average).add(recurringDailyCost);
+            }
+            netFlow = netFlow.setScale(2, RoundingMode.HALF_UP);
+            balance = balance.add(netFlow);
+            forecast.add(new ForecastDay(date, netFlow, balance));
+        }
+        return new Forecast(currency, today, startingBalance, forecast);
+    }
+
+    // Net flows already stored per day and currency
+    private NavigableMap<LocalDate, Map<String, BigDecimal>> storedNetFlows(User user, String currency) {
+        NavigableMap<LocalDate, Map<String, BigDecimal>> netFlows = new TreeMap<>();
+        transactionSummaryRepository.sumByDay(user.getId(), LocalDate.of(1900, 1, 1), LocalDate.of(9999, 12, 31),
+                transactionArchiveService.reachesArchive(null), sum -> {
+            if (sum.type() == null) {
+                return;
+            }
+            BigDecimal amount = sum.type() == TransactionType.INCOME ? sum.amount() : sum.amount().negate();
+            netFlows.computeIfAbsent(sum.date(), d -> new TreeMap<>())
+                    .merge(sum.currency() != null ? sum.currency() : currency, amount, BigDecimal::add);
+        });
+        return netFlows;
+    }
+
+    private void addFlows(Map<LocalDate, Map<String, BigDecimal>> deltas, List<Transaction> transactions,
+                          String currency, boolean negate) {
+        for (Transaction t : transactions) {
+            if (t.getTransactionType() == null || t.getAmount() == null || t.getTransactionDate() == null) {
+                continue;
+            }
+            BigDecimal amount = t.getAmount();
+            if ((t.getTransactionType() == TransactionType.EXPENSE) != negate) {
+                amount = amount.negate();
+            }
+            deltas.computeIfAbsent(t.getTransactionDate(), d -> new TreeMap<>())
+                    .merge(t.getCurrency() != null ? t.getCurrency() : currency, amount, BigDecimal::add);
+        }
+    }
+
+    // Sum of amounts per currency in the user's currency, with the rates of one date; amounts
+    // without an exchange rate are skipped
+    private BigDecimal convert(Map<String, BigDecimal> amounts, String currency, LocalDate date) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<String, BigDecimal> amount : amounts.entrySet()) {
+            if (amount.getValue().signum() == 0) {
+                continue;
+            }
+            if (exchangeRateService.canConvert(amount.getKey(), currency, date)) {
+                total = total.add(exchangeRateService.convert(amount.getValue(), amount.getKey(), currency, date));
+            } else {
+                log.debug("Leaving {} {} of {} out of the forecast: no exchange rate", amount.getValue(),
+                        amount.getKey(), date);
+            }
+        }
+        return total;
+    }
+
+    private static BigDecimal sum(Map<LocalDate, BigDecimal> netFlows) {
+        return netFlows.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private record CacheKey(long seriesVersion, String recurringVersion, long ratesVersion, String currency,
+                            LocalDate day) {
+    }
+
+    private record CachedForecast(CacheKey key, Forecast forecast) {
+    }
+}
@@ -1,8 +1,12 @@
 package com.codeyantratech.financeanalyzer.service;
 
+import com.codeyantratech.financeanalyzer.enums.SyncEntityType;
+import com.codeyantratech.financeanalyzer.enums.VersionedResource;
 import com.codeyantratech.financeanalyzer.model.Category;
+import com.codeyantratech.financeanalyzer.model.SyncTombstone;
 import com.codeyantratech.financeanalyzer.model.User;
 import com.codeyantratech.financeanalyzer.repository.CategoryRepository;
+import com.codeyantratech.financeanalyzer.repository.SyncTombstoneRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -26,6 +30,12 @@ public class CategoryService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
     // Default categories template with their colors
     private static final List<DefaultCategory> DEFAULT_CATEGORIES = Arrays.asList(
         new DefaultCategory("Food & Groceries", "Essential food and grocery expenses", "#4CAF50"),
@@ -55,6 +65,7 @@ public class CategoryService {
             categoryRepository.save(category);
             log.info("Created default category '{}' for user: {}", defaultCat.name, user.getUsername());
         }
+        resourceVersionService.bump(user.getId(), VersionedResource.CATEGORIES);
     }
 
     /**
@@ -75,7 +86,9 @@ public class CategoryService {
         category.setColor(color);
         category.setUser(user);
 
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        resourceVersionService.bump(user.getId(), VersionedResource.CATEGORIES);
+        return saved;
     }
 
     /**
@@ -96,17 +109,21 @@ public class CategoryService {
         category.setDescription(description);
         category.setColor(color);
 
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        resourceVersionService.bump(user.getId(), VersionedResource.CATEGORIES);
+        return saved;
     }
 
     /**
-     * Deletes a category.
+     * Deletes a category and leaves a tombstone for delta sync.
      * Users can only delete their own categories.
      */
     @Transactional
     public void deleteCategory(Long categoryId, String username) {
         Category category = getCategoryById(categoryId, username);
         categoryRepository.delete(category);
+        syncTombstoneRepository.save(new SyncTombstone(category.getUser().getId(), SyncEntityType.CATEGORY, categoryId));
+        resourceVersionService.bump(category.getUser().getId(), VersionedResource.CATEGORIES);
     }
 
     /**
@@ -0,0 +1,269 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * State of one chunked upload: the spool file on local disk, which chunks have arrived and
+ * how far the file is readable without gaps. Chunks are written at their offset with positional
+ * FileChannel writes, so they may arrive in any order and a failed chunk can simply be resent.
+ * The parser reads the spool file through {@link #openStream()}, which blocks at the first gap
+ * until the missing chunk arrives. Uses a ReentrantLock rather than synchronized, so waiting
+ * parsers do not pin carrier threads in virtual-thread mode.
+ */
+@Getter
+public class ChunkedUpload {
+
+    public enum Status { RECEIVING, COMPLETING, SUCCESS, FAILED }
+
+    private final String id;
+    private final String username;
+    private final String filename;
+    private final long totalSize;
+    private final int chunkSize;
+    private final int totalChunks;
+    private final Long profileId;
+    private final Path spoolFile;
+
+    @Getter(AccessLevel.NONE)
+    private final FileChannel channel;
+
+    @Getter(AccessLevel.NONE)
+    private final BitSet received;
+
+    @Getter(AccessLevel.NONE)
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Getter(AccessLevel.NONE)
+    private final Condition dataAvailable = lock.newCondition();
+
+    private volatile int receivedChunks;
+    private volatile long contiguousBytes;
+    private volatile Status status = Status.RECEIVING;
+    private volatile String errorDetails;
+    private volatile long lastActivity = System.currentTimeMillis();
+
+    @Setter
+    private volatile Long fileUploadId;
+
+    @Setter
+    private volatile ImportContext context;
+
+    @Setter
+    private volatile Future<?> parseTask;
+
+    private int contiguousChunks;
+    private boolean aborted;
+
+    ChunkedUpload(String id, String username, String filename, long totalSize, int chunkSize, Long profileId,
+                  Path spoolFile) throws IOException {
+        this.id = id;
+        this.username = username;
+        this.filename = filename;
+        this.totalSize = totalSize;
+        this.chunkSize = chunkSize;
+        this.totalChunks = (int) ((totalSize + chunkSize - 1) / chunkSize);
+        this.profileId = profileId;
+        this.spoolFile = spoolFile;
+        this.received = new BitSet(totalChunks);
+        this.channel = FileChannel.open(spoolFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Expected size of a chunk; only the last one may be shorter than chunkSize.
+     */
+    long expectedChunkSize(int index) {
+        return Math.min(chunkSize, totalSize - (long) index * chunkSize);
+    }
+
+    /**
+     * Writes one chunk from the request body into the spool file.
+     * Chunks that already arrived are not written again, so retries are idempotent.
+     *
+     * @param index Zero-based chunk number
+     * @param body  The chunk content; must be exactly the expected chunk size
+     * @throws RuntimeException if the chunk number or size is invalid
+     */
+    void writeChunk(int index, InputStream body) throws IOException {
+        if (index < 0 || index >= totalChunks) {
+            throw new RuntimeException("Chunk index must be between 0 and " + (totalChunks - 1));
+        }
+        touch();
+        if (isReceived(index)) {
+            return;
+        }
+        long expected = expectedChunkSize(index);
+        long position = (long) index * chunkSize;
+        ReadableByteChannel source = Channels.newChannel(body);
+        long written = 0;
+        while (written < expected) {
+            long transferred = channel.transferFrom(source, position + written, expected - written);
+            if (transferred <= 0) {
+                break;
+            }
+            written += transferred;
+        }
+        if (written != expected || body.read() != -1) {
+            // Bytes written so far stay unreferenced until the chunk is resent
+            throw new RuntimeException("Chunk " + index + " must be exactly " + expected + " bytes");
+        }
+        markReceived(index);
+    }
+
+    private boolean isReceived(int index) {
+        lock.lock();
+        try {
+            return received.get(index);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void markReceived(int index) {
+        lock.lock();
+        try {
+            if (!received.get(index)) {
+                received.set(index);
+                receivedChunks++;
+                while (contiguousChunks < totalChunks && received.get(contiguousChunks)) {
+                    contiguousChunks++;
+                }
+                contiguousBytes = Math.min((long) contiguousChunks * chunkSize, totalSize);
+                dataAvailable.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the first missing chunk indexes.
+     */
+    public List<Integer> missingChunks(int limit) {
+        lock.lock();
+        try {
+            List<Integer> missing = new ArrayList<>();
+            for (int i = received.nextClearBit(0); i < totalChunks && missing.size() < limit;
+                 i = received.nextClearBit(i + 1)) {
+                missing.add(i);
+            }
+            return missing;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isComplete() {
+        return receivedChunks == totalChunks;
+    }
+
+    void touch() {
+        lastActivity = System.currentTimeMillis();
+    }
+
+    void setStatus(Status status, String errorDetails) {
+        this.status = status;
+        this.errorDetails = errorDetails;
+    }
+
+    /**
+     * Aborts the upload: a parser waiting for data fails with an IOException.
+     */
+    void abort() {
+        lock.lock();
+        try {
+            aborted = true;
+            dataAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the channel and deletes the spool file.
+     */
+    void discard() {
+        try {
+            channel.close();
+            Files.deleteIfExists(spoolFile);
+        } catch (IOException e) {
+            // Left for the stale spool file sweep
+        }
+    }
+
+    /**
+     * Opens a stream over the spool file that ends at totalSize and blocks at gaps.
+     */
+    InputStream openStream() {
+        return new SpoolInputStream();
+    }
+
+    private class SpoolInputStream extends InputStream {
+
+        private long position;
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int n = read(single, 0, 1);
+            return n < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            long available = awaitData();
+            if (available <= 0) {
+                return -1;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(b, off, (int) Math.min(len, available));
+            int n = channel.read(buffer, position);
+            if (n > 0) {
+                position += n;
+            }
+            return n;
+        }
+
+        // Bytes readable at the current position; 0 at the end of the file
+        private long awaitData() throws IOException {
+            if (position >= totalSize) {
+                return 0;
+            }
+            lock.lock();
+            try {
+                while (position >= contiguousBytes) {
+                    if (aborted) {
+                        throw new IOException("Upload was aborted");
+                    }
+                    dataAvailable.await();
+                }
+                return contiguousBytes - position;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for upload data", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.model.FileUpload;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * Service class responsible for resumable chunked uploads of large statement files.
+ * The client initiates an upload, sends numbered chunks in any order (resending only the
+ * chunks that failed) and completes it. Chunks are spooled to local disk, and the import starts
+ * as soon as the upload is initiated: a task parses the spool file as contiguous chunks arrive,
+ * so parsing overlaps with the upload. Such a task waits for chunks for the whole upload, so
+ * import tasks run on a pool of their own with one thread per admitted upload, and both the
+ * uploads in progress overall and those of each user are limited.
+ * Transactions are committed batch by batch; if the upload fails or expires, the transactions
+ * it already wrote are deleted again.
+ * Upload sessions live in memory, so chunks of one upload must reach the same instance.
+ */
+@Slf4j
+@Service
+public class ChunkedUploadService {
+
+    private static final int MIN_CHUNK_SIZE = 256 * 1024;
+    private static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private final Map<String, ChunkedUpload> uploads = new ConcurrentHashMap<>();
+
+    // Uploads in progress per username
+    private final Map<String, Integer> activeByUser = new ConcurrentHashMap<>();
+
+    @Autowired
+    private FileImportService fileImportService;
+
+    @Autowired
+    private FileUploadService fileUploadService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Value("${app.import.spool-dir:${java.io.tmpdir}/finance-analyzer-uploads}")
+    private String spoolDir;
+
+    @Value("${app.import.chunked.chunk-size-bytes:8388608}")
+    private int defaultChunkSize;
+
+    @Value("${app.import.chunked.max-file-size-bytes:4294967296}")
+    private long maxFileSize;
+
+    @Value("${app.import.chunked.max-active-uploads:16}")
+    private int maxActiveUploads;
+
+    @Value("${app.import.chunked.max-active-uploads-per-user:2}")
+    private int maxActiveUploadsPerUser;
+
+    @Value("${app.import.chunked.session-ttl-minutes:60}")
+    private long sessionTtlMinutes;
+
+    @Value("${app.import.chunked.complete-timeout-seconds:30}")
+    private long completeTimeoutSeconds;
+
+    private Semaphore activeUploads;
+    private ExecutorService importExecutor;
+
+    @PostConstruct
+    void init() {
+        activeUploads = new Semaphore(maxActiveUploads);
+        // A permit of activeUploads is held for every task, so tasks never queue
+        importExecutor = Executors.newFixedThreadPool(maxActiveUploads, new CustomizableThreadFactory("chunked-import-"));
+    }
+
+    @PreDestroy
+    void close() {
+        importExecutor.shutdownNow();
+    }
+
+    /**
+     * Starts a chunked upload and its background import.
+     *
+     * @param username  The username of the uploading user
+     * @param filename  Original file name; determines the format like for single-shot uploads
+     * @param totalSize Size of the whole file in bytes
+     * @param chunkSize Requested chunk size, or null for the server default
+     * @param profileId Import profile for CSV content, or null to auto-detect
+     * @return The new upload session
+     * @throws RuntimeException if the file type, size or chunk size is not acceptable, or too
+     *                          many uploads are in progress overall or for the user
+     */
+    public ChunkedUpload initiate(String username, String filename, long totalSize, Integer chunkSize, Long profileId) {
+        if (!FileImportService.isSupported(filename)) {
+            throw new RuntimeException("Please upload a CSV, OFX, QFX or QIF file (optionally as .gz or .zip)");
+        }
+        if (totalSize > maxFileSize) {
+            throw new RuntimeException("File exceeds the maximum size of " + maxFileSize + " bytes");
+        }
+        int size = chunkSize != null ? chunkSize : defaultChunkSize;
+        if (size < MIN_CHUNK_SIZE || size > MAX_CHUNK_SIZE) {
+            throw new RuntimeException("Chunk size must be between " + MIN_CHUNK_SIZE + " and " + MAX_CHUNK_SIZE + " bytes");
+        }
+        admit(username);
+
+        String id = UUID.randomUUID().toString();
+        ChunkedUpload upload;
+        try {
+            Path dir = Files.createDirectories(Paths.get(spoolDir));
+            upload = new ChunkedUpload(id, username, filename, totalSize, size, profileId, dir.resolve(id + ".part"));
+
+            FileUpload fileUpload = fileUploadService.createUpload(username, filename, totalSize);
+            upload.setFileUploadId(fileUpload.getId());
+            ImportContext context = fileImportService.startImport(fileUpload, username);
+            upload.setContext(context);
+        } catch (IOException e) {
+            release(username);
+            throw new RuntimeException("Could not create upload spool file: " + e.getMessage());
+        } catch (RuntimeException e) {
+            release(username);
+            throw e;
+        }
+        uploads.put(id, upload);
+        upload.setParseTask(importExecutor.submit(() -> runImport(upload)));
+
+        log.info("Started chunked upload {} of {} ({} bytes in {} chunks)", id, filename, totalSize, upload.getTotalChunks());
+        return upload;
+    }
+
+    /**
+     * Stores one chunk of an upload.
+     *
+     * @throws RuntimeException if the upload is unknown, no longer receiving, or the chunk is invalid
+     */
+    public ChunkedUpload writeChunk(String uploadId, int index, InputStream body, String username) {
+        ChunkedUpload upload = getUpload(uploadId, username);
+        if (upload.getStatus() != ChunkedUpload.Status.RECEIVING) {
+            throw new RuntimeException("Upload is no longer accepting chunks (" + upload.getStatus() + ")");
+        }
+        try {
+            upload.writeChunk(index, body);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store chunk " + index + ": " + e.getMessage());
+        }
+        return upload;
+    }
+
+    /**
+     * Completes an upload once all chunks have arrived and waits for the import to finish,
+     * at most the configured timeout; after that the status can be polled.
+     *
+     * @throws RuntimeException if chunks are still missing
+     */
+    public ChunkedUpload complete(String uploadId, String username) {
+        ChunkedUpload upload = getUpload(uploadId, username);
+        if (upload.getStatus() == ChunkedUpload.Status.RECEIVING) {
+            if (!upload.isComplete()) {
+                throw new RuntimeException("Upload is missing chunks " + upload.missingChunks(10));
+            }
+            upload.setStatus(ChunkedUpload.Status.COMPLETING, null);
+        }
+        try {
+            upload.getParseTask().get(completeTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.debug("Import of chunked upload {} still running", uploadId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Already recorded on the upload by runImport
+        }
+        return upload;
+    }
+
+    /**
+     * Returns the state of an upload, including which chunks are still missing.
+     *
+     * @throws RuntimeException if the upload is unknown or belongs to another user
+     */
+    public ChunkedUpload getUpload(String uploadId, String username) {
+        ChunkedUpload upload = uploads.get(uploadId);
+        if (upload == null || !upload.getUsername().equals(username)) {
+            throw new RuntimeException("Upload not found or access denied");
+        }
+        return upload;
+    }
+
+    /**
+     * Aborts uploads that received no chunk within the session TTL and sweeps spool files
+     * left behind by a previous run.
+     */
+    @Scheduled(fixedDelayString = "${app.import.chunked.cleanup-interval-ms:60000}")
+    public void expireStaleUploads() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(sessionTtlMinutes);
+        for (ChunkedUpload upload : uploads.values()) {
+            if (upload.getStatus() == ChunkedUpload.Status.RECEIVING && upload.getLastActivity() < cutoff) {
+                log.info("Chunked upload {} expired after {} minutes without chunks", upload.getId(), sessionTtlMinutes);
+                upload.setStatus(ChunkedUpload.Status.FAILED, "Upload expired");
+                upload.abort();
+            } else if (upload.getStatus() != ChunkedUpload.Status.RECEIVING
+                    && upload.getStatus() != ChunkedUpload.Status.COMPLETING
+                    && upload.getLastActivity() < cutoff) {
+                // Finished uploads stay queryable for one TTL
+                uploads.remove(upload.getId());
+            }
+        }
+
+        Path dir = Paths.get(spoolDir);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        Instant fileCutoff = Instant.now().minus(Duration.ofMinutes(sessionTtlMinutes * 2));
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(file -> file.getFileName().toString().endsWith(".part"))
+                    .filter(file -> !uploads.containsKey(file.getFileName().toString().replace(".part", "")))
+                    .filter(file -> isOlderThan(file, fileCutoff))
+                    .forEach(file -> {
+                        try {
+                            Files.deleteIfExists(file);
+                        } catch (IOException e) {
+                            log.warn("Could not delete stale spool file {}: {}", file, e.getMessage());
+                        }
+                    });
+        } catch (IOException e) {
+            log.warn("Could not sweep upload spool directory {}: {}", dir, e.getMessage());
+        }
+    }
+
+    /**
+     * Aborts all running uploads when the application shuts down. Runs on ContextClosedEvent,
+     * before the import executor is shut down, since import tasks would otherwise keep waiting
+     * for chunks that never arrive.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void abortAll() {
+        uploads.values().forEach(ChunkedUpload::abort);
+    }
+
+    // Takes a slot for a new upload of a user
+    private void admit(String username) {
+        if (!activeUploads.tryAcquire()) {
+            throw new RuntimeException("Too many uploads in progress, please retry later");
+        }
+        try {
+            activeByUser.compute(username, (user, active) -> {
+                int count = active != null ? active : 0;
+                if (count >= maxActiveUploadsPerUser) {
+                    throw new RuntimeException("You already have " + count + " uploads in progress, please retry later");
+                }
+                return count + 1;
+            });
+        } catch (RuntimeException e) {
+            activeUploads.release();
+            throw e;
+        }
+    }
+
+    private void release(String username) {
+        activeByUser.computeIfPresent(username, (user, active) -> active > 1 ? active - 1 : null);
+        activeUploads.release();
+    }
+
+    // Runs on the import executor for the whole lifetime of the upload
+    private void runImport(ChunkedUpload upload) {
+        ImportContext context = upload.getContext();
+        long start = System.nanoTime();
+        try (InputStream in = upload.openStream()) {
+            fileImportService.importStream(in, upload.getFilename(), upload.getProfileId(), context);
+            context.flush();
+            // Formats like zip stop reading before the end; the upload still has to arrive completely
+            in.transferTo(OutputStream.nullOutputStream());
+            fileImportService.finishImport(context, System.nanoTime() - start);
+            upload.setStatus(ChunkedUpload.Status.SUCCESS, null);
+        } catch (Exception e) {
+            String reason = upload.getErrorDetails();
+            if (reason == null) {
+                log.error("Chunked upload {} failed: {}", upload.getId(), e.getMessage());
+                reason = FileImportService.errorSummary(e);
+            } else {
+                log.error("Chunked upload {} failed: {}", upload.getId(), reason);
+            }
+            upload.setStatus(ChunkedUpload.Status.FAILED, reason);
+            try {
+                int removed = transactionService.deleteImportedTransactions(context.getUser(), upload.getFileUploadId());
+                if (removed > 0) {
+                    log.info("Removed {} transactions of failed chunked upload {}", removed, upload.getId());
+                }
+                fileImportService.failImport(context.getFileUpload(), reason);
+            } catch (RuntimeException cleanupError) {
+                log.error("Cleanup of chunked upload {} failed: {}", upload.getId(), cleanupError.getMessage());
+            }
+        } finally {
+            upload.touch();
+            upload.discard();
+            release(upload.getUsername());
+        }
+    }
+
+    private static boolean isOlderThan(Path file, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -1,158 +1,119 @@
 package com.codeyantratech.financeanalyzer.service;
 
-import com.codeyantratech.financeanalyzer.enums.TransactionSource;
-import com.codeyantratech.financeanalyzer.enums.TransactionType;
-import com.codeyantratech.financeanalyzer.model.FileUpload;
 import com.codeyantratech.financeanalyzer.model.Transaction;
-import com.codeyantratech.financeanalyzer.model.User;
+import com.opencsv.CSVParserBuilder;
 import com.opencsv.CSVReader;
 import com.opencsv.CSVReaderBuilder;
-import com.opencsv.exceptions.CsvException;
+import com.opencsv.exceptions.CsvValidationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Service class responsible for processing CSV files containing transaction data.
- * Handles parsing CSV content, validating data, and creating transaction records.
+ * Service class responsible for parsing CSV files containing transaction data.
+ * Handles profile selection, parsing CSV content, validating data, and creating transaction records;
+ * FileImportService drives it and owns persistence.
  */
 @Slf4j
 @Service
 public class CsvProcessingService {
 
-    @Autowired
-    private FileUploadService fileUploadService;
-    
-    @Autowired
-    private TransactionService transactionService;
-    
-    @Autowired
-    private UserService userService;
+    private static final int DETECTION_BUFFER_SIZE = 16 * 1024;
 
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    @Autowired
+    private ImportProfileService importProfileService;
 
     /**
-     * Processes a CSV file containing transaction data.
-     * The file should have the following columns: date, amount, type, description
-     * The first row is expected to be a header row and will be skipped.
+     * Picks the import profile for a CSV file and streams its rows into the import context.
+     * Columns are mapped by the given import profile; without one, the profile whose header
+     * matches the file is used, or the default format: date, amount, type, description
+     * with a header row. Invalid rows are rejected without throwing.
      *
-     * @param file     The uploaded CSV file
-     * @param username The username of the user uploading the file
-     * @throws RuntimeException if there's an error processing the file
+     * @param in        UTF-8 encoded CSV content; not closed by this method
+     * @param filename  Name of the file, for logging
+     * @param profileId The import profile to use, or null to auto-detect
+     * @param context   The import receiving accepted and rejected rows
+     * @throws IOException            if there's an error reading the file
+     * @throws CsvValidationException if the file is not valid CSV
      */
-    @Transactional
-    public void processTransactionCsv(MultipartFile file, String username) {
-        FileUpload fileUpload = null;
-        try {
-            // Save file upload record
-            fileUpload = fileUploadService.saveFile(file, username);
-            fileUpload.setStatus("PROCESSING");
-            fileUpload = fileUploadService.updateFileUpload(fileUpload);
-
-            User user = userService.getCurrentUser(username);
-
-            // Process CSV file
-            List<Transaction> transactions = parseTransactions(file, user);
-            
-            // Save transactions
-            transactions.forEach(transactionService::saveTransaction);
-            
-            // Mark file as processed successfully
-            fileUpload.setStatus("SUCCESS");
-            fileUpload.setProcessed(true);
-            fileUpload.setRecordsCount(transactions.size());
-            fileUploadService.updateFileUpload(fileUpload);
-            
-            log.info("Successfully processed {} transactions from file: {}", 
-                    transactions.size(), file.getOriginalFilename());
-            
-        } catch (Exception e) {
-            log.error("Error processing CSV file: {}", e.getMessage());
-            
-            // Update file upload record with error details
-            if (fileUpload != null) {
-                fileUpload.setStatus("FAILED");
-                fileUpload.setErrorDetails(e.getMessage());
-                fileUploadService.updateFileUpload(fileUpload);
-            }
-            
-            throw new RuntimeException("Failed to process CSV file: " + e.getMessage());
-        }
+    public void parseTransactions(InputStream in, String filename, Long profileId, ImportContext context)
+            throws IOException, CsvValidationException {
+        parseTransactions(new InputStreamReader(in, StandardCharsets.UTF_8), filename, profileId, context);
     }
 
     /**
-     * Parses the CSV file and converts each row into a Transaction object.
-     * Skips the header row and any invalid records.
+     * Same as {@link #parseTransactions(InputStream, String, Long, ImportContext)} for content
+     * that is already decoded, such as a memory-mapped upload.
      *
-     * @param file The CSV file to parse
-     * @param user The user who owns these transactions
-     * @return List of Transaction objects created from the CSV data
-     * @throws IOException   if there's an error reading the file
-     * @throws CsvException if there's an error parsing the CSV format
+     * @param in        The CSV content; not closed by this method
+     * @param filename  Name of the file, for logging
+     * @param profileId The import profile to use, or null to auto-detect
+     * @param context   The import receiving accepted and rejected rows
+     * @throws IOException            if there's an error reading the file
+     * @throws CsvValidationException if the file is not valid CSV
      */
-    private List<Transaction> parseTransactions(MultipartFile file, User user) throws IOException, CsvException {
-        List<Transaction> transactions = new ArrayList<>();
-        
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()));
-             CSVReader csvReader = new CSVReaderBuilder(reader)
-                     .withSkipLines(1) // Skip header row
-                     .build()) {
-
-            List<String[]> records = csvReader.readAll();
-            
-            for (String[] record : records) {
-                try {
-                    Transaction transaction = createTransactionFromRecord(record, user);
-                    transactions.add(transaction);
-                } catch (Exception e) {
-                    log.warn("Skipping invalid record: {}", String.join(",", record));
-                }
-            }
-        }
-        
-        return transactions;
+    public void parseTransactions(Reader in, String filename, Long profileId, ImportContext context)
+            throws IOException, CsvValidationException {
+        BufferedReader reader = new BufferedReader(in, DETECTION_BUFFER_SIZE);
+        List<String> leadingLines = peekLines(reader);
+        RowDecoder decoder = importProfileService.resolveDecoder(context.getUser(), profileId, leadingLines);
+        log.debug("Importing {} with profile '{}'", filename, decoder.getProfileName());
+        parseRecords(reader, decoder, context);
     }
 
     /**
-     * Creates a Transaction object from a CSV record.
-     * Expected format: date,amount,type,description
-     *
-     * @param record Array of strings containing the CSV record data
-     * @param user   The user who owns the transaction
-     * @return Transaction object created from the record data
-     * @throws IllegalArgumentException if the record format is invalid
-     * @throws DateTimeParseException  if the date format is invalid
+     * Streams CSV records row by row through the decoder into the import context.
+     * Invalid records are rejected without throwing.
+     * Package-private so the JMH benchmarks can measure it directly.
      */
-    private Transaction createTransactionFromRecord(String[] record, User user) {
-        if (record.length < 4) {
-            throw new IllegalArgumentException("Invalid record format");
+    void parseRecords(Reader reader, RowDecoder decoder, ImportContext context)
+            throws IOException, CsvValidationException {
+        CSVReader csvReader = new CSVReaderBuilder(reader)
+                .withCSVParser(new CSVParserBuilder().withSeparator(decoder.getDelimiter()).build())
+                .withSkipLines(decoder.getSkipLines())
+                .build();
+        String[] record;
+        while ((record = csvReader.readNext()) != null) {
+            Transaction transaction = decoder.decode(record, csvReader.getLinesRead(), context);
+            if (transaction != null) {
+                context.accept(transaction);
+            }
         }
+        context.flush();
+    }
 
-        // Expected CSV format: date,amount,type,description
-        LocalDate date = LocalDate.parse(record[0].trim(), DATE_FORMATTER);
-        BigDecimal amount = new BigDecimal(record[1].trim());
-        TransactionType type = TransactionType.valueOf(record[2].trim().toUpperCase());
-        String description = record[3].trim();
+    // Reads the first lines for header detection and rewinds the reader
+    private static List<String> peekLines(BufferedReader reader) throws IOException {
+        char[] buffer = new char[DETECTION_BUFFER_SIZE];
+        reader.mark(DETECTION_BUFFER_SIZE);
+        int length = 0;
+        int read;
+        while (length < buffer.length && (read = reader.read(buffer, length, buffer.length - length)) > 0) {
+            length += read;
+        }
+        reader.reset();
 
-        return Transaction.builder()
-                .user(user)
-                .transactionDate(date)
-                .amount(amount)
-                .transactionType(type)
-                .description(description)
-                .source(TransactionSource.CSV_UPLOAD)
-                .build();
+        List<String> lines = new ArrayList<>();
+        int lineStart = 0;
+        for (int i = 0; i < length && lines.size() < ImportProfileService.DETECTION_LINES; i++) {
+            if (buffer[i] == '\n') {
+                int lineEnd = i > lineStart && buffer[i - 1] == '\r' ? i - 1 : i;
+                lines.add(new String(buffer, lineStart, lineEnd - lineStart));
+                lineStart = i + 1;
+            }
+        }
+        if (length < buffer.length && lineStart < length && lines.size() < ImportProfileService.DETECTION_LINES) {
+            lines.add(new String(buffer, lineStart, length - lineStart));
+        }
+        return lines;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+/**
+ * Delivers notifications by email through the SMTP server configured in spring.mail.*.
+ */
+@Service
+public class EmailNotificationChannel implements NotificationChannel {
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Value("${app.notifications.mail.from:no-reply@finance-analyzer.local}")
+    private String from;
+
+    @Override
+    public boolean isEnabledFor(User user) {
+        return Boolean.TRUE.equals(user.getNotificationEmailEnabled()) && user.getEmail() != null;
+    }
+
+    @Override
+    public void send(User user, String subject, String body) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(user.getEmail());
+        message.setSubject(subject);
+        message.setText(body);
+        mailSender.send(message);
+    }
+}
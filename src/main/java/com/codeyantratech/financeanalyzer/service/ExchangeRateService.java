@@ -0,0 +1,209 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.model.ExchangeRate;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.ExchangeRateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service class responsible for currency conversion.
+ * Daily rates against a base currency are stored in exchange_rates and imported from a CSV
+ * file with lines of the form date,currency,rate (e.g. 2024-03-05,USD,1.0856 for a EUR base).
+ * Conversions are answered from an ExchangeRateTable held in memory, so converting an amount
+ * never queries the database; the table is rebuilt after every import.
+ */
+@Slf4j
+@Service
+public class ExchangeRateService {
+
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.currency.base:EUR}")
+    private String baseCurrency;
+
+    @Value("${app.currency.default:USD}")
+    private String defaultCurrency;
+
+    @Value("${app.currency.rates-file:}")
+    private String ratesFile;
+
+    private volatile ExchangeRateTable table = ExchangeRateTable.EMPTY;
+
+    private final AtomicLong ratesVersion = new AtomicLong();
+
+    /**
+     * Imports the configured rates file, if any, and loads all stored rates into memory.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRates() {
+        if (!ratesFile.isBlank() && Files.isReadable(Path.of(ratesFile))) {
+            importRatesFile();
+        } else {
+            reload();
+        }
+    }
+
+    /**
+     * Re-imports the configured rates file, for deployments that refresh it daily.
+     */
+    @Scheduled(cron = "${app.currency.rates-cron:0 30 16 * * *}")
+    public void importRatesFile() {
+        if (ratesFile.isBlank()) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(Path.of(ratesFile), StandardCharsets.UTF_8)) {
+            int imported = importRates(reader);
+            log.info("Imported {} exchange rates from {}", imported, ratesFile);
+        } catch (IOException e) {
+            log.error("Could not read exchange rates from {}: {}", ratesFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Stores the rates of a CSV file and rebuilds the in-memory table.
+     * Blank lines, lines starting with # and a header line starting with "date" are skipped.
+     * The file is imported completely or not at all.
+     *
+     * @return The number of imported rates
+     * @throws RuntimeException if a line is malformed
+     */
+    public int importRates(Reader reader) {
+        List<ExchangeRate> rates = new ArrayList<>();
+        try {
+            BufferedReader lines = new BufferedReader(reader);
+            String line;
+            int lineNumber = 0;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#") || line.toLowerCase(Locale.ROOT).startsWith("date")) {
+                    continue;
+                }
+                rates.add(parseRate(line, lineNumber));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        transactionTemplate.executeWithoutResult(status -> exchangeRateRepository.upsertAll(rates));
+        reload();
+        return rates.size();
+    }
+
+    /**
+     * Rebuilds the in-memory table from the stored rates with a single query.
+     */
+    public void reload() {
+        ExchangeRateTable.Builder builder = new ExchangeRateTable.Builder();
+        exchangeRateRepository.forEach(rs -> builder.add(rs.getString("currency"),
+                rs.getDate("rate_date").toLocalDate(), rs.getDouble("rate")));
+        table = builder.build();
+        ratesVersion.incrementAndGet();
+        log.debug("Loaded exchange rates for {} currencies", table.currencyCount());
+    }
+
+    /**
+     * Returns a number that changes whenever the rates are reloaded, so caches of converted
+     * amounts can tell whether they are still current.
+     */
+    public long ratesVersion() {
+        return ratesVersion.get();
+    }
+
+    /**
+     * Returns the currency a user's amounts are reported in: the preferred currency, or the
+     * configured default for users without one.
+     */
+    public String currencyOf(User user) {
+        return user.getPreferredCurrency() != null ? user.getPreferredCurrency() : defaultCurrency;
+    }
+
+    /**
+     * Checks whether a user may record amounts in a currency: their own currency and the base
+     * currency always, any other currency only once rates for it are loaded. Amounts in
+     * currencies without any rate could never be converted in summaries and budgets.
+     */
+    public boolean isSupported(String currency, User user) {
+        return currency.equals(currencyOf(user)) || currency.equals(baseCurrency) || table.contains(currency);
+    }
+
+    /**
+     * Checks whether {@link #convert} can convert between two currencies on a date.
+     */
+    public boolean canConvert(String from, String to, LocalDate date) {
+        return from == null || from.equals(to) || (!Double.isNaN(rate(from, date)) && !Double.isNaN(rate(to, date)));
+    }
+
+    /**
+     * Converts an amount with the rates of the given date, rounded to cents.
+     * A null source currency means the amount is already in the target currency.
+     *
+     * @throws RuntimeException if either currency has no rate on that date
+     */
+    public BigDecimal convert(BigDecimal amount, String from, String to, LocalDate date) {
+        if (from == null || from.equals(to)) {
+            return amount;
+        }
+        double factor = requireRate(to, date) / requireRate(from, date);
+        return amount.multiply(BigDecimal.valueOf(factor)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private double requireRate(String currency, LocalDate date) {
+        double rate = rate(currency, date);
+        if (Double.isNaN(rate)) {
+            throw new RuntimeException("No exchange rate for " + currency + " on " + date);
+        }
+        return rate;
+    }
+
+    // NaN without a rate on that date
+    private double rate(String currency, LocalDate date) {
+        return currency.equals(baseCurrency) ? 1.0 : table.rate(currency, date);
+    }
+
+    private static ExchangeRate parseRate(String line, int lineNumber) {
+        String[] fields = line.split(",");
+        try {
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("expected date,currency,rate");
+            }
+            String currency = fields[1].strip().toUpperCase(Locale.ROOT);
+            if (!currency.matches("[A-Z]{3,10}")) {
+                throw new IllegalArgumentException("invalid currency code");
+            }
+            BigDecimal rate = new BigDecimal(fields[2].strip());
+            if (rate.signum() <= 0) {
+                throw new IllegalArgumentException("rate must be positive");
+            }
+            return new ExchangeRate(currency, LocalDate.parse(fields[0].strip()), rate);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid exchange rate on line " + lineNumber + " (" + e.getMessage() + "): " + line);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable in-memory table of daily exchange rates against the base currency.
+ * Each currency has a dense double[] indexed by days since the first loaded date, so a
+ * lookup is a hash of the currency code plus an array access. Days without a published rate
+ * (weekends, holidays) carry the previous rate forward; dates after the last loaded day use
+ * the latest rate, and dates before a currency's first rate have none (NaN).
+ */
+final class ExchangeRateTable {
+
+    static final ExchangeRateTable EMPTY = new ExchangeRateTable(Map.of(), 0, new double[0][]);
+
+    private final Map<String, Integer> indexes;
+    private final int firstDay;
+    private final double[][] rates;
+
+    private ExchangeRateTable(Map<String, Integer> indexes, int firstDay, double[][] rates) {
+        this.indexes = indexes;
+        this.firstDay = firstDay;
+        this.rates = rates;
+    }
+
+    /**
+     * Returns the number of currency units per base unit on the given date, or NaN if the
+     * currency is unknown or has no rate yet on that date.
+     */
+    double rate(String currency, LocalDate date) {
+        Integer index = indexes.get(currency);
+        if (index == null) {
+            return Double.NaN;
+        }
+        double[] daily = rates[index];
+        int day = (int) date.toEpochDay() - firstDay;
+        if (day < 0) {
+            return Double.NaN;
+        }
+        return daily[Math.min(day, daily.length - 1)];
+    }
+
+    boolean contains(String currency) {
+        return indexes.containsKey(currency);
+    }
+
+    int currencyCount() {
+        return rates.length;
+    }
+
+    /**
+     * Collects rates in any order and lays them out densely on build().
+     */
+    static final class Builder {
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private int[] currencies = new int[1024];
+        private int[] days = new int[1024];
+        private double[] values = new double[1024];
+        private int size;
+        private int minDay = Integer.MAX_VALUE;
+        private int maxDay = Integer.MIN_VALUE;
+
+        void add(String currency, LocalDate date, double rate) {
+            if (size == days.length) {
+                currencies = Arrays.copyOf(currencies, size * 2);
+                days = Arrays.copyOf(days, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int day = (int) date.toEpochDay();
+            currencies[size] = indexes.computeIfAbsent(currency, c -> indexes.size());
+            days[size] = day;
+            values[size] = rate;
+            size++;
+            minDay = Math.min(minDay, day);
+            maxDay = Math.max(maxDay, day);
+        }
+
+        ExchangeRateTable build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            int length = maxDay - minDay + 1;
+            double[][] rates = new double[indexes.size()][length];
+            for (double[] daily : rates) {
+                Arrays.fill(daily, Double.NaN);
+            }
+            for (int i = 0; i < size; i++) {
+                rates[currencies[i]][days[i] - minDay] = values[i];
+            }
+            for (double[] daily : rates) {
+                for (int day = 1; day < length; day++) {
+                    if (Double.isNaN(daily[day])) {
+                        daily[day] = daily[day - 1];
+                    }
+                }
+            }
+            return new ExchangeRateTable(Map.copyOf(indexes), minDay, rates);
+        }
+    }
+}
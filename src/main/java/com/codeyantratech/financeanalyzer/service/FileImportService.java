@@ -0,0 +1,297 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.ImportFormat;
+import com.codeyantratech.financeanalyzer.model.FileUpload;
+import com.codeyantratech.financeanalyzer.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Service class responsible for importing uploaded statement files.
+ * Accepts CSV, OFX/QFX and QIF files, each optionally gzip-compressed, and zip archives of them.
+ * Archives are decompressed while reading, entry by entry, so nothing is extracted to disk or
+ * held in memory as a whole. All formats feed the same ImportContext, which writes transactions
+ * in JDBC batches and collects the rejection report.
+ */
+@Slf4j
+@Service
+public class FileImportService {
+
+    private static final int DECOMPRESSION_BUFFER_SIZE = 64 * 1024;
+
+    private final OfxStatementParser ofxParser = new OfxStatementParser();
+    private final QifStatementParser qifParser = new QifStatementParser();
+
+    @Autowired
+    private FileUploadService fileUploadService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CsvProcessingService csvProcessingService;
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.import.max-stored-rejections:1000}")
+    private int maxStoredRejections;
+
+    @Value("${app.import.spool-dir:${java.io.tmpdir}/finance-analyzer-uploads}")
+    private String spoolDir;
+
+    private Timer parseTimer;
+    private Timer persistTimer;
+    private Counter acceptedRows;
+    private Counter rejectedRows;
+
+    @Autowired
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.parseTimer = Timer.builder("csv.import.duration").tag("phase", "parse")
+                .description("Time spent parsing uploaded statement files")
+                .register(meterRegistry);
+        this.persistTimer = Timer.builder("csv.import.duration").tag("phase", "persist")
+                .description("Time spent persisting transactions from uploaded statement files")
+                .register(meterRegistry);
+        this.acceptedRows = Counter.builder("csv.import.rows").tag("result", "accepted")
+                .description("Statement rows turned into transactions")
+                .register(meterRegistry);
+        this.rejectedRows = Counter.builder("csv.import.rows").tag("result", "rejected")
+                .description("Statement rows skipped as invalid")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks whether a file name has a supported extension, including compressed variants.
+     */
+    public static boolean isSupported(String filename) {
+        String name = filename.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".zip")) {
+            return true;
+        }
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        return ImportFormat.fromFilename(name) != null;
+    }
+
+    /**
+     * Imports an uploaded statement file.
+     * Invalid rows are skipped and recorded in the upload's rejection report. The upload record
+     * is committed first and the transactions of the file in one database transaction of their
+     * own, so a failed import stores none of them but still leaves the upload marked as failed
+     * and the user notified.
+     *
+     * @param file      The uploaded file
+     * @param username  The username of the user uploading the file
+     * @param profileId The import profile for CSV content, or null to auto-detect
+     * @throws RuntimeException if there's an error processing the file
+     */
+    public void importFile(MultipartFile file, String username, Long profileId) {
+        FileUpload fileUpload = null;
+        try {
+            // Save file upload record
+            fileUpload = fileUploadService.saveFile(file, username);
+            FileUpload upload = fileUpload;
+            transactionTemplate.executeWithoutResult(status -> {
+                ImportContext context = startImport(upload, username);
+
+                // Parse and persist in chunks
+                long start = System.nanoTime();
+                try {
+                    importSpooled(file, profileId, context);
+                } catch (Exception e) {
+                    throw new RuntimeException(e.getMessage(), e);
+                }
+                finishImport(context, System.nanoTime() - start);
+            });
+
+        } catch (Exception e) {
+            log.error("Error processing file: {}", e.getMessage());
+            String reason = errorSummary(e);
+
+            // Update file upload record with error details, after the import was rolled back
+            if (fileUpload != null) {
+                failImport(fileUpload, reason);
+            }
+
+            throw new RuntimeException("Failed to process file: " + reason);
+        }
+    }
+
+    /**
+     * Describes a failed import for the upload record and the user: the first line of the
+     * error message, at most FileUpload.MAX_ERROR_DETAILS_LENGTH characters. Driver messages
+     * can carry whole SQL statements, which belong in the log only.
+     */
+    public static String errorSummary(Exception e) {
+        String message = e.getMessage() != null ? e.getMessage().strip() : e.getClass().getSimpleName();
+        int lineEnd = message.indexOf('\n');
+        if (lineEnd >= 0) {
+            message = message.substring(0, lineEnd).strip();
+        }
+        return message.length() > FileUpload.MAX_ERROR_DETAILS_LENGTH
+                ? message.substring(0, FileUpload.MAX_ERROR_DETAILS_LENGTH) : message;
+    }
+
+    /**
+     * Moves the upload into the spool directory and parses it from a memory mapping.
+     * Multipart uploads are always written to disk by the servlet container, so transferTo
+     * is usually a rename; plain CSV is then decoded straight from the mapped pages, while
+     * other formats and compressed files read the mapping as a byte stream.
+     */
+    private void importSpooled(MultipartFile file, Long profileId, ImportContext context) throws Exception {
+        String filename = file.getOriginalFilename();
+        Path spoolFile = Files.createTempFile(Files.createDirectories(Paths.get(spoolDir)), "upload-", ".spool");
+        try {
+            file.transferTo(spoolFile);
+            try (MappedFile mapped = MappedFile.open(spoolFile)) {
+                if (ImportFormat.fromFilename(filename) == ImportFormat.CSV) {
+                    csvProcessingService.parseTransactions(mapped.utf8Reader(), filename, profileId, context);
+                } else {
+                    importStream(mapped.inputStream(), filename, profileId, context);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(spoolFile);
+        }
+    }
+
+    /**
+     * Marks the upload as processing and creates the context its rows are fed into.
+     */
+    public ImportContext startImport(FileUpload fileUpload, String username) {
+        fileUpload.setStatus("PROCESSING");
+        fileUpload = fileUploadService.updateFileUpload(fileUpload);
+        User user = userService.getCurrentUser(username);
+        ImportContext context = new ImportContext(user, fileUpload, batchSize, maxStoredRejections,
+                transactionService::saveImportedTransactions);
+        context.setDefaultCurrency(exchangeRateService.currencyOf(user));
+        return context;
+    }
+
+    /**
+     * Records metrics, stores the rejection report, marks the upload as processed and
+     * notifies the user.
+     * The context must already be flushed.
+     *
+     * @param elapsedNanos Wall time of parsing and persisting, including persistNanos
+     */
+    public void finishImport(ImportContext context, long elapsedNanos) {
+        parseTimer.record(elapsedNanos - context.getPersistNanos(), TimeUnit.NANOSECONDS);
+        persistTimer.record(context.getPersistNanos(), TimeUnit.NANOSECONDS);
+        acceptedRows.increment(context.getAcceptedCount());
+        rejectedRows.increment(context.getRejectedCount());
+
+        fileUploadService.saveRejections(context.getRejections());
+
+        // Mark file as processed successfully
+        FileUpload fileUpload = context.getFileUpload();
+        fileUpload.setStatus("SUCCESS");
+        fileUpload.setProcessed(true);
+        fileUpload.setRecordsCount((int) context.getAcceptedCount());
+        fileUpload.setRejectedCount((int) context.getRejectedCount());
+        if (context.getRejectedCount() > 0) {
+            fileUpload.setErrorDetails(context.getRejectedCount() + " rows were rejected");
+        }
+        fileUploadService.finishUpload(fileUpload);
+
+        log.info("Processed file: {} ({} transactions, {} rows rejected)",
+                fileUpload.getFilename(), context.getAcceptedCount(), context.getRejectedCount());
+    }
+
+    /**
+     * Marks the upload as failed and notifies the user.
+     * Details longer than FileUpload.MAX_ERROR_DETAILS_LENGTH are cut off.
+     */
+    public void failImport(FileUpload fileUpload, String errorDetails) {
+        fileUpload.setStatus("FAILED");
+        fileUpload.setErrorDetails(errorDetails != null && errorDetails.length() > FileUpload.MAX_ERROR_DETAILS_LENGTH
+                ? errorDetails.substring(0, FileUpload.MAX_ERROR_DETAILS_LENGTH) : errorDetails);
+        fileUploadService.finishUpload(fileUpload);
+    }
+
+    /**
+     * Parses one statement stream, unwrapping gzip and zip layers first.
+     * Public so other ingestion paths, such as chunked uploads, can feed already opened streams.
+     *
+     * @param in        The content; not closed by this method
+     * @param filename  Name that determines the format
+     * @param profileId The import profile for CSV content, or null to auto-detect
+     * @param context   The import receiving accepted and rejected rows
+     */
+    public void importStream(InputStream in, String filename, Long profileId, ImportContext context) throws Exception {
+        String name = filename.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz")) {
+            importStream(new GZIPInputStream(StreamUtils.nonClosing(in), DECOMPRESSION_BUFFER_SIZE),
+                    filename.substring(0, filename.length() - 3), profileId, context);
+            return;
+        }
+        if (name.endsWith(".zip")) {
+            importArchive(in, profileId, context);
+            return;
+        }
+
+        ImportFormat format = ImportFormat.fromFilename(filename);
+        if (format == null) {
+            context.reject(0, null, "Unsupported file type", filename);
+            return;
+        }
+        switch (format) {
+            case CSV -> csvProcessingService.parseTransactions(in, filename, profileId, context);
+            case OFX -> ofxParser.parse(in, context);
+            case QIF -> qifParser.parse(new InputStreamReader(in, StandardCharsets.UTF_8), context);
+        }
+    }
+
+    private void importArchive(InputStream in, Long profileId, ImportContext context) throws Exception {
+        ZipInputStream zip = new ZipInputStream(StreamUtils.nonClosing(in), StandardCharsets.UTF_8);
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            if (entry.isDirectory() || isHidden(entry.getName())) {
+                continue;
+            }
+            context.setCurrentEntry(entry.getName());
+            // Each entry's stream ends at the entry boundary; parsers must not close the archive
+            importStream(StreamUtils.nonClosing(zip), entry.getName(), profileId, context);
+            zip.closeEntry();
+        }
+        context.setCurrentEntry(null);
+    }
+
+    // Skips metadata that archivers add, such as __MACOSX/ and .DS_Store
+    private static boolean isHidden(String entryName) {
+        String baseName = entryName.substring(entryName.lastIndexOf('/') + 1);
+        return entryName.startsWith("__MACOSX/") || baseName.startsWith(".");
+    }
+}
@@ -1,8 +1,11 @@
 package com.codeyantratech.financeanalyzer.service;
 
+import com.codeyantratech.financeanalyzer.enums.VersionedResource;
 import com.codeyantratech.financeanalyzer.model.FileUpload;
+import com.codeyantratech.financeanalyzer.model.ImportRejection;
 import com.codeyantratech.financeanalyzer.model.User;
 import com.codeyantratech.financeanalyzer.repository.FileUploadRepository;
+import com.codeyantratech.financeanalyzer.repository.ImportRejectionRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -24,9 +27,18 @@ public class FileUploadService {
     @Autowired
     private FileUploadRepository fileUploadRepository;
     
+    @Autowired
+    private ImportRejectionRepository importRejectionRepository;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private NotificationService notificationService;
+
     /**
      * Saves metadata for an uploaded file.
      *
@@ -37,16 +49,27 @@ public class FileUploadService {
      */
     @Transactional
     public FileUpload saveFile(MultipartFile file, String username) throws IOException {
+        return createUpload(username, file.getOriginalFilename(), file.getSize());
+    }
+
+    /**
+     * Saves metadata for a file that is uploaded outside a multipart request, e.g. in chunks.
+     *
+     * @param username The username of the user uploading the file
+     * @param filename Original name of the file
+     * @param fileSize Size of the file in bytes
+     * @return FileUpload entity containing the file metadata
+     */
+    @Transactional
+    public FileUpload createUpload(String username, String filename, long fileSize) {
         User user = userService.getCurrentUser(username);
-        
+
         // Create new file upload record
-        FileUpload fileUpload = new FileUpload(
-            user,
-            file.getOriginalFilename(),
-            file.getSize()
-        );
-        
-        return fileUploadRepository.save(fileUpload);
+        FileUpload fileUpload = new FileUpload(user, filename, fileSize);
+
+        FileUpload saved = fileUploadRepository.save(fileUpload);
+        resourceVersionService.bump(user.getId(), VersionedResource.FILES);
+        return saved;
     }
 
     /**
@@ -54,7 +77,20 @@ public class FileUploadService {
      */
     @Transactional
     public FileUpload updateFileUpload(FileUpload fileUpload) {
-        return fileUploadRepository.save(fileUpload);
+        FileUpload saved = fileUploadRepository.save(fileUpload);
+        resourceVersionService.bump(saved.getUser().getId(), VersionedResource.FILES);
+        return saved;
+    }
+
+    /**
+     * Stores the final status of an import and queues the import-finished notification
+     * in the same database transaction.
+     */
+    @Transactional
+    public FileUpload finishUpload(FileUpload fileUpload) {
+        FileUpload saved = updateFileUpload(fileUpload);
+        notificationService.notifyImportFinished(saved);
+        return saved;
     }
 
     /**
@@ -84,6 +120,32 @@ public class FileUploadService {
             .orElseThrow(() -> new RuntimeException("File not found or access denied"));
     }
 
+    /**
+     * Saves the rejected rows collected while importing a file.
+     *
+     * @param rejections Rejections to store; already capped by the import
+     */
+    @Transactional
+    public void saveRejections(List<ImportRejection> rejections) {
+        if (!rejections.isEmpty()) {
+            importRejectionRepository.saveAll(rejections);
+        }
+    }
+
+    /**
+     * Retrieves the stored rejection report of a file upload.
+     *
+     * @param fileId   The ID of the file upload record
+     * @param username The username of the user requesting the report
+     * @return Rejected rows in file order, at most the configured cap
+     * @throws RuntimeException if the file is not found or user doesn't have access
+     */
+    @Transactional(readOnly = true)
+    public List<ImportRejection> getRejections(Long fileId, String username) {
+        FileUpload fileUpload = getFileById(fileId, username);
+        return importRejectionRepository.findByFileUploadOrderByRowNumberAsc(fileUpload);
+    }
+
     /**
      * Updates a file upload record to mark it as processed.
      *
@@ -95,5 +157,6 @@ public class FileUploadService {
         fileUpload.setProcessed(true);
         fileUpload.setRecordsCount(recordsCount);
         fileUploadRepository.save(fileUpload);
+        resourceVersionService.bump(fileUpload.getUser().getId(), VersionedResource.FILES);
     }
 } 
\ No newline at end of file
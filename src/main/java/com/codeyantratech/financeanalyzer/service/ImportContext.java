@@ -0,0 +1,125 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.model.FileUpload;
+import com.codeyantratech.financeanalyzer.model.ImportRejection;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * State of one running file import.
+ * Parsers hand every row to this context, either as an accepted transaction or as a rejection.
+ * Accepted transactions are written in chunks of batchSize through the writer; rejections are
+ * counted, the first maxStoredRejections are kept for the per-upload report, and only the first
+ * few are logged so a badly mapped file cannot flood the logs.
+ */
+@Slf4j
+@Getter
+public class ImportContext {
+
+    private static final int LOGGED_REJECTIONS = 10;
+
+    private final User user;
+    private final FileUpload fileUpload;
+    private final int batchSize;
+    private final int maxStoredRejections;
+
+    @Getter(AccessLevel.NONE)
+    private final Consumer<List<Transaction>> writer;
+
+    @Getter(AccessLevel.NONE)
+    private final List<Transaction> pending;
+
+    private final List<ImportRejection> rejections = new ArrayList<>();
+
+    // Archive entry being parsed, null for plain uploads
+    @Setter
+    private String currentEntry;
+
+    // Currency of rows whose format does not state one
+    @Setter
+    private String defaultCurrency;
+
+    // Only written by the parsing thread; volatile so upload status requests can read progress
+    private volatile long acceptedCount;
+    private volatile long rejectedCount;
+    private long persistNanos;
+
+    /**
+     * @param user                The owner of the imported transactions
+     * @param fileUpload          The upload record, or null when nothing is persisted (benchmarks)
+     * @param batchSize           Number of transactions handed to the writer at once
+     * @param maxStoredRejections Number of rejections kept for the report
+     * @param writer              Persists one chunk of transactions
+     */
+    public ImportContext(User user, FileUpload fileUpload, int batchSize, int maxStoredRejections,
+                         Consumer<List<Transaction>> writer) {
+        this.user = user;
+        this.fileUpload = fileUpload;
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxStoredRejections = maxStoredRejections;
+        this.writer = writer;
+        this.pending = new ArrayList<>(this.batchSize);
+    }
+
+    /**
+     * Queues an accepted transaction and writes the chunk once it is full.
+     */
+    public void accept(Transaction transaction) {
+        if (fileUpload != null) {
+            transaction.setFileUploadId(fileUpload.getId());
+        }
+        if (transaction.getCurrency() == null) {
+            transaction.setCurrency(defaultCurrency);
+        }
+        pending.add(transaction);
+        acceptedCount++;
+        if (pending.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Records a rejected row.
+     *
+     * @param rowNumber  Line number of the row in the file, or the ordinal of the record for
+     *                   formats without meaningful lines
+     * @param columnName The offending column, or null if the row as a whole is invalid
+     * @param reason     Short human-readable reason
+     * @param rawValue   The offending value, truncated for storage
+     */
+    public void reject(long rowNumber, String columnName, String reason, String rawValue) {
+        rejectedCount++;
+        if (rejectedCount <= LOGGED_REJECTIONS) {
+            log.warn("Rejected row {} of upload {}{}: {} ({}='{}')", rowNumber,
+                    fileUpload != null ? fileUpload.getId() : null,
+                    currentEntry != null ? " (" + currentEntry + ")" : "", reason, columnName, rawValue);
+        } else if (rejectedCount == LOGGED_REJECTIONS + 1) {
+            log.warn("Further rejections of upload {} are only counted and stored in the rejection report",
+                    fileUpload != null ? fileUpload.getId() : null);
+        }
+        if (rejections.size() < maxStoredRejections) {
+            rejections.add(new ImportRejection(fileUpload, currentEntry, rowNumber, columnName, reason, rawValue));
+        }
+    }
+
+    /**
+     * Writes all queued transactions. Must be called once parsing is complete.
+     */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        writer.accept(pending);
+        persistNanos += System.nanoTime() - start;
+        pending.clear();
+    }
+}
@@ -0,0 +1,173 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.text.ParsePosition;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * Exception-free parsers for imported field values.
+ * Every method returns null for invalid input instead of throwing, so a file full of bad
+ * rows costs a null check per row rather than a filled-in stack trace.
+ */
+final class ImportFieldParser {
+
+    static final char NO_SEPARATOR = '\0';
+
+    // numeric(12, 2) column
+    private static final int MAX_INTEGER_DIGITS = 10;
+
+    private ImportFieldParser() {
+    }
+
+    /**
+     * Parses a date in yyyy-MM-dd format.
+     */
+    static LocalDate parseIsoDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        String s = value.trim();
+        if (s.length() != 10 || s.charAt(4) != '-' || s.charAt(7) != '-') {
+            return null;
+        }
+        return toDate(digits(s, 0, 4), digits(s, 5, 7), digits(s, 8, 10));
+    }
+
+    /**
+     * Parses a date starting with yyyyMMdd, as used by OFX; any time and zone suffix is ignored.
+     */
+    static LocalDate parseBasicIsoDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        String s = value.trim();
+        if (s.length() < 8 || (s.length() > 8 && Character.isDigit(s.charAt(8)) && s.length() < 14)) {
+            return null;
+        }
+        return toDate(digits(s, 0, 4), digits(s, 4, 6), digits(s, 6, 8));
+    }
+
+    /**
+     * Parses an amount with an optional leading sign and at most two decimals.
+     * Grouping separators are only allowed before the decimal separator.
+     *
+     * @param decimalSeparator  '.' or ','
+     * @param groupingSeparator Thousands separator, or NO_SEPARATOR
+     */
+    static BigDecimal parseSignedAmount(String value, char decimalSeparator, char groupingSeparator) {
+        if (value == null) {
+            return null;
+        }
+        String s = value.trim();
+        int start = 0;
+        boolean negative = false;
+        if (!s.isEmpty() && (s.charAt(0) == '+' || s.charAt(0) == '-')) {
+            negative = s.charAt(0) == '-';
+            start = 1;
+        }
+        char[] normalized = new char[s.length() + 1];
+        int length = 0;
+        int integerDigits = 0;
+        int fractionDigits = -1;
+        for (int i = start; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                } else if (integerDigits > 0 || c != '0') {
+                    integerDigits++;
+                }
+                normalized[length++] = c;
+            } else if (c == decimalSeparator && fractionDigits < 0) {
+                fractionDigits = 0;
+                normalized[length++] = '.';
+            } else if (c != groupingSeparator || fractionDigits >= 0) {
+                return null;
+            }
+        }
+        int digits = length - (fractionDigits >= 0 ? 1 : 0);
+        if (digits == 0 || fractionDigits > 2 || integerDigits > MAX_INTEGER_DIGITS) {
+            return null;
+        }
+        BigDecimal amount = new BigDecimal(normalized, 0, length);
+        return negative ? amount.negate() : amount;
+    }
+
+    /**
+     * Parses a date with the given formatter via parseUnresolved, so invalid input is
+     * reported through the ParsePosition instead of a DateTimeParseException.
+     * Supports day, month and year fields (y or u), which covers bank export formats.
+     */
+    static LocalDate parseDate(String value, DateTimeFormatter formatter) {
+        if (value == null) {
+            return null;
+        }
+        String s = value.trim();
+        ParsePosition position = new ParsePosition(0);
+        TemporalAccessor parsed = formatter.parseUnresolved(s, position);
+        if (parsed == null || position.getErrorIndex() >= 0 || position.getIndex() != s.length()) {
+            return null;
+        }
+        ChronoField yearField = parsed.isSupported(ChronoField.YEAR) ? ChronoField.YEAR : ChronoField.YEAR_OF_ERA;
+        if (!parsed.isSupported(yearField) || !parsed.isSupported(ChronoField.MONTH_OF_YEAR)
+                || !parsed.isSupported(ChronoField.DAY_OF_MONTH)) {
+            return null;
+        }
+        long year = parsed.getLong(yearField);
+        long month = parsed.getLong(ChronoField.MONTH_OF_YEAR);
+        long day = parsed.getLong(ChronoField.DAY_OF_MONTH);
+        if (!ChronoField.YEAR.range().isValidValue(year) || month < 1 || month > 12 || day < 1) {
+            return null;
+        }
+        if (day > 28 && day > LocalDate.of((int) year, (int) month, 1).lengthOfMonth()) {
+            return null;
+        }
+        return LocalDate.of((int) year, (int) month, (int) day);
+    }
+
+    /**
+     * Parses a transaction type name, ignoring case.
+     */
+    static TransactionType parseType(String value) {
+        if (value == null) {
+            return null;
+        }
+        String s = value.trim();
+        for (TransactionType type : TransactionType.values()) {
+            if (type.name().equalsIgnoreCase(s)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Builds a date from numeric fields, returning null instead of throwing for invalid combinations.
+     */
+    static LocalDate toDate(int year, int month, int day) {
+        if (year < 0 || month < 1 || month > 12 || day < 1) {
+            return null;
+        }
+        if (day > 28 && day > LocalDate.of(year, month, 1).lengthOfMonth()) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    private static int digits(String s, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+}
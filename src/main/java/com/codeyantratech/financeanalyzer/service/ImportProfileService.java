@@ -0,0 +1,213 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.dto.ImportProfileRequest;
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.ImportProfile;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.ImportProfileRepository;
+import com.opencsv.CSVParser;
+import com.opencsv.CSVParserBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Service class responsible for managing import profiles and choosing the profile for an upload.
+ * Besides the user's own profiles there is a built-in default for the original
+ * date,amount,type,description format, which is used when no profile matches.
+ */
+@Slf4j
+@Service
+public class ImportProfileService {
+
+    // Lines read ahead of the import to recognize the header row
+    public static final int DETECTION_LINES = 10;
+
+    private static final ImportProfile DEFAULT_PROFILE = defaultProfile();
+    private static final RowDecoder DEFAULT_DECODER = RowDecoder.compile(DEFAULT_PROFILE);
+
+    @Autowired
+    private ImportProfileRepository importProfileRepository;
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Gets all import profiles of a user.
+     */
+    @Transactional(readOnly = true)
+    public List<ImportProfile> getUserProfiles(String username) {
+        User user = userService.getCurrentUser(username);
+        return importProfileRepository.findByUserOrderByNameAsc(user);
+    }
+
+    /**
+     * Gets a specific import profile by ID.
+     * Users can only access their own profiles.
+     */
+    @Transactional(readOnly = true)
+    public ImportProfile getProfileById(Long profileId, String username) {
+        User user = userService.getCurrentUser(username);
+        return importProfileRepository.findByIdAndUser(profileId, user)
+                .orElseThrow(() -> new RuntimeException("Import profile not found or access denied"));
+    }
+
+    /**
+     * Creates a new import profile for a user.
+     *
+     * @throws RuntimeException if the name is taken or the mapping is invalid
+     */
+    @Transactional
+    public ImportProfile createProfile(ImportProfileRequest request, String username) {
+        User user = userService.getCurrentUser(username);
+        if (importProfileRepository.existsByNameAndUser(request.getName(), user)) {
+            throw new RuntimeException("You already have an import profile with this name");
+        }
+        ImportProfile profile = new ImportProfile();
+        profile.setUser(user);
+        apply(profile, request);
+        return importProfileRepository.save(profile);
+    }
+
+    /**
+     * Updates an existing import profile.
+     * Users can only update their own profiles.
+     */
+    @Transactional
+    public ImportProfile updateProfile(Long profileId, ImportProfileRequest request, String username) {
+        ImportProfile profile = getProfileById(profileId, username);
+        if (!profile.getName().equals(request.getName())
+                && importProfileRepository.existsByNameAndUser(request.getName(), profile.getUser())) {
+            throw new RuntimeException("You already have an import profile with this name");
+        }
+        apply(profile, request);
+        return importProfileRepository.save(profile);
+    }
+
+    /**
+     * Deletes an import profile.
+     * Users can only delete their own profiles.
+     */
+    @Transactional
+    public void deleteProfile(Long profileId, String username) {
+        importProfileRepository.delete(getProfileById(profileId, username));
+    }
+
+    /**
+     * Chooses the decoder for an upload.
+     * An explicitly requested profile wins; otherwise the user's profiles are matched against
+     * the header row of the file, falling back to the built-in default format.
+     *
+     * @param user         The uploading user
+     * @param profileId    Explicitly requested profile, or null to auto-detect
+     * @param leadingLines The first lines of the file, at most DETECTION_LINES
+     * @return Compiled decoder for the chosen profile
+     * @throws RuntimeException if the requested profile does not exist or is not the user's
+     */
+    @Transactional(readOnly = true)
+    public RowDecoder resolveDecoder(User user, Long profileId, List<String> leadingLines) {
+        if (profileId != null) {
+            return importProfileRepository.findByIdAndUser(profileId, user)
+                    .map(RowDecoder::compile)
+                    .orElseThrow(() -> new RuntimeException("Import profile not found or access denied"));
+        }
+        for (ImportProfile profile : importProfileRepository.findByUserOrderByNameAsc(user)) {
+            if (matchesHeader(profile, leadingLines)) {
+                log.debug("Detected import profile '{}' for user {}", profile.getName(), user.getUsername());
+                return RowDecoder.compile(profile);
+            }
+        }
+        return DEFAULT_DECODER;
+    }
+
+    /**
+     * Normalizes a header row for comparison: trimmed, lower case, byte order mark removed.
+     */
+    static String headerSignature(String[] cells) {
+        return Arrays.stream(cells)
+                .map(cell -> cell.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining("|"));
+    }
+
+    private boolean matchesHeader(ImportProfile profile, List<String> leadingLines) {
+        int headerIndex = profile.getSkipLines() - 1;
+        if (profile.getHeaderSignature() == null || headerIndex < 0 || headerIndex >= leadingLines.size()) {
+            return false;
+        }
+        String[] cells = splitLine(leadingLines.get(headerIndex), profile.getDelimiter().charAt(0));
+        return cells != null && profile.getHeaderSignature().equals(headerSignature(cells));
+    }
+
+    private static String[] splitLine(String line, char delimiter) {
+        CSVParser parser = new CSVParserBuilder().withSeparator(delimiter).build();
+        try {
+            return parser.parseLine(line);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void apply(ImportProfile profile, ImportProfileRequest request) {
+        profile.setName(request.getName());
+        profile.setDelimiter(request.getDelimiter() != null ? request.getDelimiter() : ",");
+        profile.setSkipLines(request.getSkipLines() != null ? request.getSkipLines() : 1);
+        profile.setDateColumn(request.getDateColumn());
+        profile.setAmountColumn(request.getAmountColumn());
+        profile.setTypeColumn(request.getTypeColumn());
+        profile.setDescriptionColumn(request.getDescriptionColumn());
+        profile.setDatePattern(request.getDatePattern() != null ? request.getDatePattern() : "yyyy-MM-dd");
+        profile.setDecimalSeparator(request.getDecimalSeparator() != null ? request.getDecimalSeparator() : ".");
+        profile.setGroupingSeparator(request.getGroupingSeparator());
+        profile.setIncomeLabel(request.getIncomeLabel());
+        profile.setExpenseLabel(request.getExpenseLabel());
+        profile.setNegativeAmountType(request.getNegativeAmountType() != null
+                ? request.getNegativeAmountType() : TransactionType.EXPENSE);
+
+        String[] header = request.getHeaderLine() != null
+                ? splitLine(request.getHeaderLine(), profile.getDelimiter().charAt(0)) : null;
+        profile.setHeaderSignature(header != null ? headerSignature(header) : null);
+
+        validate(profile);
+    }
+
+    private void validate(ImportProfile profile) {
+        List<Integer> columns = Arrays.asList(profile.getDateColumn(), profile.getAmountColumn(),
+                profile.getTypeColumn(), profile.getDescriptionColumn());
+        if (columns.stream().filter(Objects::nonNull).distinct().count()
+                != columns.stream().filter(Objects::nonNull).count()) {
+            throw new RuntimeException("Each column can only be mapped once");
+        }
+        if (profile.getDecimalSeparator().equals(profile.getGroupingSeparator())) {
+            throw new RuntimeException("Decimal and grouping separator must differ");
+        }
+        // Lower-casing can lengthen some characters, so a header within the request limit may still not fit
+        if (profile.getHeaderSignature() != null
+                && profile.getHeaderSignature().length() > ImportProfile.HEADER_SIGNATURE_LENGTH) {
+            throw new RuntimeException("Header line must not exceed " + ImportProfile.HEADER_SIGNATURE_LENGTH
+                    + " characters");
+        }
+        try {
+            RowDecoder.compile(profile);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid date pattern: " + e.getMessage());
+        }
+    }
+
+    private static ImportProfile defaultProfile() {
+        ImportProfile profile = new ImportProfile();
+        profile.setName("Default");
+        profile.setDateColumn(0);
+        profile.setAmountColumn(1);
+        profile.setTypeColumn(2);
+        profile.setDescriptionColumn(3);
+        return profile;
+    }
+}
@@ -0,0 +1,177 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only memory mapping of a spooled upload.
+ * The file is mapped in regions of up to 1 GiB, one at a time, so files of any size can be read
+ * without heap buffers: the UTF-8 reader decodes straight from the mapped pages into the
+ * caller's char array. Region boundaries are moved to the start of a UTF-8 character, so no
+ * character is split across regions.
+ * Mapped pages are released by the garbage collector; the file itself can be deleted right
+ * after {@link #close()}.
+ */
+public final class MappedFile implements Closeable {
+
+    private static final int MAX_REGION_SIZE = 1 << 30;
+
+    // A UTF-8 character is at most 4 bytes, so a boundary moves forward by at most 3
+    private static final int MAX_CONTINUATION_BYTES = 3;
+
+    private final FileChannel channel;
+    private final long size;
+
+    private MappedFile(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+    }
+
+    public static MappedFile open(Path path) throws IOException {
+        return new MappedFile(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns a stream over the mapped bytes, for binary formats and compressed uploads.
+     */
+    public InputStream inputStream() {
+        return new RegionInputStream();
+    }
+
+    /**
+     * Returns a reader that decodes the mapped bytes as UTF-8, replacing malformed input
+     * like InputStreamReader does.
+     */
+    public Reader utf8Reader() {
+        return new Utf8RegionReader();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Maps the region starting at the given offset, ending on a UTF-8 character boundary.
+     * Returns null at the end of the file.
+     */
+    private MappedByteBuffer mapRegion(long offset) throws IOException {
+        if (offset >= size) {
+            return null;
+        }
+        long remaining = size - offset;
+        int length = (int) Math.min(remaining, (long) MAX_REGION_SIZE + MAX_CONTINUATION_BYTES);
+        MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        int limit = Math.min(length, MAX_REGION_SIZE);
+        while (limit < length && (region.get(limit) & 0xC0) == 0x80) {
+            limit++;
+        }
+        region.limit(limit);
+        return region;
+    }
+
+    private class RegionInputStream extends InputStream {
+
+        private long regionOffset;
+        private MappedByteBuffer region;
+
+        @Override
+        public int read() throws IOException {
+            return nextRegion() ? region.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!nextRegion()) {
+                return -1;
+            }
+            int n = Math.min(len, region.remaining());
+            region.get(b, off, n);
+            return n;
+        }
+
+        // Makes sure the current region has bytes left; false at the end of the file
+        private boolean nextRegion() throws IOException {
+            while (region == null || !region.hasRemaining()) {
+                if (region != null) {
+                    regionOffset += region.limit();
+                }
+                region = mapRegion(regionOffset);
+                if (region == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private class Utf8RegionReader extends Reader {
+
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final RegionInputStream regions = new RegionInputStream();
+        private boolean finished;
+
+        // Low surrogate left over when a caller asked for a single char of a surrogate pair
+        private char pendingChar;
+        private boolean hasPendingChar;
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+            if (hasPendingChar) {
+                out.put(pendingChar);
+                hasPendingChar = false;
+            }
+            while (out.position() == off && !finished) {
+                if (!regions.nextRegion()) {
+                    decoder.decode(ByteBuffer.allocate(0), out, true);
+                    decoder.flush(out);
+                    finished = true;
+                    break;
+                }
+                // On the last region, a truncated trailing character becomes a replacement character
+                boolean lastRegion = regions.regionOffset + regions.region.limit() >= size;
+                CoderResult result = decoder.decode(regions.region, out, lastRegion);
+                if (result.isOverflow() && out.position() == off) {
+                    CharBuffer pair = CharBuffer.allocate(2);
+                    decoder.decode(regions.region, pair, lastRegion);
+                    pair.flip();
+                    out.put(pair.get());
+                    pendingChar = pair.get();
+                    hasPendingChar = true;
+                }
+            }
+            int count = out.position() - off;
+            return count == 0 ? -1 : count;
+        }
+
+        @Override
+        public void close() {
+            // The mapping is owned by MappedFile
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.MerchantCharge;
+import com.codeyantratech.financeanalyzer.model.MerchantSketch;
+import com.codeyantratech.financeanalyzer.model.MerchantSketchRollup;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.ArchivedTransactionRepository;
+import com.codeyantratech.financeanalyzer.repository.MerchantSketchRepository;
+import com.codeyantratech.financeanalyzer.repository.MerchantSketchRepository.Locked;
+import com.codeyantratech.financeanalyzer.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Service class responsible for reports of the merchants users spend at most often.
+ * Every user has one row per month with a Space-Saving summary of the most frequent
+ * merchants (as normalized by MerchantNormalizer) and a HyperLogLog sketch of the distinct
+ * merchants. Both have a fixed size and are kept up to date on every transaction write, and
+ * both can be merged, so a report over any range of months merges a few small rows instead of
+ * grouping the user's expenses. Counts of the top merchants are upper bounds with a known
+ * maximum error.
+ * <p>
+ * Deleted and edited expenses are taken out of the merchant counts and the charge total, but
+ * not out of the distinct estimate, which HyperLogLog cannot do; it can thus overcount
+ * merchants whose charges were all removed. A month's sketch is seeded from the stored
+ * expenses the first time it is written or read.
+ * <p>
+ * Cross-user reports read rollups, one row per month merged from all users' sketches by a
+ * nightly job, so they never touch per-user data.
+ */
+@Slf4j
+@Service
+public class MerchantAnalyticsService {
+
+    @Autowired
+    private MerchantSketchRepository merchantSketchRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ArchivedTransactionRepository archivedTransactionRepository;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Merchants tracked per user and month; reports list at most this many
+    @Value("${app.merchants.sketch.capacity:64}")
+    private int capacity;
+
+    // Merchants tracked per month over all users
+    @Value("${app.merchants.rollup.capacity:256}")
+    private int rollupCapacity;
+
+    @Value("${app.merchants.rollup.enabled:true}")
+    private boolean rollupEnabled;
+
+    // User sketches written this long before a rollup starts are merged again by the next one,
+    // in case their database transaction had not committed yet
+    @Value("${app.merchants.rollup.grace-minutes:5}")
+    private int rollupGraceMinutes;
+
+    /**
+     * The most frequent merchants of a range of months.
+     *
+     * @param top               Merchants by count, most frequent first
+     * @param distinctMerchants Estimated number of distinct merchants (about 2% standard error)
+     * @param totalCharges      Expenses with a recognizable merchant
+     */
+    public record MerchantReport(YearMonth from, YearMonth to, List<MerchantCount> top, long distinctMerchants,
+                                 long totalCharges) {
+    }
+
+    /**
+     * A merchant's charge count; the true count lies between count - maxError and count.
+     */
+    public record MerchantCount(String merchant, long count, long maxError) {
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Adds the merchants of added expenses to their months' sketches and takes out those of
+     * removed ones. Runs synchronously in the writing database transaction, before the change
+     * is written, so a month seeded here does not count the change twice.
+     */
+    @EventListener
+    public void onTransactionChange(TransactionChangeEvent event) {
+        Map<LocalDate, List<String>> removed = merchantsByMonth(event.getRemoved());
+        Map<LocalDate, List<String>> added = merchantsByMonth(event.getAdded());
+        if (removed.isEmpty() && added.isEmpty()) {
+            return;
+        }
+        Set<LocalDate> months = new TreeSet<>(removed.keySet());
+        months.addAll(added.keySet());
+        Map<LocalDate, Sketches> sketches = lockOrSeed(event.getUser().getId(), months);
+        removed.forEach((month, merchants) -> merchants.forEach(sketches.get(month)::remove));
+        added.forEach((month, merchants) -> merchants.forEach(sketches.get(month)::add));
+        save(event.getUser().getId(), sketches);
+    }
+
+    /**
+     * Returns the most frequent merchants of a user within an inclusive range of months.
+     *
+     * @param limit Maximum number of merchants, at most the sketch capacity
+     */
+    @Transactional
+    public MerchantReport getTopMerchants(String username, YearMonth from, YearMonth to, int limit) {
+        User user = userService.getCurrentUser(username);
+        Map<LocalDate, MerchantSketch> stored = new HashMap<>();
+        merchantSketchRepository.findByUser(user.getId(), from.atDay(1), to.atDay(1))
+                .forEach(sketch -> stored.put(sketch.getMonth(), sketch));
+
+        Sketches total = new Sketches(capacity);
+        List<LocalDate> missing = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            MerchantSketch sketch = stored.get(month.atDay(1));
+            if (sketch != null) {
+                total.merge(Sketches.of(sketch, capacity));
+            } else {
+                missing.add(month.atDay(1));
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<LocalDate, Sketches> seeded = lockOrSeed(user.getId(), missing);
+            save(user.getId(), seeded);
+            seeded.values().forEach(total::merge);
+        }
+        return total.report(from, to, limit);
+    }
+
+    /**
+     * Returns the most frequent merchants of all users within an inclusive range of months,
+     * as of the last rollup.
+     */
+    @Transactional(readOnly = true)
+    public MerchantReport getGlobalTopMerchants(YearMonth from, YearMonth to, int limit) {
+        Sketches total = new Sketches(rollupCapacity);
+        for (MerchantSketchRollup rollup : merchantSketchRepository.findRollups(from.atDay(1), to.atDay(1))) {
+            total.merge(new Sketches(SpaceSavingSketch.fromBytes(rollup.getTopMerchants(), rollupCapacity),
+                    HyperLogLogSketch.fromBytes(rollup.getMerchantRegisters()), rollup.getChargeCount()));
+        }
+        return total.report(from, to, limit);
+    }
+
+    /**
+     * Merges the user sketches of every month changed since its last rollup into that month's
+     * rollup. Each month is merged in its own database transaction, streaming the user rows;
+     * a failure is logged and the month is retried by the next run.
+     *
+     * @return The number of months rolled up
+     */
+    @Scheduled(cron = "${app.merchants.rollup.cron:0 30 4 * * *}")
+    public int rollUp() {
+        if (!rollupEnabled) {
+            return 0;
+        }
+        List<LocalDate> months = merchantSketchRepository.findMonthsToRollUp();
+        int rolledUp = 0;
+        for (LocalDate month : months) {
+            LocalDateTime startedAt = LocalDateTime.now();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Sketches total = new Sketches(rollupCapacity);
+                    merchantSketchRepository.forEachInMonth(month,
+                            sketch -> total.merge(Sketches.of(sketch, capacity)));
+                    MerchantSketchRollup rollup = new MerchantSketchRollup();
+                    rollup.setMonth(month);
+                    rollup.setChargeCount(total.charges);
+                    rollup.setTopMerchants(total.top.toBytes());
+                    rollup.setMerchantRegisters(total.distinct.toBytes());
+                    rollup.setRolledUpAt(startedAt.minusMinutes(rollupGraceMinutes));
+                    merchantSketchRepository.saveRollup(rollup);
+                });
+                rolledUp++;
+            } catch (RuntimeException e) {
+                log.error("Failed to roll up merchant sketches of {}", YearMonth.from(month), e);
+            }
+        }
+        log.info("Rolled up merchant sketches of {} of {} months", rolledUp, months.size());
+        return rolledUp;
+    }
+
+    // Locks the sketches of the given months, seeding those created by the lock from the stored expenses
+    private Map<LocalDate, Sketches> lockOrSeed(Long userId, Collection<LocalDate> months) {
+        Map<LocalDate, Sketches> sketches = new TreeMap<>();
+        List<LocalDate> created = new ArrayList<>();
+        for (Locked locked : merchantSketchRepository.lockOrCreate(userId, months)) {
+            if (locked.created()) {
+                created.add(locked.sketch().getMonth());
+            } else {
+                sketches.put(locked.sketch().getMonth(), Sketches.of(locked.sketch(), capacity));
+            }
+        }
+        if (!created.isEmpty()) {
+            sketches.putAll(seed(userId, created));
+        }
+        return sketches;
+    }
+
+    private Map<LocalDate, Sketches> seed(Long userId, List<LocalDate> months) {
+        NavigableMap<LocalDate, Sketches> seeded = new TreeMap<>();
+        months.forEach(month -> seeded.put(month, new Sketches(capacity)));
+        LocalDate from = seeded.firstKey();
+        LocalDate to = YearMonth.from(seeded.lastKey()).atEndOfMonth();
+        try (Stream<MerchantCharge> charges = transactionRepository.streamExpensesBetween(userId, from, to)) {
+            charges.forEach(charge -> addSeed(seeded, charge));
+        }
+        if (transactionArchiveService.reachesArchive(from)) {
+            try (Stream<MerchantCharge> charges = archivedTransactionRepository.streamExpensesBetween(userId, from, to)) {
+                charges.forEach(charge -> addSeed(seeded, charge));
+            }
+        }
+        return seeded;
+    }
+
+    private static void addSeed(Map<LocalDate, Sketches> seeded, MerchantCharge charge) {
+        Sketches sketches = seeded.get(charge.date().withDayOfMonth(1));
+        String merchant = MerchantNormalizer.normalize(charge.description());
+        if (sketches != null && merchant != null) {
+            sketches.add(merchant);
+        }
+    }
+
+    private void save(Long userId, Map<LocalDate, Sketches> sketches) {
+        LocalDateTime now = LocalDateTime.now();
+        List<MerchantSketch> rows = new ArrayList<>(sketches.size());
+        sketches.forEach((month, s) -> {
+            MerchantSketch sketch = new MerchantSketch();
+            sketch.setUserId(userId);
+            sketch.setMonth(month);
+            sketch.setChargeCount(s.charges);
+            sketch.setTopMerchants(s.top.toBytes());
+            sketch.setMerchantRegisters(s.distinct.toBytes());
+            sketch.setUpdatedAt(now);
+            rows.add(sketch);
+        });
+        merchantSketchRepository.saveAll(rows);
+    }
+
+    private Map<LocalDate, List<String>> merchantsByMonth(List<Transaction> transactions) {
+        Map<LocalDate, List<String>> merchants = new TreeMap<>();
+        for (Transaction t : transactions) {
+            if (t.getTransactionType() != TransactionType.EXPENSE || t.getTransactionDate() == null) {
+                continue;
+            }
+            String merchant = MerchantNormalizer.normalize(t.getDescription());
+            if (merchant != null) {
+                merchants.computeIfAbsent(t.getTransactionDate().withDayOfMonth(1), month -> new ArrayList<>())
+                        .add(merchant);
+            }
+        }
+        return merchants;
+    }
+
+    // The decoded sketches of one month, or of several merged ones
+    private static final class Sketches {
+
+        private final SpaceSavingSketch top;
+        private final HyperLogLogSketch distinct;
+        private long charges;
+
+        Sketches(int capacity) {
+            this(new SpaceSavingSketch(capacity), new HyperLogLogSketch(), 0);
+        }
+
+        Sketches(SpaceSavingSketch top, HyperLogLogSketch distinct, long charges) {
+            this.top = top;
+            this.distinct = distinct;
+            this.charges = charges;
+        }
+
+        static Sketches of(MerchantSketch sketch, int capacity) {
+            return new Sketches(SpaceSavingSketch.fromBytes(sketch.getTopMerchants(), capacity),
+                    HyperLogLogSketch.fromBytes(sketch.getMerchantRegisters()), sketch.getChargeCount());
+        }
+
+        void add(String merchant) {
+            top.add(merchant);
+            distinct.add(merchant);
+            charges++;
+        }
+
+        void remove(String merchant) {
+            top.remove(merchant);
+            charges = Math.max(charges - 1, 0);
+        }
+
+        void merge(Sketches other) {
+            top.merge(other.top);
+            distinct.merge(other.distinct);
+            charges += other.charges;
+        }
+
+        MerchantReport report(YearMonth from, YearMonth to, int limit) {
+            List<MerchantCount> counts = top.top(limit).stream()
+                    .map(e -> new MerchantCount(e.item(), e.count(), e.error()))
+                    .toList();
+            return new MerchantReport(from, to, counts, distinct.estimate(), charges);
+        }
+    }
+}
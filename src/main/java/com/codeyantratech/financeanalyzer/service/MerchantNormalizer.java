@@ -0,0 +1,70 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Reduces free-text transaction descriptions to a merchant key, so that charges of the same
+ * merchant compare equal although bank exports decorate them differently
+ * (e.g. "POS NETFLIX.COM 8445052902" and "Netflix.com - Subscription" both become NETFLIX).
+ * Payment processor prefixes, reference numbers, punctuation and company suffixes are
+ * dropped, and only the first few remaining words are kept.
+ */
+final class MerchantNormalizer {
+
+    private static final List<String> PREFIXES = List.of("CARD PURCHASE ", "DIRECT DEBIT ", "RECURRING ",
+            "POS ", "ACH ", "SQ *", "PAYPAL *", "PP*", "TST*");
+
+    private static final Set<String> STOP_WORDS = Set.of("WWW", "COM", "NET", "ORG", "INC", "LLC", "LTD",
+            "GMBH", "CO");
+
+    private static final int MAX_WORDS = 3;
+    private static final int MAX_LENGTH = 100;
+
+    private MerchantNormalizer() {
+    }
+
+    /**
+     * @return The merchant key, or null if the description has no usable words
+     */
+    static String normalize(String description) {
+        if (description == null) {
+            return null;
+        }
+        String text = description.strip().toUpperCase(Locale.ROOT);
+        boolean stripped;
+        do {
+            stripped = false;
+            for (String prefix : PREFIXES) {
+                if (text.startsWith(prefix)) {
+                    text = text.substring(prefix.length()).stripLeading();
+                    stripped = true;
+                }
+            }
+        } while (stripped);
+        int separator = text.indexOf(" - ");
+        if (separator > 0) {
+            text = text.substring(0, separator);
+        }
+
+        StringBuilder key = new StringBuilder();
+        int words = 0;
+        for (String word : text.replaceAll("[^\\p{L}]+", " ").split(" ")) {
+            if (word.length() < 2 || STOP_WORDS.contains(word)) {
+                continue;
+            }
+            if (!key.isEmpty()) {
+                key.append(' ');
+            }
+            key.append(word);
+            if (++words == MAX_WORDS) {
+                break;
+            }
+        }
+        if (key.isEmpty()) {
+            return null;
+        }
+        return key.length() > MAX_LENGTH ? key.substring(0, MAX_LENGTH) : key.toString();
+    }
+}
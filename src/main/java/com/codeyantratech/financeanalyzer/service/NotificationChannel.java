@@ -0,0 +1,21 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.model.User;
+
+/**
+ * A way of delivering notifications to users. Every channel bean is picked up by
+ * NotificationService; adding a channel means adding an implementation.
+ */
+public interface NotificationChannel {
+
+    /**
+     * Checks whether the user has opted in to this channel.
+     */
+    boolean isEnabledFor(User user);
+
+    /**
+     * Delivers one message. Failures are thrown as RuntimeException; the notifications are
+     * then retried later.
+     */
+    void send(User user, String subject, String body);
+}
@@ -0,0 +1,176 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.NotificationType;
+import com.codeyantratech.financeanalyzer.model.FileUpload;
+import com.codeyantratech.financeanalyzer.model.NotificationOutbox;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.NotificationOutboxRepository;
+import com.codeyantratech.financeanalyzer.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service class responsible for user notifications.
+ * Notifications are written to an outbox table inside the database transaction that caused
+ * them, which costs the request one insert. A scheduled dispatcher claims due rows in
+ * batches, combines the pending notifications of each user into one message per channel
+ * and deletes them once delivered. Claiming and recording the outcome are short database
+ * transactions; delivery runs outside any of them, so a slow mail server holds neither row
+ * locks nor a connection. Failed deliveries are retried with exponential backoff up to a
+ * configured number of attempts; delivery is at least once.
+ */
+@Slf4j
+@Service
+public class NotificationService {
+
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private List<NotificationChannel> channels;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.notifications.dispatcher.enabled:true}")
+    private boolean dispatcherEnabled;
+
+    @Value("${app.notifications.dispatcher.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.notifications.dispatcher.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.notifications.dispatcher.retry-delay-seconds:30}")
+    private long retryDelaySeconds;
+
+    // Claimed rows are due again after this long if their dispatcher never reports back
+    @Value("${app.notifications.dispatcher.lease-seconds:300}")
+    private long leaseSeconds;
+
+    /**
+     * Queues a budget alert in the transaction that crossed the threshold.
+     */
+    @EventListener
+    public void onBudgetThreshold(BudgetThresholdEvent event) {
+        notificationOutboxRepository.insert(event.getUserId(), NotificationType.BUDGET_ALERT, String.format(
+                "You have spent %s of your %s budget for %s (%d%%).",
+                event.getSpent(), event.getLimit(), event.getMonth(), event.getThresholdPercent()));
+    }
+
+    /**
+     * Queues a notice that an import has finished, successfully or not.
+     * Must be called in the transaction that stores the final upload status.
+     */
+    public void notifyImportFinished(FileUpload fileUpload) {
+        String message = "FAILED".equals(fileUpload.getStatus())
+                ? String.format("Import of %s failed: %s", fileUpload.getFilename(), fileUpload.getErrorDetails())
+                : String.format("Import of %s finished: %d transactions imported, %d rows rejected.",
+                        fileUpload.getFilename(), fileUpload.getRecordsCount(), fileUpload.getRejectedCount());
+        notificationOutboxRepository.insert(fileUpload.getUser().getId(), NotificationType.IMPORT_FINISHED, message);
+    }
+
+    /**
+     * Delivers due notifications until the outbox has no more due rows.
+     * Each batch is leased to this dispatcher when claimed, so other dispatchers skip it
+     * while it is delivered.
+     *
+     * @return The number of notifications handled (delivered, retried or dropped)
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.dispatcher.poll-interval-ms:5000}")
+    public int dispatchPending() {
+        if (!dispatcherEnabled) {
+            return 0;
+        }
+        int total = 0;
+        int handled;
+        do {
+            handled = dispatchBatch();
+            total += handled;
+        } while (handled == batchSize);
+        return total;
+    }
+
+    private int dispatchBatch() {
+        List<NotificationOutbox> due = notificationOutboxRepository.claimDue(batchSize,
+                LocalDateTime.now().plusSeconds(leaseSeconds));
+        if (due.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<NotificationOutbox>> byUser = due.stream()
+                .collect(Collectors.groupingBy(NotificationOutbox::getUserId, LinkedHashMap::new, Collectors.toList()));
+        Map<Long, User> users = userRepository.findAllById(byUser.keySet()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<Long> done = new ArrayList<>();
+        Map<LocalDateTime, List<Long>> retries = new LinkedHashMap<>();
+        byUser.forEach((userId, notifications) -> {
+            List<Long> ids = notifications.stream().map(NotificationOutbox::getId).toList();
+            User user = users.get(userId);
+            if (user == null) {
+                // The user was deleted since
+                done.addAll(ids);
+                return;
+            }
+            try {
+                deliver(user, notifications);
+                done.addAll(ids);
+            } catch (RuntimeException e) {
+                int attempts = notifications.stream().mapToInt(NotificationOutbox::getAttempts).max().orElse(0) + 1;
+                if (attempts >= maxAttempts) {
+                    log.error("Dropping {} notifications for user {} after {} attempts", ids.size(), userId, attempts, e);
+                    done.addAll(ids);
+                } else {
+                    log.warn("Delivering notifications to user {} failed (attempt {}): {}", userId, attempts, e.getMessage());
+                    retries.computeIfAbsent(LocalDateTime.now().plusSeconds(retryDelaySeconds << (attempts - 1)),
+                            t -> new ArrayList<>()).addAll(ids);
+                }
+            }
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!done.isEmpty()) {
+                notificationOutboxRepository.deleteAll(done);
+            }
+            retries.forEach((availableAt, ids) -> notificationOutboxRepository.retryAt(ids, availableAt));
+        });
+        return due.size();
+    }
+
+    // Sends all pending notifications of one user as a single message per channel
+    private void deliver(User user, List<NotificationOutbox> notifications) {
+        String subject = notifications.size() == 1
+                ? subject(notifications.get(0).getType())
+                : notifications.size() + " new notifications";
+        String body = notifications.stream()
+                .map(NotificationOutbox::getMessage)
+                .collect(Collectors.joining("\n"));
+        for (NotificationChannel channel : channels) {
+            if (channel.isEnabledFor(user)) {
+                channel.send(user, subject, body);
+            }
+        }
+    }
+
+    private static String subject(NotificationType type) {
+        return switch (type) {
+            case BUDGET_ALERT -> "Budget alert";
+            case IMPORT_FINISHED -> "Import finished";
+        };
+    }
+}
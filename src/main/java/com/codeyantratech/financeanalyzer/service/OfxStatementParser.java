@@ -0,0 +1,152 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionSource;
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming parser for OFX/QFX bank statements, both OFX 1.x (SGML, leaf elements without
+ * closing tags) and OFX 2.x (XML). Reads tags and text in a single pass and keeps only the
+ * fields of the current STMTTRN aggregate in memory, so statement size does not matter.
+ * The transaction type follows the sign of TRNAMT and the currency is the statement's CURDEF.
+ * Rejections are numbered by the position of the STMTTRN element in the file.
+ */
+final class OfxStatementParser {
+
+    private static final int HEADER_PEEK_BYTES = 1024;
+    private static final int MAX_TOKEN_LENGTH = 4096;
+
+    /**
+     * Parses the statement, detecting the character set from the OFX header.
+     */
+    void parse(InputStream in, ImportContext context) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        Reader reader = new InputStreamReader(buffered, detectCharset(buffered));
+        parse(reader, context);
+    }
+
+    void parse(Reader reader, ImportContext context) throws IOException {
+        char[] buffer = new char[8192];
+        StringBuilder token = new StringBuilder();
+        boolean inTag = false;
+        String currentTag = null;
+        Map<String, String> fields = null;
+        // Statement currency (CURDEF), which precedes the transaction list
+        String currency = null;
+        long ordinal = 0;
+
+        int read;
+        while ((read = reader.read(buffer)) > 0) {
+            for (int i = 0; i < read; i++) {
+                char c = buffer[i];
+                if (c == '<') {
+                    if (fields != null && currentTag != null) {
+                        String text = decodeEntities(token.toString().trim());
+                        if (!text.isEmpty()) {
+                            fields.put(currentTag, text);
+                        }
+                    } else if ("CURDEF".equals(currentTag)) {
+                        String text = token.toString().trim().toUpperCase(Locale.ROOT);
+                        currency = text.matches("[A-Z]{3}") ? text : null;
+                    }
+                    token.setLength(0);
+                    inTag = true;
+                } else if (c == '>' && inTag) {
+                    String tag = token.toString().trim().toUpperCase(Locale.ROOT);
+                    token.setLength(0);
+                    inTag = false;
+                    currentTag = null;
+                    if (tag.equals("STMTTRN")) {
+                        fields = new HashMap<>();
+                        ordinal++;
+                    } else if (tag.equals("/STMTTRN")) {
+                        if (fields != null) {
+                            Transaction transaction = toTransaction(fields, ordinal, context);
+                            if (transaction != null) {
+                                transaction.setCurrency(currency);
+                                context.accept(transaction);
+                            }
+                        }
+                        fields = null;
+                    } else if (!tag.startsWith("/") && !tag.startsWith("?") && !tag.startsWith("!")) {
+                        currentTag = tag;
+                    }
+                } else if (token.length() < MAX_TOKEN_LENGTH) {
+                    token.append(c);
+                }
+            }
+        }
+        context.flush();
+    }
+
+    private Transaction toTransaction(Map<String, String> fields, long ordinal, ImportContext context) {
+        String rawDate = fields.get("DTPOSTED");
+        LocalDate date = ImportFieldParser.parseBasicIsoDate(rawDate);
+        if (date == null) {
+            context.reject(ordinal, "DTPOSTED", "Date must start with yyyyMMdd", rawDate);
+            return null;
+        }
+
+        String rawAmount = fields.get("TRNAMT");
+        BigDecimal amount = ImportFieldParser.parseSignedAmount(rawAmount, '.', ImportFieldParser.NO_SEPARATOR);
+        if (amount == null) {
+            // Some banks export the amount with a decimal comma
+            amount = ImportFieldParser.parseSignedAmount(rawAmount, ',', ImportFieldParser.NO_SEPARATOR);
+        }
+        if (amount == null || amount.signum() == 0) {
+            context.reject(ordinal, "TRNAMT", "Amount must be a non-zero number with at most 2 decimals", rawAmount);
+            return null;
+        }
+
+        String name = fields.get("NAME");
+        String memo = fields.get("MEMO");
+        String description = name == null ? memo
+                : memo == null || memo.equalsIgnoreCase(name) ? name
+                : name + " - " + memo;
+
+        return Transaction.builder()
+                .user(context.getUser())
+                .transactionDate(date)
+                .amount(amount.abs())
+                .transactionType(amount.signum() < 0 ? TransactionType.EXPENSE : TransactionType.INCOME)
+                .description(description)
+                .source(TransactionSource.BANK_IMPORT)
+                .build();
+    }
+
+    // OFX 1.x declares CHARSET:1252 etc. in its plain-text header; OFX 2.x is XML and UTF-8 by default
+    private static Charset detectCharset(BufferedInputStream in) throws IOException {
+        in.mark(HEADER_PEEK_BYTES);
+        byte[] header = in.readNBytes(HEADER_PEEK_BYTES);
+        in.reset();
+        String text = new String(header, StandardCharsets.ISO_8859_1).toUpperCase(Locale.ROOT);
+        if (text.contains("CHARSET:1252")) {
+            return Charset.forName("windows-1252");
+        }
+        if (text.contains("ENCODING:USASCII") || text.contains("CHARSET:ISO-8859-1")) {
+            return StandardCharsets.ISO_8859_1;
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private static String decodeEntities(String text) {
+        if (text.indexOf('&') < 0) {
+            return text;
+        }
+        return text.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&nbsp;", " ").replace("&amp;", "&");
+    }
+}
@@ -0,0 +1,149 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionSource;
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Streaming parser for QIF statements.
+ * Reads one line at a time and only imports records of cash-account sections (Bank, CCard,
+ * Cash, Oth A, Oth L); account lists, categories and investment sections are skipped.
+ * QIF dates are month-first by convention (M/D/YY, M/D'YY for 2000+, M/D/YYYY); day-first is
+ * assumed only when the first number cannot be a month. Rejections are numbered by the line
+ * that ends the record.
+ */
+final class QifStatementParser {
+
+    private static final Set<String> TRANSACTION_SECTIONS = Set.of("bank", "ccard", "cash", "oth a", "oth l");
+
+    void parse(Reader reader, ImportContext context) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader br ? br : new BufferedReader(reader);
+        boolean inTransactions = false;
+        String date = null;
+        String amount = null;
+        String payee = null;
+        String memo = null;
+        long lineNumber = 0;
+
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isEmpty()) {
+                continue;
+            }
+            char code = line.charAt(0);
+            String value = line.substring(1).trim();
+            if (code == '!') {
+                String header = value.toLowerCase(Locale.ROOT);
+                if (header.startsWith("type:")) {
+                    inTransactions = TRANSACTION_SECTIONS.contains(header.substring(5).trim());
+                } else if (header.startsWith("account")) {
+                    inTransactions = false;
+                }
+                continue;
+            }
+            if (!inTransactions) {
+                continue;
+            }
+            switch (code) {
+                case 'D' -> date = value;
+                case 'T', 'U' -> amount = amount == null ? value : amount;
+                case 'P' -> payee = value;
+                case 'M' -> memo = value;
+                case '^' -> {
+                    Transaction transaction = toTransaction(date, amount, payee, memo, lineNumber, context);
+                    if (transaction != null) {
+                        context.accept(transaction);
+                    }
+                    date = amount = payee = memo = null;
+                }
+                default -> {
+                    // Other fields (check number, category, splits, address) are not imported
+                }
+            }
+        }
+        context.flush();
+    }
+
+    private Transaction toTransaction(String rawDate, String rawAmount, String payee, String memo,
+                                      long lineNumber, ImportContext context) {
+        LocalDate date = parseQifDate(rawDate);
+        if (date == null) {
+            context.reject(lineNumber, "D", "Date must be in M/D/YY, M/D'YY or M/D/YYYY format", rawDate);
+            return null;
+        }
+        BigDecimal amount = ImportFieldParser.parseSignedAmount(rawAmount, '.', ',');
+        if (amount == null || amount.signum() == 0) {
+            context.reject(lineNumber, "T", "Amount must be a non-zero number with at most 2 decimals", rawAmount);
+            return null;
+        }
+        String description = payee == null || payee.isEmpty() ? memo
+                : memo == null || memo.isEmpty() || memo.equalsIgnoreCase(payee) ? payee
+                : payee + " - " + memo;
+
+        return Transaction.builder()
+                .user(context.getUser())
+                .transactionDate(date)
+                .amount(amount.abs())
+                .transactionType(amount.signum() < 0 ? TransactionType.EXPENSE : TransactionType.INCOME)
+                .description(description)
+                .source(TransactionSource.BANK_IMPORT)
+                .build();
+    }
+
+    /**
+     * Parses the common QIF date variants without throwing.
+     */
+    static LocalDate parseQifDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        int[] parts = new int[3];
+        int[] widths = new int[3];
+        int part = 0;
+        boolean apostrophe = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                parts[part] = parts[part] * 10 + (c - '0');
+                if (++widths[part] > 4) {
+                    return null;
+                }
+            } else if (c == '/' || c == '-' || c == '.' || c == '\'') {
+                if (widths[part] == 0 || ++part > 2) {
+                    return null;
+                }
+                apostrophe |= c == '\'' && part == 2;
+            } else if (c != ' ') {
+                return null;
+            }
+        }
+        if (part != 2 || widths[2] == 0) {
+            return null;
+        }
+
+        // ISO order, e.g. 2024-03-15
+        if (widths[0] == 4) {
+            return ImportFieldParser.toDate(parts[0], parts[1], parts[2]);
+        }
+        int year = parts[2];
+        if (widths[2] <= 2) {
+            year += apostrophe || year < 70 ? 2000 : 1900;
+        }
+        int month = parts[0];
+        int day = parts[1];
+        if (month > 12 && day <= 12) {
+            month = parts[1];
+            day = parts[0];
+        }
+        return ImportFieldParser.toDate(year, month, day);
+    }
+}
@@ -0,0 +1,336 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.RecurringCadence;
+import com.codeyantratech.financeanalyzer.enums.VersionedResource;
+import com.codeyantratech.financeanalyzer.model.MerchantCharge;
+import com.codeyantratech.financeanalyzer.model.RecurringPayment;
+import com.codeyantratech.financeanalyzer.model.RecurringScanState;
+import com.codeyantratech.financeanalyzer.model.RunningStats;
+import com.codeyantratech.financeanalyzer.repository.ArchivedTransactionRepository;
+import com.codeyantratech.financeanalyzer.repository.RecurringPaymentRepository;
+import com.codeyantratech.financeanalyzer.repository.RecurringScanStateRepository;
+import com.codeyantratech.financeanalyzer.repository.TransactionRepository;
+import com.codeyantratech.financeanalyzer.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Service class responsible for detecting recurring payments such as subscriptions.
+ * Expenses are grouped by merchant (see MerchantNormalizer), and each merchant keeps running
+ * statistics of its amounts and of the days between charges in recurring_payments. A merchant
+ * counts as recurring when it was charged on enough distinct days, the mean interval matches
+ * a RecurringCadence with little spread, and the amounts vary little.
+ * <p>
+ * A nightly job analyzes users in parallel on a fork/join pool. Each user is handled in its own
+ * database transaction that streams the user's expenses in date order, so memory use is bounded
+ * by the number of merchants, not transactions. Runs are incremental: only expenses with an id
+ * above the user's watermark are read and added to the stored statistics. Edits, deletions,
+ * backdated expenses and rows committed out of id order are only reflected by the periodic full
+ * rescan, which rebuilds a user's statistics from the archive and the hot table.
+ */
+@Slf4j
+@Service
+public class RecurringPaymentService {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ArchivedTransactionRepository archivedTransactionRepository;
+
+    @Autowired
+    private RecurringPaymentRepository recurringPaymentRepository;
+
+    @Autowired
+    private RecurringScanStateRepository recurringScanStateRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.recurring.enabled:true}")
+    private boolean enabled;
+
+    // Users analyzed concurrently, each holding one database connection
+    @Value("${app.recurring.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.recurring.full-rescan-days:7}")
+    private int fullRescanDays;
+
+    // Distinct charge days required before a merchant can count as recurring
+    @Value("${app.recurring.min-occurrences:3}")
+    private int minOccurrences;
+
+    // Highest standard deviation of the amounts relative to their mean
+    @Value("${app.recurring.max-amount-variation:0.2}")
+    private double maxAmountVariation;
+
+    /**
+     * A projected charge of a recurring payment.
+     */
+    public record UpcomingCharge(RecurringPayment payment, LocalDate date, BigDecimal amount) {
+    }
+
+    /**
+     * Analyzes the new expenses of every user.
+     * A failure for one user is logged and does not stop the others; that user's watermark
+     * stays unchanged, so the next run retries the same expenses.
+     *
+     * @return The number of users analyzed successfully
+     */
+    @Scheduled(cron = "${app.recurring.cron:0 0 4 * * *}")
+    public int analyzeAllUsers() {
+        if (!enabled) {
+            return 0;
+        }
+        List<Long> userIds = userRepository.findAllIds();
+        AtomicInteger analyzed = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new AnalyzeUsersTask(userIds, analyzed));
+        } finally {
+            pool.shutdown();
+        }
+        log.info("Analyzed recurring payments of {} of {} users", analyzed.get(), userIds.size());
+        return analyzed.get();
+    }
+
+    /**
+     * Analyzes the expenses of one user added since the last run, or all of them when no full
+     * rescan happened within the configured number of days.
+     *
+     * @return The number of expenses read
+     */
+    public int analyzeUser(Long userId) {
+        Integer read = transactionTemplate.execute(status -> {
+            RecurringScanState state = recurringScanStateRepository.findById(userId).orElse(null);
+            LocalDateTime now = LocalDateTime.now();
+            resourceVersionService.bump(userId, VersionedResource.RECURRING_PAYMENTS);
+            if (state == null || state.getLastFullScanAt().isBefore(now.minusDays(fullRescanDays))) {
+                return rescan(userId, state, now);
+            }
+            return scanNew(userId, state);
+        });
+        return read != null ? read : 0;
+    }
+
+    /**
+     * Lists the recurring payments of a user that are still expected, i.e. whose next charge
+     * is not overdue by more than the cadence's tolerance, by next expected date.
+     */
+    @Transactional(readOnly = true)
+    public List<RecurringPayment> getActive(String username) {
+        return findActive(userService.getCurrentUser(username).getId());
+    }
+
+    /**
+     * Same as getActive, for callers that already loaded the user.
+     */
+    public List<RecurringPayment> findActive(Long userId) {
+        LocalDate today = LocalDate.now();
+        return recurringPaymentRepository.findByUserIdAndCadenceIsNotNullOrderByNextExpectedDate(userId).stream()
+                .filter(p -> !p.getNextExpectedDate()
+                        .plusDays((long) Math.ceil(p.getCadence().getToleranceDays()))
+                        .isBefore(today))
+                .toList();
+    }
+
+    /**
+     * Projects the charges of the active recurring payments up to the given number of days
+     * ahead, at the mean amount of each payment.
+     * Charges that are due but not yet seen are included with their expected date.
+     */
+    @Transactional(readOnly = true)
+    public List<UpcomingCharge> getUpcoming(String username, int days) {
+        LocalDate until = LocalDate.now().plusDays(days);
+        List<UpcomingCharge> charges = new ArrayList<>();
+        for (RecurringPayment payment : getActive(username)) {
+            BigDecimal amount = BigDecimal.valueOf(payment.getAmountStats().getMean()).setScale(2, RoundingMode.HALF_UP);
+            for (LocalDate date = payment.getNextExpectedDate(); !date.isAfter(until);
+                 date = payment.getCadence().next(date)) {
+                charges.add(new UpcomingCharge(payment, date, amount));
+            }
+        }
+        charges.sort(Comparator.comparing(UpcomingCharge::date));
+        return charges;
+    }
+
+    // Rebuilds the statistics of a user from all stored expenses
+    private int rescan(Long userId, RecurringScanState state, LocalDateTime now) {
+        recurringPaymentRepository.deleteByUserId(userId);
+        Map<String, RecurringPayment> payments = new HashMap<>();
+        Set<String> touched = new HashSet<>();
+        long[] maxId = {0};
+        int read;
+        // Archived expenses are older than the hot ones, so date order holds across both
+        try (Stream<MerchantCharge> archived = archivedTransactionRepository.streamExpenses(userId)) {
+            read = observeAll(userId, archived, payments, touched, maxId);
+        }
+        try (Stream<MerchantCharge> hot = transactionRepository.streamExpensesAfter(userId, 0)) {
+            read += observeAll(userId, hot, payments, touched, maxId);
+        }
+        recurringPaymentRepository.saveAll(payments.values());
+
+        if (state == null) {
+            state = new RecurringScanState();
+            state.setUserId(userId);
+        }
+        state.setLastTransactionId(maxId[0]);
+        state.setLastFullScanAt(now);
+        recurringScanStateRepository.save(state);
+        log.debug("Rescanned {} expenses of user {}: {} merchants", read, userId, payments.size());
+        return read;
+    }
+
+    // Adds the expenses above the watermark to the stored statistics
+    private int scanNew(Long userId, RecurringScanState state) {
+        Map<String, RecurringPayment> payments = new HashMap<>();
+        recurringPaymentRepository.findByUserId(userId).forEach(p -> payments.put(p.getMerchant(), p));
+        Set<String> touched = new HashSet<>();
+        long[] maxId = {state.getLastTransactionId()};
+        int read;
+        try (Stream<MerchantCharge> charges = transactionRepository.streamExpensesAfter(userId, maxId[0])) {
+            read = observeAll(userId, charges, payments, touched, maxId);
+        }
+        if (read > 0) {
+            recurringPaymentRepository.saveAll(touched.stream().map(payments::get).toList());
+            state.setLastTransactionId(maxId[0]);
+        }
+        log.debug("Scanned {} new expenses of user {}: {} merchants changed", read, userId, touched.size());
+        return read;
+    }
+
+    private int observeAll(Long userId, Stream<MerchantCharge> charges, Map<String, RecurringPayment> payments,
+                           Set<String> touched, long[] maxId) {
+        int[] read = {0};
+        charges.forEach(charge -> {
+            read[0]++;
+            maxId[0] = Math.max(maxId[0], charge.id());
+            String merchant = MerchantNormalizer.normalize(charge.description());
+            if (merchant == null || charge.amount() == null) {
+                return;
+            }
+            RecurringPayment payment = payments.computeIfAbsent(merchant, m -> new RecurringPayment(userId, m));
+            if (observe(payment, charge)) {
+                touched.add(merchant);
+            }
+        });
+        touched.forEach(merchant -> classify(payments.get(merchant)));
+        return read[0];
+    }
+
+    /**
+     * Adds a charge to a merchant's statistics. Charges are expected in date order; one dated
+     * before the merchant's last charge only contributes its amount.
+     *
+     * @return false if the charge was skipped
+     */
+    private boolean observe(RecurringPayment payment, MerchantCharge charge) {
+        BigDecimal amount = charge.amount().abs();
+        if (payment.getCurrency() == null) {
+            payment.setCurrency(charge.currency());
+        } else if (charge.currency() != null && !charge.currency().equals(payment.getCurrency())) {
+            try {
+                amount = exchangeRateService.convert(amount, charge.currency(), payment.getCurrency(), charge.date());
+            } catch (RuntimeException e) {
+                log.debug("Skipping charge {}: {}", charge.id(), e.getMessage());
+                return false;
+            }
+        }
+        payment.getAmountStats().add(amount.doubleValue());
+
+        LocalDate last = payment.getLastDate();
+        if (last == null) {
+            payment.setFirstDate(charge.date());
+        } else if (charge.date().isAfter(last)) {
+            payment.getIntervalStats().add(ChronoUnit.DAYS.between(last, charge.date()));
+        }
+        if (last == null || !charge.date().isBefore(last)) {
+            payment.setLastDate(charge.date());
+            payment.setDescription(charge.description());
+        }
+        return true;
+    }
+
+    private void classify(RecurringPayment payment) {
+        RunningStats intervals = payment.getIntervalStats();
+        RunningStats amounts = payment.getAmountStats();
+        RecurringCadence cadence = null;
+        if (intervals.getCount() + 1 >= minOccurrences && amounts.getMean() > 0
+                && amounts.stddev() <= maxAmountVariation * amounts.getMean()) {
+            cadence = RecurringCadence.ofMeanInterval(intervals.getMean());
+            if (cadence != null && intervals.stddev() > cadence.getToleranceDays()) {
+                cadence = null;
+            }
+        }
+        payment.setCadence(cadence);
+        payment.setNextExpectedDate(cadence != null ? cadence.next(payment.getLastDate()) : null);
+    }
+
+    /**
+     * Splits the user list in halves until single users remain, which are analyzed on the
+     * pool's worker threads.
+     */
+    private final class AnalyzeUsersTask extends RecursiveAction {
+
+        private final List<Long> userIds;
+        private final AtomicInteger analyzed;
+
+        private AnalyzeUsersTask(List<Long> userIds, AtomicInteger analyzed) {
+            this.userIds = userIds;
+            this.analyzed = analyzed;
+        }
+
+        @Override
+        protected void compute() {
+            if (userIds.size() > 1) {
+                int middle = userIds.size() / 2;
+                invokeAll(new AnalyzeUsersTask(userIds.subList(0, middle), analyzed),
+                        new AnalyzeUsersTask(userIds.subList(middle, userIds.size()), analyzed));
+                return;
+            }
+            for (Long userId : userIds) {
+                try {
+                    analyzeUser(userId);
+                    analyzed.incrementAndGet();
+                } catch (RuntimeException e) {
+                    log.error("Recurring payment analysis failed for user {}", userId, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.VersionedResource;
+import com.codeyantratech.financeanalyzer.repository.ResourceVersionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Service class responsible for the per-user version counters behind conditional GETs.
+ * Every write through the services bumps the counter of the affected list, so a list
+ * endpoint can answer If-None-Match with 304 by comparing counters in memory, without
+ * touching the database.
+ * Counters are stored in resource_versions and incremented in the writing transaction, so
+ * all application instances share them and they survive restarts. Each instance keeps the
+ * counters of the users it served in memory, loaded on first use, and follows increments of
+ * other instances through a Postgres LISTEN session on one dedicated pooled connection;
+ * increments of its own are applied right after commit. While that session is down the
+ * memory is dropped, since notifications may have been missed.
+ */
+@Slf4j
+@Service
+public class ResourceVersionService {
+
+    private static final VersionedResource[] RESOURCES = VersionedResource.values();
+
+    @Autowired
+    private ResourceVersionRepository resourceVersionRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    // How long one wait for notifications blocks, which bounds how long shutdown waits
+    @Value("${app.resource-versions.listener.poll-ms:1000}")
+    private int pollMs;
+
+    @Value("${app.resource-versions.listener.retry-delay-ms:5000}")
+    private long retryDelayMs;
+
+    private final ConcurrentMap<Long, AtomicLongArray> versions = new ConcurrentHashMap<>();
+
+    private volatile boolean listening;
+    private Thread listener;
+
+    @PostConstruct
+    void startListener() {
+        listening = true;
+        listener = Thread.ofPlatform().daemon().name("resource-version-listener").start(this::listen);
+    }
+
+    @PreDestroy
+    void stopListener() throws InterruptedException {
+        listening = false;
+        listener.join(pollMs * 2L);
+    }
+
+    /**
+     * Bumps the version of a user's list when the surrounding transaction commits, or right
+     * away without a transaction. The counter row is locked only at the end of the
+     * transaction, after its other changes are flushed, and in a fixed order, so concurrent
+     * writers of one user never deadlock on it; a rolled back write does not bump at all.
+     *
+     * @param userId   The owner of the changed list
+     * @param resource The list that changed
+     */
+    public void bump(Long userId, VersionedResource resource) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingBumps().add(userId, resource);
+        } else {
+            raise(userId, resource, resourceVersionRepository.increment(userId, resource));
+        }
+    }
+
+    /**
+     * Builds a strong ETag value from the current versions of the given lists.
+     * Read it before loading the list, so a concurrent write can only make the ETag older
+     * than the content, never newer. The first call for a user loads its counters.
+     *
+     * @param userId    The owner of the lists
+     * @param resources Every list the response content depends on
+     * @return The ETag without quotes
+     */
+    public String etag(Long userId, VersionedResource... resources) {
+        AtomicLongArray counters = versions.computeIfAbsent(userId, this::load);
+        StringBuilder etag = new StringBuilder().append(userId);
+        for (VersionedResource resource : resources) {
+            etag.append('-').append(counters.get(resource.ordinal()));
+        }
+        return etag.toString();
+    }
+
+    private AtomicLongArray load(Long userId) {
+        AtomicLongArray counters = new AtomicLongArray(RESOURCES.length);
+        resourceVersionRepository.findVersions(userId).forEach((resource, version) ->
+                counters.set(resource.ordinal(), version));
+        return counters;
+    }
+
+    // Counters only move forward, whichever of commit and notification arrives first.
+    // Users not in memory are left to their first load; a load running concurrently holds
+    // the map entry, so the update waits for it and is applied on top.
+    private void raise(Long userId, VersionedResource resource, long version) {
+        versions.computeIfPresent(userId, (id, counters) -> {
+            counters.accumulateAndGet(resource.ordinal(), version, Math::max);
+            return counters;
+        });
+    }
+
+    private PendingBumps pendingBumps() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingBumps pending) {
+                return pending;
+            }
+        }
+        PendingBumps pending = new PendingBumps();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private void listen() {
+        while (listening) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + ResourceVersionRepository.CHANNEL);
+                }
+                // Increments made while no session was listening were missed
+                versions.clear();
+                while (listening) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            apply(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                versions.clear();
+                if (!listening) {
+                    return;
+                }
+                log.warn("Listening for resource version changes failed, retrying in {} ms: {}",
+                        retryDelayMs, e.getMessage());
+                try {
+                    Thread.sleep(retryDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Payload userId:RESOURCE:version, as sent by ResourceVersionRepository
+    private void apply(String payload) {
+        String[] fields = payload.split(":");
+        try {
+            raise(Long.parseLong(fields[0]), VersionedResource.valueOf(fields[1]), Long.parseLong(fields[2]));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed resource version notification {}", payload);
+        }
+    }
+
+    // The bumps of one transaction, deduplicated and written in user and resource order
+    private class PendingBumps implements TransactionSynchronization {
+
+        private final Map<Long, Set<VersionedResource>> bumps = new TreeMap<>();
+        private final List<Runnable> committed = new ArrayList<>();
+
+        void add(Long userId, VersionedResource resource) {
+            bumps.computeIfAbsent(userId, id -> EnumSet.noneOf(VersionedResource.class)).add(resource);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                entityManager.flush();
+            }
+            bumps.forEach((userId, resources) -> resources.forEach(resource -> {
+                long version = resourceVersionRepository.increment(userId, resource);
+                committed.add(() -> raise(userId, resource, version));
+            }));
+        }
+
+        @Override
+        public void afterCommit() {
+            committed.forEach(Runnable::run);
+        }
+    }
+}
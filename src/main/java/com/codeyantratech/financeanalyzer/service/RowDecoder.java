@@ -0,0 +1,145 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionSource;
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.ImportProfile;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.util.Locale;
+
+/**
+ * Turns CSV records into transactions according to an import profile.
+ * The profile is compiled once per import: column positions, separators and the date
+ * formatter are resolved into final fields, and the date and type strategies are picked up
+ * front, so decoding a row does not look at the profile configuration again.
+ */
+public final class RowDecoder {
+
+    private static final String ISO_DATE_PATTERN = "yyyy-MM-dd";
+
+    @Getter
+    private final String profileName;
+    @Getter
+    private final char delimiter;
+    @Getter
+    private final int skipLines;
+    private final int dateColumn;
+    private final int amountColumn;
+    private final int typeColumn;
+    private final int descriptionColumn;
+    private final int minColumns;
+    private final DateTimeFormatter dateFormatter;
+    private final String datePattern;
+    private final char decimalSeparator;
+    private final char groupingSeparator;
+    private final String incomeLabel;
+    private final String expenseLabel;
+    private final TransactionType negativeAmountType;
+    private final TransactionType positiveAmountType;
+
+    private RowDecoder(ImportProfile profile) {
+        this.profileName = profile.getName();
+        this.delimiter = profile.getDelimiter().charAt(0);
+        this.skipLines = profile.getSkipLines();
+        this.dateColumn = profile.getDateColumn();
+        this.amountColumn = profile.getAmountColumn();
+        this.typeColumn = profile.getTypeColumn() != null ? profile.getTypeColumn() : -1;
+        this.descriptionColumn = profile.getDescriptionColumn() != null ? profile.getDescriptionColumn() : -1;
+        this.minColumns = Math.max(Math.max(dateColumn, amountColumn), Math.max(typeColumn, descriptionColumn)) + 1;
+        this.datePattern = profile.getDatePattern();
+        // null selects the allocation-free ISO fast path
+        this.dateFormatter = ISO_DATE_PATTERN.equals(datePattern) ? null
+                : new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern(datePattern).toFormatter(Locale.ENGLISH);
+        this.decimalSeparator = profile.getDecimalSeparator().charAt(0);
+        this.groupingSeparator = profile.getGroupingSeparator() != null && !profile.getGroupingSeparator().isEmpty()
+                ? profile.getGroupingSeparator().charAt(0) : ImportFieldParser.NO_SEPARATOR;
+        this.incomeLabel = profile.getIncomeLabel();
+        this.expenseLabel = profile.getExpenseLabel();
+        this.negativeAmountType = profile.getNegativeAmountType();
+        this.positiveAmountType = negativeAmountType == TransactionType.EXPENSE ? TransactionType.INCOME : TransactionType.EXPENSE;
+    }
+
+    /**
+     * Compiles an import profile into a decoder.
+     *
+     * @throws IllegalArgumentException if the date pattern is invalid
+     */
+    public static RowDecoder compile(ImportProfile profile) {
+        return new RowDecoder(profile);
+    }
+
+    /**
+     * Creates a Transaction from a CSV record, or rejects the record in the import context.
+     *
+     * @param record    Array of strings containing the CSV record data
+     * @param rowNumber Line number of the record, for the rejection report
+     * @param context   The import the record belongs to
+     * @return The transaction, or null if the record was rejected
+     */
+    public Transaction decode(String[] record, long rowNumber, ImportContext context) {
+        if (record.length < minColumns) {
+            context.reject(rowNumber, null, "Expected at least " + minColumns + " columns but found " + record.length,
+                    String.join(String.valueOf(delimiter), record));
+            return null;
+        }
+
+        String rawDate = record[dateColumn];
+        LocalDate date = dateFormatter == null
+                ? ImportFieldParser.parseIsoDate(rawDate)
+                : ImportFieldParser.parseDate(rawDate, dateFormatter);
+        if (date == null) {
+            context.reject(rowNumber, "date", "Date must be in " + datePattern + " format", rawDate);
+            return null;
+        }
+
+        String rawAmount = record[amountColumn];
+        BigDecimal amount = ImportFieldParser.parseSignedAmount(rawAmount, decimalSeparator, groupingSeparator);
+        if (amount == null || amount.signum() == 0) {
+            context.reject(rowNumber, "amount", "Amount must be a non-zero number with at most 2 decimals", rawAmount);
+            return null;
+        }
+
+        TransactionType type;
+        if (typeColumn >= 0) {
+            String rawType = record[typeColumn];
+            type = resolveType(rawType);
+            if (type == null) {
+                context.reject(rowNumber, "type", "Type must be INCOME or EXPENSE"
+                        + (incomeLabel != null || expenseLabel != null ? " or a configured label" : ""), rawType);
+                return null;
+            }
+            if (amount.signum() < 0) {
+                context.reject(rowNumber, "amount", "Amount must be positive when a type column is mapped", rawAmount);
+                return null;
+            }
+        } else {
+            type = amount.signum() < 0 ? negativeAmountType : positiveAmountType;
+            amount = amount.abs();
+        }
+
+        return Transaction.builder()
+                .user(context.getUser())
+                .transactionDate(date)
+                .amount(amount)
+                .transactionType(type)
+                .description(descriptionColumn >= 0 ? record[descriptionColumn].trim() : null)
+                .source(TransactionSource.CSV_UPLOAD)
+                .build();
+    }
+
+    private TransactionType resolveType(String value) {
+        String s = value.trim();
+        if (incomeLabel != null && incomeLabel.equalsIgnoreCase(s)) {
+            return TransactionType.INCOME;
+        }
+        if (expenseLabel != null && expenseLabel.equalsIgnoreCase(s)) {
+            return TransactionType.EXPENSE;
+        }
+        return ImportFieldParser.parseType(s);
+    }
+}
@@ -0,0 +1,25 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.model.User;
+import org.springframework.stereotype.Service;
+
+/**
+ * SMS channel for users with notificationSmsEnabled.
+ * There is no SMS gateway or phone number on the user yet, so the channel is disabled for
+ * everyone rather than reporting messages as delivered that nobody receives. Adding a gateway
+ * client means implementing {@link #send} and checking the opt-in and phone number in
+ * {@link #isEnabledFor}.
+ */
+@Service
+public class SmsNotificationChannel implements NotificationChannel {
+
+    @Override
+    public boolean isEnabledFor(User user) {
+        return false;
+    }
+
+    @Override
+    public void send(User user, String subject, String body) {
+        throw new RuntimeException("No SMS gateway is configured");
+    }
+}
@@ -0,0 +1,150 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Space-Saving summary of the most frequent items in a stream, using a fixed number of
+ * counters. Every item whose true count exceeds total / capacity is guaranteed to be
+ * tracked; a tracked item's count may overestimate the true count by at most its error.
+ * Summaries are mergeable (Agarwal et al., "Mergeable Summaries"), so monthly summaries can
+ * be combined into yearly ones and per-user ones into global ones.
+ */
+final class SpaceSavingSketch {
+
+    private final int capacity;
+    // Item -> {count, error}
+    private final Map<String, long[]> counters;
+
+    SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    record Entry(String item, long count, long error) {
+    }
+
+    void add(String item) {
+        long[] counter = counters.get(item);
+        if (counter != null) {
+            counter[0]++;
+        } else if (counters.size() < capacity) {
+            counters.put(item, new long[]{1, 0});
+        } else {
+            // Replace the smallest counter; the new item inherits its count as error
+            Map.Entry<String, long[]> smallest = smallest();
+            counters.remove(smallest.getKey());
+            long min = smallest.getValue()[0];
+            counters.put(item, new long[]{min + 1, min});
+        }
+    }
+
+    /**
+     * Takes one occurrence of a tracked item out again, e.g. for a deleted transaction.
+     * Untracked items are ignored, as their occurrences are only part of other counters' errors.
+     */
+    void remove(String item) {
+        long[] counter = counters.get(item);
+        if (counter != null && counter[0] > 0) {
+            counter[0]--;
+            counter[1] = Math.min(counter[1], counter[0]);
+        }
+    }
+
+    void merge(SpaceSavingSketch other) {
+        // An item missing from a full summary may have occurred up to its smallest count times
+        long missingHere = counters.size() < capacity ? 0 : smallest().getValue()[0];
+        long missingThere = other.counters.size() < other.capacity ? 0 : other.smallest().getValue()[0];
+        Set<String> items = new HashSet<>(counters.keySet());
+        items.addAll(other.counters.keySet());
+        List<Entry> merged = new ArrayList<>(items.size());
+        for (String item : items) {
+            long[] here = counters.get(item);
+            long[] there = other.counters.get(item);
+            long count = (here != null ? here[0] : missingHere) + (there != null ? there[0] : missingThere);
+            long error = (here != null ? here[1] : missingHere) + (there != null ? there[1] : missingThere);
+            merged.add(new Entry(item, count, error));
+        }
+        merged.sort(Comparator.comparingLong(Entry::count).reversed());
+        counters.clear();
+        for (Entry entry : merged.subList(0, Math.min(capacity, merged.size()))) {
+            counters.put(entry.item(), new long[]{entry.count(), entry.error()});
+        }
+    }
+
+    /**
+     * Returns up to n tracked items, most frequent first.
+     */
+    List<Entry> top(int n) {
+        return counters.entrySet().stream()
+                .map(e -> new Entry(e.getKey(), e.getValue()[0], e.getValue()[1]))
+                .filter(e -> e.count() > 0)
+                .sorted(Comparator.comparingLong(Entry::count).reversed())
+                .limit(n)
+                .toList();
+    }
+
+    byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(counters.size() * 32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(counters.size());
+            for (Map.Entry<String, long[]> counter : counters.entrySet()) {
+                out.writeUTF(counter.getKey());
+                out.writeLong(counter.getValue()[0]);
+                out.writeLong(counter.getValue()[1]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Restores a summary written by toBytes; null or no data restores an empty one.
+     * A summary stored with more counters than the capacity keeps its largest ones.
+     */
+    static SpaceSavingSketch fromBytes(byte[] data, int capacity) {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(capacity);
+        if (data == null || data.length == 0) {
+            return sketch;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int size = in.readInt();
+            SpaceSavingSketch stored = new SpaceSavingSketch(Math.max(size, 1));
+            for (int i = 0; i < size; i++) {
+                stored.counters.put(in.readUTF(), new long[]{in.readLong(), in.readLong()});
+            }
+            if (size <= capacity) {
+                sketch.counters.putAll(stored.counters);
+            } else {
+                for (Entry entry : stored.top(capacity)) {
+                    sketch.counters.put(entry.item(), new long[]{entry.count(), entry.error()});
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sketch;
+    }
+
+    private Map.Entry<String, long[]> smallest() {
+        Map.Entry<String, long[]> smallest = null;
+        for (Map.Entry<String, long[]> counter : counters.entrySet()) {
+            if (smallest == null || counter.getValue()[0] < smallest.getValue()[0]) {
+                smallest = counter;
+            }
+        }
+        return smallest;
+    }
+}
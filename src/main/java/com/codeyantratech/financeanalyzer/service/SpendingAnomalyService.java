@@ -0,0 +1,133 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.RunningStats;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.repository.SpendingStatsRepository;
+import com.codeyantratech.financeanalyzer.repository.SpendingStatsRepository.Key;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service class responsible for flagging unusually large expenses as they are written.
+ * Each user has running statistics (Welford) of log expense amounts per category and
+ * currency, plus one over all categories. A new expense is compared with the statistics of
+ * its category, or of all categories while its own has too few samples, and flagged when it
+ * lies more than the configured number of standard deviations above the mean. It is then
+ * added to both, and edits and deletions take their previous version out again, so a write
+ * costs one locking read and one batch upsert regardless of the user's history.
+ * Expenses written before this service existed are not part of the statistics (their
+ * anomaly flag is null), so new users' and existing users' statistics both build up from
+ * their first new expenses.
+ */
+@Slf4j
+@Service
+public class SpendingAnomalyService {
+
+    @Autowired
+    private SpendingStatsRepository spendingStatsRepository;
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    // Expenses a statistic needs before it is used for flagging
+    @Value("${app.anomaly.min-samples:10}")
+    private int minSamples;
+
+    @Value("${app.anomaly.z-threshold:3.0}")
+    private double zThreshold;
+
+    // Lower bound for the standard deviation of log amounts, so that categories with nearly
+    // constant amounts do not flag every small change (0.25 is about a 28% spread)
+    @Value("${app.anomaly.min-log-stddev:0.25}")
+    private double minLogStddev;
+
+    /**
+     * Sets the anomaly flag of every added expense and updates the statistics.
+     * Runs synchronously in the writing database transaction, before the change is written,
+     * so the flag is written together with the transaction.
+     */
+    @EventListener
+    public void onTransactionChange(TransactionChangeEvent event) {
+        // Only removed expenses that were counted when written are taken out again
+        List<Transaction> removed = event.getRemoved().stream()
+                .filter(t -> isExpense(t) && t.getAnomaly() != null)
+                .toList();
+        List<Transaction> added = event.getAdded().stream().filter(SpendingAnomalyService::isExpense).toList();
+        // An expense edited into an income loses its flag
+        event.getAdded().stream().filter(t -> !isExpense(t)).forEach(t -> t.setAnomaly(null));
+        if (removed.isEmpty() && added.isEmpty()) {
+            return;
+        }
+        Long userId = event.getUser().getId();
+        String userCurrency = exchangeRateService.currencyOf(event.getUser());
+
+        Set<Long> categoryKeys = new HashSet<>();
+        categoryKeys.add(SpendingStatsRepository.ALL_CATEGORIES);
+        removed.forEach(t -> categoryKeys.add(categoryKey(t)));
+        added.forEach(t -> categoryKeys.add(categoryKey(t)));
+        Map<Key, RunningStats> stats = spendingStatsRepository.findForUpdate(userId, categoryKeys);
+        Map<Key, RunningStats> changed = new HashMap<>();
+
+        for (Transaction t : removed) {
+            double value = logAmount(t);
+            statsOf(stats, changed, categoryKey(t), t, userCurrency).remove(value);
+            statsOf(stats, changed, SpendingStatsRepository.ALL_CATEGORIES, t, userCurrency).remove(value);
+        }
+        int flagged = 0;
+        for (Transaction t : added) {
+            double value = logAmount(t);
+            RunningStats category = statsOf(stats, changed, categoryKey(t), t, userCurrency);
+            RunningStats all = statsOf(stats, changed, SpendingStatsRepository.ALL_CATEGORIES, t, userCurrency);
+            boolean anomaly = isOutlier(category.getCount() >= minSamples ? category : all, value);
+            t.setAnomaly(anomaly);
+            if (anomaly) {
+                flagged++;
+            }
+            category.add(value);
+            all.add(value);
+        }
+        spendingStatsRepository.saveAll(userId, changed);
+        if (flagged > 0) {
+            log.debug("Flagged {} of {} expenses of user {} as anomalies", flagged, added.size(), userId);
+        }
+    }
+
+    private boolean isOutlier(RunningStats stats, double value) {
+        if (stats.getCount() < minSamples) {
+            return false;
+        }
+        double stddev = Math.max(stats.stddev(), minLogStddev);
+        return (value - stats.getMean()) / stddev > zThreshold;
+    }
+
+    private static RunningStats statsOf(Map<Key, RunningStats> stats, Map<Key, RunningStats> changed, long categoryKey,
+                                        Transaction t, String userCurrency) {
+        Key key = new Key(categoryKey, t.getCurrency() != null ? t.getCurrency() : userCurrency);
+        RunningStats s = stats.computeIfAbsent(key, k -> new RunningStats());
+        changed.put(key, s);
+        return s;
+    }
+
+    private static boolean isExpense(Transaction t) {
+        return t.getTransactionType() == TransactionType.EXPENSE && t.getAmount() != null;
+    }
+
+    private static long categoryKey(Transaction t) {
+        return t.getCategory() != null && t.getCategory().getId() != null
+                ? t.getCategory().getId() : SpendingStatsRepository.UNCATEGORIZED;
+    }
+
+    private static double logAmount(Transaction t) {
+        return Math.log1p(t.getAmount().abs().doubleValue());
+    }
+}
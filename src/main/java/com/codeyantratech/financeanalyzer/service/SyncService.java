@@ -0,0 +1,127 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.SyncEntityType;
+import com.codeyantratech.financeanalyzer.model.Category;
+import com.codeyantratech.financeanalyzer.model.SyncTombstone;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.CategoryRepository;
+import com.codeyantratech.financeanalyzer.repository.SyncTombstoneRepository;
+import com.codeyantratech.financeanalyzer.repository.SyncWatermarkRepository;
+import com.codeyantratech.financeanalyzer.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service class responsible for delta sync of transactions and categories.
+ * Clients pass the watermark of their previous sync and receive the rows whose updated_at
+ * is later, plus the ids deleted since then from the tombstone table.
+ * The returned watermark is the start of the oldest transaction still open on the database
+ * (see SyncWatermarkRepository), so rows written by a transaction that commits after the
+ * sync are still picked up next time, unless it runs longer than the maximum horizon lag.
+ * A small overlap on top covers
+ * clock skew between the application and the database. Rows can therefore be returned more
+ * than once, and clients have to apply changes as upserts.
+ */
+@Slf4j
+@Service
+public class SyncService {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Autowired
+    private SyncWatermarkRepository syncWatermarkRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${app.sync.overlap-seconds:5}")
+    private int overlapSeconds;
+
+    @Value("${app.sync.max-horizon-lag-seconds:900}")
+    private int maxHorizonLagSeconds;
+
+    @Value("${app.sync.tombstone-retention-days:90}")
+    private int tombstoneRetentionDays;
+
+    /**
+     * Changes of one user since a watermark. With fullSync set, the lists hold every
+     * transaction and category and the client must drop anything not included.
+     */
+    public record Changes(LocalDateTime watermark, boolean fullSync, List<Transaction> transactions,
+                          List<Category> categories, List<Long> deletedTransactionIds,
+                          List<Long> deletedCategoryIds) {
+    }
+
+    /**
+     * Returns what changed for a user since the given watermark.
+     * Without a watermark, or with one older than the tombstone retention, a full snapshot
+     * is returned, including archived transactions.
+     *
+     * @param username The username of the user
+     * @param since    Watermark returned by the previous sync, or null
+     * @return The changes and the watermark for the next sync
+     */
+    @Transactional(readOnly = true)
+    public Changes getChanges(String username, LocalDateTime since) {
+        // Taken before reading, so nothing written during the reads is skipped next time
+        LocalDateTime watermark = syncWatermarkRepository.findCommitHorizon(maxHorizonLagSeconds).minusSeconds(overlapSeconds);
+        User user = userService.getCurrentUser(username);
+
+        if (since == null || since.isBefore(tombstoneHorizon())) {
+            return new Changes(watermark, true,
+                    transactionService.getUserTransactions(username),
+                    categoryRepository.findByUserOrderByNameAsc(user),
+                    List.of(), List.of());
+        }
+
+        List<SyncTombstone> tombstones = syncTombstoneRepository.findByUserIdAndDeletedAtAfter(user.getId(), since);
+        return new Changes(watermark, false,
+                transactionRepository.findByUserAndUpdatedAtAfter(user, since),
+                categoryRepository.findByUserAndUpdatedAtAfter(user, since),
+                deletedIds(tombstones, SyncEntityType.TRANSACTION),
+                deletedIds(tombstones, SyncEntityType.CATEGORY));
+    }
+
+    /**
+     * Removes tombstones past the retention. Clients that synced before that point get a
+     * full snapshot on their next sync, so no deletion is ever missed.
+     */
+    @Scheduled(cron = "${app.sync.tombstone-cleanup-cron:0 0 4 * * *}")
+    @Transactional
+    public void expireTombstones() {
+        int deleted = syncTombstoneRepository.deleteDeletedBefore(tombstoneHorizon());
+        if (deleted > 0) {
+            log.info("Expired {} sync tombstones", deleted);
+        }
+    }
+
+    private LocalDateTime tombstoneHorizon() {
+        return LocalDateTime.now().minusDays(tombstoneRetentionDays);
+    }
+
+    private static List<Long> deletedIds(List<SyncTombstone> tombstones, SyncEntityType type) {
+        return tombstones.stream()
+                .filter(t -> t.getEntityType() == type)
+                .map(SyncTombstone::getEntityId)
+                .distinct()
+                .toList();
+    }
+}
@@ -0,0 +1,210 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.model.ArchivedTransaction;
+import com.codeyantratech.financeanalyzer.model.Category;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.ArchivedTransactionRepository;
+import com.codeyantratech.financeanalyzer.repository.CategoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service class responsible for the cold-history tier of transactions.
+ * A scheduled job moves transactions older than the configured horizon from the hot
+ * transactions table into transactions_archive, and read paths fall through to the
+ * archive when a requested range reaches past the horizon.
+ */
+@Slf4j
+@Service
+public class TransactionArchiveService {
+
+    // Archived transactions are read-only; edits and deletes of them fail with this message
+    public static final String ARCHIVED_MESSAGE = "Transaction is archived and cannot be changed";
+
+    private static final String MOVE_BATCH_SQL =
+            "WITH moved AS (" +
+            "  DELETE FROM transactions WHERE id IN (" +
+            "    SELECT id FROM transactions WHERE transaction_date < ? ORDER BY id LIMIT ?)" +
+            "  RETURNING id, user_id, category_id, amount, currency, description, transaction_date," +
+            "            transaction_type, source, anomaly, created_at, updated_at) " +
+            "INSERT INTO transactions_archive (id, user_id, category_id, amount, currency, description, transaction_date," +
+            "                                  transaction_type, source, anomaly, created_at, updated_at, archived_at) " +
+            "SELECT id, user_id, category_id, amount, currency, description, transaction_date," +
+            "       transaction_type, source, anomaly, created_at, updated_at, now() FROM moved";
+
+    @Autowired
+    private ArchivedTransactionRepository archivedTransactionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.transactions.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.transactions.archive.horizon-months:13}")
+    private int horizonMonths;
+
+    @Value("${app.transactions.archive.batch-size:10000}")
+    private int batchSize;
+
+    /**
+     * Applies storage settings to the archive table. The table is append-only, so pages are
+     * packed completely, and descriptions use lz4 TOAST compression where the server supports it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void configureArchiveStorage() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("ALTER TABLE transactions_archive SET (fillfactor = 100)");
+            // enumvals only lists lz4 when the server was built with it (PostgreSQL 14+)
+            Boolean lz4 = jdbcTemplate.query(
+                    "SELECT 'lz4' = ANY(enumvals) FROM pg_settings WHERE name = 'default_toast_compression'",
+                    rs -> rs.next() ? rs.getBoolean(1) : false);
+            if (Boolean.TRUE.equals(lz4)) {
+                jdbcTemplate.execute("ALTER TABLE transactions_archive ALTER COLUMN description SET COMPRESSION lz4");
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not apply archive storage settings: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the first date that is still kept in the hot table.
+     * Everything strictly before it is eligible for archival.
+     */
+    public LocalDate getHorizon() {
+        return LocalDate.now().withDayOfMonth(1).minusMonths(horizonMonths);
+    }
+
+    /**
+     * Checks whether a query starting at the given date needs to read the archive.
+     *
+     * @param from First requested transaction date, or null for an open range
+     */
+    public boolean reachesArchive(LocalDate from) {
+        return enabled && (from == null || from.isBefore(getHorizon()));
+    }
+
+    /**
+     * Moves every transaction older than the horizon into the archive.
+     * Works in batches, each in its own database transaction, so locks stay short and
+     * a failure only loses the current batch.
+     *
+     * @return The number of transactions archived
+     */
+    @Scheduled(cron = "${app.transactions.archive.cron:0 30 3 * * *}")
+    public long archiveOldTransactions() {
+        if (!enabled) {
+            return 0;
+        }
+        LocalDate horizon = getHorizon();
+        long total = 0;
+        int moved;
+        do {
+            moved = Objects.requireNonNullElse(transactionTemplate.execute(
+                    status -> jdbcTemplate.update(MOVE_BATCH_SQL, horizon, batchSize)), 0);
+            total += moved;
+        } while (moved == batchSize);
+
+        if (total > 0) {
+            log.info("Archived {} transactions older than {}", total, horizon);
+        }
+        return total;
+    }
+
+    /**
+     * Retrieves archived transactions of a user as detached Transaction objects.
+     * Either bound may be null, in which case the range is open on that side.
+     *
+     * @param user The owner of the transactions
+     * @param from First transaction date to include, or null
+     * @param to   Last transaction date to include, or null
+     * @return Archived transactions, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<Transaction> getArchivedTransactions(User user, LocalDate from, LocalDate to) {
+        List<ArchivedTransaction> archived = (from == null && to == null)
+                ? archivedTransactionRepository.findByUserIdOrderByTransactionDateDesc(user.getId())
+                : archivedTransactionRepository.findByUserIdAndTransactionDateBetweenOrderByTransactionDateDesc(
+                        user.getId(),
+                        from != null ? from : LocalDate.of(1900, 1, 1),
+                        to != null ? to : LocalDate.of(9999, 12, 31));
+        return toTransactions(user, archived);
+    }
+
+    /**
+     * Retrieves archived transactions of a user by id as detached Transaction objects.
+     * Ids of other users' transactions are ignored.
+     *
+     * @param user The owner of the transactions
+     * @param ids  The ids of the archived transactions
+     * @return Archived transactions, in no particular order
+     */
+    @Transactional(readOnly = true)
+    public List<Transaction> getArchivedTransactions(User user, Collection<Long> ids) {
+        List<ArchivedTransaction> archived = archivedTransactionRepository.findAllById(ids).stream()
+                .filter(a -> a.getUserId().equals(user.getId()))
+                .toList();
+        return toTransactions(user, archived);
+    }
+
+    /**
+     * Returns which of the given ids are archived transactions of a user.
+     *
+     * @param user The owner of the transactions
+     * @param ids  Transaction ids, archived or not
+     */
+    @Transactional(readOnly = true)
+    public Set<Long> getArchivedIds(User user, Collection<Long> ids) {
+        return archivedTransactionRepository.findAllById(ids).stream()
+                .filter(a -> a.getUserId().equals(user.getId()))
+                .map(ArchivedTransaction::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private List<Transaction> toTransactions(User user, List<ArchivedTransaction> archived) {
+        if (archived.isEmpty()) {
+            return List.of();
+        }
+
+        // Resolve all referenced categories with a single query
+        List<Long> categoryIds = archived.stream()
+                .map(ArchivedTransaction::getCategoryId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, Category> categories = categoryRepository.findAllById(categoryIds).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+
+        return archived.stream()
+                .map(a -> a.toTransaction(user, a.getCategoryId() != null ? categories.get(a.getCategoryId()) : null))
+                .toList();
+    }
+}
@@ -0,0 +1,300 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.dto.TransactionBatchOperation;
+import com.codeyantratech.financeanalyzer.dto.TransactionBatchResult;
+import com.codeyantratech.financeanalyzer.dto.TransactionRequest;
+import com.codeyantratech.financeanalyzer.enums.BatchAction;
+import com.codeyantratech.financeanalyzer.enums.VersionedResource;
+import com.codeyantratech.financeanalyzer.model.IdempotencyKey;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.CategoryRepository;
+import com.codeyantratech.financeanalyzer.repository.IdempotencyKeyRepository;
+import com.codeyantratech.financeanalyzer.repository.TransactionBatchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service class responsible for applying batches of transaction operations, as sent by
+ * clients syncing offline edits.
+ * A batch costs a fixed number of statements regardless of its size: one user lookup, one
+ * query each for known idempotency keys, owned transactions and owned categories, and one
+ * write statement or JDBC batch per kind of operation, all in a single database transaction.
+ * Invalid operations are rejected individually; the rest of the batch is still applied.
+ * The applied changes are published as one TransactionChangeEvent before they are written.
+ */
+@Slf4j
+@Service
+public class TransactionBatchService {
+
+    public static final String APPLIED = "APPLIED";
+    public static final String REPLAYED = "REPLAYED";
+    public static final String REJECTED = "REJECTED";
+
+    @Autowired
+    private TransactionBatchRepository transactionBatchRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Value("${app.transactions.batch.max-operations:500}")
+    private int maxOperations;
+
+    @Value("${app.transactions.batch.idempotency-ttl-hours:72}")
+    private int idempotencyTtlHours;
+
+    /**
+     * Applies a batch of create, update and delete operations.
+     * Operations whose idempotency key was already applied are not executed again; their
+     * original result is returned with status REPLAYED. Two concurrent batches with the same
+     * key conflict on the unique key constraint, and the later one fails as a whole.
+     *
+     * @param username   The username of the user
+     * @param operations The operations, in client order
+     * @return One result per operation, in the same order
+     * @throws RuntimeException if the batch exceeds the configured maximum size
+     */
+    @Transactional
+    public List<TransactionBatchResult> applyBatch(String username, List<TransactionBatchOperation> operations) {
+        if (operations.size() > maxOperations) {
+            throw new RuntimeException("A batch must not contain more than " + maxOperations + " operations");
+        }
+        User user = userService.getCurrentUser(username);
+        TransactionBatchResult[] results = new TransactionBatchResult[operations.size()];
+
+        // Replay keys that were applied by an earlier request
+        Set<String> keys = operations.stream().map(TransactionBatchOperation::getIdempotencyKey).collect(Collectors.toSet());
+        Map<String, IdempotencyKey> applied = idempotencyKeyRepository.findByUserIdAndIdempotencyKeyIn(user.getId(), keys)
+                .stream()
+                .collect(Collectors.toMap(IdempotencyKey::getIdempotencyKey, Function.identity()));
+
+        // Validate ownership of every referenced transaction and category with one query each.
+        // The current versions of owned transactions are kept for the change event.
+        Set<Long> referencedIds = operations.stream()
+                .map(TransactionBatchOperation::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Transaction> existing = referencedIds.isEmpty()
+                ? Map.of() : transactionBatchRepository.findByIds(user, referencedIds);
+        // Archived transactions are read-only; only looked up when some ids are not in the hot table
+        Set<Long> missingIds = referencedIds.stream()
+                .filter(id -> !existing.containsKey(id))
+                .collect(Collectors.toSet());
+        Set<Long> archivedIds = missingIds.isEmpty()
+                ? Set.of() : transactionArchiveService.getArchivedIds(user, missingIds);
+        Set<Long> ownedCategoryIds = lookup(operations.stream()
+                        .map(TransactionBatchOperation::getTransaction)
+                        .filter(Objects::nonNull)
+                        .map(TransactionRequest::getCategoryId),
+                ids -> transactionBatchRepository.findOwnedCategoryIds(user.getId(), ids));
+
+        Set<String> seenKeys = new HashSet<>();
+        Set<Long> touchedIds = new HashSet<>();
+        List<Integer> creates = new ArrayList<>();
+        List<Transaction> updates = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            TransactionBatchOperation op = operations.get(i);
+            IdempotencyKey previous = applied.get(op.getIdempotencyKey());
+            String error;
+            if (previous != null) {
+                // Report what was originally applied under this key
+                results[i] = result(op, REPLAYED, previous.getTransactionId(), null);
+                results[i].setAction(previous.getAction());
+                continue;
+            } else if (!seenKeys.add(op.getIdempotencyKey())) {
+                error = "Duplicate idempotency key in batch";
+            } else {
+                error = validate(op, existing.keySet(), archivedIds, ownedCategoryIds, touchedIds);
+                if (error == null) {
+                    error = validateCurrency(op, existing, user);
+                }
+            }
+            if (error != null) {
+                results[i] = result(op, REJECTED, op.getId(), error);
+                continue;
+            }
+            switch (op.getAction()) {
+                case CREATE -> creates.add(i);
+                case UPDATE -> updates.add(toTransaction(op.getTransaction(), user, op.getId(),
+                        existing.get(op.getId()).getCurrency()));
+                case DELETE -> deletes.add(op.getId());
+            }
+            results[i] = result(op, APPLIED, op.getId(), null);
+        }
+
+        List<Transaction> inserts = new ArrayList<>(creates.size());
+        if (!creates.isEmpty()) {
+            String userCurrency = exchangeRateService.currencyOf(user);
+            Iterator<Long> ids = transactionBatchRepository.allocateIds(creates.size()).iterator();
+            for (int i : creates) {
+                Long id = ids.next();
+                inserts.add(toTransaction(operations.get(i).getTransaction(), user, id, userCurrency));
+                results[i].setTransactionId(id);
+            }
+        }
+
+        List<Transaction> removed = new ArrayList<>(updates.size() + deletes.size());
+        updates.forEach(t -> removed.add(existing.get(t.getId())));
+        deletes.forEach(id -> removed.add(existing.get(id)));
+        List<Transaction> added = new ArrayList<>(inserts.size() + updates.size());
+        added.addAll(inserts);
+        added.addAll(updates);
+        if (!removed.isEmpty() || !added.isEmpty()) {
+            eventPublisher.publishEvent(new TransactionChangeEvent(user, removed, added));
+        }
+
+        if (!inserts.isEmpty()) {
+            transactionBatchRepository.insertAllWithIds(inserts);
+        }
+        if (!updates.isEmpty()) {
+            transactionBatchRepository.updateAll(updates);
+        }
+        if (!deletes.isEmpty()) {
+            transactionBatchRepository.deleteAll(user.getId(), deletes);
+        }
+
+        recordKeys(user, results);
+        if (!creates.isEmpty() || !updates.isEmpty() || !deletes.isEmpty()) {
+            resourceVersionService.bump(user.getId(), VersionedResource.TRANSACTIONS);
+        }
+        log.debug("Applied batch for user {}: {} created, {} updated, {} deleted",
+                user.getId(), creates.size(), updates.size(), deletes.size());
+        return List.of(results);
+    }
+
+    /**
+     * Removes idempotency keys older than the configured TTL.
+     * Clients retrying a batch after that get their operations applied again.
+     */
+    @Scheduled(cron = "${app.transactions.batch.cleanup-cron:0 45 3 * * *}")
+    @Transactional
+    public void expireIdempotencyKeys() {
+        int deleted = idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(idempotencyTtlHours));
+        if (deleted > 0) {
+            log.info("Expired {} idempotency keys", deleted);
+        }
+    }
+
+    // Returns an error message, or null if the operation can be applied
+    private static String validate(TransactionBatchOperation op, Set<Long> ownedIds, Set<Long> archivedIds,
+                                   Set<Long> ownedCategoryIds, Set<Long> touchedIds) {
+        if (op.getAction() != BatchAction.CREATE) {
+            if (op.getId() == null) {
+                return "Transaction id is required";
+            }
+            if (!ownedIds.contains(op.getId())) {
+                return archivedIds.contains(op.getId())
+                        ? TransactionArchiveService.ARCHIVED_MESSAGE : "Transaction not found or access denied";
+            }
+            if (!touchedIds.add(op.getId())) {
+                return "Transaction is already changed by an earlier operation in this batch";
+            }
+        }
+        if (op.getAction() != BatchAction.DELETE) {
+            if (op.getTransaction() == null) {
+                return "Transaction data is required";
+            }
+            Long categoryId = op.getTransaction().getCategoryId();
+            if (categoryId != null && !ownedCategoryIds.contains(categoryId)) {
+                return "Category not found or access denied";
+            }
+        }
+        return null;
+    }
+
+    // A currency that is new to the transaction must be convertible, see ExchangeRateService#isSupported
+    private String validateCurrency(TransactionBatchOperation op, Map<Long, Transaction> existing, User user) {
+        String currency = op.getTransaction() != null ? op.getTransaction().getCurrency() : null;
+        if (currency == null || (op.getAction() == BatchAction.UPDATE
+                && currency.equals(existing.get(op.getId()).getCurrency()))) {
+            return null;
+        }
+        return exchangeRateService.isSupported(currency, user) ? null : "No exchange rates for currency " + currency;
+    }
+
+    // The currency falls back to the given one when the request does not name it
+    private Transaction toTransaction(TransactionRequest request, User user, Long id, String currency) {
+        Transaction transaction = Transaction.builder()
+                .user(user)
+                .category(request.getCategoryId() != null ? categoryRepository.getReferenceById(request.getCategoryId()) : null)
+                .amount(request.getAmount())
+                .currency(request.getCurrency() != null ? request.getCurrency() : currency)
+                .transactionDate(request.getTransactionDate())
+                .transactionType(request.getTransactionType())
+                .description(request.getDescription())
+                .build();
+        transaction.setId(id);
+        return transaction;
+    }
+
+    private void recordKeys(User user, TransactionBatchResult[] results) {
+        LocalDateTime now = LocalDateTime.now();
+        List<IdempotencyKey> keys = new ArrayList<>();
+        for (TransactionBatchResult result : results) {
+            if (APPLIED.equals(result.getStatus())) {
+                IdempotencyKey key = new IdempotencyKey();
+                key.setUserId(user.getId());
+                key.setIdempotencyKey(result.getIdempotencyKey());
+                key.setAction(result.getAction());
+                key.setTransactionId(result.getTransactionId());
+                key.setCreatedAt(now);
+                keys.add(key);
+            }
+        }
+        if (!keys.isEmpty()) {
+            transactionBatchRepository.insertIdempotencyKeys(keys);
+        }
+    }
+
+    private static Set<Long> lookup(Stream<Long> ids, Function<Set<Long>, Set<Long>> query) {
+        Set<Long> distinct = ids.filter(Objects::nonNull).collect(Collectors.toSet());
+        return distinct.isEmpty() ? Set.of() : query.apply(distinct);
+    }
+
+    private static TransactionBatchResult result(TransactionBatchOperation op, String status, Long transactionId,
+                                                 String error) {
+        return TransactionBatchResult.builder()
+                .idempotencyKey(op.getIdempotencyKey())
+                .action(op.getAction())
+                .status(status)
+                .transactionId(transactionId)
+                .error(error)
+                .build();
+    }
+}
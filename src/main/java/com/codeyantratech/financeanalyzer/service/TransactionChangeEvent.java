@@ -0,0 +1,26 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published by the transaction write paths right before a change is written, inside the
+ * writing database transaction. Listeners keep derived per-user state (budget totals and
+ * the like) up to date from these deltas instead of re-reading transactions, and whatever
+ * they write to the database commits or rolls back together with the change.
+ * An update is reported as its previous version in removed and its new version in added.
+ * Added transactions may not have an id yet; removed ones loaded for this event only carry
+ * id, category id, amount, currency, description, date, type and anomaly flag.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionChangeEvent {
+
+    private final User user;
+    private final List<Transaction> removed;
+    private final List<Transaction> added;
+}
@@ -0,0 +1,182 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service class responsible for maintaining the range partitions of the transactions table.
+ * The table is converted once with db/partitioning/partition_transactions.sql; after that this
+ * service creates partitions ahead of time and detaches partitions that fall out of retention.
+ * Does nothing while the transactions table is a plain (non-partitioned) table.
+ */
+@Slf4j
+@Service
+public class TransactionPartitionService {
+
+    private static final String PARENT_TABLE = "transactions";
+
+    private static final DateTimeFormatter MONTHLY_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final DateTimeFormatter YEARLY_SUFFIX = DateTimeFormatter.ofPattern("yyyy");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.transactions.partitioning.enabled:true}")
+    private boolean enabled;
+
+    // MONTHLY or YEARLY
+    @Value("${app.transactions.partitioning.interval:MONTHLY}")
+    private String interval;
+
+    @Value("${app.transactions.partitioning.periods-ahead:3}")
+    private int periodsAhead;
+
+    // 0 keeps every partition attached
+    @Value("${app.transactions.partitioning.retention-periods:0}")
+    private int retentionPeriods;
+
+    // How long a detach waits for the lock on the transactions table before giving up until the next run
+    @Value("${app.transactions.partitioning.detach-lock-timeout-ms:5000}")
+    private long detachLockTimeoutMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    /**
+     * Creates the partitions for the current and upcoming periods and detaches the ones
+     * older than the configured retention. Runs daily and once at startup.
+     */
+    @Scheduled(cron = "${app.transactions.partitioning.cron:0 15 2 * * *}")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!isPartitioned()) {
+                log.debug("Table '{}' is not partitioned, skipping partition maintenance", PARENT_TABLE);
+                return;
+            }
+            LocalDate current = periodStart(LocalDate.now());
+            for (int i = 0; i <= periodsAhead; i++) {
+                createPartition(current);
+                current = nextPeriod(current);
+            }
+            if (retentionPeriods > 0) {
+                detachPartitionsBefore(minusPeriods(periodStart(LocalDate.now()), retentionPeriods));
+            }
+        } catch (DataAccessException e) {
+            log.error("Partition maintenance for '{}' failed: {}", PARENT_TABLE, e.getMessage());
+        }
+    }
+
+    /**
+     * Checks whether the transactions table is a declaratively partitioned table.
+     */
+    public boolean isPartitioned() {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p " +
+                        "JOIN pg_class c ON c.oid = p.partrelid WHERE c.relname = ?)",
+                Boolean.class, PARENT_TABLE);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    /**
+     * Creates the partition covering the period that starts at the given date, if missing.
+     *
+     * @param periodStart First day of the period
+     */
+    public void createPartition(LocalDate periodStart) {
+        String name = partitionName(periodStart);
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + PARENT_TABLE +
+                    " FOR VALUES FROM ('" + periodStart + "') TO ('" + nextPeriod(periodStart) + "')");
+        } catch (DataAccessException e) {
+            // Usually rows for this range already sit in the default partition
+            log.warn("Could not create partition '{}': {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Detaches every range partition whose upper bound is on or before the given date.
+     * Detached partitions stay in the database as plain tables and can be archived or dropped
+     * without touching the remaining data. PostgreSQL refuses DETACH ... CONCURRENTLY while the
+     * table has a default partition, so each partition is detached in its own short database
+     * transaction with a lock timeout: a detach that would queue behind long-running queries
+     * (and block the requests queued behind it) fails instead and is retried by the next run.
+     *
+     * @param cutoff Partitions entirely older than this date are detached
+     * @return Names of the detached partitions; partitions that could not be detached are logged
+     */
+    public List<String> detachPartitionsBefore(LocalDate cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "JOIN pg_class p ON p.oid = i.inhparent " +
+                        "WHERE p.relname = ? AND c.relname LIKE ? ORDER BY c.relname",
+                String.class, PARENT_TABLE, PARENT_TABLE + "_p%");
+
+        List<String> detached = new ArrayList<>();
+        for (String name : partitions) {
+            if (nextPeriod(partitionStart(name)).isAfter(cutoff)) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.execute("SET LOCAL lock_timeout = " + detachLockTimeoutMs);
+                    jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + name);
+                });
+                detached.add(name);
+                log.info("Detached partition '{}' from '{}'", name, PARENT_TABLE);
+            } catch (DataAccessException e) {
+                log.error("Could not detach partition '{}' from '{}', retrying on the next run: {}",
+                        name, PARENT_TABLE, e.getMessage());
+            }
+        }
+        return detached;
+    }
+
+    private boolean isYearly() {
+        return "YEARLY".equalsIgnoreCase(interval);
+    }
+
+    private LocalDate periodStart(LocalDate date) {
+        return isYearly() ? date.withDayOfYear(1) : date.withDayOfMonth(1);
+    }
+
+    private LocalDate nextPeriod(LocalDate periodStart) {
+        return isYearly() ? periodStart.plusYears(1) : periodStart.plusMonths(1);
+    }
+
+    private LocalDate minusPeriods(LocalDate periodStart, int periods) {
+        return isYearly() ? periodStart.minusYears(periods) : periodStart.minusMonths(periods);
+    }
+
+    // Partition names follow transactions_pYYYY_MM (monthly) or transactions_pYYYY (yearly)
+    private String partitionName(LocalDate periodStart) {
+        return PARENT_TABLE + "_p" + periodStart.format(isYearly() ? YEARLY_SUFFIX : MONTHLY_SUFFIX);
+    }
+
+    private LocalDate partitionStart(String partitionName) {
+        String suffix = partitionName.substring((PARENT_TABLE + "_p").length());
+        String[] parts = suffix.split("_");
+        return LocalDate.of(Integer.parseInt(parts[0]), parts.length > 1 ? Integer.parseInt(parts[1]) : 1, 1);
+    }
+}
@@ -0,0 +1,128 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.TransactionRepository;
+import com.codeyantratech.financeanalyzer.repository.TransactionRepository.SearchHit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service class responsible for full-text search over transaction descriptions.
+ * Uses PostgreSQL text search with the 'simple' configuration, since merchant names and
+ * memos are not natural-language text and should not be stemmed.
+ */
+@Slf4j
+@Service
+public class TransactionSearchService {
+
+    private static final String INDEX_NAME = "idx_transactions_description_fts";
+
+    private static final int MAX_TERMS = 8;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    /**
+     * Warns when the GIN index backing the search is missing, in which case every search
+     * scans all transactions. The index is created by db/search/transaction_search_indexes.sql,
+     * not at startup, since building it on a large table must not hold up or lock a deploy.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkSearchIndex() {
+        try {
+            Boolean exists = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_indexes WHERE indexname = ?)", Boolean.class, INDEX_NAME);
+            if (!Boolean.TRUE.equals(exists)) {
+                log.warn("Full-text search index '{}' is missing, run db/search/transaction_search_indexes.sql",
+                        INDEX_NAME);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not check full-text search index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Searches the descriptions of a user's transactions, archived ones included.
+     * Every word of the query must match; the last word also matches as a prefix so
+     * partially typed merchant names still find results.
+     *
+     * @param username The username of the user
+     * @param query    Free-text search input
+     * @param page     Zero-based page number
+     * @param size     Page size, capped at 100
+     * @return Page of matching transactions, ranked by relevance
+     * @throws RuntimeException if the query contains no searchable words
+     */
+    // One snapshot for the page of ids and the rows loaded for it, even if the archival job
+    // moves some of them in between
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Page<Transaction> search(String username, String query, int page, int size) {
+        String tsQuery = toTsQuery(query);
+        if (tsQuery.isEmpty()) {
+            throw new RuntimeException("Search query must contain at least one letter or digit");
+        }
+        User user = userService.getCurrentUser(username);
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        if (!transactionArchiveService.reachesArchive(null)) {
+            return transactionRepository.searchByDescription(user.getId(), tsQuery, pageRequest);
+        }
+
+        Page<SearchHit> hits = transactionRepository.searchByDescriptionWithArchive(user.getId(), tsQuery, pageRequest);
+        Map<Boolean, List<Long>> ids = hits.stream().collect(Collectors.partitioningBy(SearchHit::getArchived,
+                Collectors.mapping(SearchHit::getId, Collectors.toList())));
+        Map<Long, Transaction> hot = ids.get(false).isEmpty() ? Map.of()
+                : transactionRepository.findByIdIn(ids.get(false)).stream()
+                        .collect(Collectors.toMap(Transaction::getId, Function.identity()));
+        Map<Long, Transaction> archived = ids.get(true).isEmpty() ? Map.of()
+                : transactionArchiveService.getArchivedTransactions(user, ids.get(true)).stream()
+                        .collect(Collectors.toMap(Transaction::getId, Function.identity()));
+        return hits.map(hit -> (hit.getArchived() ? archived : hot).get(hit.getId()));
+    }
+
+    /**
+     * Turns free-text input into a safe to_tsquery expression, e.g. "Amazon mark" becomes
+     * "amazon & mark:*". Only letters and digits survive, so user input can never inject
+     * tsquery operators.
+     */
+    static String toTsQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        String[] terms = Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_TERMS)
+                .toArray(String[]::new);
+        if (terms.length == 0) {
+            return "";
+        }
+        terms[terms.length - 1] = terms[terms.length - 1] + ":*";
+        return Arrays.stream(terms).collect(Collectors.joining(" & "));
+    }
+}
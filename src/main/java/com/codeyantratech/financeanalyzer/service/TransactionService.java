@@ -1,18 +1,31 @@
 package com.codeyantratech.financeanalyzer.service;
 
+import com.codeyantratech.financeanalyzer.enums.SyncEntityType;
+import com.codeyantratech.financeanalyzer.enums.VersionedResource;
+import com.codeyantratech.financeanalyzer.model.SyncTombstone;
 import com.codeyantratech.financeanalyzer.model.Transaction;
 import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.TransactionBatchRepository;
+import com.codeyantratech.financeanalyzer.repository.SyncTombstoneRepository;
 import com.codeyantratech.financeanalyzer.repository.TransactionRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Service class responsible for managing financial transactions.
  * Handles CRUD operations for transactions and ensures user-specific data access.
+ * Every write publishes a TransactionChangeEvent before it reaches the database.
  */
 @Slf4j
 @Service
@@ -21,22 +34,118 @@ public class TransactionService {
     @Autowired
     private TransactionRepository transactionRepository;
     
+    @Autowired
+    private TransactionBatchRepository transactionBatchRepository;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Autowired
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Imported transactions are removed in chunks of the size they were written in
+    @Value("${app.import.batch-size:1000}")
+    private int chunkSize;
+
     /**
      * Saves a new transaction or updates an existing one.
      *
      * @param transaction The transaction to save
      * @return The saved transaction with updated information
+     * @throws RuntimeException if the transaction is given a currency that cannot be converted
      */
     @Transactional
     public Transaction saveTransaction(Transaction transaction) {
-        return transactionRepository.save(transaction);
+        User user = transaction.getUser();
+        // Read and lock the stored version with JDBC so the pending changes of the entity are not
+        // flushed and a concurrent edit waits until this one has committed
+        List<Transaction> previous = transaction.getId() == null ? List.of()
+                : List.copyOf(transactionBatchRepository.findByIds(user, List.of(transaction.getId())).values());
+        if (transaction.getId() != null && previous.isEmpty()) {
+            throw notChangeable(user, transaction.getId());
+        }
+        // Existing amounts keep their currency even if it lost support, e.g. a former preferred currency
+        String currency = transaction.getCurrency();
+        if (currency != null && (previous.isEmpty() || !currency.equals(previous.get(0).getCurrency()))
+                && !exchangeRateService.isSupported(currency, user)) {
+            throw new RuntimeException("No exchange rates for currency " + currency);
+        }
+        eventPublisher.publishEvent(new TransactionChangeEvent(user, previous, List.of(transaction)));
+        Transaction saved = transactionRepository.save(transaction);
+        resourceVersionService.bump(saved.getUser().getId(), VersionedResource.TRANSACTIONS);
+        return saved;
+    }
+
+    /**
+     * Saves a chunk of imported transactions with a single JDBC batch.
+     * The saved transactions do not get their ids assigned.
+     *
+     * @param transactions The transactions to insert
+     */
+    @Transactional
+    public void saveImportedTransactions(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        User user = transactions.get(0).getUser();
+        eventPublisher.publishEvent(new TransactionChangeEvent(user, List.of(), transactions));
+        transactionBatchRepository.insertAll(transactions);
+        resourceVersionService.bump(user.getId(), VersionedResource.TRANSACTIONS);
+    }
+
+    /**
+     * Deletes every transaction imported by a file upload, e.g. after an import was aborted
+     * midway with some batches already committed.
+     * Rows are removed in chunks of the import batch size, each with its own change event in
+     * a database transaction of its own, so uploads of any size are removed with bounded
+     * memory and a failure keeps the chunks already removed consistent with the derived
+     * stores. Clients may already have synced some rows, so each leaves a sync tombstone.
+     *
+     * @param user         The owner of the upload
+     * @param fileUploadId The upload whose transactions are removed
+     * @return The number of deleted transactions
+     */
+    public int deleteImportedTransactions(User user, Long fileUploadId) {
+        int total = 0;
+        long afterId = 0;
+        List<Transaction> removed;
+        do {
+            long from = afterId;
+            removed = Objects.requireNonNull(transactionTemplate.execute(status -> {
+                List<Transaction> chunk = transactionBatchRepository.findByFileUpload(user, fileUploadId, from,
+                        chunkSize);
+                if (!chunk.isEmpty()) {
+                    eventPublisher.publishEvent(new TransactionChangeEvent(user, chunk, List.of()));
+                    transactionBatchRepository.deleteAll(user.getId(), chunk.stream().map(Transaction::getId).toList());
+                    resourceVersionService.bump(user.getId(), VersionedResource.TRANSACTIONS);
+                }
+                return chunk;
+            }));
+            total += removed.size();
+            if (!removed.isEmpty()) {
+                afterId = removed.get(removed.size() - 1).getId();
+            }
+        } while (removed.size() == chunkSize);
+        return total;
     }
 
     /**
-     * Retrieves all transactions for a specific user.
+     * Retrieves all transactions for a specific user, including archived history.
      * Results are ordered by transaction date in descending order.
      *
      * @param username The username of the user
@@ -45,12 +154,37 @@ public class TransactionService {
     @Transactional(readOnly = true)
     public List<Transaction> getUserTransactions(String username) {
         User user = userService.getCurrentUser(username);
-        return transactionRepository.findByUserOrderByTransactionDateDesc(user);
+        List<Transaction> transactions = transactionRepository.findByUserOrderByTransactionDateDesc(user);
+        return withArchived(transactions, user, null, null);
+    }
+
+    /**
+     * Retrieves the transactions of a user within an inclusive date range.
+     * Either bound may be null, in which case the range is open on that side.
+     * The archive is only read when the range starts before the archival horizon.
+     *
+     * @param username The username of the user
+     * @param from     First transaction date to include, or null
+     * @param to       Last transaction date to include, or null
+     * @return List of transactions belonging to the user, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<Transaction> getUserTransactions(String username, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return getUserTransactions(username);
+        }
+        User user = userService.getCurrentUser(username);
+        List<Transaction> transactions = transactionRepository.findByUserAndTransactionDateBetweenOrderByTransactionDateDesc(
+                user,
+                from != null ? from : LocalDate.of(1900, 1, 1),
+                to != null ? to : LocalDate.of(9999, 12, 31));
+        return withArchived(transactions, user, from, to);
     }
 
     /**
-     * Retrieves a specific transaction by ID for a user.
-     * Ensures that users can only access their own transactions.
+     * Retrieves a specific transaction by ID for a user, falling back to the archive.
+     * Ensures that users can only access their own transactions. An archived transaction is
+     * returned as a detached copy that cannot be saved or deleted.
      *
      * @param transactionId The ID of the transaction to retrieve
      * @param username     The username of the requesting user
@@ -61,20 +195,54 @@ public class TransactionService {
     public Transaction getTransactionById(Long transactionId, String username) {
         User user = userService.getCurrentUser(username);
         return transactionRepository.findByIdAndUser(transactionId, user)
+            .or(() -> transactionArchiveService.getArchivedTransactions(user, List.of(transactionId)).stream()
+                    .findFirst())
             .orElseThrow(() -> new RuntimeException("Transaction not found or access denied"));
     }
 
     /**
-     * Deletes a specific transaction.
+     * Deletes a specific transaction and leaves a tombstone for delta sync.
      * Ensures that users can only delete their own transactions.
      *
      * @param transactionId The ID of the transaction to delete
      * @param username     The username of the requesting user
-     * @throws RuntimeException if the transaction is not found or user doesn't have access
+     * @throws RuntimeException if the transaction is not found, is archived or user doesn't have access
      */
     @Transactional
     public void deleteTransaction(Long transactionId, String username) {
-        Transaction transaction = getTransactionById(transactionId, username);
-        transactionRepository.delete(transaction);
+        User user = userService.getCurrentUser(username);
+        // Locked, so the removed version is the one a concurrent edit may just have committed
+        List<Transaction> removed = List.copyOf(
+                transactionBatchRepository.findByIds(user, List.of(transactionId)).values());
+        if (removed.isEmpty()) {
+            throw notChangeable(user, transactionId);
+        }
+        eventPublisher.publishEvent(new TransactionChangeEvent(user, removed, List.of()));
+        transactionRepository.deleteById(transactionId);
+        syncTombstoneRepository.save(new SyncTombstone(user.getId(), SyncEntityType.TRANSACTION, transactionId));
+        resourceVersionService.bump(user.getId(), VersionedResource.TRANSACTIONS);
+    }
+
+    // A transaction that is not in the hot table is either archived, and so read-only, or unknown
+    private RuntimeException notChangeable(User user, Long transactionId) {
+        return transactionArchiveService.getArchivedIds(user, List.of(transactionId)).isEmpty()
+                ? new RuntimeException("Transaction not found or access denied")
+                : new RuntimeException(TransactionArchiveService.ARCHIVED_MESSAGE);
+    }
+
+    // Merges archived rows into a hot-table result when the requested range reaches the archive
+    private List<Transaction> withArchived(List<Transaction> transactions, User user, LocalDate from, LocalDate to) {
+        if (!transactionArchiveService.reachesArchive(from)) {
+            return transactions;
+        }
+        List<Transaction> archived = transactionArchiveService.getArchivedTransactions(user, from, to);
+        if (archived.isEmpty()) {
+            return transactions;
+        }
+        List<Transaction> merged = new ArrayList<>(transactions.size() + archived.size());
+        merged.addAll(transactions);
+        merged.addAll(archived);
+        merged.sort(Comparator.comparing(Transaction::getTransactionDate).reversed());
+        return merged;
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.Category;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.CategoryRepository;
+import com.codeyantratech.financeanalyzer.repository.TransactionSummaryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service class responsible for income and expense summaries in the user's currency.
+ * The database sums transactions per currency and day; each of those sums is converted
+ * with the in-memory exchange rates, so the cost does not grow with the number of
+ * transactions per day and no rate is read from the database.
+ */
+@Service
+public class TransactionSummaryService {
+
+    @Autowired
+    private TransactionSummaryRepository transactionSummaryRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Totals of a date range, overall and per category (null category for uncategorized).
+     * Amounts that cannot be converted for lack of exchange rates are left out of them and
+     * reported per currency in unconverted.
+     */
+    public record Summary(String currency, BigDecimal income, BigDecimal expense, List<CategoryTotal> categories,
+                          List<CurrencyTotal> unconverted) {
+    }
+
+    public record CategoryTotal(Category category, BigDecimal income, BigDecimal expense) {
+    }
+
+    public record CurrencyTotal(String currency, BigDecimal income, BigDecimal expense) {
+    }
+
+    /**
+     * Summarizes the transactions of a user within an inclusive date range, converted to the
+     * user's currency with the rate of each transaction's date.
+     * Either bound may be null, in which case the range is open on that side.
+     */
+    @Transactional(readOnly = true)
+    public Summary getSummary(String username, LocalDate from, LocalDate to) {
+        User user = userService.getCurrentUser(username);
+        String currency = exchangeRateService.currencyOf(user);
+
+        // Per category id: [income, expense]
+        Map<Long, BigDecimal[]> totals = new HashMap<>();
+        // Per currency without a rate on the day: [income, expense]
+        Map<String, BigDecimal[]> unconverted = new TreeMap<>();
+        transactionSummaryRepository.sumByDay(user.getId(),
+                from != null ? from : LocalDate.of(1900, 1, 1),
+                to != null ? to : LocalDate.of(9999, 12, 31),
+                transactionArchiveService.reachesArchive(from),
+                sum -> {
+                    if (sum.type() == null) {
+                        return;
+                    }
+                    int slot = sum.type() == TransactionType.INCOME ? 0 : 1;
+                    if (!exchangeRateService.canConvert(sum.currency(), currency, sum.date())) {
+                        BigDecimal[] raw = unconverted.computeIfAbsent(sum.currency(),
+                                c -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+                        raw[slot] = raw[slot].add(sum.amount());
+                        return;
+                    }
+                    BigDecimal amount = exchangeRateService.convert(sum.amount(), sum.currency(), currency, sum.date());
+                    BigDecimal[] category = totals.computeIfAbsent(sum.categoryId(),
+                            id -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+                    category[slot] = category[slot].add(amount);
+                });
+
+        Map<Long, Category> categories = categoryRepository.findAllById(
+                        totals.keySet().stream().filter(Objects::nonNull).toList()).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        BigDecimal income = BigDecimal.ZERO;
+        BigDecimal expense = BigDecimal.ZERO;
+        for (BigDecimal[] category : totals.values()) {
+            income = income.add(category[0]);
+            expense = expense.add(category[1]);
+        }
+        List<CategoryTotal> byCategory = totals.entrySet().stream()
+                .map(e -> new CategoryTotal(e.getKey() != null ? categories.get(e.getKey()) : null,
+                        e.getValue()[0], e.getValue()[1]))
+                .sorted(Comparator.comparing(CategoryTotal::expense).reversed())
+                .toList();
+        List<CurrencyTotal> byCurrency = unconverted.entrySet().stream()
+                .map(e -> new CurrencyTotal(e.getKey(), e.getValue()[0], e.getValue()[1]))
+                .toList();
+        return new Summary(currency, income, expense, byCategory, byCurrency);
+    }
+}
@@ -2,10 +2,14 @@ package com.codeyantratech.financeanalyzer.service;
 
 import com.codeyantratech.financeanalyzer.dto.UserProfileRequest;
 import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.BudgetTotalRepository;
+import com.codeyantratech.financeanalyzer.repository.CashFlowRepository;
 import com.codeyantratech.financeanalyzer.repository.UserRepository;
+import com.codeyantratech.financeanalyzer.security.UserDetailsCache;
 import com.codeyantratech.financeanalyzer.security.UserPrincipal;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -13,6 +17,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -30,6 +35,19 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private BudgetTotalRepository budgetTotalRepository;
+
+    @Autowired
+    private CashFlowRepository cashFlowRepository;
+
+    // Users granted ROLE_ADMIN
+    @Value("${app.admin.usernames:}")
+    private List<String> adminUsernames;
+
     /**
      * Loads a user by username for Spring Security authentication.
      * Required by UserDetailsService interface.
@@ -44,7 +62,7 @@ public class UserService implements UserDetailsService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
-        return UserPrincipal.create(user);
+        return UserPrincipal.create(user, adminUsernames.contains(user.getUsername()));
     }
 
     /**
@@ -147,6 +165,7 @@ public class UserService implements UserDetailsService {
      */
     @Transactional
     public User updateUser(User user) {
+        userDetailsCache.evict(user.getUsername());
         return userRepository.save(user);
     }
 
@@ -157,6 +176,7 @@ public class UserService implements UserDetailsService {
      */
     @Transactional
     public void deleteUser(Long userId) {
+        userRepository.findById(userId).ifPresent(user -> userDetailsCache.evict(user.getUsername()));
         userRepository.deleteById(userId);
         log.info("User deleted with id: {}", userId);
     }
@@ -196,6 +216,7 @@ public class UserService implements UserDetailsService {
 
         // Update password
         user.setPassword(passwordEncoder.encode(newPassword));
+        userDetailsCache.evict(username);
         return userRepository.save(user);
     }
 
@@ -223,6 +244,7 @@ public class UserService implements UserDetailsService {
         user.setLastName(lastName);
         user.setEmail(email);
 
+        userDetailsCache.evict(username);
         return userRepository.save(user);
     }
 
@@ -245,6 +267,11 @@ public class UserService implements UserDetailsService {
             user.setAutoCategorizationEnabled(request.getAutoCategorizationEnabled());
         }
         if (request.getPreferredCurrency() != null) {
+            if (!request.getPreferredCurrency().equals(user.getPreferredCurrency())) {
+                // Budget totals and cash flows keep amounts without a currency under the preferred one
+                budgetTotalRepository.deleteByUser(user.getId());
+                cashFlowRepository.deleteByUser(user.getId());
+            }
             user.setPreferredCurrency(request.getPreferredCurrency());
         }
         if (request.getNotificationEmailEnabled() != null) {
@@ -260,6 +287,7 @@ public class UserService implements UserDetailsService {
             user.setLastName(request.getLastName());
         }
 
+        userDetailsCache.evict(username);
         return userRepository.save(user);
     }
 }
@@ -0,0 +1,89 @@
+-- One-off migration: converts the transactions table into a table partitioned by
+-- transaction_date (monthly ranges). Run it during a maintenance window with the
+-- application stopped. Afterwards TransactionPartitionService keeps creating
+-- partitions ahead of time and detaches the ones past retention.
+--
+-- The primary key of a partitioned table must contain the partition key, so it
+-- becomes (id, transaction_date). The JPA mapping keeps id as the entity identifier;
+-- ids stay unique because they still come from a single sequence.
+
+BEGIN;
+
+-- Move the names Hibernate gave the plain table's objects out of the way: its identity
+-- sequence (dropped with the identity), primary key and indexes would collide with the new ones
+ALTER TABLE transactions RENAME TO transactions_legacy;
+ALTER TABLE transactions_legacy ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE transactions_legacy RENAME CONSTRAINT transactions_pkey TO transactions_legacy_pkey;
+ALTER INDEX IF EXISTS idx_transactions_user_date RENAME TO idx_transactions_legacy_user_date;
+ALTER INDEX IF EXISTS idx_transactions_user_updated RENAME TO idx_transactions_legacy_user_updated;
+ALTER INDEX IF EXISTS idx_transactions_description_fts RENAME TO idx_transactions_legacy_description_fts;
+
+CREATE SEQUENCE transactions_id_seq AS bigint;
+SELECT setval('transactions_id_seq', COALESCE((SELECT MAX(id) FROM transactions_legacy), 0) + 1, false);
+
+CREATE TABLE transactions (
+    id               bigint        NOT NULL DEFAULT nextval('transactions_id_seq'),
+    created_at       timestamp(6),
+    updated_at       timestamp(6),
+    amount           numeric(12,2) NOT NULL,
+    anomaly          boolean,
+    currency         varchar(10),
+    description      text,
+    file_upload_id   bigint,
+    source           varchar(20),
+    transaction_date date          NOT NULL,
+    transaction_type varchar(10),
+    category_id      bigint REFERENCES categories (id),
+    user_id          bigint        NOT NULL REFERENCES users (id),
+    PRIMARY KEY (id, transaction_date)
+) PARTITION BY RANGE (transaction_date);
+
+ALTER SEQUENCE transactions_id_seq OWNED BY transactions.id;
+
+CREATE INDEX idx_transactions_user_date ON transactions (user_id, transaction_date);
+CREATE INDEX idx_transactions_user_updated ON transactions (user_id, updated_at);
+-- Search index, see db/search/transaction_search_indexes.sql; partitions inherit it
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+CREATE INDEX idx_transactions_description_fts ON transactions
+    USING GIN (user_id, to_tsvector('simple', coalesce(description, '')));
+
+-- Catches rows outside every explicit range (e.g. imports with very old dates)
+CREATE TABLE transactions_default PARTITION OF transactions DEFAULT;
+
+-- One partition per month that has data, plus the next three months
+DO $$
+DECLARE
+    month_start date;
+    last_month  date;
+BEGIN
+    SELECT date_trunc('month', MIN(transaction_date))::date,
+           GREATEST(date_trunc('month', MAX(transaction_date))::date,
+                    date_trunc('month', CURRENT_DATE)::date) + INTERVAL '3 months'
+      INTO month_start, last_month
+      FROM transactions_legacy;
+
+    IF month_start IS NULL THEN
+        month_start := date_trunc('month', CURRENT_DATE)::date;
+        last_month := month_start + INTERVAL '3 months';
+    END IF;
+
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                       'transactions_p' || to_char(month_start, 'YYYY_MM'),
+                       month_start, (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO transactions (id, created_at, updated_at, amount, anomaly, currency, description,
+                          file_upload_id, source, transaction_date, transaction_type, category_id, user_id)
+SELECT id, created_at, updated_at, amount, anomaly, currency, description,
+       file_upload_id, source, transaction_date, transaction_type, category_id, user_id
+  FROM transactions_legacy;
+
+COMMIT;
+
+ANALYZE transactions;
+
+-- Once the new table has been verified:
+-- DROP TABLE transactions_legacy;
@@ -0,0 +1,21 @@
+-- Migration: GIN indexes backing GET /api/transactions/search. Safe to run against a live
+-- database: every index is built CONCURRENTLY, so inserts are never blocked while it builds.
+-- Run it with autocommit on (psql's default), since CREATE INDEX CONCURRENTLY cannot run
+-- inside a transaction block. Re-running it is a no-op.
+--
+-- btree_gin lets the indexes lead with user_id, so a search only touches the posting
+-- lists of one user. The expression must stay identical to the one in
+-- TransactionRepository, or the planner will not use the index.
+--
+-- A build that fails or is cancelled leaves an INVALID index behind, which IF NOT EXISTS
+-- then skips: drop it (DROP INDEX CONCURRENTLY ...) and run the script again.
+
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+-- On a partitioned transactions table this index is created by
+-- db/partitioning/partition_transactions.sql instead; CONCURRENTLY is not supported there.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_description_fts
+    ON transactions USING GIN (user_id, to_tsvector('simple', coalesce(description, '')));
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_archive_description_fts
+    ON transactions_archive USING GIN (user_id, to_tsvector('simple', coalesce(description, '')));
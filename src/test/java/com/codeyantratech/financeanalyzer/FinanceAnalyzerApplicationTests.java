@@ -1,9 +1,12 @@
 package com.codeyantratech.financeanalyzer;
 
+import com.codeyantratech.financeanalyzer.support.EmbeddedPostgresTestConfiguration;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 
 @SpringBootTest
+@Import(EmbeddedPostgresTestConfiguration.class)
 class FinanceAnalyzerApplicationTests {
 
 	@Test
@@ -0,0 +1,45 @@
+package com.codeyantratech.financeanalyzer.controller;
+
+import com.codeyantratech.financeanalyzer.support.EmbeddedPostgresTestConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Checks that health and metrics scrapes need no authentication on the management port, and
+ * that Actuator is not served on the application port.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "management.server.port=" + ActuatorSecurityTest.MANAGEMENT_PORT)
+@AutoConfigureObservability
+@Import(EmbeddedPostgresTestConfiguration.class)
+class ActuatorSecurityTest {
+
+    static final int MANAGEMENT_PORT = 18081;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void scrapesAreOpenOnTheManagementPortOnly() {
+        assertEquals(200, status(MANAGEMENT_PORT, "/actuator/prometheus"));
+        // Up or down depends on the indicators of the test context, but it is not refused
+        assertNotEquals(403, status(MANAGEMENT_PORT, "/actuator/health"));
+        assertEquals(403, status(MANAGEMENT_PORT, "/actuator/metrics"));
+        assertEquals(403, status(port, "/actuator/prometheus"));
+    }
+
+    private int status(int port, String path) {
+        return restTemplate.getForEntity("http://localhost:" + port + path, String.class).getStatusCode().value();
+    }
+}
@@ -0,0 +1,125 @@
+package com.codeyantratech.financeanalyzer.controller;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.FileUpload;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.FileUploadRepository;
+import com.codeyantratech.financeanalyzer.repository.TransactionRepository;
+import com.codeyantratech.financeanalyzer.security.UserPrincipal;
+import com.codeyantratech.financeanalyzer.service.TransactionArchiveService;
+import com.codeyantratech.financeanalyzer.service.UserService;
+import com.codeyantratech.financeanalyzer.support.EmbeddedPostgresTestConfiguration;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Builds an admin report over users spread across several id ranges and checks that the
+ * merged volumes (including archived transactions) and import counts include all of them,
+ * and that non-admins are refused.
+ */
+@SpringBootTest(properties = {"app.admin.reports.partition-size=1", "app.admin.reports.partition-delay-ms=0"})
+@AutoConfigureMockMvc
+@Import(EmbeddedPostgresTestConfiguration.class)
+class AdminReportControllerTest {
+
+    // Only the transactions of this test use it, so its totals are exact
+    private static final String CURRENCY = "CHF";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private FileUploadRepository fileUploadRepository;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @Test
+    void mergesRangesAndRequiresAdmin() throws Exception {
+        User first = userService.createUser("report_user_1", "report_user_1@example.com", "password", "Report", "One");
+        User second = userService.createUser("report_user_2", "report_user_2@example.com", "password", "Report", "Two");
+        YearMonth archived = YearMonth.now().minusYears(2);
+        save(first, "10.00", TransactionType.EXPENSE, LocalDate.now());
+        save(first, "100.00", TransactionType.INCOME, LocalDate.now());
+        save(second, "5.50", TransactionType.EXPENSE, LocalDate.now());
+        save(second, "7.25", TransactionType.EXPENSE, archived.atDay(15));
+        transactionArchiveService.archiveOldTransactions();
+        upload(first, "SUCCESS");
+        upload(second, "FAILED");
+
+        mockMvc.perform(get("/api/admin/reports").with(user(UserPrincipal.create(first))))
+                .andExpect(status().isForbidden());
+
+        // The range starts before the archive horizon, so it reads both tables
+        String body = mockMvc.perform(get("/api/admin/reports").param("from", archived.toString())
+                        .with(user(UserPrincipal.create(second, true))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode report = objectMapper.readTree(body);
+        JsonNode month = month(report, YearMonth.now());
+        assertTrue(month.get("activeUsers").asLong() >= 2);
+        JsonNode volume = volume(month);
+        assertEquals(0, new BigDecimal("15.50").compareTo(volume.get("expenses").decimalValue()));
+        assertEquals(0, new BigDecimal("100.00").compareTo(volume.get("incomes").decimalValue()));
+        assertEquals(0, new BigDecimal("7.25").compareTo(volume(month(report, archived)).get("expenses").decimalValue()));
+        assertTrue(report.get("imports").get("byStatus").get("SUCCESS").asLong() >= 1);
+        assertTrue(report.get("imports").get("byStatus").get("FAILED").asLong() >= 1);
+        assertTrue(report.get("registeredUsers").asLong() >= 2);
+    }
+
+    private static JsonNode month(JsonNode report, YearMonth month) {
+        for (JsonNode m : report.get("months")) {
+            if (m.get("month").asText().equals(month.toString())) {
+                return m;
+            }
+        }
+        throw new AssertionError("No entry for " + month);
+    }
+
+    private static JsonNode volume(JsonNode month) {
+        for (JsonNode v : month.get("volumes")) {
+            if (v.get("currency").asText().equals(CURRENCY)) {
+                return v;
+            }
+        }
+        throw new AssertionError("No " + CURRENCY + " volume in " + month.get("month").asText());
+    }
+
+    private void save(User user, String amount, TransactionType type, LocalDate date) {
+        Transaction transaction = new Transaction(user, new BigDecimal(amount), "Report", date, type);
+        transaction.setCurrency(CURRENCY);
+        transactionRepository.save(transaction);
+    }
+
+    private void upload(User user, String status) {
+        FileUpload upload = new FileUpload(user, "statement.csv", 100L);
+        upload.setStatus(status);
+        fileUploadRepository.save(upload);
+    }
+}
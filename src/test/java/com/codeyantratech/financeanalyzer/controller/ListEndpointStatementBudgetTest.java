@@ -0,0 +1,185 @@
+package com.codeyantratech.financeanalyzer.controller;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.Category;
+import com.codeyantratech.financeanalyzer.model.FileUpload;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.CategoryRepository;
+import com.codeyantratech.financeanalyzer.repository.FileUploadRepository;
+import com.codeyantratech.financeanalyzer.repository.TransactionRepository;
+import com.codeyantratech.financeanalyzer.security.UserPrincipal;
+import com.codeyantratech.financeanalyzer.service.CategoryService;
+import com.codeyantratech.financeanalyzer.service.ResourceVersionService;
+import com.codeyantratech.financeanalyzer.service.UserService;
+import com.codeyantratech.financeanalyzer.support.EmbeddedPostgresTestConfiguration;
+import com.codeyantratech.financeanalyzer.support.SqlStatementRecorder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the number of SQL statements each list endpoint may issue per request.
+ * A budget is exceeded as soon as a lazy association is loaded per row (N+1).
+ * Conditional requests for unchanged lists must not query at all.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(EmbeddedPostgresTestConfiguration.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListEndpointStatementBudgetTest {
+
+    private static final String USERNAME = "statement_budget_user";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlStatementRecorder sqlStatementRecorder;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private FileUploadRepository fileUploadRepository;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    private UserPrincipal principal;
+
+    @BeforeAll
+    void seed() {
+        User user = userService.findByUsername(USERNAME).orElseGet(() -> {
+            User created = userService.createUser(USERNAME, USERNAME + "@example.com", "password", "Budget", "User");
+            categoryService.createDefaultCategoriesForUser(created);
+            List<Category> categories = categoryRepository.findByUserOrderByNameAsc(created);
+
+            // Spread transactions over every category so per-row category loading would show up
+            List<Transaction> transactions = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                Transaction transaction = new Transaction(created, BigDecimal.valueOf(10 + i), "Purchase " + i,
+                        LocalDate.now().minusDays(i), TransactionType.EXPENSE);
+                transaction.setCategory(categories.get(i % categories.size()));
+                transactions.add(transaction);
+            }
+            transactionRepository.saveAll(transactions);
+            fileUploadRepository.save(new FileUpload(created, "january.csv", 1024L));
+            fileUploadRepository.save(new FileUpload(created, "february.csv", 2048L));
+            return created;
+        });
+        principal = UserPrincipal.create(user);
+        // The first request of a user on an instance also loads its list versions, once
+        resourceVersionService.etag(user.getId());
+    }
+
+    @Test
+    void transactionListStaysWithinBudget() throws Exception {
+        // user lookup, transactions with their categories, archive fall-through
+        assertStatementBudget("/api/transactions", 3);
+    }
+
+    @Test
+    void categoryListStaysWithinBudget() throws Exception {
+        // user lookup, categories
+        assertStatementBudget("/api/categories", 2);
+    }
+
+    @Test
+    void fileListStaysWithinBudget() throws Exception {
+        // user lookup, file uploads
+        assertStatementBudget("/api/files", 2);
+    }
+
+    @Test
+    void unchangedListsAreRevalidatedWithoutQueries() throws Exception {
+        for (String path : List.of("/api/transactions", "/api/categories", "/api/files")) {
+            String etag = mockMvc.perform(get(path).with(user(principal)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            assertNotNull(etag, "No ETag on " + path);
+
+            sqlStatementRecorder.start();
+            List<SqlStatementRecorder.RecordedStatement> statements;
+            try {
+                mockMvc.perform(get(path).with(user(principal)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                        .andExpect(status().isNotModified());
+            } finally {
+                statements = sqlStatementRecorder.stop();
+            }
+            assertEquals(List.of(), statements, "Conditional GET " + path + " touched the database");
+        }
+
+        // A category rename changes the category names in the transaction list
+        String etag = mockMvc.perform(get("/api/transactions").with(user(principal)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Category category = categoryService.getUserCategories(USERNAME).get(0);
+        categoryService.updateCategory(category.getId(), category.getName() + " (renamed)", category.getDescription(),
+                category.getColor(), USERNAME);
+        mockMvc.perform(get("/api/transactions").with(user(principal)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void compactTransactionListIsNegotiatedByAccept() throws Exception {
+        MockHttpServletResponse json = mockMvc.perform(get("/api/transactions").with(user(principal)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertTrue(json.getContentType().startsWith(MediaType.APPLICATION_JSON_VALUE), json.getContentType());
+
+        MockHttpServletResponse cbor = mockMvc.perform(get("/api/transactions").with(user(principal))
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertNotEquals(json.getHeader(HttpHeaders.ETAG), cbor.getHeader(HttpHeaders.ETAG));
+        JsonNode compact = new CBORMapper().readTree(cbor.getContentAsByteArray());
+        assertEquals(40, compact.get("transactions").size());
+        assertTrue(compact.get("categoryNames").size() > 1);
+        assertTrue(cbor.getContentAsByteArray().length < json.getContentAsByteArray().length / 2,
+                "CBOR " + cbor.getContentAsByteArray().length + " bytes, JSON " + json.getContentAsByteArray().length);
+    }
+
+    private void assertStatementBudget(String path, int budget) throws Exception {
+        sqlStatementRecorder.start();
+        List<SqlStatementRecorder.RecordedStatement> statements;
+        try {
+            mockMvc.perform(get(path).with(user(principal))).andExpect(status().isOk());
+        } finally {
+            statements = sqlStatementRecorder.stop();
+        }
+        assertTrue(statements.size() <= budget, "GET " + path + " issued " + statements.size() +
+                " statements, budget is " + budget + ":" + SqlStatementRecorder.describe(statements));
+    }
+}
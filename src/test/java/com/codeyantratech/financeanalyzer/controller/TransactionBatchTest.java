@@ -0,0 +1,132 @@
+package com.codeyantratech.financeanalyzer.controller;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.Category;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.CategoryRepository;
+import com.codeyantratech.financeanalyzer.repository.TransactionRepository;
+import com.codeyantratech.financeanalyzer.security.UserPrincipal;
+import com.codeyantratech.financeanalyzer.service.CategoryService;
+import com.codeyantratech.financeanalyzer.service.UserService;
+import com.codeyantratech.financeanalyzer.support.EmbeddedPostgresTestConfiguration;
+import com.codeyantratech.financeanalyzer.support.SqlStatementRecorder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that a sync batch is applied with a fixed number of statements and that
+ * resending it replays the original results instead of applying it twice.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(EmbeddedPostgresTestConfiguration.class)
+class TransactionBatchTest {
+
+    private static final String USERNAME = "batch_sync_user";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SqlStatementRecorder sqlStatementRecorder;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void appliesBatchWithFixedStatementCountAndReplaysRetries() throws Exception {
+        User user = userService.createUser(USERNAME, USERNAME + "@example.com", "password", "Batch", "User");
+        categoryService.createDefaultCategoriesForUser(user);
+        Category category = categoryRepository.findByUserOrderByNameAsc(user).get(0);
+        Transaction toUpdate = transactionRepository.save(new Transaction(user, BigDecimal.TEN, "Old",
+                LocalDate.now(), TransactionType.EXPENSE));
+        Transaction toDelete = transactionRepository.save(new Transaction(user, BigDecimal.ONE, "Gone",
+                LocalDate.now(), TransactionType.EXPENSE));
+
+        List<Map<String, Object>> operations = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            operations.add(Map.of("idempotencyKey", "create-" + i, "action", "CREATE",
+                    "transaction", transaction("Offline " + i, category.getId())));
+        }
+        operations.add(Map.of("idempotencyKey", "update", "action", "UPDATE", "id", toUpdate.getId(),
+                "transaction", transaction("Edited", category.getId())));
+        operations.add(Map.of("idempotencyKey", "delete", "action", "DELETE", "id", toDelete.getId()));
+        operations.add(Map.of("idempotencyKey", "foreign", "action", "DELETE", "id", Long.MAX_VALUE));
+        String body = objectMapper.writeValueAsString(Map.of("operations", operations));
+        UserPrincipal principal = UserPrincipal.create(user);
+
+        sqlStatementRecorder.start();
+        JsonNode first;
+        List<SqlStatementRecorder.RecordedStatement> statements;
+        try {
+            first = postBatch(body, principal);
+        } finally {
+            statements = sqlStatementRecorder.stop();
+        }
+        // user, known keys, owned transactions, archived ids among the unknown ones (the foreign
+        // delete), owned categories, id allocation, budget month
+        // upsert and its first-time seed (sum and currency total batch), cash-flow version upsert
+        // and its first-time seed (sums over both tables, balance and day batches), merchant
+        // sketch lock and its first-time seed and update batch, spending statistics read and
+        // upsert batch, insert, update and delete batches, key batch, list version bump
+        assertTrue(statements.size() <= 24, "Batch issued " + statements.size() + " statements:" +
+                SqlStatementRecorder.describe(statements));
+        assertEquals("APPLIED", first.get(0).get("status").asText());
+        assertEquals("REJECTED", first.get(52).get("status").asText());
+        assertEquals("Edited", transactionRepository.findById(toUpdate.getId()).orElseThrow().getDescription());
+        assertFalse(transactionRepository.existsById(toDelete.getId()));
+
+        JsonNode retry = postBatch(body, principal);
+        for (int i = 0; i < 52; i++) {
+            assertEquals("REPLAYED", retry.get(i).get("status").asText());
+            assertEquals(first.get(i).get("transactionId"), retry.get(i).get("transactionId"));
+        }
+        assertEquals(51, transactionRepository.findByUserOrderByTransactionDateDesc(user).size());
+    }
+
+    private static Map<String, Object> transaction(String description, Long categoryId) {
+        return Map.of("amount", "12.34", "transactionDate", LocalDate.now().toString(),
+                "transactionType", "EXPENSE", "description", description, "categoryId", categoryId);
+    }
+
+    private JsonNode postBatch(String body, UserPrincipal principal) throws Exception {
+        String response = mockMvc.perform(post("/api/transactions/batch").with(user(principal))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("data");
+    }
+}
@@ -0,0 +1,123 @@
+package com.codeyantratech.financeanalyzer.repository;
+
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.service.UserService;
+import com.codeyantratech.financeanalyzer.support.EmbeddedPostgresTestConfiguration;
+import com.codeyantratech.financeanalyzer.support.QueryPlanInspector;
+import com.codeyantratech.financeanalyzer.support.SqlStatementRecorder;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Captures the SQL of the key TransactionRepository queries and checks their plans.
+ * Fails when a query can only be answered by sequentially scanning transactions,
+ * i.e. when the index it relies on was dropped or no longer matches the query.
+ */
+@SpringBootTest
+@Import(EmbeddedPostgresTestConfiguration.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransactionQueryPlanTest {
+
+    private static final String USERNAME = "query_plan_user";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SqlStatementRecorder sqlStatementRecorder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private User user;
+
+    @BeforeAll
+    void seed() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/search/transaction_search_indexes.sql")).execute(dataSource);
+        user = userService.findByUsername(USERNAME).orElseGet(() -> {
+            User created = userService.createUser(USERNAME, USERNAME + "@example.com", "password", "Plan", "User");
+            jdbcTemplate.update("INSERT INTO transactions (user_id, amount, description, transaction_date, " +
+                    "transaction_type, source, created_at, updated_at) " +
+                    "SELECT ?, 10 + i % 90, 'Merchant ' || (i % 50), CURRENT_DATE - (i % 400), 'EXPENSE', 'MANUAL', now(), now() " +
+                    "FROM generate_series(1, 2000) AS i", created.getId());
+            jdbcTemplate.execute("ANALYZE transactions");
+            return created;
+        });
+    }
+
+    @Test
+    void listByUserUsesIndex() throws Exception {
+        assertNoSequentialScan(() -> transactionRepository.findByUserOrderByTransactionDateDesc(user));
+    }
+
+    @Test
+    void listByUserAndDateRangeUsesIndex() throws Exception {
+        assertNoSequentialScan(() -> transactionRepository.findByUserAndTransactionDateBetweenOrderByTransactionDateDesc(
+                user, LocalDate.now().minusDays(30), LocalDate.now()));
+    }
+
+    @Test
+    void findByIdAndUserUsesIndex() throws Exception {
+        assertNoSequentialScan(() -> transactionRepository.findByIdAndUser(1L, user));
+    }
+
+    @Test
+    void changedSinceWatermarkUsesIndex() throws Exception {
+        assertNoSequentialScan(() -> transactionRepository.findByUserAndUpdatedAtAfter(user, LocalDateTime.now().minusHours(1)));
+    }
+
+    @Test
+    void descriptionSearchUsesIndex() throws Exception {
+        assertNoSequentialScan(() -> transactionRepository.searchByDescription(user.getId(), "merchant:*", PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void descriptionSearchWithArchiveUsesIndex() throws Exception {
+        assertNoSequentialScan(() -> transactionRepository.searchByDescriptionWithArchive(user.getId(), "merchant:*",
+                PageRequest.of(0, 20)));
+    }
+
+    private void assertNoSequentialScan(Runnable query) throws Exception {
+        sqlStatementRecorder.start();
+        List<SqlStatementRecorder.RecordedStatement> statements;
+        try {
+            query.run();
+        } finally {
+            statements = sqlStatementRecorder.stop();
+        }
+        assertTrue(!statements.isEmpty(), "No SQL captured");
+
+        QueryPlanInspector inspector = new QueryPlanInspector(dataSource);
+        for (SqlStatementRecorder.RecordedStatement statement : statements) {
+            JsonNode plan = inspector.explain(statement);
+            List<String> scanned = inspector.sequentialScans(plan).stream()
+                    .filter(relation -> relation.equals("transactions") || relation.startsWith("transactions_p"))
+                    .toList();
+            assertEquals(List.of(), scanned, "Sequential scan on transactions for:\n  " + statement.sql() +
+                    "\nPlan: " + plan.toPrettyString());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.support.EmbeddedPostgresTestConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that an archived transaction can be read by id but not edited or deleted.
+ */
+@SpringBootTest
+@Import(EmbeddedPostgresTestConfiguration.class)
+class ArchivedTransactionTest {
+
+    private static final String USERNAME = "archived_user";
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void readsArchivedTransactionsByIdButRefusesChanges() {
+        User user = userService.createUser(USERNAME, USERNAME + "@example.com", "password", "Archived", "User");
+        Long id = jdbcTemplate.queryForObject("INSERT INTO transactions_archive (id, user_id, amount, description, " +
+                        "transaction_date, transaction_type, source, archived_at) " +
+                        "VALUES (nextval(pg_get_serial_sequence('transactions', 'id')), ?, 12.00, 'Old rent', ?, " +
+                        "'EXPENSE', 'MANUAL', now()) RETURNING id",
+                Long.class, user.getId(), java.sql.Date.valueOf(LocalDate.now().minusYears(3)));
+
+        Transaction archived = transactionService.getTransactionById(id, USERNAME);
+        assertEquals("Old rent", archived.getDescription());
+
+        archived.setAmount(new BigDecimal("15.00"));
+        RuntimeException edit = assertThrows(RuntimeException.class, () -> transactionService.saveTransaction(archived));
+        assertEquals(TransactionArchiveService.ARCHIVED_MESSAGE, edit.getMessage());
+        RuntimeException delete = assertThrows(RuntimeException.class,
+                () -> transactionService.deleteTransaction(id, USERNAME));
+        assertEquals(TransactionArchiveService.ARCHIVED_MESSAGE, delete.getMessage());
+        assertEquals(0, new BigDecimal("12.00").compareTo(transactionService.getTransactionById(id, USERNAME).getAmount()));
+    }
+}
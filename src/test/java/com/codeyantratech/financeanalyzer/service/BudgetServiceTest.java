@@ -0,0 +1,183 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.FileUpload;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.FileUploadRepository;
+import com.codeyantratech.financeanalyzer.repository.TransactionRepository;
+import com.codeyantratech.financeanalyzer.repository.UserRepository;
+import com.codeyantratech.financeanalyzer.support.EmbeddedPostgresTestConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that budget totals are seeded from existing transactions, follow creates, updates
+ * and deletes, raise each threshold once per crossing and stay exact under concurrent edits
+ * and the removal of large imports, and that writes never depend on exchange rates.
+ */
+@SpringBootTest
+@RecordApplicationEvents
+@Import(EmbeddedPostgresTestConfiguration.class)
+class BudgetServiceTest {
+
+    private static final String USERNAME = "budget_user";
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private FileUploadRepository fileUploadRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void tracksExpensesAndRaisesThresholds() {
+        User user = userService.createUser(USERNAME, USERNAME + "@example.com", "password", "Budget", "User");
+        user.setMonthlyBudgetLimit(new BigDecimal("100.00"));
+        user = userRepository.save(user);
+        // Written without an event, so it only counts through the seed
+        transactionRepository.save(expense(user, "40.00"));
+
+        transactionService.saveTransaction(expense(user, "15.00"));
+        Transaction large = transactionService.saveTransaction(expense(user, "30.00"));
+        Transaction income = new Transaction(user, new BigDecimal("500.00"), "Salary", LocalDate.now(),
+                TransactionType.INCOME);
+        transactionService.saveTransaction(income);
+        assertEquals(List.of(50, 80), thresholdsRaised());
+
+        large.setAmount(new BigDecimal("50.00"));
+        transactionService.saveTransaction(large);
+        assertEquals(List.of(50, 80, 100), thresholdsRaised());
+
+        transactionService.deleteTransaction(large.getId(), USERNAME);
+        BudgetService.BudgetStatus status = budgetService.getStatus(USERNAME);
+        assertEquals(0, new BigDecimal("55.00").compareTo(status.spent()));
+        assertEquals(0, new BigDecimal("45.00").compareTo(status.remaining()));
+        assertEquals(0, new BigDecimal("55.0").compareTo(status.percentUsed()));
+
+        // Falling below 80% re-arms it
+        transactionService.saveTransaction(expense(user, "30.00"));
+        assertEquals(List.of(50, 80, 100, 80), thresholdsRaised());
+    }
+
+    @Test
+    void acceptsExpensesWithoutExchangeRate() {
+        User user = userService.createUser("budget_rateless", "budget_rateless@example.com", "password", "Budget", "User");
+        user.setMonthlyBudgetLimit(new BigDecimal("100.00"));
+        user = userRepository.save(user);
+        transactionService.saveTransaction(expense(user, "20.00"));
+        // XTS is reserved for testing and has no rate; it is accepted while it is the preferred currency
+        user.setPreferredCurrency("XTS");
+        user = userRepository.save(user);
+        Transaction foreign = expense(user, "70.00");
+        foreign.setCurrency("XTS");
+        foreign = transactionService.saveTransaction(foreign);
+        user.setPreferredCurrency(null);
+        userRepository.save(user);
+
+        BudgetService.BudgetStatus status = budgetService.getStatus("budget_rateless");
+        assertEquals(0, new BigDecimal("20.00").compareTo(status.spent()));
+        assertEquals(0, new BigDecimal("70.00").compareTo(status.unconverted().get("XTS")));
+        transactionService.deleteTransaction(foreign.getId(), "budget_rateless");
+        status = budgetService.getStatus("budget_rateless");
+        assertEquals(0, new BigDecimal("20.00").compareTo(status.spent()));
+        assertTrue(status.unconverted().isEmpty());
+    }
+
+    @Test
+    void concurrentEditsOfOneTransactionCountOnce() throws Exception {
+        String username = "budget_concurrent";
+        User user = userService.createUser(username, username + "@example.com", "password", "Budget", "User");
+        Long id = transactionService.saveTransaction(expense(user, "30.00")).getId();
+
+        CountDownLatch updated = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            Transaction t = transactionService.getTransactionById(id, username);
+            t.setAmount(new BigDecimal("50.00"));
+            transactionService.saveTransaction(t);
+            updated.countDown();
+            // Keeps the row locked while the second edit starts
+            sleep(500);
+        }));
+        updated.await(10, TimeUnit.SECONDS);
+        Transaction second = transactionService.getTransactionById(id, username);
+        second.setAmount(new BigDecimal("70.00"));
+        transactionService.saveTransaction(second);
+        first.get(10, TimeUnit.SECONDS);
+
+        assertEquals(0, new BigDecimal("70.00").compareTo(budgetService.getStatus(username).spent()));
+    }
+
+    @Test
+    void removesImportedTransactionsInChunks() {
+        String username = "budget_import_cleanup";
+        User user = userService.createUser(username, username + "@example.com", "password", "Budget", "User");
+        Long uploadId = fileUploadRepository.save(new FileUpload(user, "aborted.csv", 1024L)).getId();
+        transactionService.saveTransaction(expense(user, "5.00"));
+        // More rows than one cleanup chunk (app.import.batch-size)
+        for (int batch = 0; batch < 3; batch++) {
+            List<Transaction> imported = new ArrayList<>();
+            for (int i = 0; i < 900; i++) {
+                Transaction t = expense(user, "1.00");
+                t.setFileUploadId(uploadId);
+                imported.add(t);
+            }
+            transactionService.saveImportedTransactions(imported);
+        }
+
+        assertEquals(2700, transactionService.deleteImportedTransactions(user, uploadId));
+        assertEquals(0, new BigDecimal("5.00").compareTo(budgetService.getStatus(username).spent()));
+        assertEquals(1, transactionRepository.findByUserOrderByTransactionDateDesc(user).size());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Transaction expense(User user, String amount) {
+        return new Transaction(user, new BigDecimal(amount), "Groceries", LocalDate.now(), TransactionType.EXPENSE);
+    }
+
+    private List<Integer> thresholdsRaised() {
+        return events.stream(BudgetThresholdEvent.class)
+                .map(BudgetThresholdEvent::getThresholdPercent)
+                .toList();
+    }
+}
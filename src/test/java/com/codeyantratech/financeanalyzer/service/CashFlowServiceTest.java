@@ -0,0 +1,74 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.dto.UserProfileRequest;
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.support.EmbeddedPostgresTestConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks that the daily series follows writes, that forecasts are cached until the next
+ * write, and that a dropped series is seeded again from the stored transactions.
+ * Past transactions lie before the lookback window, so no averages enter the projection.
+ */
+@SpringBootTest
+@Import(EmbeddedPostgresTestConfiguration.class)
+class CashFlowServiceTest {
+
+    private static final String USERNAME = "cashflow_user";
+
+    @Autowired
+    private CashFlowService cashFlowService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void projectsBalanceAndCachesUntilNextWrite() {
+        User user = userService.createUser(USERNAME, USERNAME + "@example.com", "password", "Cash", "Flow");
+        LocalDate today = LocalDate.now();
+        save(user, "1000.00", today.minusDays(400), TransactionType.INCOME);
+        save(user, "100.00", today.minusDays(400), TransactionType.EXPENSE);
+        // Scheduled for the future: part of the projection, not of the starting balance
+        save(user, "250.00", today.plusDays(10), TransactionType.EXPENSE);
+
+        CashFlowService.Forecast forecast = cashFlowService.getForecast(USERNAME);
+        assertEquals(90, forecast.days().size());
+        assertEquals(0, new BigDecimal("900").compareTo(forecast.startingBalance()));
+        assertEquals(0, new BigDecimal("-250").compareTo(forecast.days().get(9).netFlow()));
+        assertEquals(0, new BigDecimal("650").compareTo(forecast.days().get(89).balance()));
+        assertSame(forecast, cashFlowService.getForecast(USERNAME));
+
+        save(user, "50.00", today.minusDays(400), TransactionType.EXPENSE);
+        CashFlowService.Forecast updated = cashFlowService.getForecast(USERNAME);
+        assertNotSame(forecast, updated);
+        assertEquals(0, new BigDecimal("850").compareTo(updated.startingBalance()));
+
+        // Changing the currency drops the series; amounts without a currency are in the user's
+        UserProfileRequest request = new UserProfileRequest();
+        request.setPreferredCurrency("EUR");
+        userService.updateUserProfile(USERNAME, request);
+        CashFlowService.Forecast reseeded = cashFlowService.getForecast(USERNAME);
+        assertEquals("EUR", reseeded.currency());
+        assertEquals(0, new BigDecimal("850").compareTo(reseeded.startingBalance()));
+        assertEquals(0, new BigDecimal("600").compareTo(reseeded.days().get(89).balance()));
+    }
+
+    private void save(User user, String amount, LocalDate date, TransactionType type) {
+        transactionService.saveTransaction(new Transaction(user, new BigDecimal(amount), "Cash flow", date, type));
+    }
+}
@@ -0,0 +1,275 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.dto.ImportProfileRequest;
+import com.codeyantratech.financeanalyzer.model.FileUpload;
+import com.codeyantratech.financeanalyzer.model.ImportRejection;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.support.EmbeddedPostgresTestConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Imports statement files with valid and invalid rows through the batched write path and checks
+ * the stored transactions, the upload counts, the rejection report, CSV profile detection and
+ * the OFX, QIF, archive and chunked upload paths, that a failed import is recorded and that
+ * chunked uploads are limited per user.
+ */
+@SpringBootTest
+@Import(EmbeddedPostgresTestConfiguration.class)
+class FileImportTest {
+
+    private static final String USERNAME = "csv_import_user";
+    private static final String PROFILE_USERNAME = "csv_profile_user";
+    private static final String ARCHIVE_USERNAME = "archive_import_user";
+    private static final String CHUNKED_USERNAME = "chunked_import_user";
+    private static final String FAILED_USERNAME = "failed_import_user";
+    private static final String LONG_ERROR_USERNAME = "long_error_import_user";
+    private static final String LIMITED_USERNAME = "limited_upload_user";
+
+    @Autowired
+    private FileImportService fileImportService;
+
+    @Autowired
+    private FileUploadService fileUploadService;
+
+    @Autowired
+    private ImportProfileService importProfileService;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importsValidRowsAndReportsRejectedOnes() {
+        User user = userService.findByUsername(USERNAME).orElseGet(
+                () -> userService.createUser(USERNAME, USERNAME + "@example.com", "password", "Csv", "User"));
+        String csv = """
+                date,amount,type,description
+                2024-03-01,12.50,EXPENSE,Coffee
+                2024-02-30,10.00,EXPENSE,Bad date
+                2024-03-02,abc,EXPENSE,Bad amount
+                2024-03-03,2500.00,income,Salary
+                2024-03-04,5.00,TRANSFER,Bad type
+                2024-03-05,1.00
+                """;
+        fileImportService.importFile(new MockMultipartFile(
+                "file", "import.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)), USERNAME, null);
+
+        Integer stored = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM transactions WHERE user_id = ? AND source = 'CSV_UPLOAD'", Integer.class, user.getId());
+        assertEquals(2, stored);
+
+        FileUpload upload = fileUploadService.getUserFiles(USERNAME).get(0);
+        assertEquals(2, upload.getRecordsCount());
+        assertEquals(4, upload.getRejectedCount());
+
+        List<ImportRejection> rejections = fileUploadService.getRejections(upload.getId(), USERNAME);
+        assertEquals(List.of(3L, 4L, 6L, 7L), rejections.stream().map(ImportRejection::getRowNumber).toList());
+        assertEquals(List.of("date", "amount", "type"),
+                rejections.subList(0, 3).stream().map(ImportRejection::getColumnName).toList());
+    }
+
+    @Test
+    void recordsFailedImportAndNotifies() {
+        User user = userService.createUser(FAILED_USERNAME, FAILED_USERNAME + "@example.com", "password", "Csv", "User");
+        String csv = """
+                date,amount,type,description
+                2024-03-01,12.50,EXPENSE,Coffee
+                """;
+        // No such profile
+        assertThrows(RuntimeException.class, () -> fileImportService.importFile(new MockMultipartFile(
+                "file", "import.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)), FAILED_USERNAME, -1L));
+
+        FileUpload upload = fileUploadService.getUserFiles(FAILED_USERNAME).get(0);
+        assertEquals("FAILED", upload.getStatus());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM transactions WHERE user_id = ?", Integer.class, user.getId()));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM notification_outbox WHERE user_id = ? AND type = 'IMPORT_FINISHED'",
+                Integer.class, user.getId()));
+    }
+
+    @Test
+    void storesLongFailuresInBoundedFields() throws Exception {
+        User user = userService.createUser(LONG_ERROR_USERNAME, LONG_ERROR_USERNAME + "@example.com", "password",
+                "Csv", "User");
+        FileUpload upload = fileUploadService.saveFile(new MockMultipartFile("file", "import.csv", "text/csv",
+                new byte[0]), LONG_ERROR_USERNAME);
+        String batchFailure = "Batch entry 0 INSERT INTO transactions " + "(?, ?) ".repeat(2000) + "\nwas aborted";
+
+        fileImportService.failImport(upload, FileImportService.errorSummary(new RuntimeException(batchFailure)));
+
+        FileUpload failed = fileUploadService.getUserFiles(LONG_ERROR_USERNAME).get(0);
+        assertEquals("FAILED", failed.getStatus());
+        assertEquals(FileUpload.MAX_ERROR_DETAILS_LENGTH, failed.getErrorDetails().length());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM notification_outbox WHERE user_id = ? AND type = 'IMPORT_FINISHED'",
+                Integer.class, user.getId()));
+    }
+
+    @Test
+    void detectsProfileFromHeaderRow() {
+        User user = userService.findByUsername(PROFILE_USERNAME).orElseGet(
+                () -> userService.createUser(PROFILE_USERNAME, PROFILE_USERNAME + "@example.com", "password", "Csv", "User"));
+        ImportProfileRequest request = new ImportProfileRequest();
+        request.setName("Sparkasse");
+        request.setDelimiter(";");
+        request.setDateColumn(0);
+        request.setDescriptionColumn(1);
+        request.setAmountColumn(2);
+        request.setDatePattern("dd.MM.yyyy");
+        request.setDecimalSeparator(",");
+        request.setGroupingSeparator(".");
+        request.setHeaderLine("Buchungstag;Verwendungszweck;Betrag");
+        importProfileService.createProfile(request, PROFILE_USERNAME);
+
+        String csv = """
+                Buchungstag;Verwendungszweck;Betrag
+                01.03.2024;Supermarkt;-1.234,56
+                02.03.2024;Gehalt;2.500,00
+                31.02.2024;Invalid;1,00
+                """;
+        fileImportService.importFile(new MockMultipartFile(
+                "file", "export.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)), PROFILE_USERNAME, null);
+
+        List<String> stored = jdbcTemplate.queryForList(
+                "SELECT transaction_type || ' ' || amount FROM transactions WHERE user_id = ? ORDER BY transaction_date",
+                String.class, user.getId());
+        assertEquals(List.of("EXPENSE 1234.56", "INCOME 2500.00"), stored);
+        assertEquals(1, fileUploadService.getUserFiles(PROFILE_USERNAME).get(0).getRejectedCount());
+    }
+
+    @Test
+    void importsOfxAndQifFromZipArchive() throws Exception {
+        User user = userService.findByUsername(ARCHIVE_USERNAME).orElseGet(
+                () -> userService.createUser(ARCHIVE_USERNAME, ARCHIVE_USERNAME + "@example.com", "password", "Zip", "User"));
+        String sgmlOfx = """
+                OFXHEADER:100
+                DATA:OFXSGML
+                CHARSET:1252
+
+                <OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+                <STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20240301120000[-5:EST]<TRNAMT>-42.10<NAME>GROCER &amp; CO<MEMO>Card 1234</STMTTRN>
+                <STMTTRN><TRNTYPE>CREDIT<DTPOSTED>20240302<TRNAMT>1500.00<NAME>PAYROLL</STMTTRN>
+                <STMTTRN><TRNTYPE>DEBIT<DTPOSTED>2024<TRNAMT>-1.00<NAME>BROKEN</STMTTRN>
+                </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+                """;
+        String xmlOfx = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <?OFX OFXHEADER="200" VERSION="220"?>
+                <OFX><BANKTRANLIST>
+                  <STMTTRN><TRNTYPE>DEBIT</TRNTYPE><DTPOSTED>20240303</DTPOSTED><TRNAMT>-9.99</TRNAMT><NAME>Streaming</NAME></STMTTRN>
+                </BANKTRANLIST></OFX>
+                """;
+        String qif = """
+                !Type:Bank
+                D3/ 4'24
+                T-1,200.00
+                PLandlord
+                MRent March
+                ^
+                D3/5/2024
+                T25.00
+                PRefund
+                ^
+                """;
+        ByteArrayOutputStream zipBytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(zipBytes)) {
+            for (String[] entry : new String[][]{{"bank.ofx", sgmlOfx}, {"nested/card.qfx", xmlOfx},
+                    {"cash.qif", qif}, {"notes.txt", "ignored"}}) {
+                zip.putNextEntry(new ZipEntry(entry[0]));
+                zip.write(entry[1].getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        fileImportService.importFile(new MockMultipartFile(
+                "file", "statements.zip", "application/zip", zipBytes.toByteArray()), ARCHIVE_USERNAME, null);
+
+        List<String> stored = jdbcTemplate.queryForList(
+                "SELECT transaction_date || ' ' || transaction_type || ' ' || amount || ' ' || description " +
+                "FROM transactions WHERE user_id = ? AND source = 'BANK_IMPORT' ORDER BY transaction_date",
+                String.class, user.getId());
+        assertEquals(List.of(
+                "2024-03-01 EXPENSE 42.10 GROCER & CO - Card 1234",
+                "2024-03-02 INCOME 1500.00 PAYROLL",
+                "2024-03-03 EXPENSE 9.99 Streaming",
+                "2024-03-04 EXPENSE 1200.00 Landlord - Rent March",
+                "2024-03-05 INCOME 25.00 Refund"), stored);
+
+        FileUpload upload = fileUploadService.getUserFiles(ARCHIVE_USERNAME).get(0);
+        List<ImportRejection> rejections = fileUploadService.getRejections(upload.getId(), ARCHIVE_USERNAME);
+        assertEquals(List.of("bank.ofx:DTPOSTED", "notes.txt:null"), rejections.stream()
+                .map(r -> r.getEntryName() + ":" + r.getColumnName()).sorted().toList());
+    }
+
+    @Test
+    void importsChunkedUploadSentOutOfOrder() {
+        User user = userService.findByUsername(CHUNKED_USERNAME).orElseGet(
+                () -> userService.createUser(CHUNKED_USERNAME, CHUNKED_USERNAME + "@example.com", "password", "Chunk", "User"));
+        StringBuilder csv = new StringBuilder("date,amount,type,description\n");
+        for (int i = 0; i < 20_000; i++) {
+            csv.append("2024-03-").append(String.format("%02d", i % 28 + 1)).append(",12.50,EXPENSE,Chunked row ").append(i).append('\n');
+        }
+        byte[] content = csv.toString().getBytes(StandardCharsets.UTF_8);
+        int chunkSize = 256 * 1024;
+
+        ChunkedUpload upload = chunkedUploadService.initiate(CHUNKED_USERNAME, "large.csv", content.length, chunkSize, null);
+        // Last chunk first, then the rest with one duplicate to simulate a retry
+        int last = upload.getTotalChunks() - 1;
+        List<Integer> order = new ArrayList<>(List.of(last, 0, 0));
+        for (int i = 1; i < last; i++) {
+            order.add(i);
+        }
+        for (int index : order) {
+            int from = index * chunkSize;
+            chunkedUploadService.writeChunk(upload.getId(), index,
+                    new ByteArrayInputStream(content, from, Math.min(chunkSize, content.length - from)), CHUNKED_USERNAME);
+        }
+        ChunkedUpload completed = chunkedUploadService.complete(upload.getId(), CHUNKED_USERNAME);
+
+        assertEquals(ChunkedUpload.Status.SUCCESS, completed.getStatus());
+        assertEquals(20_000, completed.getContext().getAcceptedCount());
+        Integer stored = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM transactions WHERE user_id = ? AND file_upload_id = ?",
+                Integer.class, user.getId(), completed.getFileUploadId());
+        assertEquals(20_000, stored);
+    }
+
+    @Test
+    void limitsChunkedUploadsPerUser() throws Exception {
+        userService.createUser(LIMITED_USERNAME, LIMITED_USERNAME + "@example.com", "password", "Chunk", "User");
+        int chunkSize = 256 * 1024;
+        List<ChunkedUpload> running = List.of(
+                chunkedUploadService.initiate(LIMITED_USERNAME, "first.csv", chunkSize, chunkSize, null),
+                chunkedUploadService.initiate(LIMITED_USERNAME, "second.csv", chunkSize, chunkSize, null));
+        assertThrows(RuntimeException.class,
+                () -> chunkedUploadService.initiate(LIMITED_USERNAME, "third.csv", chunkSize, chunkSize, null));
+
+        // A finished upload frees its slot
+        running.get(0).abort();
+        running.get(0).getParseTask().get(10, TimeUnit.SECONDS);
+        running.get(1).abort();
+        chunkedUploadService.initiate(LIMITED_USERNAME, "third.csv", chunkSize, chunkSize, null).abort();
+    }
+}
@@ -0,0 +1,60 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks that the import field parsers reject invalid values by returning null, never by throwing.
+ */
+class ImportFieldParserTest {
+
+    private static final char NONE = ImportFieldParser.NO_SEPARATOR;
+
+    @Test
+    void parsesValidValues() {
+        assertEquals(LocalDate.of(2024, 2, 29), ImportFieldParser.parseIsoDate(" 2024-02-29 "));
+        assertEquals(new BigDecimal("42.50"), ImportFieldParser.parseSignedAmount("42.50", '.', NONE));
+        assertEquals(new BigDecimal("0.5"), ImportFieldParser.parseSignedAmount("+.5", '.', NONE));
+        assertEquals(new BigDecimal("-1234.5"), ImportFieldParser.parseSignedAmount("-1.234,5", ',', '.'));
+        assertEquals(LocalDate.of(2024, 3, 5), ImportFieldParser.parseDate("05-Mar-24", DateTimeFormatter.ofPattern("dd-MMM-yy", Locale.ENGLISH)));
+        assertEquals(LocalDate.of(2024, 3, 5), ImportFieldParser.parseDate("5/3/2024", DateTimeFormatter.ofPattern("d/M/yyyy")));
+        assertEquals(TransactionType.EXPENSE, ImportFieldParser.parseType("expense"));
+    }
+
+    @Test
+    void rejectsInvalidDates() {
+        for (String value : new String[]{null, "", "2023-02-29", "2024-13-01", "2024-00-10", "15/03/2024", "2024-3-15x"}) {
+            assertNull(ImportFieldParser.parseIsoDate(value), value);
+        }
+    }
+
+    @Test
+    void rejectsInvalidDatesForPatterns() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+        for (String value : new String[]{"31.04.2024", "29.02.2023", "2024-03-05", "05.03.2024 extra", "05.13.2024"}) {
+            assertNull(ImportFieldParser.parseDate(value, formatter), value);
+        }
+    }
+
+    @Test
+    void rejectsInvalidAmounts() {
+        for (String value : new String[]{null, "", ".", "--5.00", "1.234", "1,50", "1e5", "12345678901.00", "abc"}) {
+            assertNull(ImportFieldParser.parseSignedAmount(value, '.', NONE), value);
+        }
+        assertNull(ImportFieldParser.parseSignedAmount("1,234.50", ',', '.'));
+    }
+
+    @Test
+    void rejectsUnknownTypes() {
+        assertNull(ImportFieldParser.parseType("transfer"));
+        assertNull(ImportFieldParser.parseType(null));
+    }
+}
@@ -0,0 +1,58 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that mapped uploads decode like InputStreamReader, including multi-byte characters.
+ */
+class MappedFileTest {
+
+    private static final String CONTENT = "2024-03-05,12.50,EXPENSE,Café 🍕 Zürich\n";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void decodesUtf8InBulkAndCharByChar() throws IOException {
+        Path file = Files.writeString(dir.resolve("statement.csv"), CONTENT);
+        try (MappedFile mapped = MappedFile.open(file)) {
+            assertEquals(CONTENT, readAll(mapped.utf8Reader(), 8192));
+            // Single-char reads must split the surrogate pair of the emoji across calls
+            assertEquals(CONTENT, readAll(mapped.utf8Reader(), 1));
+        }
+    }
+
+    @Test
+    void replacesTruncatedTrailingCharacter() throws IOException {
+        byte[] bytes = "abc€".getBytes(StandardCharsets.UTF_8);
+        Path file = Files.write(dir.resolve("truncated.csv"), Arrays.copyOf(bytes, bytes.length - 1));
+        try (MappedFile mapped = MappedFile.open(file)) {
+            assertEquals("abc�", readAll(mapped.utf8Reader(), 8192));
+            try (InputStream in = mapped.inputStream()) {
+                assertArrayEquals(Files.readAllBytes(file), in.readAllBytes());
+            }
+        }
+    }
+
+    private static String readAll(Reader reader, int bufferSize) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[bufferSize];
+        int read;
+        while ((read = reader.read(buffer, 0, bufferSize)) != -1) {
+            text.append(buffer, 0, read);
+        }
+        return text.toString();
+    }
+}
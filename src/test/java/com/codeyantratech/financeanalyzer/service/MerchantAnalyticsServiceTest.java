@@ -0,0 +1,92 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.TransactionRepository;
+import com.codeyantratech.financeanalyzer.service.MerchantAnalyticsService.MerchantReport;
+import com.codeyantratech.financeanalyzer.support.EmbeddedPostgresTestConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seeds last month's sketch from stored expenses, keeps this month's up to date through
+ * writes and deletions, and checks the merged report over both months and the rollup.
+ */
+@SpringBootTest
+@Import(EmbeddedPostgresTestConfiguration.class)
+class MerchantAnalyticsServiceTest {
+
+    private static final String USERNAME = "merchant_user";
+
+    @Autowired
+    private MerchantAnalyticsService merchantAnalyticsService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void reportsTopMerchantsAcrossMonths() {
+        User user = userService.createUser(USERNAME, USERNAME + "@example.com", "password", "Merchant", "User");
+        YearMonth thisMonth = YearMonth.now();
+        LocalDate lastMonth = thisMonth.minusMonths(1).atDay(10);
+        // Stored without a change event, as if written before sketches existed
+        transactionRepository.save(new Transaction(user, BigDecimal.TEN, "POS NETFLIX.COM 8445052902", lastMonth,
+                TransactionType.EXPENSE));
+        for (int i = 0; i < 2; i++) {
+            transactionRepository.save(new Transaction(user, BigDecimal.TEN, "Corner Bakery", lastMonth,
+                    TransactionType.EXPENSE));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            save(user, "Netflix.com - Subscription", TransactionType.EXPENSE);
+        }
+        Transaction deleted = save(user, "Corner Bakery", TransactionType.EXPENSE);
+        save(user, "Hardware Store", TransactionType.EXPENSE);
+        save(user, "Salary ACME", TransactionType.INCOME);
+        transactionService.deleteTransaction(deleted.getId(), USERNAME);
+
+        MerchantReport current = merchantAnalyticsService.getTopMerchants(USERNAME, thisMonth, thisMonth, 10);
+        assertEquals(4, current.totalCharges());
+        assertEquals("NETFLIX", current.top().get(0).merchant());
+        assertEquals(3, current.top().get(0).count());
+
+        MerchantReport both = merchantAnalyticsService.getTopMerchants(USERNAME, thisMonth.minusMonths(1),
+                thisMonth, 2);
+        assertEquals(7, both.totalCharges());
+        assertEquals(2, both.top().size());
+        assertEquals("NETFLIX", both.top().get(0).merchant());
+        assertEquals(4, both.top().get(0).count());
+        assertEquals(0, both.top().get(0).maxError());
+        assertEquals("CORNER BAKERY", both.top().get(1).merchant());
+        assertEquals(2, both.top().get(1).count());
+        // The deleted charge still counts as a distinct merchant of this month
+        assertEquals(3, both.distinctMerchants());
+
+        // Other tests' users may share the rollup
+        merchantAnalyticsService.rollUp();
+        MerchantReport global = merchantAnalyticsService.getGlobalTopMerchants(thisMonth.minusMonths(1), thisMonth, 64);
+        assertTrue(global.top().stream().anyMatch(m -> m.merchant().equals("NETFLIX") && m.count() >= 4));
+        assertTrue(global.totalCharges() >= 7);
+    }
+
+    private Transaction save(User user, String description, TransactionType type) {
+        return transactionService.saveTransaction(new Transaction(user, new BigDecimal("9.99"), description,
+                LocalDate.now(), type));
+    }
+}
@@ -0,0 +1,93 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.model.FileUpload;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.support.EmbeddedPostgresTestConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetup;
+import jakarta.mail.Message;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Queues several notifications for one user and checks that the dispatcher delivers them
+ * as a single email through a local SMTP server and empties the outbox.
+ */
+// The test dispatches itself; the scheduled dispatcher only runs once at startup
+@SpringBootTest(properties = {"app.notifications.dispatcher.enabled=true",
+        "app.notifications.dispatcher.poll-interval-ms=3600000"})
+@Import(EmbeddedPostgresTestConfiguration.class)
+class NotificationServiceTest {
+
+    private static final String USERNAME = "notified_user";
+
+    // Listens on the default spring.mail.port; the dispatcher is only enabled in this test's context
+    @RegisterExtension
+    static final GreenMailExtension SMTP = new GreenMailExtension(new ServerSetup(1025, null, ServerSetup.PROTOCOL_SMTP));
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void coalescesPendingNotificationsPerUser() throws Exception {
+        User user = userService.createUser(USERNAME, USERNAME + "@example.com", "password", "Notified", "User");
+        FileUpload upload = new FileUpload(user, "statement.csv", 100L);
+        upload.setStatus("SUCCESS");
+        upload.setRecordsCount(12);
+        transactionTemplate.executeWithoutResult(status -> {
+            YearMonth month = YearMonth.now();
+            notificationService.onBudgetThreshold(new BudgetThresholdEvent(user.getId(), month, 50,
+                    new BigDecimal("60.00"), new BigDecimal("100.00")));
+            notificationService.onBudgetThreshold(new BudgetThresholdEvent(user.getId(), month, 80,
+                    new BigDecimal("85.00"), new BigDecimal("100.00")));
+            notificationService.notifyImportFinished(upload);
+        });
+
+        notificationService.dispatchPending();
+        assertTrue(SMTP.waitForIncomingEmail(5000, 1));
+
+        List<MimeMessage> received = Arrays.stream(SMTP.getReceivedMessages())
+                .filter(m -> hasRecipient(m, user.getEmail()))
+                .toList();
+        assertEquals(1, received.size());
+        assertEquals("3 new notifications", received.get(0).getSubject());
+        String body = GreenMailUtil.getBody(received.get(0));
+        assertTrue(body.contains("85.00"), body);
+        assertTrue(body.contains("Import of statement.csv finished"), body);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM notification_outbox WHERE user_id = ?", Integer.class, user.getId()));
+    }
+
+    private static boolean hasRecipient(MimeMessage message, String email) {
+        try {
+            return Arrays.stream(message.getRecipients(Message.RecipientType.TO))
+                    .anyMatch(a -> a.toString().equals(email));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.RecurringCadence;
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.RecurringPayment;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.support.EmbeddedPostgresTestConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Detects a monthly subscription among irregular expenses, first with a full scan and then
+ * incrementally from the watermark.
+ */
+@SpringBootTest
+@Import(EmbeddedPostgresTestConfiguration.class)
+class RecurringPaymentServiceTest {
+
+    private static final String USERNAME = "recurring_user";
+
+    @Autowired
+    private RecurringPaymentService recurringPaymentService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void detectsMonthlySubscription() {
+        User user = userService.createUser(USERNAME, USERNAME + "@example.com", "password", "Recurring", "User");
+        LocalDate today = LocalDate.now();
+        save(user, "POS NETFLIX.COM 8445052902", "15.49", today.minusMonths(3));
+        save(user, "Netflix.com - Subscription", "15.49", today.minusMonths(2));
+        save(user, "NETFLIX.COM", "17.99", today.minusMonths(1));
+        // Irregular intervals and amounts
+        save(user, "Corner Grocery", "42.10", today.minusDays(80));
+        save(user, "Corner Grocery", "8.75", today.minusDays(75));
+        save(user, "Corner Grocery", "63.00", today.minusDays(20));
+
+        assertEquals(6, recurringPaymentService.analyzeUser(user.getId()));
+        List<RecurringPayment> active = recurringPaymentService.getActive(USERNAME);
+        assertEquals(1, active.size());
+        RecurringPayment netflix = active.get(0);
+        assertEquals("NETFLIX", netflix.getMerchant());
+        assertEquals(RecurringCadence.MONTHLY, netflix.getCadence());
+        assertEquals(today.minusMonths(1).plusMonths(1), netflix.getNextExpectedDate());
+
+        // Only the new charge is read on the next run
+        save(user, "NETFLIX.COM", "17.99", today);
+        assertEquals(1, recurringPaymentService.analyzeUser(user.getId()));
+        netflix = recurringPaymentService.getActive(USERNAME).get(0);
+        assertEquals(3, netflix.getIntervalStats().getCount());
+        assertEquals(today.plusMonths(1), netflix.getNextExpectedDate());
+
+        List<RecurringPaymentService.UpcomingCharge> upcoming = recurringPaymentService.getUpcoming(USERNAME, 62);
+        assertEquals(List.of(today.plusMonths(1), today.plusMonths(1).plusMonths(1)),
+                upcoming.stream().map(RecurringPaymentService.UpcomingCharge::date).toList());
+        assertEquals(new BigDecimal("16.74"), upcoming.get(0).amount());
+    }
+
+    private void save(User user, String description, String amount, LocalDate date) {
+        transactionService.saveTransaction(new Transaction(user, new BigDecimal(amount), description, date,
+                TransactionType.EXPENSE));
+    }
+}
@@ -0,0 +1,49 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.VersionedResource;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.ResourceVersionRepository;
+import com.codeyantratech.financeanalyzer.support.EmbeddedPostgresTestConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Checks that list versions bumped by another instance reach this instance's ETags.
+ */
+@SpringBootTest
+@Import(EmbeddedPostgresTestConfiguration.class)
+class ResourceVersionServiceTest {
+
+    private static final String USERNAME = "resource_version_user";
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private ResourceVersionRepository resourceVersionRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void followsVersionsBumpedElsewhere() throws Exception {
+        User user = userService.createUser(USERNAME, USERNAME + "@example.com", "password", "Version", "User");
+        String before = resourceVersionService.etag(user.getId(), VersionedResource.FILES);
+        assertEquals(before, resourceVersionService.etag(user.getId(), VersionedResource.FILES));
+
+        // Written straight to the table, as another instance would
+        resourceVersionRepository.increment(user.getId(), VersionedResource.FILES);
+
+        String after = before;
+        for (int i = 0; i < 50 && after.equals(before); i++) {
+            Thread.sleep(100);
+            after = resourceVersionService.etag(user.getId(), VersionedResource.FILES);
+        }
+        assertNotEquals(before, after);
+    }
+}
@@ -0,0 +1,56 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.TransactionRepository;
+import com.codeyantratech.financeanalyzer.support.EmbeddedPostgresTestConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Builds up spending statistics from ordinary expenses and checks that an outsized one is
+ * flagged when written, while incomes and ordinary expenses are not.
+ */
+@SpringBootTest
+@Import(EmbeddedPostgresTestConfiguration.class)
+class SpendingAnomalyServiceTest {
+
+    private static final String USERNAME = "anomaly_user";
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void flagsOutsizedExpense() {
+        User user = userService.createUser(USERNAME, USERNAME + "@example.com", "password", "Anomaly", "User");
+        for (int i = 0; i < 12; i++) {
+            // Too few samples to compare with yet, so none of these is flagged
+            assertEquals(false, save(user, String.valueOf(40 + 2 * i), TransactionType.EXPENSE).getAnomaly());
+        }
+
+        Transaction outlier = save(user, "600.00", TransactionType.EXPENSE);
+        assertEquals(true, transactionRepository.findById(outlier.getId()).orElseThrow().getAnomaly());
+        assertEquals(false, save(user, "55.00", TransactionType.EXPENSE).getAnomaly());
+        assertNull(save(user, "3000.00", TransactionType.INCOME).getAnomaly());
+    }
+
+    private Transaction save(User user, String amount, TransactionType type) {
+        return transactionService.saveTransaction(new Transaction(user, new BigDecimal(amount), "Groceries",
+                LocalDate.now(), type));
+    }
+}
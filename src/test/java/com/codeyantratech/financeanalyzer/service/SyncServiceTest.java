@@ -0,0 +1,68 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.support.EmbeddedPostgresTestConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the sync watermark stays behind a database transaction of the application that
+ * is still open, and ignores the transactions of other applications.
+ */
+@SpringBootTest(properties = "app.sync.overlap-seconds=0")
+@Import(EmbeddedPostgresTestConfiguration.class)
+class SyncServiceTest {
+
+    private static final String USERNAME = "sync_user";
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void watermarkWaitsForOpenTransactions() throws Exception {
+        userService.createUser(USERNAME, USERNAME + "@example.com", "password", "Sync", "User");
+        LocalDateTime beforeOpen = LocalDateTime.now();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            statement.execute("SELECT 1");
+            Thread.sleep(1500);
+            LocalDateTime watermark = syncService.getChanges(USERNAME, null).watermark();
+            assertTrue(watermark.isBefore(beforeOpen.plusSeconds(1)), "Watermark " + watermark);
+            connection.rollback();
+        }
+        LocalDateTime watermark = syncService.getChanges(USERNAME, null).watermark();
+        assertFalse(watermark.isBefore(beforeOpen.plusSeconds(1)), "Watermark " + watermark);
+    }
+
+    @Test
+    void watermarkIgnoresOtherApplications() throws Exception {
+        userService.createUser(USERNAME + "_other", USERNAME + "_other@example.com", "password", "Sync", "User");
+        LocalDateTime beforeOpen = LocalDateTime.now();
+        String url = EmbeddedPostgresTestConfiguration.postgres().getJdbcUrl("postgres", "postgres")
+                + "&ApplicationName=reporting-tool";
+        try (Connection connection = DriverManager.getConnection(url); Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(false);
+            statement.execute("SELECT 1");
+            Thread.sleep(1500);
+            LocalDateTime watermark = syncService.getChanges(USERNAME + "_other", null).watermark();
+            assertFalse(watermark.isBefore(beforeOpen.plusSeconds(1)), "Watermark " + watermark);
+            connection.rollback();
+        }
+    }
+}
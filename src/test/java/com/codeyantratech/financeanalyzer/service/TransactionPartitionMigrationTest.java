@@ -0,0 +1,106 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.support.EmbeddedPostgresTestConfiguration;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.Entity;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs db/partitioning/partition_transactions.sql against a schema that Hibernate created
+ * from the entities, in a database of its own, then checks the data, new inserts and the
+ * retention detach of TransactionPartitionService on the partitioned table.
+ */
+class TransactionPartitionMigrationTest {
+
+    private static final String DATABASE = "partition_migration";
+
+    @Test
+    void migratesHibernateSchemaAndDetachesOldPartitions() throws Exception {
+        JdbcTemplate admin = new JdbcTemplate(EmbeddedPostgresTestConfiguration.postgres().getPostgresDatabase());
+        admin.execute("DROP DATABASE IF EXISTS " + DATABASE);
+        admin.execute("CREATE DATABASE " + DATABASE);
+
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setJdbcUrl(EmbeddedPostgresTestConfiguration.postgres().getJdbcUrl("postgres", DATABASE));
+            dataSource.setUsername("postgres");
+            dataSource.setPassword("postgres");
+            createSchema(dataSource);
+
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            Long userId = jdbcTemplate.queryForObject("INSERT INTO users (username, email, password) " +
+                    "VALUES ('migration', 'migration@example.com', 'x') RETURNING id", Long.class);
+            LocalDate old = LocalDate.now().withDayOfMonth(1).minusYears(2);
+            insertTransaction(jdbcTemplate, userId, old);
+            insertTransaction(jdbcTemplate, userId, LocalDate.now());
+
+            String script = new ClassPathResource("db/partitioning/partition_transactions.sql")
+                    .getContentAsString(StandardCharsets.UTF_8);
+            jdbcTemplate.execute(script);
+
+            TransactionPartitionService service = new TransactionPartitionService();
+            ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+            ReflectionTestUtils.setField(service, "transactionTemplate",
+                    new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+            ReflectionTestUtils.setField(service, "interval", "MONTHLY");
+            ReflectionTestUtils.setField(service, "detachLockTimeoutMs", 1000L);
+            assertTrue(service.isPartitioned());
+            assertEquals(2, jdbcTemplate.queryForObject("SELECT count(*) FROM transactions", Integer.class));
+            // Ids continue from the sequence created by the script
+            insertTransaction(jdbcTemplate, userId, LocalDate.now());
+            assertEquals(3, jdbcTemplate.queryForObject("SELECT count(DISTINCT id) FROM transactions", Integer.class));
+
+            List<String> detached = service.detachPartitionsBefore(old.plusMonths(1));
+            assertEquals(List.of("transactions_p" + old.getYear() + "_" + String.format("%02d", old.getMonthValue())),
+                    detached);
+            assertEquals(2, jdbcTemplate.queryForObject("SELECT count(*) FROM transactions", Integer.class));
+        } finally {
+            admin.execute("DROP DATABASE IF EXISTS " + DATABASE + " WITH (FORCE)");
+        }
+    }
+
+    // The same schema spring.jpa.hibernate.ddl-auto builds for the application
+    private static void createSchema(HikariDataSource dataSource) throws ClassNotFoundException {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource)
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "update")
+                .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, new CamelCaseToUnderscoresNamingStrategy())
+                .applySetting(AvailableSettings.IMPLICIT_NAMING_STRATEGY, new SpringImplicitNamingStrategy())
+                .build();
+        MetadataSources sources = new MetadataSources(registry);
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+        for (BeanDefinition entity : scanner.findCandidateComponents("com.codeyantratech.financeanalyzer.model")) {
+            sources.addAnnotatedClass(Class.forName(entity.getBeanClassName()));
+        }
+        try (SessionFactory ignored = sources.buildMetadata().buildSessionFactory()) {
+            // Building the factory runs the schema update
+        }
+    }
+
+    private static void insertTransaction(JdbcTemplate jdbcTemplate, Long userId, LocalDate date) {
+        jdbcTemplate.update("INSERT INTO transactions (user_id, amount, description, transaction_date, " +
+                "transaction_type) VALUES (?, 12.34, 'Migrated', ?, 'EXPENSE')", userId, java.sql.Date.valueOf(date));
+    }
+}
@@ -0,0 +1,77 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.Category;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.CategoryRepository;
+import com.codeyantratech.financeanalyzer.repository.TransactionRepository;
+import com.codeyantratech.financeanalyzer.support.EmbeddedPostgresTestConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that searches find archived transactions next to hot ones, with their categories.
+ */
+@SpringBootTest
+@Import(EmbeddedPostgresTestConfiguration.class)
+class TransactionSearchServiceTest {
+
+    private static final String USERNAME = "search_user";
+
+    @Autowired
+    private TransactionSearchService transactionSearchService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findsArchivedTransactions() {
+        User user = userService.createUser(USERNAME, USERNAME + "@example.com", "password", "Search", "User");
+        categoryService.createDefaultCategoriesForUser(user);
+        Category category = categoryRepository.findByUserOrderByNameAsc(user).get(0);
+        Transaction recent = new Transaction(user, BigDecimal.TEN, "Corner Coffee", LocalDate.now(),
+                TransactionType.EXPENSE);
+        recent.setCategory(category);
+        transactionRepository.save(recent);
+        transactionRepository.save(new Transaction(user, BigDecimal.ONE, "Bakery", LocalDate.now(),
+                TransactionType.EXPENSE));
+        LocalDate old = LocalDate.now().minusYears(3);
+        jdbcTemplate.update("INSERT INTO transactions_archive (id, user_id, category_id, amount, description, " +
+                        "transaction_date, transaction_type, source, archived_at) " +
+                        "VALUES (nextval(pg_get_serial_sequence('transactions', 'id')), ?, ?, 4.50, " +
+                        "'Coffee Coffee Roasters', ?, 'EXPENSE', 'MANUAL', now())",
+                user.getId(), category.getId(), java.sql.Date.valueOf(old));
+
+        Page<Transaction> results = transactionSearchService.search(USERNAME, "coff", 0, 20);
+
+        assertEquals(2, results.getTotalElements());
+        // The archived description mentions the term twice and ranks first
+        assertEquals(List.of("Coffee Coffee Roasters", "Corner Coffee"),
+                results.getContent().stream().map(Transaction::getDescription).toList());
+        assertEquals(List.of(category.getName(), category.getName()),
+                results.getContent().stream().map(t -> t.getCategory().getName()).toList());
+    }
+}
@@ -0,0 +1,92 @@
+package com.codeyantratech.financeanalyzer.service;
+
+import com.codeyantratech.financeanalyzer.enums.TransactionType;
+import com.codeyantratech.financeanalyzer.model.Transaction;
+import com.codeyantratech.financeanalyzer.model.User;
+import com.codeyantratech.financeanalyzer.repository.UserRepository;
+import com.codeyantratech.financeanalyzer.support.EmbeddedPostgresTestConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Imports exchange rates and checks that summaries convert each day's amounts with that
+ * day's rate, carrying rates over days without one, report amounts without a rate apart, and
+ * that transactions cannot be recorded in currencies without any rate.
+ */
+@SpringBootTest
+@Import(EmbeddedPostgresTestConfiguration.class)
+class TransactionSummaryTest {
+
+    private static final String USERNAME = "summary_user";
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    @Autowired
+    private TransactionSummaryService transactionSummaryService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void convertsAmountsToPreferredCurrency() {
+        // EUR base: units of each currency per euro
+        exchangeRateService.importRates(new StringReader("""
+                date,currency,rate
+                2021-03-05,USD,1.10
+                2021-03-05,GBP,0.80
+                2021-03-08,USD,1.20
+                """));
+        User user = userService.createUser(USERNAME, USERNAME + "@example.com", "password", "Summary", "User");
+        user.setPreferredCurrency("GBP");
+        User owner = userRepository.save(user);
+
+        // Saturday, so Friday's rates apply: 110 USD = 100 EUR = 80 GBP
+        save(owner, "110.00", "USD", LocalDate.of(2021, 3, 6), TransactionType.EXPENSE);
+        save(owner, "20.00", "GBP", LocalDate.of(2021, 3, 7), TransactionType.EXPENSE);
+        // Monday's USD rate with GBP carried over from Friday: 120 USD = 100 EUR = 80 GBP
+        save(owner, "120.00", "USD", LocalDate.of(2021, 3, 9), TransactionType.INCOME);
+        // Before the first loaded rate, so reported apart from the converted totals
+        save(owner, "55.00", "USD", LocalDate.of(2021, 3, 4), TransactionType.EXPENSE);
+        // No JPY rates at all
+        assertThrows(RuntimeException.class, () -> save(owner, "900", "JPY", LocalDate.of(2021, 3, 9),
+                TransactionType.EXPENSE));
+
+        TransactionSummaryService.Summary summary = transactionSummaryService.getSummary(USERNAME,
+                LocalDate.of(2021, 3, 1), LocalDate.of(2021, 3, 31));
+        assertEquals("GBP", summary.currency());
+        assertEquals(0, new BigDecimal("100.00").compareTo(summary.expense()));
+        assertEquals(0, new BigDecimal("80.00").compareTo(summary.income()));
+        assertEquals(1, summary.unconverted().size());
+        assertEquals("USD", summary.unconverted().get(0).currency());
+        assertEquals(0, new BigDecimal("55.00").compareTo(summary.unconverted().get(0).expense()));
+
+        // No JPY rates at all
+        assertThrows(RuntimeException.class, () -> exchangeRateService.convert(BigDecimal.TEN, "JPY", "GBP",
+                LocalDate.of(2021, 3, 9)));
+        // Before the first loaded rate
+        assertThrows(RuntimeException.class, () -> exchangeRateService.convert(BigDecimal.TEN, "USD", "GBP",
+                LocalDate.of(2021, 3, 4)));
+    }
+
+    private void save(User user, String amount, String currency, LocalDate date, TransactionType type) {
+        Transaction transaction = new Transaction(user, new BigDecimal(amount), "Trip", date, type);
+        transaction.setCurrency(currency);
+        transactionService.saveTransaction(transaction);
+    }
+}
@@ -0,0 +1,60 @@
+package com.codeyantratech.financeanalyzer.support;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Test configuration that backs the application with an embedded PostgreSQL server and
+ * routes every JDBC statement through a recording proxy.
+ * The server is started once per JVM and shared by all test contexts.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class EmbeddedPostgresTestConfiguration {
+
+    private static EmbeddedPostgres postgres;
+
+    public static synchronized EmbeddedPostgres postgres() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // JVM is exiting anyway
+                }
+            }));
+        }
+        return postgres;
+    }
+
+    @Bean
+    public SqlStatementRecorder sqlStatementRecorder() {
+        return new SqlStatementRecorder();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(SqlStatementRecorder sqlStatementRecorder) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(postgres().getJdbcUrl("postgres", "postgres"));
+        pool.setUsername("postgres");
+        pool.setPassword("postgres");
+        pool.setMaximumPoolSize(5);
+        return ProxyDataSourceBuilder.create(pool)
+                .name("test")
+                .listener(sqlStatementRecorder)
+                .build();
+    }
+}
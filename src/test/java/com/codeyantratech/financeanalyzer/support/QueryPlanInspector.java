@@ -0,0 +1,68 @@
+package com.codeyantratech.financeanalyzer.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs EXPLAIN for recorded statements and reports the tables the plan reads with a
+ * sequential scan. Plans are taken with enable_seqscan off, so a sequential scan only
+ * shows up when no usable index exists; the result does not depend on table size.
+ */
+public class QueryPlanInspector {
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public QueryPlanInspector(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public JsonNode explain(SqlStatementRecorder.RecordedStatement statement) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                try (Statement settings = connection.createStatement()) {
+                    settings.execute("SET LOCAL enable_seqscan = off");
+                }
+                try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+                    for (ParameterSetOperation operation : statement.parameters()) {
+                        operation.getMethod().invoke(explain, operation.getArgs());
+                    }
+                    try (ResultSet rs = explain.executeQuery()) {
+                        rs.next();
+                        return objectMapper.readTree(rs.getString(1)).get(0).get("Plan");
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+
+    /**
+     * Returns the relations read by a Seq Scan node anywhere in the plan.
+     */
+    public List<String> sequentialScans(JsonNode plan) {
+        List<String> relations = new ArrayList<>();
+        collect(plan, relations);
+        return relations;
+    }
+
+    private void collect(JsonNode node, List<String> relations) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            relations.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collect(child, relations);
+        }
+    }
+}
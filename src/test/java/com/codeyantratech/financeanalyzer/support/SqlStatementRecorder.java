@@ -0,0 +1,60 @@
+package com.codeyantratech.financeanalyzer.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Records the JDBC statements executed by the current thread between start() and stop().
+ * MockMvc requests and service calls run on the test thread, so the recording covers
+ * exactly the work done for one request or call.
+ */
+public class SqlStatementRecorder implements QueryExecutionListener {
+
+    private final ThreadLocal<List<RecordedStatement>> recording = new ThreadLocal<>();
+
+    public void start() {
+        recording.set(new ArrayList<>());
+    }
+
+    public List<RecordedStatement> stop() {
+        List<RecordedStatement> statements = recording.get();
+        recording.remove();
+        return statements != null ? statements : List.of();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<RecordedStatement> statements = recording.get();
+        if (statements == null) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            List<ParameterSetOperation> parameters = queryInfo.getParametersList().isEmpty()
+                    ? List.of() : List.copyOf(queryInfo.getParametersList().get(0));
+            statements.add(new RecordedStatement(queryInfo.getQuery(), parameters));
+        }
+    }
+
+    /**
+     * Formats statements one per line, for assertion messages.
+     */
+    public static String describe(List<RecordedStatement> statements) {
+        return statements.stream().map(RecordedStatement::sql).collect(Collectors.joining("\n  ", "\n  ", ""));
+    }
+
+    /**
+     * A statement with the parameter bindings of its (first) execution, enough to replay it.
+     */
+    public record RecordedStatement(String sql, List<ParameterSetOperation> parameters) {
+    }
+}